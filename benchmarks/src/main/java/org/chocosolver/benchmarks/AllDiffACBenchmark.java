@@ -0,0 +1,66 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffAC;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffInst;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PropAllDiffAC}, in its regular and fast versions, through random dives
+ * on a model made of overlapping all-different constraints.
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllDiffACBenchmark {
+
+    @Param({"false", "true"})
+    boolean fast;
+
+    /**
+     * Number of variables in each all-different constraint
+     */
+    @Param({"20", "60"})
+    int arity;
+
+    private Dives dives;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(arity);
+        Model model = new Model("alldiff");
+        int n = 3 * arity;
+        IntVar[] x = model.intVarArray("x", n, 0, arity + arity / 4, false);
+        for (int c = 0; c < 6; c++) {
+            IntVar[] scope = rnd.ints(0, n).distinct().limit(arity).mapToObj(i -> x[i]).toArray(IntVar[]::new);
+            new Constraint("ALLDIFF", new PropAllDiffInst(scope), new PropAllDiffAC(scope, fast)).post();
+        }
+        Dives.propagateRoot(model);
+        dives = new Dives(model, x, 0);
+    }
+
+    @Benchmark
+    public int propagate() {
+        return dives.dive();
+    }
+}
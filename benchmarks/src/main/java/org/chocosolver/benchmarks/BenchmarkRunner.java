@@ -0,0 +1,52 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks.
+ * <p>
+ * It accepts the same arguments as JMH (e.g., a regexp to select benchmarks, "-p param=value", ...)
+ * but, unless stated otherwise with "-rf" and "-rff", results are always stored in a JSON file,
+ * named after the version of choco-solver under test, so that two versions can be compared.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar Trailing -rff trailing.json
+ * </pre>
+ * </p>
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result("jmh-choco-" + version() + ".json");
+        }
+        new Runner(builder.build()).run();
+    }
+
+    private static String version() {
+        String v = org.chocosolver.solver.Model.class.getPackage().getImplementationVersion();
+        return v == null ? "dev" : v;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.constraints.extension.nary.PropCompactTable;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PropCompactTable}: its construction and its filtering through random dives
+ * on a network of random positive tables.
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactTableBenchmark {
+
+    /**
+     * Number of tuples per table
+     */
+    @Param({"1000", "10000"})
+    int tuples;
+
+    /**
+     * Arity of each table
+     */
+    @Param({"3", "6"})
+    int arity;
+
+    private static final int N = 30;
+    private static final int D = 10;
+    private static final int NB_TABLES = 20;
+
+    private Tuples[] relations;
+    private int[][] scopes;
+    private Dives dives;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(tuples * 7 + arity);
+        relations = new Tuples[NB_TABLES];
+        scopes = new int[NB_TABLES][arity];
+        for (int t = 0; t < NB_TABLES; t++) {
+            relations[t] = new Tuples(true);
+            for (int i = 0; i < tuples; i++) {
+                int[] tuple = new int[arity];
+                for (int j = 0; j < arity; j++) {
+                    tuple[j] = rnd.nextInt(D);
+                }
+                relations[t].add(tuple);
+            }
+            for (int j = 0; j < arity; j++) {
+                scopes[t][j] = rnd.nextInt(N);
+            }
+        }
+        Model model = new Model("table");
+        IntVar[] x = model.intVarArray("x", N, 0, D - 1, false);
+        post(model, x);
+        Dives.propagateRoot(model);
+        dives = new Dives(model, x, 0);
+    }
+
+    private void post(Model model, IntVar[] x) {
+        for (int t = 0; t < NB_TABLES; t++) {
+            IntVar[] scope = new IntVar[arity];
+            for (int j = 0; j < arity; j++) {
+                scope[j] = x[scopes[t][j]];
+            }
+            new Constraint("CT", new PropCompactTable(scope, relations[t])).post();
+        }
+    }
+
+    @Benchmark
+    public int propagate() {
+        return dives.dive();
+    }
+
+    @Benchmark
+    public Model build() {
+        Model model = new Model("table");
+        post(model, model.intVarArray("x", N, 0, D - 1, false));
+        return model;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Random;
+
+/**
+ * Random dives from the root node, used by benchmarks that focus on propagation.
+ * <p>
+ * A dive pushes a world, instantiates the next uninstantiated variable (in a predefined order)
+ * to a pre-drawn value, propagates and repeats until a failure occurs or all variables are instantiated.
+ * Then, all worlds are popped, so that two consecutive dives start from the same root node.
+ * Since variables order and values are drawn once, a dive is deterministic.
+ * </p>
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+final class Dives {
+
+    private final Model model;
+    private final IntVar[] vars;
+    private final int[] order;
+    private final int[] pivots;
+
+    /**
+     * @param model the model to dive in, root propagation is expected to be done
+     * @param vars  the decision variables
+     * @param seed  seed for variables order and value selection
+     */
+    Dives(Model model, IntVar[] vars, long seed) {
+        this.model = model;
+        this.vars = vars;
+        Random rnd = new Random(seed);
+        this.order = new int[vars.length];
+        this.pivots = new int[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            order[i] = i;
+            pivots[i] = vars[i].getLB() + rnd.nextInt(vars[i].getUB() - vars[i].getLB() + 1);
+        }
+        for (int i = vars.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+    }
+
+    /**
+     * Run one dive.
+     *
+     * @return the depth reached, negated if the dive ends on a failure
+     */
+    int dive() {
+        IEnvironment env = model.getEnvironment();
+        int root = env.getWorldIndex();
+        int depth = 0;
+        boolean fail = false;
+        for (int k = 0; k < order.length && !fail; k++) {
+            IntVar var = vars[order[k]];
+            if (var.isInstantiated()) {
+                continue;
+            }
+            int val = var.nextValue(pivots[order[k]] - 1);
+            if (val == Integer.MAX_VALUE) {
+                val = var.getUB();
+            }
+            env.worldPush();
+            depth++;
+            try {
+                var.instantiateTo(val, Cause.Null);
+                model.getSolver().propagate();
+            } catch (ContradictionException e) {
+                model.getSolver().getEngine().flush();
+                fail = true;
+            }
+        }
+        env.worldPopUntil(root);
+        return fail ? -depth : depth;
+    }
+
+    /**
+     * Propagate the model at root node, in a dedicated world.
+     *
+     * @param model a model
+     * @throws IllegalStateException if the model is trivially infeasible
+     */
+    static void propagateRoot(Model model) {
+        model.getEnvironment().worldPush();
+        try {
+            model.getSolver().propagate();
+        } catch (ContradictionException e) {
+            throw new IllegalStateException("The benchmark model is trivially infeasible", e);
+        }
+    }
+}
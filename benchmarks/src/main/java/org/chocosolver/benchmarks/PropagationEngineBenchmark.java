@@ -0,0 +1,69 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.DefaultSettings;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link org.chocosolver.solver.propagation.PropagationEngine#propagate()} on a random
+ * network mixing binary, ternary and global constraints, through random dives.
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropagationEngineBenchmark {
+
+    @Param({"50", "200"})
+    int n;
+
+    @Param({"0", "1", "2"})
+    byte hybrid;
+
+    private Dives dives;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Model model = new Model("engine", new DefaultSettings().setHybridizationOfPropagationEngine(hybrid));
+        Random rnd = new Random(n);
+        IntVar[] x = model.intVarArray("x", n, 0, n / 2, false);
+        for (int i = 0; i < 2 * n; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            if (a != b) {
+                model.arithm(x[a], "!=", x[b]).post();
+            }
+        }
+        for (int i = 0; i < n / 2; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n), c = rnd.nextInt(n);
+            model.scalar(new IntVar[]{x[a], x[b], x[c]}, new int[]{1, 1, -1}, "<=", n / 4).post();
+        }
+        for (int i = 0; i < n; i += 10) {
+            model.sum(new IntVar[]{x[i], x[(i + 3) % n], x[(i + 7) % n], x[(i + 9) % n]}, "<=", n).post();
+        }
+        Dives.propagateRoot(model);
+        dives = new Dives(model, x, 0);
+    }
+
+    @Benchmark
+    public int propagate() {
+        return dives.dive();
+    }
+}
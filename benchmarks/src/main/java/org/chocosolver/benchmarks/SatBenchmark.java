@@ -0,0 +1,148 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.sat.SatSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the unit propagation of {@link SatSolver} on DIMACS CNF inputs.
+ * <p>
+ * The input is either the file given with {@link #dimacs}, or a random 3-SAT instance
+ * of {@link #vars} variables at the phase transition (4.26 clauses per variable).
+ * One operation consists in assigning every variable, in a random order and with a random polarity,
+ * backtracking to the root on each failure.
+ * </p>
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SatBenchmark {
+
+    /**
+     * Path to a DIMACS CNF file, or empty to generate a random 3-SAT instance
+     */
+    @Param({""})
+    String dimacs;
+
+    /**
+     * Number of variables of the random instance
+     */
+    @Param({"1000", "50000"})
+    int vars;
+
+    private String cnf;
+    private SatSolver sat;
+    private int[] order;
+    private Random rnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (dimacs.isEmpty()) {
+            cnf = random3SAT(vars, (int) (vars * 4.26), new Random(vars));
+        } else {
+            cnf = new String(Files.readAllBytes(Paths.get(dimacs)));
+        }
+        sat = load(new StringReader(cnf));
+        order = new int[(int) sat.numvars()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        rnd = new Random(0);
+    }
+
+    @Benchmark
+    public int propagate() {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        int fails = 0;
+        for (int v : order) {
+            if (!sat.propagateOneLiteral(SatSolver.makeLiteral(v, rnd.nextBoolean()))) {
+                fails++;
+                sat.cancelUntil(0);
+                sat.touched_variables_.resetQuick();
+            }
+        }
+        sat.cancelUntil(0);
+        sat.touched_variables_.resetQuick();
+        return fails;
+    }
+
+    @Benchmark
+    public SatSolver load() throws IOException {
+        return load(new StringReader(cnf));
+    }
+
+    /**
+     * Read a DIMACS CNF input and add its clauses to a new SAT solver.
+     */
+    private static SatSolver load(Reader reader) throws IOException {
+        SatSolver solver = new SatSolver();
+        TIntArrayList clause = new TIntArrayList();
+        try (BufferedReader br = new BufferedReader(reader)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == 'c' || line.charAt(0) == '%') {
+                    continue;
+                }
+                if (line.charAt(0) == 'p') {
+                    int n = Integer.parseInt(line.split("\\s+")[2]);
+                    for (int i = 0; i < n; i++) {
+                        solver.newVariable();
+                    }
+                    continue;
+                }
+                for (String tok : line.split("\\s+")) {
+                    int l = Integer.parseInt(tok);
+                    if (l == 0) {
+                        solver.addClause(clause);
+                        clause.resetQuick();
+                    } else {
+                        clause.add(SatSolver.makeLiteral(Math.abs(l) - 1, l < 0));
+                    }
+                }
+            }
+        }
+        return solver;
+    }
+
+    private static String random3SAT(int n, int m, Random rnd) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("p cnf ").append(n).append(' ').append(m).append('\n');
+        for (int c = 0; c < m; c++) {
+            for (int k = 0; k < 3; k++) {
+                sb.append(rnd.nextBoolean() ? "-" : "").append(rnd.nextInt(n) + 1).append(' ');
+            }
+            sb.append("0\n");
+        }
+        return sb.toString();
+    }
+}
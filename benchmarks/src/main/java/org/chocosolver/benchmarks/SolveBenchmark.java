@@ -0,0 +1,163 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.examples.AbstractProblem;
+import org.chocosolver.examples.integer.CarSequencing;
+import org.chocosolver.examples.integer.GolombRuler;
+import org.chocosolver.examples.integer.RLFAP;
+import org.chocosolver.examples.nqueen.NQueenBinary;
+import org.chocosolver.examples.nqueen.NQueenGlobal;
+import org.chocosolver.pf4cs.SetUpException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full resolutions, from model declaration to the end of the search,
+ * on some of the problems provided in the examples module.
+ * <p>
+ * RLFAP instances are not shipped with choco-solver, so a random instance that follows the
+ * CELAR format is generated on setup.
+ * </p>
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SolveBenchmark {
+
+    @Param({"NQueenBinary", "NQueenGlobal", "GolombRuler", "RLFAP", "CarSequencing"})
+    String problem;
+
+    private String[] args;
+
+    private Path rlfap;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        switch (problem) {
+            case "NQueenBinary":
+            case "NQueenGlobal":
+                args = new String[]{"-q", "12"};
+                break;
+            case "GolombRuler":
+                args = new String[]{"-m", "9"};
+                break;
+            case "RLFAP":
+                rlfap = Files.createTempDirectory("rlfap");
+                generateRLFAP(rlfap, 60, 200, new Random(0));
+                args = new String[]{"-d", rlfap.toString()};
+                break;
+            case "CarSequencing":
+                args = new String[]{"-d", "P4_72"};
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown problem " + problem);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (rlfap != null) {
+            try (java.util.stream.Stream<Path> files = Files.list(rlfap)) {
+                files.forEach(f -> {
+                    try {
+                        Files.delete(f);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            Files.delete(rlfap);
+        }
+    }
+
+    @Benchmark
+    public long solve() throws SetUpException {
+        AbstractProblem pb = make();
+        pb.setUp(args);
+        pb.buildModel();
+        pb.configureSearch();
+        pb.solve();
+        return pb.getModel().getSolver().getNodeCount();
+    }
+
+    private AbstractProblem make() {
+        switch (problem) {
+            case "NQueenBinary":
+                return new NQueenBinary();
+            case "NQueenGlobal":
+                return new NQueenGlobal();
+            case "GolombRuler":
+                return new GolombRuler();
+            case "RLFAP":
+                return new RLFAP();
+            case "CarSequencing":
+                return new CarSequencing();
+            default:
+                throw new IllegalArgumentException("Unknown problem " + problem);
+        }
+    }
+
+    /**
+     * Generate a random RLFAP instance, in CELAR format, in <i>dir</i>.
+     *
+     * @param dir  target directory
+     * @param n    number of links
+     * @param m    number of interferences
+     * @param rnd  random number generator
+     * @throws IOException if a file cannot be written
+     */
+    private static void generateRLFAP(Path dir, int n, int m, Random rnd) throws IOException {
+        try (PrintWriter dom = new PrintWriter(Files.newBufferedWriter(dir.resolve("dom.txt")))) {
+            // domain 0 is made of 'even' frequencies, domain 1 of 'odd' ones
+            for (int d = 0; d < 2; d++) {
+                dom.print(d);
+                dom.print(" 20");
+                for (int f = 0; f < 20; f++) {
+                    dom.print(" ");
+                    dom.print(14 * f + 16 + 7 * d);
+                }
+                dom.println();
+            }
+        }
+        try (PrintWriter var = new PrintWriter(Files.newBufferedWriter(dir.resolve("var.txt")))) {
+            for (int i = 1; i <= n; i++) {
+                var.println(i + " " + rnd.nextInt(2));
+            }
+        }
+        try (PrintWriter ctr = new PrintWriter(Files.newBufferedWriter(dir.resolve("ctr.txt")))) {
+            for (int c = 0; c < m; c++) {
+                int i = 1 + rnd.nextInt(n);
+                int j = 1 + rnd.nextInt(n);
+                if (i == j) {
+                    continue;
+                }
+                if (c % 10 == 0) {
+                    ctr.println(i + " " + j + " D = " + (7 * (1 + rnd.nextInt(3))));
+                } else {
+                    ctr.println(i + " " + j + " D > " + (7 + rnd.nextInt(50)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.constraints.nary.sum.PropScalar;
+import org.chocosolver.solver.constraints.nary.sum.PropSum;
+import org.chocosolver.solver.variables.IntVar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PropSum} and {@link PropScalar} through random dives on
+ * a set of overlapping linear equations and inequalities.
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SumBenchmark {
+
+    @Param({"sum", "scalar"})
+    String propagator;
+
+    /**
+     * Number of variables in each linear constraint
+     */
+    @Param({"10", "100"})
+    int arity;
+
+    private static final int N = 200;
+    private static final int NB_CSTRS = 40;
+
+    private Dives dives;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(arity);
+        Model model = new Model("sum");
+        IntVar[] x = model.intVarArray("x", N, 0, 20, true);
+        for (int c = 0; c < NB_CSTRS; c++) {
+            int[] idx = rnd.ints(0, N).distinct().limit(arity).toArray();
+            IntVar[] scope = Arrays.stream(idx).mapToObj(i -> x[i]).toArray(IntVar[]::new);
+            Operator op = c % 2 == 0 ? Operator.LE : Operator.GE;
+            int b = op == Operator.LE ? 12 * arity : 8 * arity;
+            if ("sum".equals(propagator)) {
+                new Constraint("SUM", new PropSum(scope, arity, op, b)).post();
+            } else {
+                // positive coefficients first, then negative ones
+                int pos = arity / 2;
+                int[] coeffs = new int[arity];
+                for (int i = 0; i < arity; i++) {
+                    coeffs[i] = (i < pos ? 1 : -1) * (1 + rnd.nextInt(5));
+                }
+                new Constraint("SCALAR", new PropScalar(scope, coeffs, pos, op, op == Operator.LE ? 5 * arity : -5 * arity)).post();
+            }
+        }
+        Dives.propagateRoot(model);
+        dives = new Dives(model, x, 0);
+    }
+
+    @Benchmark
+    public int propagate() {
+        return dives.dive();
+    }
+}
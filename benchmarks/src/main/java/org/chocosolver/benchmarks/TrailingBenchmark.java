@@ -0,0 +1,125 @@
+/*
+ * This file is part of benchmarks, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.benchmarks;
+
+import org.chocosolver.memory.EnvironmentBuilder;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IEnvironment#worldPush()} and {@link IEnvironment#worldPop()},
+ * and the trailing of stored objects in between, for the different trails.
+ * <p>
+ * One operation consists in going down to depth {@link #depth}, modifying {@link #updates}
+ * stored objects (possibly several times each) in each world, and then going back to the root world.
+ * </p>
+ *
+ * @author Charles Prud'homme
+ * @since 28/11/2019
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrailingBenchmark {
+
+    @Param({"flat", "chunk", "indexed", "copying"})
+    String trail;
+
+    @Param({"10", "100"})
+    int depth;
+
+    @Param({"8", "128"})
+    int updates;
+
+    private static final int SIZE = 4096;
+
+    private IEnvironment env;
+    private IStateInt[] ints;
+    private IStateLong[] longs;
+    private IStateBool[] bools;
+    private int[] touched;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EnvironmentBuilder builder = new EnvironmentBuilder();
+        switch (trail) {
+            case "flat":
+                env = builder.fromFlat().build();
+                break;
+            case "chunk":
+                env = builder.fromChunk().build();
+                break;
+            case "indexed":
+                env = builder.fromIndexed().build();
+                break;
+            case "copying":
+                env = builder.buildCopying();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown trail " + trail);
+        }
+        ints = new IStateInt[SIZE];
+        longs = new IStateLong[SIZE];
+        bools = new IStateBool[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            ints[i] = env.makeInt(i);
+            longs[i] = env.makeLong(i);
+            bools[i] = env.makeBool(false);
+        }
+        Random rnd = new Random(depth * 31 + updates);
+        touched = new int[depth * updates];
+        for (int i = 0; i < touched.length; i++) {
+            touched[i] = rnd.nextInt(SIZE);
+        }
+    }
+
+    @Benchmark
+    public int pushAndPop() {
+        int root = env.getWorldIndex();
+        for (int d = 0, k = 0; d < depth; d++) {
+            env.worldPush();
+            for (int u = 0; u < updates; u++, k++) {
+                int i = touched[k];
+                ints[i].add(1);
+                longs[i].set(longs[i].get() + 2);
+                bools[i].set(!bools[i].get());
+                // the second modification in the same world must not be trailed again
+                ints[i].add(1);
+            }
+        }
+        int sum = ints[touched[0]].get();
+        while (env.getWorldIndex() > root) {
+            env.worldPop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int pushAndPopEmpty() {
+        int root = env.getWorldIndex();
+        for (int d = 0; d < depth; d++) {
+            env.worldPush();
+        }
+        int w = env.getWorldIndex();
+        while (env.getWorldIndex() > root) {
+            env.worldPop();
+        }
+        return w;
+    }
+}
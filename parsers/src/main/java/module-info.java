@@ -21,9 +21,11 @@ module org.chocosolver.parsers {
     requires xcsp3.tools;
     requires args4j;
     requires java.sql;
+    requires java.xml;
     requires antlr4.runtime;
     requires trove4j;
     
     opens org.chocosolver.parser to args4j;
     opens org.chocosolver.parser.mps to args4j;
+    opens org.chocosolver.parser.dimacs to args4j;
 }
\ No newline at end of file
@@ -9,6 +9,7 @@
  */
 package org.chocosolver.parser;
 
+import org.chocosolver.parser.dimacs.ChocoDIMACS;
 import org.chocosolver.parser.flatzinc.ChocoFZN;
 import org.chocosolver.parser.mps.ChocoMPS;
 import org.chocosolver.parser.xcsp.ChocoXCSP;
@@ -33,7 +34,8 @@ public class Parser {
             "0: automatic -- based on file name extension (compression is allowed), " +
             "1: FlatZinc (.fzn)," +
             "2: XCSP3 (.xml)," +
-            "3: MPS (.mps)")
+            "3: MPS (.mps)," +
+            "5: DIMACS (.cnf, .wcnf)")
     private int pa = 0;
 
     public static void main(String[] args) throws Exception {
@@ -75,6 +77,10 @@ public class Parser {
                     pa = 3;
                     break;
                 }
+                if (part.equals("cnf") || part.equals("wcnf")) {
+                    pa = 5;
+                    break;
+                }
             }
             switch (pa) {
                 case 1:
@@ -86,6 +92,9 @@ public class Parser {
                 case 3:
                     ChocoMPS.main(args);
                     break;
+                case 5:
+                    ChocoDIMACS.main(args);
+                    break;
             }
         }
     }
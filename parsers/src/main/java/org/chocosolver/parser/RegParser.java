@@ -37,6 +37,8 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 import static org.chocosolver.solver.search.strategy.Search.lastConflict;
 
@@ -61,7 +63,8 @@ public abstract class RegParser implements IParser {
         "1: FlatZinc (.fzn)," +
         "2: XCSP3 (.xml)," +
         "3: MPS (.mps)," +
-        "4: JSON (.json).")
+        "4: JSON (.json)," +
+        "5: DIMACS (.cnf, .wcnf).")
     private int pa = 0;
 
     @Option(name = "-tl", aliases = {"--time-limit"}, metaVar = "TL", usage = "Time limit.")
@@ -194,6 +197,23 @@ public abstract class RegParser implements IParser {
         }
     }
 
+    /**
+     * Call <i>builder</i> on the index of each model declared in the portfolio.
+     * When more than one model is declared, they are built concurrently,
+     * so that the time spent in building the models does not grow with the number of workers.
+     * Consequently, <i>builder</i> must only depend on shared read-only data.
+     *
+     * @param builder builds the i-th model of the portfolio
+     */
+    protected final void buildModels(IntConsumer builder) {
+        int n = portfolio.getModels().size();
+        if (n == 1) {
+            builder.accept(0);
+        } else {
+            IntStream.range(0, n).parallel().forEach(builder);
+        }
+    }
+
     /**
      * Create a complementary search on non-decision variables
      *
@@ -346,6 +366,13 @@ public abstract class RegParser implements IParser {
         return m;
     }
 
+    /**
+     * @return the models declared in the portfolio, one per core
+     */
+    public final List<Model> getModels() {
+        return portfolio.getModels();
+    }
+
     public final int bestModelID() {
         Model best = getModel();
         for (int i = 0; i < nb_cores; i++) {
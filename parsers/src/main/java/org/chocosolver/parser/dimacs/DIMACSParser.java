@@ -0,0 +1,410 @@
+/*
+ * This file is part of choco-parsers, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.parser.dimacs;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import org.chocosolver.parser.ParserException;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.nary.sat.PropSat;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A streaming parser for DIMACS CNF and weighted CNF (WCNF) files.
+ * <p>
+ * The file is read through a NIO channel, in chunks of {@link #BUFFER_SIZE} bytes,
+ * and tokenized by hand, so that clauses are never materialized as strings.
+ * Each clause is added to the model as soon as it is read:
+ * when SAT is enabled in the settings, literals are given directly to the SAT propagator,
+ * otherwise, {@link Model#addClauses(BoolVar[], BoolVar[])} is called.
+ * <p>
+ * In WCNF, a clause whose weight is greater than or equal to <i>top</i> (or prefixed by <i>h</i>) is hard.
+ * A soft clause is relaxed with a boolean variable and the weighted sum of the relaxation variables is minimized.
+ * <p>
+ * Files ending with <i>.gz</i> are decompressed on the fly.
+ * <p> Project: choco-parsers.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class DIMACSParser {
+
+    /**
+     * Size of the reading buffer
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private ReadableByteChannel channel;
+    private int pos;
+    private int limit;
+    /**
+     * The current character, -1 once the end of file is reached
+     */
+    private int c;
+
+    private Model model;
+    private PropSat sat;
+    /**
+     * DIMACS variables, the i-th one stands for the variable <i>i+1</i>
+     */
+    private BoolVar[] vars = new BoolVar[0];
+    private int nbVars;
+    /**
+     * SAT literals of the DIMACS variables, negative one in 2i, positive one in 2i+1
+     */
+    private int[] literals = new int[0];
+    private int[] clause = new int[16];
+    private int size;
+    private final TIntArrayList lits = new TIntArrayList();
+
+    private boolean weighted;
+    private long top = Long.MAX_VALUE;
+    private final List<BoolVar> relaxations = new ArrayList<>();
+    private final TLongArrayList weights = new TLongArrayList();
+    /**
+     * Sum of the weights of the empty soft clauses
+     */
+    private long offset;
+
+    /**
+     * Parse <i>instance</i> and add its variables and clauses to <i>model</i>.
+     * The file is considered weighted when its header is <i>p wcnf</i>
+     * or when its name contains <i>.wcnf</i>.
+     *
+     * @param model    the target model
+     * @param instance path to a DIMACS file, possibly gzipped
+     * @throws IOException if the file cannot be read
+     */
+    public void model(Model model, String instance) throws IOException {
+        this.model = model;
+        this.weighted = instance.contains(".wcnf");
+        if (model.getSettings().enableSAT()) {
+            sat = model.getMinisat().getPropSat();
+            sat.beforeAddingClauses();
+        }
+        if (instance.endsWith(".gz")) {
+            channel = Channels.newChannel(new GZIPInputStream(Files.newInputStream(Paths.get(instance)), BUFFER_SIZE));
+        } else {
+            channel = FileChannel.open(Paths.get(instance), StandardOpenOption.READ);
+        }
+        try {
+            read();
+        } finally {
+            channel.close();
+        }
+        if (sat != null) {
+            sat.afterAddingClauses();
+        }
+        if (!relaxations.isEmpty() || offset > 0) {
+            postObjective();
+        }
+    }
+
+    private void read() throws IOException {
+        c = next();
+        while (true) {
+            skipSpaces();
+            switch (c) {
+                case -1:
+                case '%': // end marker of some SATLIB files
+                    return;
+                case 'c':
+                    skipLine();
+                    break;
+                case 'p':
+                    c = next();
+                    readHeader();
+                    break;
+                case 'h':
+                    c = next();
+                    readClause();
+                    postHard();
+                    break;
+                default:
+                    if (weighted) {
+                        long w = readNumber();
+                        readClause();
+                        if (w >= top) {
+                            postHard();
+                        } else {
+                            postSoft(w);
+                        }
+                    } else {
+                        readClause();
+                        postHard();
+                    }
+            }
+        }
+    }
+
+    private void readHeader() throws IOException {
+        skipBlanks();
+        StringBuilder format = new StringBuilder();
+        while (c != -1 && !Character.isWhitespace(c)) {
+            format.append((char) c);
+            c = next();
+        }
+        switch (format.toString()) {
+            case "cnf":
+                weighted = false;
+                break;
+            case "wcnf":
+                weighted = true;
+                break;
+            default:
+                throw new ParserException("Unknown format \"" + format + "\"");
+        }
+        skipBlanks();
+        ensureVariables((int) readNumber());
+        skipBlanks();
+        readNumber(); // number of clauses, not needed
+        skipBlanks();
+        if (weighted && c >= '0' && c <= '9') {
+            top = readNumber();
+        }
+        skipLine();
+    }
+
+    /**
+     * Read literals up to the next 0 (or the end of file) into {@link #clause}.
+     */
+    private void readClause() throws IOException {
+        size = 0;
+        while (true) {
+            skipSpaces();
+            if (c == -1) {
+                return;
+            }
+            long l = readNumber();
+            if (l == 0) {
+                return;
+            }
+            if (l > Integer.MAX_VALUE || l < -Integer.MAX_VALUE) {
+                throw new ParserException("Variable index out of range: " + l);
+            }
+            ensureVariables((int) Math.abs(l));
+            if (size == clause.length) {
+                clause = Arrays.copyOf(clause, size * 2);
+            }
+            clause[size++] = (int) l;
+        }
+    }
+
+    private void postHard() {
+        if (size == 0) {
+            model.falseConstraint().post();
+        } else if (sat != null) {
+            lits.resetQuick();
+            for (int i = 0; i < size; i++) {
+                int l = clause[i];
+                lits.add(literals[2 * (Math.abs(l) - 1) + (l > 0 ? 1 : 0)]);
+            }
+            sat.addClause(lits);
+        } else {
+            addClauses(null);
+        }
+    }
+
+    private void postSoft(long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        if (size == 0) {
+            offset += weight;
+            return;
+        }
+        BoolVar relax;
+        if (size == 1) {
+            // the clause is violated iff its literal is false
+            int l = clause[0];
+            relax = l > 0 ? vars[l - 1].not() : vars[-l - 1];
+        } else {
+            relax = model.boolVar("r_" + (relaxations.size() + 1));
+            if (sat != null) {
+                lits.resetQuick();
+                lits.add(sat.makeLiteral(relax, true));
+                for (int i = 0; i < size; i++) {
+                    int l = clause[i];
+                    lits.add(literals[2 * (Math.abs(l) - 1) + (l > 0 ? 1 : 0)]);
+                }
+                sat.addClause(lits);
+            } else {
+                addClauses(relax);
+            }
+        }
+        relaxations.add(relax);
+        weights.add(weight);
+    }
+
+    /**
+     * Add the current clause, extended with <i>relax</i> if not null, through the model.
+     */
+    private void addClauses(BoolVar relax) {
+        int r = relax == null ? 0 : 1;
+        int p = 0;
+        for (int i = 0; i < size; i++) {
+            if (clause[i] > 0) p++;
+        }
+        BoolVar[] pos = new BoolVar[p + r];
+        BoolVar[] neg = new BoolVar[size - p];
+        p = 0;
+        int n = 0;
+        if (relax != null) {
+            pos[p++] = relax;
+        }
+        for (int i = 0; i < size; i++) {
+            int l = clause[i];
+            if (l > 0) {
+                pos[p++] = vars[l - 1];
+            } else {
+                neg[n++] = vars[-l - 1];
+            }
+        }
+        model.addClauses(pos, neg);
+    }
+
+    private void postObjective() {
+        long total = offset;
+        for (int i = 0; i < weights.size(); i++) {
+            total += weights.get(i);
+        }
+        if (total > IntVar.MAX_INT_BOUND) {
+            throw new ParserException("Sum of soft clause weights is too large: " + total);
+        }
+        int[] coeffs = new int[weights.size()];
+        for (int i = 0; i < coeffs.length; i++) {
+            coeffs[i] = (int) weights.get(i);
+        }
+        IntVar cost = model.intVar("cost", (int) offset, (int) total, true);
+        model.scalar(relaxations.toArray(new BoolVar[0]), coeffs, "=", model.intOffsetView(cost, (int) -offset)).post();
+        model.setObjective(Model.MINIMIZE, cost);
+    }
+
+    /**
+     * Create the DIMACS variables up to <i>n</i>, if not already done.
+     */
+    private void ensureVariables(int n) {
+        if (n <= nbVars) {
+            return;
+        }
+        if (n > vars.length) {
+            int capacity = Math.max(n, nbVars + (nbVars >> 1));
+            vars = Arrays.copyOf(vars, capacity);
+            literals = Arrays.copyOf(literals, 2 * capacity);
+        }
+        for (int i = nbVars; i < n; i++) {
+            vars[i] = model.boolVar("x" + (i + 1));
+            if (sat != null) {
+                literals[2 * i] = sat.makeLiteral(vars[i], false);
+                literals[2 * i + 1] = sat.makeLiteral(vars[i], true);
+            }
+        }
+        nbVars = n;
+    }
+
+    /**
+     * @return the DIMACS variables, the i-th one stands for the variable <i>i+1</i>
+     */
+    public BoolVar[] getVariables() {
+        return Arrays.copyOf(vars, nbVars);
+    }
+
+    /**
+     * @return a solution line in DIMACS format, based on the current values of the variables
+     */
+    public String printSolution() {
+        StringBuilder st = new StringBuilder("v");
+        for (int i = 0; i < nbVars; i++) {
+            st.append(' ');
+            if (vars[i].getValue() == 0) {
+                st.append('-');
+            }
+            st.append(i + 1);
+        }
+        st.append(" 0\n");
+        return st.toString();
+    }
+
+    // TOKENIZER
+
+    private int next() throws IOException {
+        if (pos == limit) {
+            buffer.clear();
+            int n;
+            do {
+                n = channel.read(buffer);
+            } while (n == 0);
+            if (n < 0) {
+                limit = pos = 0;
+                return -1;
+            }
+            pos = 0;
+            limit = n;
+        }
+        return bytes[pos++] & 0xFF;
+    }
+
+    /**
+     * Skip spaces, tabs and line breaks.
+     */
+    private void skipSpaces() throws IOException {
+        while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+            c = next();
+        }
+    }
+
+    /**
+     * Skip spaces and tabs, but not line breaks.
+     */
+    private void skipBlanks() throws IOException {
+        while (c == ' ' || c == '\t') {
+            c = next();
+        }
+    }
+
+    private void skipLine() throws IOException {
+        while (c != '\n' && c != -1) {
+            c = next();
+        }
+    }
+
+    private long readNumber() throws IOException {
+        boolean neg = false;
+        if (c == '-') {
+            neg = true;
+            c = next();
+        }
+        if (c < '0' || c > '9') {
+            throw new ParserException(c == -1 ? "Unexpected end of file" : "Unexpected character '" + (char) c + "'");
+        }
+        long v = 0;
+        do {
+            v = v * 10 + (c - '0');
+            c = next();
+        } while (c >= '0' && c <= '9');
+        return neg ? -v : v;
+    }
+}
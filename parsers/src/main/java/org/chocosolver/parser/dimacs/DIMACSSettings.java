@@ -0,0 +1,30 @@
+/*
+ * This file is part of choco-parsers, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.parser.dimacs;
+
+import org.chocosolver.solver.DefaultSettings;
+
+/**
+ * Default settings for DIMACS inputs: clauses are stored in the SAT solver
+ * and pure CNF instances are delegated to its CDCL search.
+ * <p> Project: choco-parsers.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class DIMACSSettings extends DefaultSettings {
+
+    public DIMACSSettings() {
+        this.setWarnUser(false);
+        this.setCheckDeclaredConstraints(false);
+        this.setEnableSAT(true);
+        this.setDelegateToSATSolver(true);
+    }
+}
@@ -23,7 +23,6 @@ import org.kohsuke.args4j.Option;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.nio.file.Paths;
 import java.util.List;
@@ -116,14 +115,16 @@ public class Flatzinc extends RegParser {
     public void buildModel() {
         listeners.forEach(ParserListener::beforeParsingFile);
         List<Model> models = portfolio.getModels();
-        for (int i = 0; i < models.size(); i++) {
-            try {
-                FileInputStream fileInputStream = new FileInputStream(new File(instance));
-                parse(models.get(i), datas[i], fileInputStream);
-                fileInputStream.close();
-            } catch (IOException e) {
-                throw new Error(e.getMessage());
+        try (FileInputStream fileInputStream = new FileInputStream(new File(instance))) {
+            if (models.size() == 1) {
+                parse(models.get(0), datas[0], fileInputStream);
+            } else {
+                // the instance is read and tokenized once, then the models are built concurrently
+                List<Token> tokens = tokenize(fileInputStream);
+                buildModels(i -> parse(models.get(i), datas[i], tokens));
             }
+        } catch (IOException e) {
+            throw new Error(e.getMessage());
         }
         listeners.forEach(ParserListener::afterParsingFile);
     }
@@ -133,6 +134,23 @@ public class Flatzinc extends RegParser {
         Flatzinc4Lexer lexer = new Flatzinc4Lexer(input);
         lexer.setTokenFactory(new CommonTokenFactory(true));
         TokenStream tokens = new UnbufferedTokenStream<CommonToken>(lexer);
+        parse(target, data, tokens);
+    }
+
+    /**
+     * Parse a list of tokens, as returned by {@link #tokenize(InputStream)}, and build the model.
+     * The list can be shared by concurrent calls: tokens are only re-indexed to the position
+     * they already have in the list.
+     *
+     * @param target the model to build
+     * @param data   mapping between the model and the instance
+     * @param tokens the tokenized instance
+     */
+    public void parse(Model target, Datas data, List<Token> tokens) {
+        parse(target, data, new CommonTokenStream(new ListTokenSource(tokens)));
+    }
+
+    private void parse(Model target, Datas data, TokenStream tokens) {
         Flatzinc4Parser parser = new Flatzinc4Parser(tokens);
         parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
         parser.setBuildParseTree(false);
@@ -140,6 +158,22 @@ public class Flatzinc extends RegParser {
         parser.flatzinc_model(target, data, all, free);
     }
 
+    /**
+     * Read and tokenize a FlatZinc instance.
+     *
+     * @param is input stream of the instance
+     * @return the list of tokens, the last one being {@link Token#EOF}
+     */
+    public static List<Token> tokenize(InputStream is) {
+        CharStream input = new UnbufferedCharStream(is);
+        Flatzinc4Lexer lexer = new Flatzinc4Lexer(input);
+        // tokens must hold their own text since the char stream is not buffered
+        lexer.setTokenFactory(new CommonTokenFactory(true));
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        tokens.fill();
+        return tokens.getTokens();
+    }
+
     @Override
     public void solve() {
         listeners.forEach(ParserListener::beforeSolving);
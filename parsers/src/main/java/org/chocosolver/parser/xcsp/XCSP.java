@@ -10,6 +10,7 @@
 package org.chocosolver.parser.xcsp;
 
 import org.chocosolver.cutoffseq.LubyCutoffStrategy;
+import org.chocosolver.parser.ParserException;
 import org.chocosolver.parser.ParserListener;
 import org.chocosolver.parser.RegParser;
 import org.chocosolver.solver.Model;
@@ -19,9 +20,11 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
 import org.kohsuke.args4j.Option;
+import org.w3c.dom.Document;
 import org.xcsp.checker.SolutionChecker;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -96,21 +99,51 @@ public class XCSP extends RegParser {
     public void buildModel() {
         listeners.forEach(ParserListener::beforeParsingFile);
         List<Model> models = portfolio.getModels();
-        for (int i = 0; i < models.size(); i++) {
-            try {
-                parse(models.get(i), parsers[i], i);
-            } catch (Exception e) {
-                if(PRINT_LOG)System.out.printf("s UNSUPPORTED\n");
-                if(PRINT_LOG)System.out.printf("c %s\n", e.getMessage());
-                e.printStackTrace();
-                throw new RuntimeException("UNSUPPORTED");
+        try {
+            if (!new File(instance).exists()) {
+                throw new RuntimeException("FILE DOES NOT EXIST");
             }
+            // the instance is read once, then the models are built concurrently.
+            // A DOM document is not thread-safe, even for reading, so each model gets its own copy
+            // and each parser builds its own XParser from it.
+            Document[] documents = new Document[models.size()];
+            documents[0] = XCSPParser.load(instance);
+            for (int i = 1; i < documents.length; i++) {
+                documents[i] = (Document) documents[0].cloneNode(true);
+            }
+            buildModels(i -> parse(models.get(i), parsers[i], documents[i], i));
+        } catch (Exception e) {
+            if(PRINT_LOG)System.out.printf("s UNSUPPORTED\n");
+            if(PRINT_LOG)System.out.printf("c %s\n", e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("UNSUPPORTED");
         }
         listeners.forEach(ParserListener::afterParsingFile);
     }
 
     public void parse(Model target, XCSPParser parser, int i) throws Exception {
         parser.model(target, instance);
+        configure(target, parser, i);
+    }
+
+    /**
+     * Build the i-th model from an instance already loaded.
+     *
+     * @param target   the model to build
+     * @param parser   the callbacks dedicated to <i>target</i>
+     * @param document the loaded instance, dedicated to <i>target</i>
+     * @param i        index of the model in the portfolio
+     */
+    public void parse(Model target, XCSPParser parser, Document document, int i) {
+        try {
+            parser.model(target, document);
+        } catch (Exception e) {
+            throw new ParserException(e.getMessage(), e);
+        }
+        configure(target, parser, i);
+    }
+
+    private void configure(Model target, XCSPParser parser, int i) {
         if (i == 0) {
             IntVar[] decVars = (IntVar[]) getModel().getHook("decisions");;
             if(decVars == null){
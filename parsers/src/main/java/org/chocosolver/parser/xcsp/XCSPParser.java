@@ -35,6 +35,7 @@ import org.xcsp.common.Types;
 import org.xcsp.common.predicates.XNode;
 import org.xcsp.common.predicates.XNodeParent;
 import org.xcsp.parser.XCallbacks2;
+import org.w3c.dom.Document;
 import org.xcsp.parser.entries.XConstraints;
 import org.xcsp.parser.entries.XVariables;
 
@@ -61,6 +62,14 @@ public class XCSPParser implements XCallbacks2 {
     private static final String S_VALU_IN = "v \t<values>";
     private static final String S_VALU_OUT = "</values>\n";
 
+    /**
+     * Tuples built from the tables of a parsed instance.
+     * Tables are shared by constraints of a group, so are the (immutable) tuples,
+     * and thus the supports computed by table propagators.
+     * Tables are weakly referenced (and compared by identity).
+     */
+    private static final Map<int[][], Tuples[]> TUPLES = new WeakHashMap<>();
+
     /**
      * Mapping between XCSP vars and Choco vars
      */
@@ -74,17 +83,42 @@ public class XCSPParser implements XCallbacks2 {
     Implem implem;
 
     public void model(Model model, String instance) throws Exception {
-        this.model = model;
-        this.mvars = new HashMap<>();
-        this.implem = new Implem(this);
         File file = new File(instance);
         if(file.exists()){
-            loadInstance(instance);
+            model(model, loadDocument(instance));
         }else{
             throw new RuntimeException("FILE DOES NOT EXIST");
         }
     }
 
+    /**
+     * Build the model from an instance already loaded by {@link #load(String)}.
+     * A DOM document is not thread-safe, even for reading,
+     * so models built concurrently must each be given their own document.
+     *
+     * @param model    the model to build
+     * @param document the loaded instance
+     * @throws Exception if the instance cannot be parsed
+     */
+    public void model(Model model, Document document) throws Exception {
+        this.model = model;
+        this.mvars = new HashMap<>();
+        this.implem = new Implem(this);
+        loadInstance(document);
+    }
+
+    /**
+     * Read an XCSP3 instance, possibly compressed, into a DOM document.
+     *
+     * @param instance path to the instance
+     * @return the loaded instance
+     * @throws Exception if the instance cannot be read
+     */
+    public static Document load(String instance) throws Exception {
+        // loadDocument does not depend on the state of the callbacks
+        return new XCSPParser().loadDocument(instance);
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     /////////////////////////////////////////// VARIABLES //////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -303,15 +337,27 @@ public class XCSPParser implements XCallbacks2 {
         if (flags.contains(Types.TypeFlag.UNCLEAN_TUPLES)) {
             // do you have to clean the tuples, so as to remove those that cannot be built from variable domains ?
         }
-        Tuples mTuples = new Tuples(tuples, positive);
-        if (flags.contains(Types.TypeFlag.STARRED_TUPLES)) {
-            if(!positive){
-                // can you manage tables with symbol * ?
-                throw new ParserException("Negative tables with symbol * are not supported");
+        boolean starred = flags.contains(Types.TypeFlag.STARRED_TUPLES);
+        if (starred && !positive) {
+            // can you manage tables with symbol * ?
+            throw new ParserException("Negative tables with symbol * are not supported");
+        }
+        model.table(vars(list), tuples(tuples, positive, starred)).post();
+    }
+
+    private static Tuples tuples(int[][] tuples, boolean positive, boolean starred) {
+        int k = (positive ? 1 : 0) + (starred ? 2 : 0);
+        synchronized (TUPLES) {
+            Tuples[] shared = TUPLES.computeIfAbsent(tuples, t -> new Tuples[4]);
+            if (shared[k] == null) {
+                shared[k] = new Tuples(tuples, positive);
+                if (starred) {
+                    shared[k].setUniversalValue(STAR_INT);
+                }
+                shared[k].makeImmutable();
             }
-            mTuples.setUniversalValue(STAR_INT);
+            return shared[k];
         }
-        model.table(vars(list), mTuples).post();
     }
 
     @Override
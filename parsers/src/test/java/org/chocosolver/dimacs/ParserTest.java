@@ -0,0 +1,82 @@
+/*
+ * This file is part of choco-parsers, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.dimacs;
+
+import org.chocosolver.parser.dimacs.DIMACS;
+import org.chocosolver.pf4cs.SetUpException;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.SearchState;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * <p> Project: choco-parsers.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class ParserTest {
+
+    @DataProvider(name = "sat")
+    public Object[][] sat() {
+        return new Object[][]{{true}, {false}};
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "sat")
+    public void testCNF1(boolean sat) throws SetUpException {
+        Solver solver = run("dimacs/sat.cnf", sat).getModel().getSolver();
+        Assert.assertEquals(solver.getSearchState(), SearchState.TERMINATED);
+        Assert.assertEquals(solver.getSolutionCount(), 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "sat")
+    public void testCNF2(boolean sat) throws SetUpException {
+        Solver solver = run("dimacs/unsat.cnf", sat).getModel().getSolver();
+        Assert.assertEquals(solver.getSearchState(), SearchState.TERMINATED);
+        Assert.assertEquals(solver.getSolutionCount(), 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "sat")
+    public void testCNF3(boolean sat) throws SetUpException {
+        // a comment holding a 0xFF byte must not be mistaken for the end of the file
+        Solver solver = run("dimacs/latin1.cnf", sat).getModel().getSolver();
+        Assert.assertEquals(solver.getModel().getNbVars(), run("dimacs/sat.cnf", sat).getModel().getNbVars());
+        Assert.assertEquals(solver.getSearchState(), SearchState.TERMINATED);
+        Assert.assertEquals(solver.getSolutionCount(), 1);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "sat")
+    public void testWCNF1(boolean sat) throws SetUpException {
+        Solver solver = run("dimacs/maxsat.wcnf", sat).getModel().getSolver();
+        Assert.assertEquals(solver.getSearchState(), SearchState.TERMINATED);
+        Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue().intValue(), 3);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "sat")
+    public void testWCNF2(boolean sat) throws SetUpException {
+        Solver solver = run("dimacs/maxsat.new.wcnf", sat).getModel().getSolver();
+        Assert.assertEquals(solver.getSearchState(), SearchState.TERMINATED);
+        Assert.assertEquals(solver.getObjectiveManager().getBestSolutionValue().intValue(), 3);
+    }
+
+    private DIMACS run(String resource, boolean sat) throws SetUpException {
+        ClassLoader cl = this.getClass().getClassLoader();
+        String file = cl.getResource(resource).getFile();
+        DIMACS dimacs = new DIMACS();
+        dimacs.setUp(file, "-tl", "60s");
+        dimacs.getSettings().setEnableSAT(sat);
+        dimacs.createSolver();
+        dimacs.buildModel();
+        dimacs.configureSearch();
+        dimacs.solve();
+        return dimacs;
+    }
+}
@@ -9,12 +9,17 @@
  */
 package org.chocosolver.parser.flatzinc;
 
+import org.antlr.v4.runtime.Token;
 import org.chocosolver.solver.Model;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
 
 /*
 * User : CPRUDHOM
@@ -95,4 +100,31 @@ public class FlatzincModelTest {
         Assert.assertEquals(model.getSolver().getSolutionCount(), 1);
     }
 
+    @Test(groups = "1s")
+    public void testTokenizedOnce() throws IOException {
+        String fzn = "array[1 .. 3] of var 1 .. 3: q::output_array([1..3]);\n" +
+                "constraint int_ne(q[1], q[2]);\n" +
+                "constraint int_ne(q[2], q[3]);\n" +
+                "solve satisfy;";
+        List<Token> tokens = Flatzinc.tokenize(new ByteArrayInputStream(fzn.getBytes()));
+        Assert.assertEquals(tokens.get(tokens.size() - 1).getType(), Token.EOF);
+
+        File file = File.createTempFile("tokenized", ".fzn");
+        file.deleteOnExit();
+        Files.write(file.toPath(), fzn.getBytes());
+        Flatzinc parser = new Flatzinc(true, false, 4, -1);
+        parser.addListener(new BaseFlatzincListener(parser));
+        parser.instance = file.getAbsolutePath();
+        parser.createSolver();
+        parser.buildModel();
+        List<Model> models = parser.getModels();
+        Assert.assertEquals(models.size(), 4);
+        for (Model model : models) {
+            Assert.assertEquals(model.getNbVars(), models.get(0).getNbVars());
+            Assert.assertEquals(model.getNbCstrs(), models.get(0).getNbCstrs());
+            while (model.getSolver().solve()) ;
+            Assert.assertEquals(model.getSolver().getSolutionCount(), 12);
+        }
+    }
+
 }
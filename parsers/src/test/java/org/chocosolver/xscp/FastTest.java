@@ -10,11 +10,14 @@
 package org.chocosolver.xscp;
 
 import org.chocosolver.parser.xcsp.XCSP;
+import org.chocosolver.parser.xcsp.XCSPParser;
+import org.chocosolver.solver.Model;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.util.List;
 
 /**
  * <p>
@@ -36,6 +39,29 @@ public class FastTest {
 //        execute(name,nbsol,bval,nbnod,complet,true);
 //    }
 
+    @Test(groups = "1s", timeOut = 60000)
+    public void testParsedOnce() throws Exception {
+        ClassLoader cl = this.getClass().getClassLoader();
+        String file = cl.getResource(basics + "MagicSquare-4-table.xml.lzma").getFile();
+        XCSP xscp = new XCSP();
+        xscp.setUp(file, "-p", "3");
+        xscp.createSolver();
+        xscp.buildModel();
+        // the reference model is built the regular way
+        Model ref = new Model();
+        new XCSPParser().model(ref, file);
+        List<Model> models = xscp.getModels();
+        Assert.assertEquals(models.size(), 3);
+        for (int i = 0; i < models.size(); i++) {
+            Model model = models.get(i);
+            Assert.assertEquals(model.getNbVars(), ref.getNbVars());
+            if (i > 0) { // the first model may be completed with nogoods
+                Assert.assertEquals(model.getNbCstrs(), ref.getNbCstrs());
+            }
+            Assert.assertTrue(model.getSolver().solve());
+        }
+    }
+
     private void execute(String name, int nbsol, int bval, int nbnod, boolean complet, boolean exp) throws Exception {
         ClassLoader cl = this.getClass().getClassLoader();
         String file = cl.getResource(name).getFile();
@@ -15,5 +15,6 @@
  */
 module org.chocosolver.sat {
     requires trove4j;
+    requires org.chocosolver.cutoffseq;
     exports org.chocosolver.sat to org.chocosolver.solver;
 }
\ No newline at end of file
@@ -12,15 +12,20 @@ package org.chocosolver.sat;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntObjectHashMap;
+import org.chocosolver.cutoffseq.LubyCutoffStrategy;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.function.BooleanSupplier;
 
 /**
  * A MiniSat solver.
  * <p>
  * (or-tools, booleans.cc, ty L. Perron).
+ * <p>
+ * It can be used as a clause store with unit propagation ({@link #propagateOneLiteral(int)}
+ * and {@link #cancelUntil(int)}), or as a standalone CDCL solver ({@link #solve(BooleanSupplier)}):
+ * 1-UIP conflict analysis, VSIDS branching with phase saving, Luby restarts
+ * and reduction of the learnt clauses based on their LBD.
  * <br/>
  *
  * @author Charles Prud'homme
@@ -34,20 +39,68 @@ public class SatSolver implements SatFactory {
      */
     private static final int kUndefinedLiteral = -2;
 
+    /**
+     * Size of the header of a clause in {@link #arena_}: its number of literals, then its LBD
+     * (0 for problem clauses, {@link #kDeleted} once detached).
+     */
+    private static final int kHeader = 2;
+
+    /**
+     * LBD of a detached clause.
+     */
+    private static final int kDeleted = -1;
+
+    /**
+     * Reason of a decision, or of a fact.
+     * A literal implied by a clause has the offset of this clause as reason,
+     * a literal 'q' implied by a binary clause (-p or q) has '-2 - p' as reason.
+     */
+    private static final int kNoReason = -1;
+
+    /**
+     * VSIDS decay factor.
+     */
+    private static final double kVarDecay = 0.95;
+
+    /**
+     * Scale factor of the Luby restart sequence.
+     */
+    private static final int kRestartFirst = 100;
+
+    /**
+     * Learnt clauses with an LBD less than or equal to this value are never removed.
+     */
+    private static final int kGlue = 2;
+
+    /**
+     * Values of a variable, as stored in {@link #assignment_}, see {@link Boolean}.
+     */
+    private static final byte kTrue = 0, kFalse = 1, kUndefined = 2;
+
     // If false, the constraints are already unsatisfiable. No part of
     // the solver state may be used!
     public boolean ok_;
-    // List of problem addClauses.
-    public ArrayList<Clause> clauses;
-    // List of learnt addClauses.
-    public ArrayList<Clause> learnts;
+    // All clauses of size > 2, flatten: the size of a clause followed by its literals.
+    // A clause is referred to by its offset in the arena.
+    private int[] arena_;
+    // Point to the first free cell of 'arena_'.
+    private int arena_size_;
+    // Number of cells occupied by detached clauses.
+    private int wasted_;
+    // List of problem addClauses (offsets in 'arena_').
+    public TIntArrayList clauses;
+    // List of learnt addClauses (offsets in 'arena_').
+    public TIntArrayList learnts;
     // 'watches_[lit]' is a list of constraints watching 'lit'(will go
-    // there if literal becomes true).
-    private TIntObjectHashMap<ArrayList<Watcher>> watches_;
+    // there if literal becomes true). A watcher is two consecutive cells:
+    // the blocker, then the offset of the clause.
+    private int[][] watches_;
+    // 'watch_sizes_[lit]' is the number of cells used in 'watches_[lit]'.
+    private int[] watch_sizes_;
     // implies_[lit] is a list of literals to set to true if 'lit' becomes true.
     public TIntObjectHashMap<TIntArrayList> implies_;
-    // The current assignments.
-    TIntObjectHashMap<Boolean> assignment_;
+    // The current assignments, indexed by variable.
+    private byte[] assignment_;
     // Assignment stack; stores all assigments made in the order they
     // were made.
     TIntArrayList trail_;
@@ -61,20 +114,56 @@ public class SatSolver implements SatFactory {
     private TIntArrayList temporary_add_vector_;
     public TIntArrayList touched_variables_;
 
+    // The reason of each assigned variable (see kNoReason).
+    private int[] reason_;
+    // The decision level of each assigned variable.
+    private int[] level_;
+    // The last polarity of each variable: 0 if it was set to true, 1 otherwise.
+    private byte[] polarity_;
+    // The VSIDS activity of each variable.
+    private double[] activity_;
+    // The amount to bump an activity with.
+    private double var_inc_;
+    // The unassigned variables, ordered by decreasing activity, only built by 'solve'.
+    private VarHeap order_;
+    // The last found model, indexed by variable.
+    private byte[] model_;
+    // The conflicting clause: an offset in 'arena_', or '-2 - p' for a binary clause (-p or 'conflict_lit_').
+    private int conflict_;
+    private int conflict_lit_;
+    // Temporary data of conflict analysis.
+    private byte[] seen_;
+    private final TIntArrayList learnt_clause_;
+    private int[] level_stamps_;
+    private int stamp_;
+    // Maximum number of learnt clauses before a reduction.
+    private double max_learnts_;
+    // Statistics of the search
+    public long conflicts_, decisions_, restarts_;
+
 
     public SatSolver() {
         this.ok_ = true;
         this.qhead_ = 0;
         num_vars_ = 0;
-        this.clauses = new ArrayList<>();
-        this.learnts = new ArrayList<>();
-        this.watches_ = new TIntObjectHashMap<>();
+        this.arena_ = new int[1024];
+        this.clauses = new TIntArrayList();
+        this.learnts = new TIntArrayList();
+        this.watches_ = new int[32][];
+        this.watch_sizes_ = new int[32];
         this.implies_ = new TIntObjectHashMap<>();
-        this.assignment_ = new TIntObjectHashMap<>();
+        this.assignment_ = new byte[16];
         this.trail_ = new TIntArrayList();
         this.trail_markers_ = new TIntArrayList();
         this.temporary_add_vector_ = new TIntArrayList();
         this.touched_variables_ = new TIntArrayList();
+        this.reason_ = new int[16];
+        this.level_ = new int[16];
+        this.polarity_ = new byte[16];
+        this.activity_ = new double[16];
+        this.seen_ = new byte[16];
+        this.var_inc_ = 1.;
+        this.learnt_clause_ = new TIntArrayList();
     }
 
     @Override
@@ -85,9 +174,25 @@ public class SatSolver implements SatFactory {
     // Add a new variable.
     public int newVariable() {
         int v = incrementVariableCounter();
-//            watches_.resize(2 * v + 2);
-//        implies_.resize(2 * v.value() + 2);
-        assignment_.put(v, Boolean.kUndefined);
+        if (v == assignment_.length) {
+            int n = v * 3 / 2 + 1;
+            assignment_ = Arrays.copyOf(assignment_, n);
+            reason_ = Arrays.copyOf(reason_, n);
+            level_ = Arrays.copyOf(level_, n);
+            polarity_ = Arrays.copyOf(polarity_, n);
+            activity_ = Arrays.copyOf(activity_, n);
+            seen_ = Arrays.copyOf(seen_, n);
+        }
+        if (2 * v + 2 > watches_.length) {
+            int n = Math.max(2 * v + 2, watches_.length * 3 / 2);
+            watches_ = Arrays.copyOf(watches_, n);
+            watch_sizes_ = Arrays.copyOf(watch_sizes_, n);
+        }
+        assignment_[v] = kUndefined;
+        polarity_[v] = 1;
+        if (order_ != null) {
+            order_.insert(v);
+        }
         return v;
     }
 
@@ -138,7 +243,7 @@ public class SatSolver implements SatFactory {
                 i1.add(l0);
                 break;
             default:
-                Clause cr = new Clause(ps.toArray());
+                int cr = allocClause(ps.toArray());
                 clauses.add(cr);
                 attachClause(cr);
                 break;
@@ -161,7 +266,7 @@ public class SatSolver implements SatFactory {
                 dynUncheckedEnqueue(ps[0]);
                 return (ok_ = propagate());
             default:
-                Clause cr = new Clause(ps);
+                int cr = allocClause(ps);
                 learnts.add(cr);
                 attachClause(cr);
                 break;
@@ -209,8 +314,13 @@ public class SatSolver implements SatFactory {
     public void cancelUntil(int level) {
         if (trailMarker() > level) {
             for (int c = trail_.size() - 1; c >= trail_markers_.get(level); c--) {
-                int x = var(trail_.get(c));
-                assignment_.put(x, Boolean.kUndefined);
+                int l = trail_.get(c);
+                int x = var(l);
+                assignment_[x] = kUndefined;
+                polarity_[x] = (byte) (l & 1);
+                if (order_ != null) {
+                    order_.insert(x);
+                }
             }
             qhead_ = trail_markers_.get(level);
             trail_.remove(trail_markers_.get(level), trail_.size() - trail_markers_.get(level));
@@ -225,13 +335,28 @@ public class SatSolver implements SatFactory {
 
     // The current value of a variable.
     Boolean valueVar(int x) {
-        return assignment_.get(x);
+        return Boolean.make(assignment_[x]);
     }
 
     // The current value of a literal.
     Boolean valueLit(int l) {
-        Boolean b = assignment_.get(var(l));
-        return b == Boolean.kUndefined ? Boolean.kUndefined : xor(b, sign(l));
+        return Boolean.make(litValue(l));
+    }
+
+    // The current value of a literal, as a byte (see Boolean).
+    private byte litValue(int l) {
+        byte b = assignment_[var(l)];
+        return b == kUndefined ? kUndefined : (byte) (b ^ (l & 1));
+    }
+
+    // The number of literals of the clause stored at 'cr'.
+    public int clauseSize(int cr) {
+        return arena_[cr];
+    }
+
+    // The i-th literal of the clause stored at 'cr'.
+    public int clauseLiteral(int cr, int i) {
+        return arena_[cr + kHeader + i];
     }
 
     // The current number of original clauses.
@@ -262,7 +387,9 @@ public class SatSolver implements SatFactory {
         pushTrailMarker();
         // Unchecked enqueue
         assert valueLit(lit) == Boolean.kUndefined;
-        assignment_.put(var(lit), makeBoolean(!sign(lit)));
+        assignment_[var(lit)] = (byte) (lit & 1);
+        reason_[var(lit)] = kNoReason;
+        level_[var(lit)] = trailMarker();
         trail_.add(lit);
         return propagate();
     }
@@ -279,11 +406,19 @@ public class SatSolver implements SatFactory {
 
     // Enqueue a literal. Assumes value of literal is undefined.
     void uncheckedEnqueue(int l) {
+        uncheckedEnqueue(l, kNoReason);
+    }
+
+    // Enqueue a literal with its reason. Assumes value of literal is undefined.
+    private void uncheckedEnqueue(int l, int reason) {
         assert valueLit(l) == Boolean.kUndefined;
-        if (assignment_.get(var(l)) == Boolean.kUndefined) {
+        int x = var(l);
+        if (assignment_[x] == kUndefined) {
             touched_variables_.add(l);
         }
-        assignment_.put(var(l), sign(l) ? Boolean.kFalse : Boolean.kTrue);
+        assignment_[x] = (byte) (l & 1);
+        reason_[x] = reason;
+        level_[x] = trailMarker();
         trail_.add(l);
     }
 
@@ -293,50 +428,113 @@ public class SatSolver implements SatFactory {
 
 
     // Test if fact 'p' contradicts current state, Enqueue otherwise.
-    private boolean enqueue(int l) {
-        if (valueLit(l) != Boolean.kUndefined) {
-            return valueLit(l) != Boolean.kFalse;
+    private boolean enqueue(int l, int reason) {
+        byte v = litValue(l);
+        if (v != kUndefined) {
+            return v != kFalse;
         } else {
-            uncheckedEnqueue(l);
+            uncheckedEnqueue(l, reason);
             return true;
         }
     }
 
+    // Store a clause in the arena, returns its offset.
+    private int allocClause(int[] ps) {
+        return allocClause(ps, ps.length);
+    }
+
+    // Store the first 'size' literals of 'ps' as a clause in the arena, returns its offset.
+    private int allocClause(int[] ps, int size) {
+        int cr = arena_size_;
+        int nsize = cr + kHeader + size;
+        if (nsize > arena_.length) {
+            arena_ = Arrays.copyOf(arena_, Math.max(nsize, arena_.length * 3 / 2));
+        }
+        arena_[cr] = size;
+        arena_[cr + 1] = 0;
+        System.arraycopy(ps, 0, arena_, cr + kHeader, size);
+        arena_size_ = nsize;
+        return cr;
+    }
+
     // Attach a clause to watcher lists.
-    private void attachClause(Clause cr) {
-        assert cr.size() > 1;
-        ArrayList<Watcher> l0 = watches_.get(negated(cr._g(0)));
-        if (l0 == null) {
-            l0 = new ArrayList<>();
-            watches_.put(negated(cr._g(0)), l0);
+    private void attachClause(int cr) {
+        assert clauseSize(cr) > 1;
+        int l0 = arena_[cr + kHeader];
+        int l1 = arena_[cr + kHeader + 1];
+        addWatch(negated(l0), l1, cr);
+        addWatch(negated(l1), l0, cr);
+    }
+
+    // Add a watcher of clause 'cr' to the list of 'lit'.
+    private void addWatch(int lit, int blocker, int cr) {
+        int[] ws = watches_[lit];
+        int n = watch_sizes_[lit];
+        if (ws == null) {
+            ws = watches_[lit] = new int[8];
+        } else if (n == ws.length) {
+            ws = watches_[lit] = Arrays.copyOf(ws, n * 2);
         }
-        ArrayList<Watcher> l1 = watches_.get(negated(cr._g(1)));
-        if (l1 == null) {
-            l1 = new ArrayList<>();
-            watches_.put(negated(cr._g(1)), l1);
+        ws[n] = blocker;
+        ws[n + 1] = cr;
+        watch_sizes_[lit] = n + 2;
+    }
+
+    // Remove the watcher of clause 'cr' from the list of 'lit'.
+    private void removeWatch(int lit, int cr) {
+        int[] ws = watches_[lit];
+        int n = watch_sizes_[lit];
+        int i = n - 1;
+        while (i > 0 && ws[i] != cr) {
+            i -= 2;
         }
-        l0.add(new Watcher(cr, cr._g(1)));
-        l1.add(new Watcher(cr, cr._g(0)));
+        assert i > 0;
+        System.arraycopy(ws, i + 1, ws, i - 1, n - i - 1);
+        watch_sizes_[lit] = n - 2;
     }
 
     public void detachLearnt(int ci) {
-        Clause cr = learnts.get(ci);
-        learnts.remove(ci);
+        int cr = learnts.removeAt(ci);
+        removeWatch(negated(arena_[cr + kHeader]), cr);
+        removeWatch(negated(arena_[cr + kHeader + 1]), cr);
+        arena_[cr + 1] = kDeleted;
+        wasted_ += kHeader + arena_[cr];
+        if (2 * wasted_ >= arena_size_) {
+            garbageCollect();
+        }
+    }
 
-        ArrayList<Watcher> ws = watches_.get(negated(cr._g(0)));
-        int i = ws.size() - 1;
-        while (i >= 0 && ws.get(i).clause != cr) {
-            i--;
+    // Compact the arena by removing detached clauses, then rebuild the watcher lists.
+    private void garbageCollect() {
+        int[] to = new int[Math.max(1024, arena_size_ - wasted_)];
+        int size = 0;
+        for (TIntArrayList list : new TIntArrayList[]{clauses, learnts}) {
+            for (int i = 0; i < list.size(); i++) {
+                int cr = list.getQuick(i);
+                int len = kHeader + arena_[cr];
+                System.arraycopy(arena_, cr, to, size, len);
+                list.setQuick(i, size);
+                // forward the old offset to the new one, detached clauses keep kDeleted
+                arena_[cr + 1] = size;
+                size += len;
+            }
+        }
+        for (int i = 0; i < trail_.size(); i++) {
+            int x = var(trail_.getQuick(i));
+            if (reason_[x] >= 0) {
+                reason_[x] = arena_[reason_[x] + 1];
+            }
+        }
+        arena_ = to;
+        arena_size_ = size;
+        wasted_ = 0;
+        Arrays.fill(watch_sizes_, 0);
+        for (int i = 0; i < clauses.size(); i++) {
+            attachClause(clauses.getQuick(i));
         }
-        assert i > -1;
-        ws.remove(i);
-        ws = watches_.get(negated(cr._g(1)));
-        i = ws.size() - 1;
-        while (i >= 0 && ws.get(i).clause != cr) {
-            i--;
+        for (int i = 0; i < learnts.size(); i++) {
+            attachClause(learnts.getQuick(i));
         }
-        assert i > -1;
-        ws.remove(i);
     }
 
     // Perform unit propagation. returns true upon success.
@@ -356,48 +554,46 @@ public class SatSolver implements SatFactory {
     private boolean propagateClauses(int p) {
         boolean result = true;
         // 'p' is enqueued fact to propagate.
-        ArrayList<Watcher> ws = watches_.get(p);
-
+        final int[] ws = watches_[p];
+        final int size = watch_sizes_[p];
+        final int[] arena = arena_;
+        final int false_lit = negated(p);
         int i = 0;
         int j = 0;
-        while (ws != null && i < ws.size()) {
+        while (i < size) {
             // Try to avoid inspecting the clause:
-            int blocker = ws.get(i).blocker;
-            if (valueLit(blocker) == Boolean.kTrue) {
-                ws.set(j++, ws.get(i++));
+            int blocker = ws[i];
+            int cr = ws[i + 1];
+            i += 2;
+            if (litValue(blocker) == kTrue) {
+                ws[j++] = blocker;
+                ws[j++] = cr;
                 continue;
             }
 
             // Make sure the false literal is data[1]:
-            Clause cr = ws.get(i).clause;
-            final int false_lit = negated(p);
-            if (cr._g(0) == false_lit) {
-                cr._s(0, cr._g(1));
-                cr._s(1, false_lit);
+            int c0 = cr + kHeader;
+            if (arena[c0] == false_lit) {
+                arena[c0] = arena[c0 + 1];
+                arena[c0 + 1] = false_lit;
             }
-            assert (cr._g(1) == false_lit);
-            i++;
+            assert (arena[c0 + 1] == false_lit);
 
             // If 0th watch is true, then clause is already satisfied.
-            final int first = cr._g(0);
-            Watcher w = new Watcher(cr, first);
-            if (first != blocker && valueLit(first) == Boolean.kTrue) {
-                ws.set(j++, w);
+            final int first = arena[c0];
+            if (first != blocker && litValue(first) == kTrue) {
+                ws[j++] = first;
+                ws[j++] = cr;
                 continue;
             }
 
             // Look for new watch:
             boolean cont = false;
-            for (int k = 2; k < cr.size(); k++) {
-                if (valueLit(cr._g(k)) != Boolean.kFalse) {
-                    cr._s(1, cr._g(k));
-                    cr._s(k, false_lit);
-                    ArrayList<Watcher> lw = watches_.get(negated(cr._g(1)));
-                    if (lw == null) {
-                        lw = new ArrayList<>();
-                        watches_.put(negated(cr._g(1)), lw);
-                    }
-                    lw.add(w);
+            for (int k = c0 + 2, end = c0 + arena[cr]; k < end; k++) {
+                if (litValue(arena[k]) != kFalse) {
+                    arena[c0 + 1] = arena[k];
+                    arena[k] = false_lit;
+                    addWatch(negated(arena[c0 + 1]), first, cr);
                     cont = true;
                     break;
                 }
@@ -405,25 +601,23 @@ public class SatSolver implements SatFactory {
 
             // Did not find watch -- clause is unit under assignment:
             if (!cont) {
-                ws.set(j++, w);
-                if (valueLit(first) == Boolean.kFalse) {
+                ws[j++] = first;
+                ws[j++] = cr;
+                if (litValue(first) == kFalse) {
                     result = false;
+                    conflict_ = cr;
                     qhead_ = trail_.size();
                     // Copy the remaining watches_:
-                    while (i < ws.size()) {
-                        ws.set(j++, ws.get(i++));
+                    while (i < size) {
+                        ws[j++] = ws[i++];
                     }
                     touched_variables_.add(first);
                 } else {
-                    uncheckedEnqueue(first);
+                    uncheckedEnqueue(first, cr);
                 }
             }
         }
-        if (ws != null) {
-            if (ws.size() > j) {
-                ws.subList(j, ws.size()).clear();
-            }
-        }
+        watch_sizes_[p] = j;
         return result;
     }
 
@@ -431,8 +625,10 @@ public class SatSolver implements SatFactory {
         TIntList to_add = implies_.get(p);
         if (to_add != null) {
             for (int i = 0; i < to_add.size(); ++i) {
-                if (!enqueue(to_add.get(i))) {
+                if (!enqueue(to_add.get(i), -2 - p)) {
                     touched_variables_.add(to_add.get(i));
+                    conflict_ = -2 - p;
+                    conflict_lit_ = to_add.get(i);
                     return false;
                 }
             }
@@ -442,113 +638,369 @@ public class SatSolver implements SatFactory {
 
 
     /**
-     * inline Literal MakeLiteral(Variable var, bool sign) {
-     * return Literal(2 * var.value() + static_cast<int>(sign));
-     * int(true) is always 1. And int(false) is always 0
-     * }
+     * Search for a model of the clauses with a CDCL algorithm.
+     * The search starts from the facts (level 0) and always ends back at level 0,
+     * the learnt clauses are kept.
+     *
+     * @param stop tells if the search has to be interrupted
+     * @return {@link Boolean#kTrue} if a model has been found (see {@link #modelValue(int)}),
+     * {@link Boolean#kFalse} if the clauses are unsatisfiable,
+     * {@link Boolean#kUndefined} if the search has been interrupted
      */
-    public static int makeLiteral(int var, boolean sign) {
-        return (2 * var + (sign ? 1 : 0));
+    public Boolean solve(BooleanSupplier stop) {
+        if (!ok_) {
+            return Boolean.kFalse;
+        }
+        cancelUntil(0);
+        order_ = new VarHeap();
+        for (int v = 0; v < num_vars_; v++) {
+            order_.insert(v);
+        }
+        if (level_stamps_ == null || level_stamps_.length < num_vars_ + 1) {
+            level_stamps_ = new int[num_vars_ + 1];
+        }
+        max_learnts_ = Math.max(nClauses() / 3., 2000.);
+        LubyCutoffStrategy restarts = new LubyCutoffStrategy(kRestartFirst);
+        long limit = restarts.getNextCutoff();
+        long conflicts = 0;
+        Boolean status = Boolean.kUndefined;
+        while (status == Boolean.kUndefined) {
+            boolean noConflict = propagate();
+            touched_variables_.resetQuick();
+            if (!noConflict) {
+                conflicts_++;
+                conflicts++;
+                if (trailMarker() == 0) {
+                    ok_ = false;
+                    status = Boolean.kFalse;
+                } else {
+                    int level = analyze();
+                    cancelUntil(level);
+                    learn();
+                    var_inc_ /= kVarDecay;
+                }
+            } else if (conflicts >= limit) {
+                restarts_++;
+                conflicts = 0;
+                limit = restarts.getNextCutoff();
+                cancelUntil(0);
+                if (stop.getAsBoolean()) {
+                    break;
+                }
+            } else {
+                if (learnts.size() - trail_.size() >= max_learnts_) {
+                    reduceDB();
+                }
+                int next = pickBranchLit();
+                if (next == kUndefinedLiteral) {
+                    model_ = assignment_.clone();
+                    status = Boolean.kTrue;
+                } else {
+                    decisions_++;
+                    if ((decisions_ & 0xFFF) == 0 && stop.getAsBoolean()) {
+                        break;
+                    }
+                    pushTrailMarker();
+                    uncheckedEnqueue(next, kNoReason);
+                }
+            }
+        }
+        cancelUntil(0);
+        touched_variables_.resetQuick();
+        order_ = null;
+        return status;
     }
 
     /**
-     * inline Literal Negated(Literal p) { return Literal(p.value() ^ 1); }
+     * @param x a variable
+     * @return <tt>true</tt> if the literal <tt>makeLiteral(x, true)</tt> is true
+     * in the last model found by {@link #solve(BooleanSupplier)}, <tt>false</tt> otherwise
      */
-    public static int negated(int l) {
-        return (l ^ 1);
+    public boolean modelValue(int x) {
+        return (model_[x] ^ 1) == kTrue;
     }
 
+    // Analyze the current conflict, fill 'learnt_clause_' with a 1-UIP clause
+    // whose first literal is the asserting one and return the level to backtrack to.
+    private int analyze() {
+        learnt_clause_.resetQuick();
+        learnt_clause_.add(kUndefinedLiteral);
+        int pathC = 0;
+        int p = kUndefinedLiteral;
+        int index = trail_.size() - 1;
+        int confl = conflict_;
+        int current = trailMarker();
+        do {
+            if (confl >= 0) {
+                // the implied literal, if any, is the first one
+                for (int k = (p == kUndefinedLiteral ? 0 : 1); k < arena_[confl]; k++) {
+                    pathC += seen(arena_[confl + kHeader + k], current);
+                }
+            } else {
+                pathC += seen(negated(-2 - confl), current);
+                if (p == kUndefinedLiteral) {
+                    pathC += seen(conflict_lit_, current);
+                }
+            }
+            // select next literal to look at
+            while (seen_[var(trail_.getQuick(index--))] == 0) ;
+            p = trail_.getQuick(index + 1);
+            confl = reason_[var(p)];
+            seen_[var(p)] = 0;
+            pathC--;
+        } while (pathC > 0);
+        learnt_clause_.setQuick(0, negated(p));
+        // find the backtrack level, and put the corresponding literal in second position
+        int level = 0;
+        int max = 1;
+        for (int i = 1; i < learnt_clause_.size(); i++) {
+            int x = var(learnt_clause_.getQuick(i));
+            seen_[x] = 0;
+            if (level_[x] > level) {
+                level = level_[x];
+                max = i;
+            }
+        }
+        if (learnt_clause_.size() > 1) {
+            int l = learnt_clause_.getQuick(max);
+            learnt_clause_.setQuick(max, learnt_clause_.getQuick(1));
+            learnt_clause_.setQuick(1, l);
+        }
+        return level;
+    }
 
-    /**
-     * @param l a literal
-     * @return <tt>true</tt> if <i>l</i> is odd (<tt>false</tt> literal),
-     *          <tt>false</tt> if <i>l</i> is even (<tt>true<tt/> literal)
-     *
-     */
-    public static boolean sign(int l) {
-        return (l & 1) != 0;
+    // Mark the variable of 'q', false literal of a reason, as seen.
+    // Return 1 if it is assigned at the current level, 0 otherwise.
+    private int seen(int q, int current) {
+        int x = var(q);
+        if (seen_[x] == 0 && level_[x] > 0) {
+            bumpActivity(x);
+            seen_[x] = 1;
+            if (level_[x] >= current) {
+                return 1;
+            }
+            learnt_clause_.add(q);
+        }
+        return 0;
     }
 
-    /**
-     * inline Variable Var(Literal p) { return Variable(p.value() >> 1); }
-     */
-    public static int var(int l) {
-        return (l >> 1);
+    // Store the clause computed by 'analyze' and enqueue its asserting literal.
+    private void learn() {
+        int size = learnt_clause_.size();
+        int first = learnt_clause_.getQuick(0);
+        if (size == 1) {
+            uncheckedEnqueue(first, kNoReason);
+        } else {
+            int cr = allocClause(learnt_clause_.toArray(), size);
+            arena_[cr + 1] = computeLBD(cr);
+            learnts.add(cr);
+            attachClause(cr);
+            uncheckedEnqueue(first, cr);
+        }
     }
 
-    /**
-     * inline Boolean MakeBoolean(bool x) { return Boolean(!x); }
-     */
-    private static Boolean makeBoolean(boolean b) {
-        return (b ? Boolean.kTrue : Boolean.kFalse);
+    // Number of distinct decision levels among the literals of the clause stored at 'cr'.
+    private int computeLBD(int cr) {
+        stamp_++;
+        int lbd = 0;
+        for (int k = 0; k < arena_[cr]; k++) {
+            int l = level_[var(arena_[cr + kHeader + k])];
+            if (level_stamps_[l] != stamp_) {
+                level_stamps_[l] = stamp_;
+                lbd++;
+            }
+        }
+        return lbd;
     }
 
-    /**
-     * inline Boolean Xor(Boolean a, bool b) {
-     * return Boolean((uint8)(a.value() ^ (uint8) b));
-     * }
-     */
-    private static Boolean xor(Boolean a, boolean b) {
-        return Boolean.make((byte) (a.value() ^ (b ? 1 : 0)));
+    private void bumpActivity(int x) {
+        if ((activity_[x] += var_inc_) > 1e100) {
+            // rescale
+            for (int v = 0; v < num_vars_; v++) {
+                activity_[v] *= 1e-100;
+            }
+            var_inc_ *= 1e-100;
+        }
+        order_.update(x);
     }
 
+    // Select the unassigned variable of highest activity, with its saved polarity.
+    private int pickBranchLit() {
+        while (!order_.isEmpty()) {
+            int x = order_.removeMax();
+            if (assignment_[x] == kUndefined) {
+                return 2 * x + polarity_[x];
+            }
+        }
+        return kUndefinedLiteral;
+    }
+
+    // Remove half of the learnt clauses, those with the highest LBD, keeping glue and locked clauses.
+    private void reduceDB() {
+        int n = learnts.size();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int cr = learnts.getQuick(i);
+            keys[i] = ((long) arena_[cr + 1] << 32) | i;
+        }
+        Arrays.sort(keys);
+        int removed = 0;
+        for (int i = n - 1; i >= n / 2; i--) {
+            int cr = learnts.getQuick((int) keys[i]);
+            if (arena_[cr + 1] > kGlue && !locked(cr)) {
+                arena_[cr + 1] = kDeleted;
+                wasted_ += kHeader + arena_[cr];
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            int j = 0;
+            for (int i = 0; i < n; i++) {
+                int cr = learnts.getQuick(i);
+                if (arena_[cr + 1] != kDeleted) {
+                    learnts.setQuick(j++, cr);
+                }
+            }
+            learnts.remove(j, n - j);
+            for (int l = 0; l < 2 * num_vars_; l++) {
+                int[] ws = watches_[l];
+                int k = 0;
+                for (int i = 0; i < watch_sizes_[l]; i += 2) {
+                    if (arena_[ws[i + 1] + 1] != kDeleted) {
+                        ws[k++] = ws[i];
+                        ws[k++] = ws[i + 1];
+                    }
+                }
+                watch_sizes_[l] = k;
+            }
+            if (2 * wasted_ >= arena_size_) {
+                garbageCollect();
+            }
+        }
+        max_learnts_ *= 1.1;
+    }
+
+    // A clause is locked when it is the reason of its first literal.
+    private boolean locked(int cr) {
+        int l = arena_[cr + kHeader];
+        return litValue(l) == kTrue && reason_[var(l)] == cr;
+    }
 
     /**
-     * Clause -- a simple class for representing a clause
-     * <br/>
-     *
-     * @author Charles Prud'homme, Laurent Perron
-     * @since 12/07/13
+     * A binary heap of variables, ordered by decreasing activity.
      */
-    public static class Clause {
-        private int[] literals_;
-
-        Clause(int[] ps) {
-            literals_ = ps.clone();
+    private final class VarHeap {
+        private int[] heap = new int[num_vars_ + 1];
+        // position of each variable in 'heap', -1 if absent
+        private int[] indices = new int[0];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
         }
 
-        public int size() {
-            return literals_.length;
+        void insert(int x) {
+            if (x >= indices.length) {
+                int o = indices.length;
+                indices = Arrays.copyOf(indices, Math.max(x + 1, num_vars_));
+                Arrays.fill(indices, o, indices.length, -1);
+            }
+            if (indices[x] == -1) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, size * 3 / 2 + 1);
+                }
+                heap[size] = x;
+                indices[x] = size;
+                up(size++);
+            }
         }
 
-        public int _g(int i) {
-            return literals_[i];
+        void update(int x) {
+            if (x < indices.length && indices[x] > -1) {
+                up(indices[x]);
+            }
         }
 
-        int _s(int pos, int l) {
-            return literals_[pos] = l;
+        int removeMax() {
+            int x = heap[0];
+            heap[0] = heap[--size];
+            indices[heap[0]] = 0;
+            indices[x] = -1;
+            if (size > 1) {
+                down(0);
+            }
+            return x;
         }
 
-        int pos(int l) {
-            int i = literals_.length - 1;
-            while (i >= 0 && literals_[i] != l) {
-                i--;
+        private void up(int i) {
+            int x = heap[i];
+            double a = activity_[x];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (activity_[heap[parent]] >= a) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                indices[heap[i]] = i;
+                i = parent;
             }
-            return i;
+            heap[i] = x;
+            indices[x] = i;
         }
 
-        public String toString() {
-            return Arrays.toString(literals_);
+        private void down(int i) {
+            int x = heap[i];
+            double a = activity_[x];
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && activity_[heap[child + 1]] > activity_[heap[child]]) {
+                    child++;
+                }
+                if (activity_[heap[child]] <= a) {
+                    break;
+                }
+                heap[i] = heap[child];
+                indices[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = x;
+            indices[x] = i;
         }
     }
 
     /**
-     * // A watcher represent a clause attached to a literal.
-     * <br/>
-     * (or-tools, booleans.cc, ty L. Perron).
-     *
-     * @author Charles Prud'homme
-     * @since 12/07/13
+     * inline Literal MakeLiteral(Variable var, bool sign) {
+     * return Literal(2 * var.value() + static_cast<int>(sign));
+     * int(true) is always 1. And int(false) is always 0
+     * }
+     */
+    public static int makeLiteral(int var, boolean sign) {
+        return (2 * var + (sign ? 1 : 0));
+    }
+
+    /**
+     * inline Literal Negated(Literal p) { return Literal(p.value() ^ 1); }
      */
-    static class Watcher {
+    public static int negated(int l) {
+        return (l ^ 1);
+    }
 
-        Clause clause;
-        int blocker;
 
-        Watcher(final Clause cr, int l) {
-            this.clause = cr;
-            this.blocker = l;
-        }
+    /**
+     * @param l a literal
+     * @return <tt>true</tt> if <i>l</i> is odd (<tt>false</tt> literal),
+     *          <tt>false</tt> if <i>l</i> is even (<tt>true<tt/> literal)
+     *
+     */
+    public static boolean sign(int l) {
+        return (l & 1) != 0;
+    }
+
+    /**
+     * inline Variable Var(Literal p) { return Variable(p.value() >> 1); }
+     */
+    public static int var(int l) {
+        return (l >> 1);
     }
 
     /**
@@ -558,7 +1010,7 @@ public class SatSolver implements SatFactory {
      * @author Charles Prud'homme, Laurent Perron
      * @since 12/07/13
      */
-    enum Boolean {
+    public enum Boolean {
 
         kTrue((byte) 0),
         kFalse((byte) 1),
@@ -596,9 +1048,12 @@ public class SatSolver implements SatFactory {
         this.touched_variables_.addAll(o.touched_variables_);
         this.temporary_add_vector_.resetQuick();
         this.temporary_add_vector_.addAll(o.temporary_add_vector_);
-        for (int k : o.assignment_.keys()) {
-            this.assignment_.putIfAbsent(k, o.assignment_.get(k));
-        }
+        this.assignment_ = o.assignment_.clone();
+        this.reason_ = o.reason_.clone();
+        this.level_ = o.level_.clone();
+        this.polarity_ = o.polarity_.clone();
+        this.activity_ = o.activity_.clone();
+        this.seen_ = new byte[o.seen_.length];
         for (int k : o.implies_.keys()) {
             TIntArrayList tl = this.implies_.get(k);
             if(tl == null){
@@ -609,28 +1064,20 @@ public class SatSolver implements SatFactory {
             }
             tl.addAll(o.implies_.get(k));
         }
-        final HashMap<Clause, Clause> map = new HashMap<>();
-        this.clauses.clear();
-        for (Clause cl : o.clauses) {
-            Clause _cl = new Clause(cl.literals_);
-            map.put(cl, _cl);
-            this.clauses.add(_cl);
-        }
-        this.learnts.clear();
-        for (Clause cl : o.learnts) {
-            Clause _cl = new Clause(cl.literals_);
-            map.put(cl, _cl);
-            this.learnts.add(_cl);
-        }
-        this.watches_.clear();
-        for (int k : o.watches_.keys()) {
-            ArrayList<Watcher> ws = o.watches_.get(k);
-            ArrayList<Watcher> _ws = new ArrayList<>(ws.size());
-            for (Watcher w : ws) {
-                _ws.add(new Watcher(map.get(w.clause), w.blocker));
+        this.arena_ = Arrays.copyOf(o.arena_, o.arena_size_);
+        this.arena_size_ = o.arena_size_;
+        this.wasted_ = o.wasted_;
+        this.clauses.resetQuick();
+        this.clauses.addAll(o.clauses);
+        this.learnts.resetQuick();
+        this.learnts.addAll(o.learnts);
+        this.watches_ = new int[o.watches_.length][];
+        for (int k = 0; k < o.watches_.length; k++) {
+            if (o.watches_[k] != null) {
+                this.watches_[k] = o.watches_[k].clone();
             }
-            this.watches_.put(k, _ws);
         }
+        this.watch_sizes_ = o.watch_sizes_.clone();
     }
 
     public long nbclauses() {
@@ -14,6 +14,10 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 /**
  * <p>
  * Project: choco-sat.
@@ -53,15 +57,15 @@ public class SatSolverTest {
 
     @Test(groups = "1s")
     public void testAddClause() throws Exception {
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(b), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(c), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(d), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(b), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(c), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(d), SatSolver.Boolean.kUndefined);
 
         Assert.assertTrue(sat.addClause(SatSolver.makeLiteral(a, true)));
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kFalse);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kFalse);
         Assert.assertTrue(sat.addClause(SatSolver.makeLiteral(b, false)));
-        Assert.assertEquals(sat.assignment_.get(b), SatSolver.Boolean.kTrue);
+        Assert.assertEquals(sat.valueVar(b), SatSolver.Boolean.kTrue);
         Assert.assertEquals(sat.qhead_, 2);
         Assert.assertEquals(sat.clauses.size(), 0);
         Assert.assertEquals(sat.implies_.size(), 0);
@@ -82,8 +86,8 @@ public class SatSolverTest {
         int ap = SatSolver.makeLiteral(a, true);
         int bp = SatSolver.makeLiteral(b, true);
         Assert.assertTrue(sat.addClause(ap,bp));
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(b), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(b), SatSolver.Boolean.kUndefined);
         Assert.assertEquals(sat.clauses.size(), 0);
         Assert.assertEquals(sat.implies_.size(), 2);
         Assert.assertEquals(sat.qhead_, 0);
@@ -101,9 +105,9 @@ public class SatSolverTest {
         int bp = SatSolver.makeLiteral(b, true);
         int cp = SatSolver.makeLiteral(c, true);
         Assert.assertTrue(sat.addClause(ap,bp, cp));
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(b), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(c), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(b), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(c), SatSolver.Boolean.kUndefined);
         Assert.assertEquals(sat.qhead_, 0);
         Assert.assertEquals(sat.implies_.size(), 0);
         Assert.assertEquals(sat.clauses.size(), 1);
@@ -116,10 +120,10 @@ public class SatSolverTest {
         int cp = SatSolver.makeLiteral(c, true);
         int dp = SatSolver.makeLiteral(d, true);
         Assert.assertTrue(sat.addClause(new TIntArrayList(new int[]{ap,bp, cp, dp})));
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(b), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(c), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(d), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(b), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(c), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(d), SatSolver.Boolean.kUndefined);
         Assert.assertEquals(sat.qhead_, 0);
         Assert.assertEquals(sat.implies_.size(), 0);
         Assert.assertEquals(sat.clauses.size(), 1);
@@ -129,10 +133,10 @@ public class SatSolverTest {
     public void testAddClause4() throws Exception {
         int a1 = SatSolver.makeLiteral(a, true);
         Assert.assertTrue(sat.addClause(new TIntArrayList(new int[]{a1,a1,a1, a1})));
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kFalse);
-        Assert.assertEquals(sat.assignment_.get(b), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(c), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(d), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kFalse);
+        Assert.assertEquals(sat.valueVar(b), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(c), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(d), SatSolver.Boolean.kUndefined);
         Assert.assertEquals(sat.qhead_, 1);
         Assert.assertEquals(sat.implies_.size(), 0);
         Assert.assertEquals(sat.clauses.size(), 0);
@@ -143,10 +147,10 @@ public class SatSolverTest {
         int a1 = SatSolver.makeLiteral(a, true);
         int a2 = SatSolver.makeLiteral(a, false);
         Assert.assertTrue(sat.addClause(new TIntArrayList(new int[]{a1,a2})));
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(b), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(c), SatSolver.Boolean.kUndefined);
-        Assert.assertEquals(sat.assignment_.get(d), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(b), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(c), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(d), SatSolver.Boolean.kUndefined);
         Assert.assertEquals(sat.qhead_, 0);
         Assert.assertEquals(sat.implies_.size(), 0);
         Assert.assertEquals(sat.clauses.size(), 0);
@@ -156,11 +160,11 @@ public class SatSolverTest {
     public void testAddClause6() throws Exception {
         int ap = SatSolver.makeLiteral(a, true);
         sat.uncheckedEnqueue(ap);
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kFalse);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kFalse);
         int an = SatSolver.makeLiteral(a, false);
         Assert.assertFalse(sat.addClause(an));
         sat.propagate();
-        Assert.assertEquals(sat.assignment_.get(a), SatSolver.Boolean.kFalse);
+        Assert.assertEquals(sat.valueVar(a), SatSolver.Boolean.kFalse);
         Assert.assertEquals(sat.qhead_, 1);
         Assert.assertFalse(sat.ok_);
     }
@@ -351,7 +355,48 @@ public class SatSolverTest {
 
     @Test(groups = "1s")
     public void testDetachLearnt() throws Exception {
+        int an = SatSolver.makeLiteral(a, false);
+        int bn = SatSolver.makeLiteral(b, false);
+        int cn = SatSolver.makeLiteral(c, false);
+        int dn = SatSolver.makeLiteral(d, false);
+        Assert.assertTrue(sat.learnClause(an, bn, cn));
+        Assert.assertTrue(sat.learnClause(an, bn, dn));
+        Assert.assertEquals(sat.nLearnt(), 2);
+        sat.detachLearnt(0);
+        Assert.assertEquals(sat.nLearnt(), 1);
+        Assert.assertEquals(sat.clauseSize(sat.learnts.get(0)), 3);
+        Assert.assertTrue(sat.propagateOneLiteral(SatSolver.makeLiteral(a, true)));
+        Assert.assertTrue(sat.propagateOneLiteral(SatSolver.makeLiteral(b, true)));
+        Assert.assertEquals(sat.valueVar(c), SatSolver.Boolean.kUndefined);
+        Assert.assertEquals(sat.valueVar(d), SatSolver.Boolean.kTrue);
+    }
 
+    @Test(groups = "1s")
+    public void testGarbageCollect() throws Exception {
+        int n = 50;
+        int[] x = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = sat.newVariable();
+        }
+        // x_i and x_i+1 imply x_i+2
+        for (int i = 0; i < n - 2; i++) {
+            Assert.assertTrue(sat.learnClause(SatSolver.makeLiteral(x[i], true),
+                    SatSolver.makeLiteral(x[i + 1], true), SatSolver.makeLiteral(x[i + 2], false)));
+        }
+        // remove every other clause, to trigger a compaction of the clause database
+        for (int i = n - 3; i >= 0; i -= 2) {
+            sat.detachLearnt(i);
+        }
+        Assert.assertEquals(sat.nLearnt(), (n - 2) / 2);
+        for (int i = 0; i < sat.nLearnt(); i++) {
+            int cr = sat.learnts.get(i);
+            Assert.assertEquals(sat.clauseLiteral(cr, 0) / 2, x[2 * i]);
+        }
+        Assert.assertTrue(sat.propagateOneLiteral(SatSolver.makeLiteral(x[0], false)));
+        Assert.assertTrue(sat.propagateOneLiteral(SatSolver.makeLiteral(x[1], false)));
+        Assert.assertEquals(sat.valueVar(x[2]), SatSolver.Boolean.kTrue);
+        Assert.assertEquals(sat.valueVar(x[3]), SatSolver.Boolean.kUndefined);
+        Assert.assertFalse(sat.propagateOneLiteral(SatSolver.makeLiteral(x[2], true)));
     }
 
     @Test(groups = "1s")
@@ -731,4 +776,133 @@ public class SatSolverTest {
         Assert.assertEquals(sat.valueVar(c), SatSolver.Boolean.kUndefined);
         Assert.assertEquals(sat.valueVar(d), SatSolver.Boolean.kUndefined);
     }
-}
\ No newline at end of file
+
+    private static List<int[]> random3SAT(SatSolver sat, int n, int m, Random rnd) {
+        int[] x = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = sat.newVariable();
+        }
+        List<int[]> cnf = new ArrayList<>();
+        for (int k = 0; k < m; k++) {
+            int[] cl = new int[3];
+            for (int j = 0; j < 3; j++) {
+                cl[j] = SatSolver.makeLiteral(x[rnd.nextInt(n)], rnd.nextBoolean());
+            }
+            cnf.add(cl);
+            sat.addClause(new TIntArrayList(cl));
+        }
+        return cnf;
+    }
+
+    private static boolean satisfies(List<int[]> cnf, SatSolver sat) {
+        for (int[] cl : cnf) {
+            boolean ok = false;
+            for (int l : cl) {
+                ok |= sat.modelValue(SatSolver.var(l)) == SatSolver.sign(l);
+            }
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean bruteForce(List<int[]> cnf, int n) {
+        for (int t = 0; t < 1 << n; t++) {
+            boolean all = true;
+            for (int k = 0; k < cnf.size() && all; k++) {
+                boolean ok = false;
+                for (int l : cnf.get(k)) {
+                    ok |= ((t >> SatSolver.var(l)) & 1) == (SatSolver.sign(l) ? 0 : 1);
+                }
+                all = ok;
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // p pigeons, h holes
+    private static void pigeonHoles(SatSolver sat, int p, int h) {
+        int[][] x = new int[p][h];
+        for (int i = 0; i < p; i++) {
+            TIntArrayList cl = new TIntArrayList();
+            for (int j = 0; j < h; j++) {
+                x[i][j] = sat.newVariable();
+                cl.add(SatSolver.makeLiteral(x[i][j], false));
+            }
+            sat.addClause(cl);
+        }
+        for (int j = 0; j < h; j++) {
+            for (int i1 = 0; i1 < p; i1++) {
+                for (int i2 = i1 + 1; i2 < p; i2++) {
+                    sat.addClause(SatSolver.makeLiteral(x[i1][j], true), SatSolver.makeLiteral(x[i2][j], true));
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSolveSat() throws Exception {
+        List<int[]> cnf = random3SAT(sat, 200, 600, new Random(0));
+        Assert.assertEquals(sat.solve(() -> false), SatSolver.Boolean.kTrue);
+        Assert.assertTrue(satisfies(cnf, sat));
+        Assert.assertEquals(sat.trailMarker(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testModelValue() throws Exception {
+        int a = sat.newVariable();
+        int b = sat.newVariable();
+        sat.addClause(SatSolver.makeLiteral(a, true));
+        sat.addClause(SatSolver.makeLiteral(b, false));
+        Assert.assertEquals(sat.solve(() -> false), SatSolver.Boolean.kTrue);
+        Assert.assertTrue(sat.modelValue(a));
+        Assert.assertFalse(sat.modelValue(b));
+    }
+
+    @Test(groups = "1s")
+    public void testSolveUnsat() throws Exception {
+        pigeonHoles(sat, 7, 6);
+        Assert.assertEquals(sat.solve(() -> false), SatSolver.Boolean.kFalse);
+        Assert.assertTrue(sat.conflicts_ > 0);
+        Assert.assertFalse(sat.ok_);
+    }
+
+    @Test(groups = "1s")
+    public void testSolveStop() throws Exception {
+        pigeonHoles(sat, 10, 9);
+        Assert.assertEquals(sat.solve(() -> true), SatSolver.Boolean.kUndefined);
+        Assert.assertTrue(sat.ok_);
+        Assert.assertEquals(sat.trailMarker(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testSolveRandom() throws Exception {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 200; k++) {
+            SatSolver solver = new SatSolver();
+            int n = 4 + rnd.nextInt(9);
+            List<int[]> cnf = random3SAT(solver, n, n * (3 + rnd.nextInt(4)), rnd);
+            SatSolver.Boolean res = solver.solve(() -> false);
+            Assert.assertEquals(res == SatSolver.Boolean.kTrue, bruteForce(cnf, n), "seed " + k);
+            if (res == SatSolver.Boolean.kTrue) {
+                Assert.assertTrue(satisfies(cnf, solver));
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSolveLearnts() throws Exception {
+        // enough conflicts to reduce the learnt clauses database, and compact it
+        List<int[]> cnf = random3SAT(sat, 200, 852, new Random(0));
+        SatSolver.Boolean res = sat.solve(() -> false);
+        Assert.assertNotEquals(res, SatSolver.Boolean.kUndefined);
+        if (res == SatSolver.Boolean.kTrue) {
+            Assert.assertTrue(satisfies(cnf, sat));
+        }
+        Assert.assertTrue(sat.nLearnt() < sat.conflicts_);
+    }
+}
@@ -9,6 +9,7 @@
  */
 package org.chocosolver.memory;
 
+import org.chocosolver.memory.copying.EnvironmentCopying;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.chunck.*;
@@ -203,4 +204,38 @@ public class EnvironmentBuilder {
         setTrail(new OperationTrail(worldsize, worldnumber, loadfactor));
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * Build a flat environment where ints and longs are trailed by index,
+     * see {@link IndexedIntTrail} and {@link IndexedLongTrail}.
+     * @return {@code this}
+     */
+    public EnvironmentBuilder fromIndexed(){
+        fromFlat();
+        setTrail(new IndexedIntTrail(worldsize, worldnumber, loadfactor));
+        setTrail(new IndexedLongTrail(worldsize, worldnumber, loadfactor));
+        return this;
+    }
+
+    /**
+     * Build an environment that restores data by copying rather than by trailing,
+     * see {@link EnvironmentCopying}.
+     * <p>
+     * A world is copied when the number of backtrackable data is at most <i>ratio</i> times the
+     * average number of data modified per world, and trailed otherwise.
+     * @param ratio {@link Double#POSITIVE_INFINITY} to always copy, 0 to always trail
+     * @return the resulting environment
+     */
+    public EnvironmentCopying buildCopying(double ratio){
+        return new EnvironmentCopying(ratio);
+    }
+
+    /**
+     * Build an environment that always restores data by copying rather than by trailing,
+     * see {@link EnvironmentCopying}.
+     * @return the resulting environment
+     */
+    public EnvironmentCopying buildCopying(){
+        return buildCopying(Double.POSITIVE_INFINITY);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateBool;
+
+/**
+ * A backtrackable boolean managed by {@link EnvironmentCopying}.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class CopiedBool extends IStateBool {
+
+    private final EnvironmentCopying env;
+
+    /**
+     * Index in the registry of the environment
+     */
+    final int index;
+
+    /**
+     * Constructs a stored search with an initial value.
+     * Note: this constructor should not be used directly: one should instead
+     * use the IEnvironment factory
+     */
+    public CopiedBool(final EnvironmentCopying env, final boolean i) {
+        super(env, i);
+        this.env = env;
+        this.index = env.register(this, i);
+    }
+
+    /**
+     * Modifies the value and, if the current world is trailed, stores the former value.
+     */
+    @Override
+    public final void set(final boolean y) {
+        if (y != currentValue) {
+            final int wi = environment.getWorldIndex();
+            if (this.timeStamp < wi) {
+                env.savePreviousState(this, currentValue, timeStamp);
+                timeStamp = wi;
+            }
+            currentValue = y;
+        }
+    }
+
+    final int stamp() {
+        return timeStamp;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.IStateDoubleVector;
+
+/**
+ * A backtrackable vector of double managed by {@link EnvironmentCopying}.
+ * The size is a backtrackable int, former values of the elements are restored by operations
+ * (see {@link EnvironmentCopying#save(org.chocosolver.memory.structure.IOperation)}).
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public final class CopiedDoubleVector extends IStateDoubleVector {
+
+    /**
+     * World in which each element was last modified
+     */
+    private int[] worldStamps;
+
+    public CopiedDoubleVector(EnvironmentCopying env, int initialSize, double initialValue) {
+        super(env, initialSize, initialValue);
+        int w = env.getWorldIndex();
+        this.worldStamps = new int[Math.max(MIN_CAPACITY, initialSize)];
+        for (int i = 0; i < initialSize; i++) {
+            this.worldStamps[i] = w;
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        int oldCapacity = elementData.length;
+        if (minCapacity > oldCapacity) {
+            double[] oldData = elementData;
+            int[] oldStamps = worldStamps;
+            int newCapacity = Math.max((oldCapacity * 3) / 2 + 1, minCapacity);
+            elementData = new double[newCapacity];
+            worldStamps = new int[newCapacity];
+            System.arraycopy(oldData, 0, elementData, 0, size.get());
+            System.arraycopy(oldStamps, 0, worldStamps, 0, size.get());
+        }
+    }
+
+    public void add(double i) {
+        int newsize = size.get() + 1;
+        ensureCapacity(newsize);
+        size.set(newsize);
+        elementData[newsize - 1] = i;
+        worldStamps[newsize - 1] = environment.getWorldIndex();
+    }
+
+    /**
+     * removes the element at the end of the vector.
+     * does nothing when called on an empty vector
+     */
+    public void removeLast() {
+        int newsize = size.get() - 1;
+        if (newsize >= 0)
+            size.set(newsize);
+    }
+
+    public double set(int index, double val) {
+        if (rangeCheck(index)) {
+            return quickSet(index, val);
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size.get());
+    }
+
+    @Override
+    public double quickSet(int index, double val) {
+        assert (rangeCheck(index));
+        final double oldValue = elementData[index];
+        if (val != oldValue) {
+            final int oldStamp = this.worldStamps[index];
+            final int wi = environment.getWorldIndex();
+            if (oldStamp < wi) {
+                environment.save(() -> {
+                    // the vector may have grown meanwhile
+                    elementData[index] = oldValue;
+                    worldStamps[index] = oldStamp;
+                });
+                worldStamps[index] = wi;
+            }
+            elementData[index] = val;
+        }
+        return oldValue;
+    }
+}
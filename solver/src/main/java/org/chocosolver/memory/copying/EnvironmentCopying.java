@@ -0,0 +1,658 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.copying;
+
+import org.chocosolver.memory.AbstractEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateDouble;
+import org.chocosolver.memory.IStateDoubleVector;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateIntVector;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.memory.structure.IOperation;
+import org.chocosolver.memory.trailing.trail.IOperationTrail;
+import org.chocosolver.memory.trailing.trail.flatten.OperationTrail;
+
+import java.util.Arrays;
+
+/**
+ * An environment that restores backtrackable data by copying instead of trailing.
+ * <p>
+ * Each backtrackable int, long, bool or double created by this environment is registered in a
+ * per-type registry. On {@link #worldPush()}, the values (and time stamps) of all the registered
+ * data are copied in contiguous primitive arrays. On {@link #worldPop()}, they are copied back.
+ * Nothing is recorded when a value is modified, which pays off when there are few backtrackable
+ * data and most of them are modified between two backtracks.
+ * <p>
+ * When there are many backtrackable data and only a few of them are modified in a world,
+ * trailing is cheaper. So, the environment decides on each {@link #worldPush()} whether to copy
+ * or to trail that world: a world is copied when the number of registered data is at most
+ * <i>ratio</i> times the average number of data modified per world observed so far.
+ * A ratio of {@link Double#POSITIVE_INFINITY} always copies, a ratio of 0 always trails.
+ * <p>
+ * Operations (see {@link #save(IOperation)}) are always trailed.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class EnvironmentCopying extends AbstractEnvironment {
+
+    /**
+     * Default number of worlds
+     */
+    private static final int NBWORLDS = 128;
+    /**
+     * Default number of updates
+     */
+    private static final int NBUPDATES = 256;
+    /**
+     * Weight of the last world when updating the average number of modifications per world
+     */
+    private static final double SMOOTHING = .1;
+
+    private static final int INT = 0, BOOL = 1, LONG = 2, DOUBLE = 3;
+
+    /**
+     * Copy a world when nb data &le; ratio * average modifications per world
+     */
+    private final double ratio;
+
+    // REGISTRIES
+    private CopiedInt[] ints = new CopiedInt[64];
+    private int nInts;
+    private CopiedBool[] bools = new CopiedBool[64];
+    private int nBools;
+    private CopiedLong[] longs = new CopiedLong[64];
+    private int nLongs;
+    private CopiedDouble[] doubles = new CopiedDouble[64];
+    private int nDoubles;
+
+    // SNAPSHOTS
+    /**
+     * Values and stamps stored as int: int values, int stamps, bool values, bool stamps,
+     * long stamps, double stamps.
+     */
+    private int[] iSnap = new int[NBUPDATES];
+    private int iTop;
+    /**
+     * Values stored as long: long values, double values (as raw bits).
+     */
+    private long[] lSnap = new long[NBUPDATES];
+    private int lTop;
+
+    // PER WORLD DATA
+    /**
+     * Set to true when a world is copied, false when it is trailed
+     */
+    private boolean[] copied = new boolean[NBWORLDS];
+    /**
+     * Start of the snapshot of a world in {@link #iSnap} and {@link #lSnap}
+     */
+    private int[] iStart = new int[NBWORLDS], lStart = new int[NBWORLDS];
+    /**
+     * Sizes of the registries when a world was copied
+     */
+    private int[] cInts = new int[NBWORLDS], cBools = new int[NBWORLDS],
+            cLongs = new int[NBWORLDS], cDoubles = new int[NBWORLDS];
+    /**
+     * Start of a world in the trail
+     */
+    private int[] tStart = new int[NBWORLDS];
+    /**
+     * Number of modifications when a world was pushed
+     */
+    private long[] uStart = new long[NBWORLDS];
+
+    // TRAIL
+    /**
+     * Indices of the trailed data, shifted by 2, and their types, in the lowest 2 bits
+     */
+    private int[] tIdx = new int[NBUPDATES];
+    /**
+     * Former values of the trailed data, doubles as raw bits
+     */
+    private long[] tVal = new long[NBUPDATES];
+    /**
+     * Former stamps of the trailed data
+     */
+    private int[] tStamp = new int[NBUPDATES];
+    private int tTop;
+    /**
+     * Set to true when the current world is trailed
+     */
+    private boolean trailing;
+
+    // FAKE HISTORY
+    private int[] lateIdx = new int[16], lateBorn = new int[16];
+    private long[] lateInit = new long[16];
+    private int nLate;
+
+    /**
+     * Operations are always trailed
+     */
+    private final IOperationTrail operations;
+
+    // POLICY
+    /**
+     * Number of modifications (first one in a world for a data) so far
+     */
+    private long updates;
+    /**
+     * Average number of modifications per world
+     */
+    private double average;
+
+    /**
+     * Create an environment that always copies.
+     */
+    public EnvironmentCopying() {
+        this(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Create an environment that copies a world when the number of backtrackable data is at most
+     * <i>ratio</i> times the average number of data modified per world, and trails it otherwise.
+     *
+     * @param ratio the ratio, {@link Double#POSITIVE_INFINITY} to always copy, 0 to always trail
+     */
+    public EnvironmentCopying(double ratio) {
+        this.ratio = ratio;
+        this.operations = new OperationTrail(NBUPDATES, NBWORLDS, 2);
+    }
+
+    /**
+     * @return the number of backtrackable data registered
+     */
+    public int getNbData() {
+        return nInts + nBools + nLongs + nDoubles;
+    }
+
+    /**
+     * @return <i>true</i> if the current world is copied, <i>false</i> if it is trailed
+     */
+    public boolean isCopied() {
+        return copied[currentWorld];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPush() {
+        timestamp++;
+        final int wi = currentWorld + 1;
+        if (wi == copied.length) {
+            resizeWorldCapacity(wi * 2);
+        }
+        operations.worldPush(wi);
+        tStart[wi] = tTop;
+        uStart[wi] = updates;
+        boolean copy = ratio == Double.POSITIVE_INFINITY || getNbData() <= ratio * average;
+        copied[wi] = copy;
+        if (copy) {
+            snapshot(wi);
+        }
+        trailing = !copy;
+        currentWorld++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldPop() {
+        timestamp++;
+        final int wi = currentWorld;
+        average += SMOOTHING * ((updates - uStart[wi]) - average);
+        if (copied[wi]) {
+            restore(wi);
+        } else {
+            unwind(tStart[wi]);
+        }
+        if (nLate > 0) {
+            rewind(wi);
+        }
+        operations.worldPop(wi);
+        currentWorld--;
+        trailing = !copied[currentWorld];
+        assert currentWorld >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void worldCommit() {
+        if (currentWorld == 0) {
+            throw new IllegalStateException("Commit in world 0?");
+        }
+        final int wi = currentWorld;
+        final int pw = wi - 1;
+        final boolean trailPrev = pw > 0 && !copied[pw];
+        if (copied[wi]) {
+            if (trailPrev) {
+                trailUnchanged(wi, pw);
+            }
+            iTop = iStart[wi];
+            lTop = lStart[wi];
+        } else if (trailPrev) {
+            // merge the trails, as done in StoredIntTrail#worldCommit
+            int writeIdx = tStart[wi];
+            for (int level = tStart[wi]; level < tTop; level++) {
+                stampOf(tIdx[level], pw);
+                if (tStamp[level] != pw) {
+                    tIdx[writeIdx] = tIdx[level];
+                    tVal[writeIdx] = tVal[level];
+                    tStamp[writeIdx] = tStamp[level];
+                    writeIdx++;
+                }
+            }
+            tTop = writeIdx;
+        } else {
+            // the previous world is copied
+            for (int level = tStart[wi]; level < tTop; level++) {
+                stampOf(tIdx[level], pw);
+            }
+            tTop = tStart[wi];
+        }
+        // data modified in the committed world are now modified in the previous one
+        for (int i = 0; i < nInts; i++) {
+            if (ints[i].stamp() == wi) ints[i].overrideTimeStamp(pw);
+        }
+        for (int i = 0; i < nBools; i++) {
+            if (bools[i].stamp() == wi) bools[i].overrideTimeStamp(pw);
+        }
+        for (int i = 0; i < nLongs; i++) {
+            if (longs[i].stamp() == wi) longs[i].overrideTimeStamp(pw);
+        }
+        for (int i = 0; i < nDoubles; i++) {
+            if (doubles[i].stamp() == wi) doubles[i].overrideTimeStamp(pw);
+        }
+        operations.worldCommit(wi);
+        currentWorld--;
+        trailing = !copied[currentWorld];
+    }
+
+    /**
+     * Copy values and stamps of all registered data.
+     */
+    private void snapshot(int wi) {
+        final int nI = nInts, nB = nBools, nL = nLongs, nD = nDoubles;
+        cInts[wi] = nI;
+        cBools[wi] = nB;
+        cLongs[wi] = nL;
+        cDoubles[wi] = nD;
+        iStart[wi] = iTop;
+        lStart[wi] = lTop;
+        int p = iTop;
+        int q = lTop;
+        if (p + 2 * nI + 2 * nB + nL + nD > iSnap.length) {
+            iSnap = Arrays.copyOf(iSnap, Math.max(iSnap.length * 2, p + 2 * nI + 2 * nB + nL + nD));
+        }
+        if (q + nL + nD > lSnap.length) {
+            lSnap = Arrays.copyOf(lSnap, Math.max(lSnap.length * 2, q + nL + nD));
+        }
+        final int[] is = iSnap;
+        final long[] ls = lSnap;
+        final CopiedInt[] ci = ints;
+        for (int i = 0; i < nI; i++) {
+            is[p++] = ci[i].get();
+        }
+        for (int i = 0; i < nI; i++) {
+            is[p++] = ci[i].stamp();
+        }
+        final CopiedBool[] cb = bools;
+        for (int i = 0; i < nB; i++) {
+            is[p++] = cb[i].get() ? 1 : 0;
+        }
+        for (int i = 0; i < nB; i++) {
+            is[p++] = cb[i].stamp();
+        }
+        final CopiedLong[] cl = longs;
+        for (int i = 0; i < nL; i++) {
+            is[p++] = cl[i].stamp();
+            ls[q++] = cl[i].get();
+        }
+        final CopiedDouble[] cd = doubles;
+        for (int i = 0; i < nD; i++) {
+            is[p++] = cd[i].stamp();
+            ls[q++] = Double.doubleToRawLongBits(cd[i].get());
+        }
+        iTop = p;
+        lTop = q;
+    }
+
+    /**
+     * Copy back values and stamps of the data registered when world <i>wi</i> was pushed.
+     */
+    private void restore(int wi) {
+        final int nI = cInts[wi], nB = cBools[wi], nL = cLongs[wi], nD = cDoubles[wi];
+        int p = iStart[wi];
+        int q = lStart[wi];
+        final int[] is = iSnap;
+        final long[] ls = lSnap;
+        final CopiedInt[] ci = ints;
+        for (int i = 0; i < nI; i++) {
+            ci[i]._set(is[p + i], is[p + nI + i]);
+        }
+        p += 2 * nI;
+        final CopiedBool[] cb = bools;
+        for (int i = 0; i < nB; i++) {
+            cb[i]._set(is[p + i] == 1, is[p + nB + i]);
+        }
+        p += 2 * nB;
+        final CopiedLong[] cl = longs;
+        for (int i = 0; i < nL; i++) {
+            cl[i]._set(ls[q++], is[p++]);
+        }
+        final CopiedDouble[] cd = doubles;
+        for (int i = 0; i < nD; i++) {
+            cd[i]._set(Double.longBitsToDouble(ls[q++]), is[p++]);
+        }
+        iTop = iStart[wi];
+        lTop = lStart[wi];
+    }
+
+    /**
+     * When a copied world <i>wi</i> is committed in a trailed world <i>pw</i>, trail the data
+     * modified in <i>wi</i> but not in <i>pw</i>.
+     */
+    private void trailUnchanged(int wi, int pw) {
+        final int nI = cInts[wi], nB = cBools[wi], nL = cLongs[wi], nD = cDoubles[wi];
+        int p = iStart[wi];
+        int q = lStart[wi];
+        for (int i = 0; i < nI; i++) {
+            if (ints[i].stamp() == wi && iSnap[p + nI + i] < pw) {
+                push(INT, i, iSnap[p + i], iSnap[p + nI + i]);
+            }
+        }
+        p += 2 * nI;
+        for (int i = 0; i < nB; i++) {
+            if (bools[i].stamp() == wi && iSnap[p + nB + i] < pw) {
+                push(BOOL, i, iSnap[p + i], iSnap[p + nB + i]);
+            }
+        }
+        p += 2 * nB;
+        for (int i = 0; i < nL; i++, p++, q++) {
+            if (longs[i].stamp() == wi && iSnap[p] < pw) {
+                push(LONG, i, lSnap[q], iSnap[p]);
+            }
+        }
+        for (int i = 0; i < nD; i++, p++, q++) {
+            if (doubles[i].stamp() == wi && iSnap[p] < pw) {
+                push(DOUBLE, i, lSnap[q], iSnap[p]);
+            }
+        }
+    }
+
+    /**
+     * Restore trailed data down to <i>level</i>.
+     */
+    private void unwind(int level) {
+        for (int t = tTop - 1; t >= level; t--) {
+            final int idx = tIdx[t] >>> 2;
+            switch (tIdx[t] & 3) {
+                case INT:
+                    ints[idx]._set((int) tVal[t], tStamp[t]);
+                    break;
+                case BOOL:
+                    bools[idx]._set(tVal[t] == 1, tStamp[t]);
+                    break;
+                case LONG:
+                    longs[idx]._set(tVal[t], tStamp[t]);
+                    break;
+                default:
+                    doubles[idx]._set(Double.longBitsToDouble(tVal[t]), tStamp[t]);
+                    break;
+            }
+        }
+        tTop = level;
+    }
+
+    private void stampOf(int key, int stamp) {
+        final int idx = key >>> 2;
+        switch (key & 3) {
+            case INT:
+                ints[idx].overrideTimeStamp(stamp);
+                break;
+            case BOOL:
+                bools[idx].overrideTimeStamp(stamp);
+                break;
+            case LONG:
+                longs[idx].overrideTimeStamp(stamp);
+                break;
+            default:
+                doubles[idx].overrideTimeStamp(stamp);
+                break;
+        }
+    }
+
+    /**
+     * Data created in world <i>wi</i> or later, with a fake history, get back their initial value.
+     */
+    private void rewind(int wi) {
+        int k = 0;
+        for (int l = 0; l < nLate; l++) {
+            if (lateBorn[l] >= wi) {
+                final int idx = lateIdx[l] >>> 2;
+                final long v = lateInit[l];
+                switch (lateIdx[l] & 3) {
+                    case INT:
+                        ints[idx]._set((int) v, 0);
+                        break;
+                    case BOOL:
+                        bools[idx]._set(v == 1, 0);
+                        break;
+                    case LONG:
+                        longs[idx]._set(v, 0);
+                        break;
+                    default:
+                        doubles[idx]._set(Double.longBitsToDouble(v), 0);
+                        break;
+                }
+                lateBorn[l] = wi - 1;
+            }
+            // once back to world 0, nothing to rewind anymore
+            if (lateBorn[l] > 0) {
+                lateIdx[k] = lateIdx[l];
+                lateBorn[k] = lateBorn[l];
+                lateInit[k] = lateInit[l];
+                k++;
+            }
+        }
+        nLate = k;
+    }
+
+    private void push(int type, int idx, long value, int stamp) {
+        if (tTop == tIdx.length) {
+            int n = tTop * 2;
+            tIdx = Arrays.copyOf(tIdx, n);
+            tVal = Arrays.copyOf(tVal, n);
+            tStamp = Arrays.copyOf(tStamp, n);
+        }
+        tIdx[tTop] = idx << 2 | type;
+        tVal[tTop] = value;
+        tStamp[tTop] = stamp;
+        tTop++;
+    }
+
+    private void resizeWorldCapacity(int n) {
+        copied = Arrays.copyOf(copied, n);
+        iStart = Arrays.copyOf(iStart, n);
+        lStart = Arrays.copyOf(lStart, n);
+        cInts = Arrays.copyOf(cInts, n);
+        cBools = Arrays.copyOf(cBools, n);
+        cLongs = Arrays.copyOf(cLongs, n);
+        cDoubles = Arrays.copyOf(cDoubles, n);
+        tStart = Arrays.copyOf(tStart, n);
+        uStart = Arrays.copyOf(uStart, n);
+    }
+
+    private void late(int type, int idx, long init) {
+        if (fakeHistoryNeeded() && currentWorld > 0) {
+            if (nLate == lateIdx.length) {
+                lateIdx = Arrays.copyOf(lateIdx, nLate * 2);
+                lateBorn = Arrays.copyOf(lateBorn, nLate * 2);
+                lateInit = Arrays.copyOf(lateInit, nLate * 2);
+            }
+            lateIdx[nLate] = idx << 2 | type;
+            lateBorn[nLate] = currentWorld;
+            lateInit[nLate] = init;
+            nLate++;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    int register(CopiedInt v, int init) {
+        if (nInts == ints.length) {
+            ints = Arrays.copyOf(ints, nInts * 3 / 2 + 1);
+        }
+        ints[nInts] = v;
+        late(INT, nInts, init);
+        return nInts++;
+    }
+
+    int register(CopiedBool v, boolean init) {
+        if (nBools == bools.length) {
+            bools = Arrays.copyOf(bools, nBools * 3 / 2 + 1);
+        }
+        bools[nBools] = v;
+        late(BOOL, nBools, init ? 1 : 0);
+        return nBools++;
+    }
+
+    int register(CopiedLong v, long init) {
+        if (nLongs == longs.length) {
+            longs = Arrays.copyOf(longs, nLongs * 3 / 2 + 1);
+        }
+        longs[nLongs] = v;
+        late(LONG, nLongs, init);
+        return nLongs++;
+    }
+
+    int register(CopiedDouble v, double init) {
+        if (nDoubles == doubles.length) {
+            doubles = Arrays.copyOf(doubles, nDoubles * 3 / 2 + 1);
+        }
+        doubles[nDoubles] = v;
+        late(DOUBLE, nDoubles, Double.doubleToRawLongBits(init));
+        return nDoubles++;
+    }
+
+    void savePreviousState(CopiedInt v, int oldValue, int oldStamp) {
+        updates++;
+        if (trailing) {
+            push(INT, v.index, oldValue, oldStamp);
+        }
+    }
+
+    void savePreviousState(CopiedBool v, boolean oldValue, int oldStamp) {
+        updates++;
+        if (trailing) {
+            push(BOOL, v.index, oldValue ? 1 : 0, oldStamp);
+        }
+    }
+
+    void savePreviousState(CopiedLong v, long oldValue, int oldStamp) {
+        updates++;
+        if (trailing) {
+            push(LONG, v.index, oldValue, oldStamp);
+        }
+    }
+
+    void savePreviousState(CopiedDouble v, double oldValue, int oldStamp) {
+        updates++;
+        if (trailing) {
+            push(DOUBLE, v.index, Double.doubleToRawLongBits(oldValue), oldStamp);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt() {
+        return makeInt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateInt makeInt(final int initialValue) {
+        return new CopiedInt(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateBool makeBool(final boolean initialValue) {
+        return new CopiedBool(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateIntVector makeIntVector(final int size, final int initialValue) {
+        return new CopiedIntVector(this, size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDoubleVector makeDoubleVector(final int size, final double initialValue) {
+        return new CopiedDoubleVector(this, size, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat() {
+        return makeFloat(Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateDouble makeFloat(final double initialValue) {
+        return new CopiedDouble(this, initialValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong() {
+        return makeLong(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public IStateLong makeLong(final long init) {
+        return new CopiedLong(this, init);
+    }
+
+    @Override
+    public void save(IOperation operation) {
+        operations.savePreviousState(operation);
+    }
+}
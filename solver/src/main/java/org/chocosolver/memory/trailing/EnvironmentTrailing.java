@@ -50,6 +50,7 @@ public class EnvironmentTrailing extends AbstractEnvironment {
     private IOperationTrail operationTrail;
     private StoredIntVectorTrail intVectorTrail;
     private StoredDoubleVectorTrail doubleVectorTrail;
+    private StoredBitSetTrail bitSetTrail;
 
     /**
      * Contains all the {@link org.chocosolver.memory.IStorage} trails for
@@ -128,6 +129,18 @@ public class EnvironmentTrailing extends AbstractEnvironment {
         return new StoredBool(this, initialValue);
     }
 
+    /**
+     * {@inheritDoc}
+     * Bitsets of at least 64 bits are {@link StoredBitSet}.
+     */
+    @Override
+    public IStateBitSet makeBitSet(int size) {
+        if (size < 64) {
+            return super.makeBitSet(size);
+        }
+        return new StoredBitSet(this, size);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -277,6 +290,14 @@ public class EnvironmentTrailing extends AbstractEnvironment {
         return intVectorTrail;
     }
 
+    public StoredBitSetTrail getBitSetTrail() {
+        if (bitSetTrail == null) {
+            increaseTrail();
+            trails[trailSize++] = bitSetTrail = new StoredBitSetTrail(this, NBUPATES, NBWORLDS, LOADFACTOR);
+        }
+        return bitSetTrail;
+    }
+
     public StoredDoubleVectorTrail getDoubleVectorTrail() {
         if (doubleVectorTrail == null) {
             increaseTrail();
@@ -0,0 +1,383 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing;
+
+import org.chocosolver.memory.IStateBitSet;
+import org.chocosolver.memory.trailing.trail.StoredBitSetTrail;
+
+import java.util.Arrays;
+
+/**
+ * A backtrackable bitset for the trailing environment.
+ * <p>
+ * Words are stored in a flat <i>long</i> array, next to an array of world stamps,
+ * as {@link StoredIntVector} does for its elements.
+ * A word is saved in the {@link StoredBitSetTrail} at most once per world,
+ * and consecutive words saved in the same world share one trail entry.
+ * So, bulk operations like {@link #and(long[])}, {@link #andNot(long[])} or {@link #clear(int, int)}
+ * record a single entry per range of modified words.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public final class StoredBitSet implements IStateBitSet {
+
+    private final static int ADDRESS_BITS_PER_WORD = 6;
+    private final static int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+    /* Used to shift left or right for a partial word mask */
+    private static final long WORD_MASK = 0xffffffffffffffffL;
+
+    /**
+     * The current environment.
+     */
+    private final EnvironmentTrailing environment;
+
+    /**
+     * The trail of bitsets.
+     */
+    private final StoredBitSetTrail myTrail;
+
+    /**
+     * The words of this bitset.
+     */
+    private long[] words;
+
+    /**
+     * For each word, the world in which it was last saved.
+     */
+    private int[] worldStamps;
+
+    /**
+     * Creates a bit set whose initial size is large enough to explicitly
+     * represent bits with indices in the range <code>0</code> through
+     * <code>nbits-1</code>. All bits are initially <code>false</code>.
+     *
+     * @param env   backtrackable environment
+     * @param nbits the initial size of the bit set.
+     * @throws NegativeArraySizeException if the specified initial size is negative.
+     */
+    public StoredBitSet(EnvironmentTrailing env, int nbits) {
+        if (nbits < 0)
+            throw new NegativeArraySizeException("nbits < 0: " + nbits);
+        this.environment = env;
+        this.myTrail = env.getBitSetTrail();
+        int n = wordIndex(nbits - 1) + 1;
+        this.words = new long[n];
+        this.worldStamps = new int[n];
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex < 0)
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex +
+                    " > toIndex: " + toIndex);
+    }
+
+    private void expandTo(int wordIndex) {
+        if (wordIndex >= words.length) {
+            int request = Math.max(2 * words.length, wordIndex + 1);
+            words = Arrays.copyOf(words, request);
+            worldStamps = Arrays.copyOf(worldStamps, request);
+        }
+    }
+
+    /**
+     * Set the <i>i</i>-th word to <i>w</i>, saving the former word if needed.
+     */
+    private void setWord(int i, long w) {
+        long old = words[i];
+        if (old != w) {
+            int wi = environment.getWorldIndex();
+            if (worldStamps[i] < wi) {
+                myTrail.savePreviousState(this, i, old, worldStamps[i]);
+                worldStamps[i] = wi;
+            }
+            words[i] = w;
+        }
+    }
+
+    /**
+     * Restore <i>length</i> words from <i>from</i>, reading former values and stamps from <i>offset</i>.
+     * Should only be called by the trail.
+     */
+    public void _restore(int from, int length, long[] values, int[] stamps, int offset) {
+        System.arraycopy(values, offset, words, from, length);
+        System.arraycopy(stamps, offset, worldStamps, from, length);
+    }
+
+    /**
+     * Set the stamps of <i>length</i> words from <i>from</i> to <i>stamp</i>.
+     * Should only be called by the trail, on world commit.
+     */
+    public void _overrideTimeStamps(int from, int length, int stamp) {
+        Arrays.fill(worldStamps, from, from + length, stamp);
+    }
+
+    /**
+     * @return number of words of this bitset
+     */
+    public int nbWords() {
+        return words.length;
+    }
+
+    /**
+     * @param i index of a word
+     * @return the <i>i</i>-th word of this bitset
+     */
+    public long getWord(int i) {
+        return words[i];
+    }
+
+    /**
+     * Performs a logical <b>AND</b> of this bitset with <i>mask</i>, word by word.
+     * Words beyond the length of <i>mask</i> are cleared.
+     *
+     * @param mask a mask
+     */
+    public void and(long[] mask) {
+        int n = Math.min(words.length, mask.length);
+        for (int i = 0; i < n; i++) {
+            setWord(i, words[i] & mask[i]);
+        }
+        for (int i = n; i < words.length; i++) {
+            setWord(i, 0L);
+        }
+    }
+
+    /**
+     * Clears all of the bits in this bitset whose corresponding bit is set in <i>mask</i>.
+     *
+     * @param mask a mask
+     */
+    public void andNot(long[] mask) {
+        int n = Math.min(words.length, mask.length);
+        for (int i = 0; i < n; i++) {
+            setWord(i, words[i] & ~mask[i]);
+        }
+    }
+
+    @Override
+    public void set(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int wordIndex = wordIndex(bitIndex);
+        expandTo(wordIndex);
+        setWord(wordIndex, words[wordIndex] | (1L << bitIndex));
+    }
+
+    @Override
+    public void set(int bitIndex, boolean value) {
+        if (value)
+            set(bitIndex);
+        else
+            clear(bitIndex);
+    }
+
+    @Override
+    public void set(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+        int startWordIndex = wordIndex(fromIndex);
+        int endWordIndex = wordIndex(toIndex - 1);
+        expandTo(endWordIndex);
+        long firstWordMask = WORD_MASK << fromIndex;
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            setWord(startWordIndex, words[startWordIndex] | (firstWordMask & lastWordMask));
+        } else {
+            setWord(startWordIndex, words[startWordIndex] | firstWordMask);
+            for (int i = startWordIndex + 1; i < endWordIndex; i++)
+                setWord(i, WORD_MASK);
+            setWord(endWordIndex, words[endWordIndex] | lastWordMask);
+        }
+    }
+
+    @Override
+    public void clear(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int wordIndex = wordIndex(bitIndex);
+        if (wordIndex < words.length) {
+            setWord(wordIndex, words[wordIndex] & ~(1L << bitIndex));
+        }
+    }
+
+    @Override
+    public void clear(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+        int startWordIndex = wordIndex(fromIndex);
+        if (startWordIndex >= words.length)
+            return;
+        int endWordIndex = wordIndex(toIndex - 1);
+        long lastWordMask = WORD_MASK >>> -toIndex;
+        if (endWordIndex >= words.length) {
+            endWordIndex = words.length - 1;
+            lastWordMask = WORD_MASK;
+        }
+        long firstWordMask = WORD_MASK << fromIndex;
+        if (startWordIndex == endWordIndex) {
+            setWord(startWordIndex, words[startWordIndex] & ~(firstWordMask & lastWordMask));
+        } else {
+            setWord(startWordIndex, words[startWordIndex] & ~firstWordMask);
+            for (int i = startWordIndex + 1; i < endWordIndex; i++)
+                setWord(i, 0L);
+            setWord(endWordIndex, words[endWordIndex] & ~lastWordMask);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < words.length; i++) {
+            setWord(i, 0L);
+        }
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        int wordIndex = bitIndex >> ADDRESS_BITS_PER_WORD;
+        return wordIndex < words.length && (words[wordIndex] & (1L << bitIndex)) != 0;
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return -1;
+        long word = words[u] & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == words.length)
+                return -1;
+            word = words[u];
+        }
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return fromIndex;
+        long word = ~words[u] & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0)
+                return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            if (++u == words.length)
+                return words.length * BITS_PER_WORD;
+            word = ~words[u];
+        }
+    }
+
+    @Override
+    public int prevSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            return -1;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return length() - 1;
+        long word = words[u] & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = words[u];
+        }
+    }
+
+    @Override
+    public int prevClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            return -1;
+        }
+        int u = wordIndex(fromIndex);
+        if (u >= words.length)
+            return fromIndex;
+        long word = ~words[u] & (WORD_MASK >>> -(fromIndex + 1));
+        while (true) {
+            if (word != 0)
+                return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+            if (u-- == 0)
+                return -1;
+            word = ~words[u];
+        }
+    }
+
+    /**
+     * @return the index of the highest set bit plus one, zero if no bit is set
+     */
+    public int length() {
+        for (int u = words.length - 1; u >= 0; u--) {
+            if (words[u] != 0) {
+                return BITS_PER_WORD * u + (BITS_PER_WORD - Long.numberOfLeadingZeros(words[u]));
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int cardinality() {
+        int sum = 0;
+        for (long word : words) {
+            sum += Long.bitCount(word);
+        }
+        return sum;
+    }
+
+    @Override
+    public int size() {
+        return words.length * BITS_PER_WORD;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        b.append('{');
+        int i = nextSetBit(0);
+        if (i != -1) {
+            b.append(i);
+            for (i = nextSetBit(i + 1); i >= 0; i = nextSetBit(i + 1)) {
+                b.append(", ").append(i);
+            }
+        }
+        b.append('}');
+        return b.toString();
+    }
+}
@@ -20,6 +20,12 @@ public class StoredLong extends IStateLong {
 
     protected final IStoredLongTrail myTrail;
 
+    /**
+     * Index of this in the trail, for trails that refer to stored values by index.
+     * Set to -1 until the trail assigns one.
+     */
+    private int trailIndex = -1;
+
     /**
      * Constructs a stored search with an initial value.
      * Note: this constructor should not be used directly: one should instead
@@ -48,5 +54,20 @@ public class StoredLong extends IStateLong {
             currentValue = y;
         }
     }
-}
 
+    /**
+     * @return the index assigned to this by the trail, or -1 if none
+     */
+    public final int getTrailIndex() {
+        return trailIndex;
+    }
+
+    /**
+     * Set the index of this in the trail.
+     * Should only be called by the trail.
+     * @param index the index
+     */
+    public final void setTrailIndex(int index) {
+        this.trailIndex = index;
+    }
+}
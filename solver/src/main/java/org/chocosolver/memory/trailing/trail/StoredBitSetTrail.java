@@ -0,0 +1,214 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing.trail;
+
+import org.chocosolver.memory.IStorage;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.memory.trailing.StoredBitSet;
+
+/**
+ * A trail for {@link StoredBitSet}.
+ * <p>
+ * An entry is a range of consecutive words of a bitset, saved in the same world.
+ * Saving a word right after the previous one of the same bitset extends the last entry
+ * instead of creating a new one, so bulk operations record one entry per range of touched words.
+ * Former words and stamps are stored in primitive arrays, saving allocates nothing.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class StoredBitSetTrail implements IStorage {
+
+    /**
+     * The current environment.
+     */
+    private final EnvironmentTrailing environment;
+
+    /**
+     * Load factor
+     */
+    private final double loadfactor;
+
+    /**
+     * Stack of bitsets, one per entry.
+     */
+    private StoredBitSet[] bitsetStack;
+
+    /**
+     * Stack of indices of the first word of each entry.
+     */
+    private int[] fromStack;
+
+    /**
+     * Stack of number of words of each entry.
+     */
+    private int[] lengthStack;
+
+    /**
+     * Stack of former words (that need be restored upon backtracking).
+     */
+    private long[] valueStack;
+
+    /**
+     * Stack of timestamps indicating the world where each former word had been written.
+     */
+    private int[] stampStack;
+
+    /**
+     * Points the level of the last entry.
+     */
+    private int currentLevel;
+
+    /**
+     * Points the level of the last former word.
+     */
+    private int valueLevel;
+
+    /**
+     * A stack of pointers to entries (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * A stack of pointers to former words (for each start of a world).
+     */
+    private int[] worldStartValueLevels;
+
+    /**
+     * Constructs a trail with predefined size.
+     *
+     * @param env        the environment
+     * @param nUpdates   maximal number of updates that will be stored
+     * @param nWorlds    maximal number of worlds that will be stored
+     * @param loadfactor load factor for structures
+     */
+    public StoredBitSetTrail(EnvironmentTrailing env, int nUpdates, int nWorlds, double loadfactor) {
+        this.environment = env;
+        this.currentLevel = 0;
+        this.valueLevel = 0;
+        this.bitsetStack = new StoredBitSet[nUpdates];
+        this.fromStack = new int[nUpdates];
+        this.lengthStack = new int[nUpdates];
+        this.valueStack = new long[nUpdates];
+        this.stampStack = new int[nUpdates];
+        this.worldStartLevels = new int[nWorlds];
+        this.worldStartValueLevels = new int[nWorlds];
+        this.loadfactor = loadfactor;
+    }
+
+    /**
+     * Reacts when a word of a StoredBitSet is modified for the first time in the current world:
+     * push the former word and its timestamp on the stacks.
+     *
+     * @param bitset   the modified bitset
+     * @param index    index of the modified word
+     * @param oldValue former word
+     * @param oldStamp former timestamp of the word
+     */
+    public void savePreviousState(StoredBitSet bitset, int index, long oldValue, int oldStamp) {
+        int last = currentLevel - 1;
+        if (last < worldStartLevels[environment.getWorldIndex()]
+                || bitsetStack[last] != bitset
+                || fromStack[last] + lengthStack[last] != index) {
+            if (currentLevel == bitsetStack.length) {
+                resizeEntryCapacity();
+            }
+            last = currentLevel++;
+            bitsetStack[last] = bitset;
+            fromStack[last] = index;
+            lengthStack[last] = 0;
+        }
+        lengthStack[last]++;
+        if (valueLevel == valueStack.length) {
+            resizeValueCapacity();
+        }
+        valueStack[valueLevel] = oldValue;
+        stampStack[valueLevel] = oldStamp;
+        valueLevel++;
+    }
+
+    private void resizeEntryCapacity() {
+        final int newCapacity = (int) (bitsetStack.length * loadfactor);
+        final StoredBitSet[] tmp1 = new StoredBitSet[newCapacity];
+        System.arraycopy(bitsetStack, 0, tmp1, 0, bitsetStack.length);
+        bitsetStack = tmp1;
+        final int[] tmp2 = new int[newCapacity];
+        System.arraycopy(fromStack, 0, tmp2, 0, fromStack.length);
+        fromStack = tmp2;
+        final int[] tmp3 = new int[newCapacity];
+        System.arraycopy(lengthStack, 0, tmp3, 0, lengthStack.length);
+        lengthStack = tmp3;
+    }
+
+    private void resizeValueCapacity() {
+        final int newCapacity = (int) (valueStack.length * loadfactor);
+        final long[] tmp1 = new long[newCapacity];
+        System.arraycopy(valueStack, 0, tmp1, 0, valueStack.length);
+        valueStack = tmp1;
+        final int[] tmp2 = new int[newCapacity];
+        System.arraycopy(stampStack, 0, tmp2, 0, stampStack.length);
+        stampStack = tmp2;
+    }
+
+    private void resizeWorldCapacity(int newWorldCapacity) {
+        final int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        worldStartLevels = tmp;
+        final int[] tmp2 = new int[newWorldCapacity];
+        System.arraycopy(worldStartValueLevels, 0, tmp2, 0, worldStartValueLevels.length);
+        worldStartValueLevels = tmp2;
+    }
+
+    /**
+     * Moving up to the next world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPush(int worldIndex) {
+        worldStartLevels[worldIndex] = currentLevel;
+        worldStartValueLevels[worldIndex] = valueLevel;
+        if (worldIndex == worldStartLevels.length - 1) {
+            resizeWorldCapacity((int) (worldStartLevels.length * loadfactor));
+        }
+    }
+
+    /**
+     * Moving down to the previous world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPop(int worldIndex) {
+        final int wsl = worldStartLevels[worldIndex];
+        while (currentLevel > wsl) {
+            currentLevel--;
+            valueLevel -= lengthStack[currentLevel];
+            bitsetStack[currentLevel]._restore(fromStack[currentLevel], lengthStack[currentLevel],
+                    valueStack, stampStack, valueLevel);
+            bitsetStack[currentLevel] = null;
+        }
+        assert valueLevel == worldStartValueLevels[worldIndex];
+    }
+
+    /**
+     * Comits a world: merging it with the previous one.
+     * Entries are kept, only the stamps of the saved words are updated.
+     */
+    @Override
+    public void worldCommit(int worldIndex) {
+        final int prevWorld = worldIndex - 1;
+        for (int level = worldStartLevels[worldIndex]; level < currentLevel; level++) {
+            bitsetStack[level]._overrideTimeStamps(fromStack[level], lengthStack[level], prevWorld);
+        }
+    }
+}
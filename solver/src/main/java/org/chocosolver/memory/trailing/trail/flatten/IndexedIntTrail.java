@@ -0,0 +1,200 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing.trail.flatten;
+
+import org.chocosolver.memory.trailing.StoredInt;
+import org.chocosolver.memory.trailing.trail.IStoredIntTrail;
+
+/**
+ * A trail for {@link StoredInt} that does not keep references next to values.
+ * <p>
+ * Each {@link StoredInt} saved is given an index, once, in a registry.
+ * Then, an update is recorded as a (index, former value, former stamp) triple
+ * in a single <i>int</i> array, so that saving allocates nothing and restoring a world
+ * is a sequential scan of that array.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class IndexedIntTrail implements IStoredIntTrail {
+
+    /**
+     * Load factor
+     */
+    private final double loadfactor;
+
+    /**
+     * Stored ints, by index.
+     * References are kept as long as the trail lives, and the trail lives as long as its environment.
+     * This is intended: a stored int is created by the model it belongs to and is not released before it,
+     * and its index must remain valid for any world it may be restored in.
+     */
+    private StoredInt[] registry;
+
+    /**
+     * Number of stored ints registered.
+     */
+    private int registered;
+
+    /**
+     * Stack of (index, former value, former stamp) triples.
+     */
+    private int[] stack;
+
+    /**
+     * Points the level of the last entry (the number of triples).
+     */
+    private int currentLevel;
+
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Constructs a trail with predefined size.
+     *
+     * @param nUpdates maximal number of updates that will be stored
+     * @param nWorlds  maximal number of worlds that will be stored
+     * @param loadfactor load factor for structures
+     */
+    public IndexedIntTrail(int nUpdates, int nWorlds, double loadfactor) {
+        currentLevel = 0;
+        registry = new StoredInt[64];
+        stack = new int[3 * nUpdates];
+        worldStartLevels = new int[nWorlds];
+        this.loadfactor = loadfactor;
+    }
+
+    /**
+     * Moving up to the next world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPush(int worldIndex) {
+        worldStartLevels[worldIndex] = currentLevel;
+        if (worldIndex == worldStartLevels.length - 1) {
+            resizeWorldCapacity((int) (worldStartLevels.length * loadfactor));
+        }
+    }
+
+    /**
+     * Moving down to the previous world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPop(int worldIndex) {
+        final int[] s = stack;
+        final StoredInt[] r = registry;
+        int p = 3 * currentLevel;
+        final int wsl = 3 * worldStartLevels[worldIndex];
+        while (p > wsl) {
+            p -= 3;
+            r[s[p]]._set(s[p + 1], s[p + 2]);
+        }
+        currentLevel = wsl / 3;
+    }
+
+    /**
+     * Comits a world: merging it with the previous one.
+     */
+    @Override
+    public void worldCommit(int worldIndex) {
+        // see StoredIntTrail#worldCommit
+        final int startLevel = worldStartLevels[worldIndex];
+        final int prevWorld = worldIndex - 1;
+        int writeIdx = 3 * startLevel;
+        for (int p = 3 * startLevel; p < 3 * currentLevel; p += 3) {
+            final int idx = stack[p];
+            final int stamp = stack[p + 2];
+            registry[idx].overrideTimeStamp(prevWorld);
+            if (stamp != prevWorld) {
+                if (writeIdx != p) {
+                    stack[writeIdx] = idx;
+                    stack[writeIdx + 1] = stack[p + 1];
+                    stack[writeIdx + 2] = stamp;
+                }
+                writeIdx += 3;
+            }
+        }
+        currentLevel = writeIdx / 3;
+    }
+
+    /**
+     * Reacts when a StoredInt is modified: push the former value & timestamp
+     * on the stack.
+     */
+    @Override
+    public void savePreviousState(StoredInt v, int oldValue, int oldStamp) {
+        int idx = v.getTrailIndex();
+        if (idx < 0) {
+            idx = register(v);
+        }
+        int p = 3 * currentLevel;
+        stack[p] = idx;
+        stack[p + 1] = oldValue;
+        stack[p + 2] = oldStamp;
+        currentLevel++;
+        if (p + 3 == stack.length) {
+            resizeUpdateCapacity();
+        }
+    }
+
+    private int register(StoredInt v) {
+        if (registered == registry.length) {
+            StoredInt[] tmp = new StoredInt[registered * 3 / 2 + 1];
+            System.arraycopy(registry, 0, tmp, 0, registered);
+            registry = tmp;
+        }
+        registry[registered] = v;
+        v.setTrailIndex(registered);
+        return registered++;
+    }
+
+    @Override
+    public void buildFakeHistory(StoredInt v, int initValue, int olderStamp) {
+        // see StoredIntTrail#buildFakeHistory
+        savePreviousState(v, initValue, olderStamp - 1);
+        final int idx = v.getTrailIndex();
+        while (3 * (currentLevel + olderStamp) > stack.length) {
+            resizeUpdateCapacity();
+        }
+        int i1, f, s = currentLevel;
+        for (int w = olderStamp; w > 1; w--) {
+            f = worldStartLevels[w];
+            i1 = f + w - 1;
+            s -= f;
+            System.arraycopy(stack, 3 * f, stack, 3 * i1, 3 * s);
+            stack[3 * (i1 - 1)] = idx;
+            stack[3 * (i1 - 1) + 1] = initValue;
+            stack[3 * (i1 - 1) + 2] = w - 2;
+            worldStartLevels[w] += w - 1;
+            currentLevel++;
+            s = f;
+        }
+    }
+
+    private void resizeUpdateCapacity() {
+        final int[] tmp = new int[3 * (int) (stack.length / 3 * loadfactor)];
+        System.arraycopy(stack, 0, tmp, 0, stack.length);
+        stack = tmp;
+    }
+
+    private void resizeWorldCapacity(int newWorldCapacity) {
+        final int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        worldStartLevels = tmp;
+    }
+
+}
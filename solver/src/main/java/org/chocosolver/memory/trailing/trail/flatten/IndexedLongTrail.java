@@ -0,0 +1,200 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory.trailing.trail.flatten;
+
+import org.chocosolver.memory.trailing.StoredLong;
+import org.chocosolver.memory.trailing.trail.IStoredLongTrail;
+
+/**
+ * A trail for {@link StoredLong} that does not keep references next to values.
+ * <p>
+ * Each {@link StoredLong} saved is given an index, once, in a registry.
+ * Then, an update is recorded as a (index, former value, former stamp) triple
+ * in a single <i>long</i> array, so that saving allocates nothing and restoring a world
+ * is a sequential scan of that array.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class IndexedLongTrail implements IStoredLongTrail {
+
+    /**
+     * Load factor
+     */
+    private final double loadfactor;
+
+    /**
+     * Stored longs, by index.
+     * References are kept as long as the trail lives, and the trail lives as long as its environment.
+     * This is intended: a stored long is created by the model it belongs to and is not released before it,
+     * and its index must remain valid for any world it may be restored in.
+     */
+    private StoredLong[] registry;
+
+    /**
+     * Number of stored longs registered.
+     */
+    private int registered;
+
+    /**
+     * Stack of (index, former value, former stamp) triples.
+     */
+    private long[] stack;
+
+    /**
+     * Points the level of the last entry (the number of triples).
+     */
+    private int currentLevel;
+
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Constructs a trail with predefined size.
+     *
+     * @param nUpdates maximal number of updates that will be stored
+     * @param nWorlds  maximal number of worlds that will be stored
+     * @param loadfactor load factor for structures
+     */
+    public IndexedLongTrail(int nUpdates, int nWorlds, double loadfactor) {
+        currentLevel = 0;
+        registry = new StoredLong[64];
+        stack = new long[3 * nUpdates];
+        worldStartLevels = new int[nWorlds];
+        this.loadfactor = loadfactor;
+    }
+
+    /**
+     * Moving up to the next world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPush(int worldIndex) {
+        worldStartLevels[worldIndex] = currentLevel;
+        if (worldIndex == worldStartLevels.length - 1) {
+            resizeWorldCapacity((int) (worldStartLevels.length * loadfactor));
+        }
+    }
+
+    /**
+     * Moving down to the previous world.
+     *
+     * @param worldIndex current world index
+     */
+    @Override
+    public void worldPop(int worldIndex) {
+        final long[] s = stack;
+        final StoredLong[] r = registry;
+        int p = 3 * currentLevel;
+        final int wsl = 3 * worldStartLevels[worldIndex];
+        while (p > wsl) {
+            p -= 3;
+            r[(int) s[p]]._set(s[p + 1], (int) s[p + 2]);
+        }
+        currentLevel = wsl / 3;
+    }
+
+    /**
+     * Comits a world: merging it with the previous one.
+     */
+    @Override
+    public void worldCommit(int worldIndex) {
+        // see StoredLongTrail#worldCommit
+        final int startLevel = worldStartLevels[worldIndex];
+        final int prevWorld = worldIndex - 1;
+        int writeIdx = 3 * startLevel;
+        for (int p = 3 * startLevel; p < 3 * currentLevel; p += 3) {
+            final int idx = (int) stack[p];
+            final int stamp = (int) stack[p + 2];
+            registry[idx].overrideTimeStamp(prevWorld);
+            if (stamp != prevWorld) {
+                if (writeIdx != p) {
+                    stack[writeIdx] = idx;
+                    stack[writeIdx + 1] = stack[p + 1];
+                    stack[writeIdx + 2] = stamp;
+                }
+                writeIdx += 3;
+            }
+        }
+        currentLevel = writeIdx / 3;
+    }
+
+    /**
+     * Reacts when a StoredLong is modified: push the former value & timestamp
+     * on the stack.
+     */
+    @Override
+    public void savePreviousState(StoredLong v, long oldValue, int oldStamp) {
+        int idx = v.getTrailIndex();
+        if (idx < 0) {
+            idx = register(v);
+        }
+        int p = 3 * currentLevel;
+        stack[p] = idx;
+        stack[p + 1] = oldValue;
+        stack[p + 2] = oldStamp;
+        currentLevel++;
+        if (p + 3 == stack.length) {
+            resizeUpdateCapacity();
+        }
+    }
+
+    private int register(StoredLong v) {
+        if (registered == registry.length) {
+            StoredLong[] tmp = new StoredLong[registered * 3 / 2 + 1];
+            System.arraycopy(registry, 0, tmp, 0, registered);
+            registry = tmp;
+        }
+        registry[registered] = v;
+        v.setTrailIndex(registered);
+        return registered++;
+    }
+
+    @Override
+    public void buildFakeHistory(StoredLong v, long initValue, int olderStamp) {
+        // see StoredLongTrail#buildFakeHistory
+        savePreviousState(v, initValue, olderStamp - 1);
+        final int idx = v.getTrailIndex();
+        while (3 * (currentLevel + olderStamp) > stack.length) {
+            resizeUpdateCapacity();
+        }
+        int i1, f, s = currentLevel;
+        for (int w = olderStamp; w > 1; w--) {
+            f = worldStartLevels[w];
+            i1 = f + w - 1;
+            s -= f;
+            System.arraycopy(stack, 3 * f, stack, 3 * i1, 3 * s);
+            stack[3 * (i1 - 1)] = idx;
+            stack[3 * (i1 - 1) + 1] = initValue;
+            stack[3 * (i1 - 1) + 2] = w - 2;
+            worldStartLevels[w] += w - 1;
+            currentLevel++;
+            s = f;
+        }
+    }
+
+    private void resizeUpdateCapacity() {
+        final long[] tmp = new long[3 * (int) (stack.length / 3 * loadfactor)];
+        System.arraycopy(stack, 0, tmp, 0, stack.length);
+        stack = tmp;
+    }
+
+    private void resizeWorldCapacity(int newWorldCapacity) {
+        final int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        worldStartLevels = tmp;
+    }
+
+}
@@ -46,6 +46,8 @@ public class DefaultSettings implements Settings {
 
     private int maxDomSizeForEnumerated = 32_768;
 
+    private int minDomSizeForSparseSet = Integer.MAX_VALUE;
+
     private int minCardForSumDecomposition = 1024;
 
     private boolean enableTableSubstitution = true;
@@ -56,6 +58,8 @@ public class DefaultSettings implements Settings {
 
     private boolean sortPropagatorActivationWRTPriority = true;
 
+    private boolean splitInitialPropagationIntoComponents = false;
+
     private Function<Model, AbstractStrategy> defaultSearch = Search::defaultSearch;
 
     private ICondition environmentHistorySimulationCondition = new Except_0();
@@ -74,6 +78,8 @@ public class DefaultSettings implements Settings {
 
     private boolean enableSAT = false;
 
+    private boolean delegateToSATSolver = false;
+
     private boolean swapOnPassivate = false;
 
     private boolean checkDeclaredConstraints = true;
@@ -90,6 +96,12 @@ public class DefaultSettings implements Settings {
 
     private int dominancePerimeter = 4;
 
+    private int coreLBD = 2;
+
+    private int tier2LBD = 6;
+
+    private int inprocessingPeriod = 2000;
+
     private boolean explainGlobalFailureInSum = true;
 
     private Function<Model, Solver> initSolver = Solver::new;
@@ -161,6 +173,17 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public int getMinDomSizeForSparseSet() {
+        return minDomSizeForSparseSet;
+    }
+
+    @Override
+    public DefaultSettings setMinDomSizeForSparseSet(int minDomSizeForSparseSet) {
+        this.minDomSizeForSparseSet = minDomSizeForSparseSet;
+        return this;
+    }
+
     @Override
     public int getMinCardForSumDecomposition() {
         return minCardForSumDecomposition;
@@ -216,6 +239,17 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public boolean splitInitialPropagationIntoComponents() {
+        return splitInitialPropagationIntoComponents;
+    }
+
+    @Override
+    public DefaultSettings setSplitInitialPropagationIntoComponents(boolean splitInitialPropagationIntoComponents) {
+        this.splitInitialPropagationIntoComponents = splitInitialPropagationIntoComponents;
+        return this;
+    }
+
     @Override
     public AbstractStrategy makeDefaultSearch(Model model) {
         return defaultSearch.apply(model);
@@ -315,6 +349,17 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public boolean delegateToSATSolver() {
+        return delegateToSATSolver;
+    }
+
+    @Override
+    public DefaultSettings setDelegateToSATSolver(boolean delegateToSATSolver) {
+        this.delegateToSATSolver = delegateToSATSolver;
+        return this;
+    }
+
     @Override
     public boolean swapOnPassivate() {
         return swapOnPassivate;
@@ -415,6 +460,39 @@ public class DefaultSettings implements Settings {
         return this;
     }
 
+    @Override
+    public int getLearntClausesCoreLBD() {
+        return coreLBD;
+    }
+
+    @Override
+    public Settings setLearntClausesCoreLBD(int lbd) {
+        this.coreLBD = lbd;
+        return this;
+    }
+
+    @Override
+    public int getLearntClausesTier2LBD() {
+        return tier2LBD;
+    }
+
+    @Override
+    public Settings setLearntClausesTier2LBD(int lbd) {
+        this.tier2LBD = lbd;
+        return this;
+    }
+
+    @Override
+    public int getLearntClausesInprocessingPeriod() {
+        return inprocessingPeriod;
+    }
+
+    @Override
+    public Settings setLearntClausesInprocessingPeriod(int n) {
+        this.inprocessingPeriod = n;
+        return this;
+    }
+
     @Override
     public boolean explainGlobalFailureInSum() {
         return explainGlobalFailureInSum;
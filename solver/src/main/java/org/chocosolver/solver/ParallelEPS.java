@@ -0,0 +1,593 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.criteria.Criterion;
+
+/**
+ * <p>
+ *     An Embarrassingly Parallel Search (EPS) helper.
+ * </p>
+ * <p>
+ *     Where {@link ParallelPortfolio} runs several differently configured solvers on the whole search space,
+ *     this class splits the search tree of a problem into many subproblems and shares them out among workers.
+ *     The resolution is made of three steps:
+ *      <ol>
+ *          <li>adding identical models, one per worker,</li>
+ *          <li>running resolution in parallel,</li>
+ *          <li>getting the best solution found, if any.</li>
+ *      </ol>
+ *      Contrary to {@link ParallelPortfolio}, the models must be strictly identical (same variables,
+ *      declared in the same order, and same constraints), since a subproblem built on the first model
+ *      is replayed on any of them.
+ *      Populating model is not managed by this class and should be done before applying step 2.,
+ *      with a dedicated method for instance.
+ * </p>
+ * <p>
+ *     The decomposition is made on the first model: its search strategy (or a dom/lb one if none was declared)
+ *     is used to expand the top of the search tree, breadth-first, until there are
+ *     {@code subproblemsPerWorker} open nodes per worker.
+ *     Each open node is a decision path prefix which is replayed on a worker model as
+ *     a conjunction of unary constraints before the worker solves it.
+ *     Subproblems are dealt out in a double-ended queue per worker: a worker takes its work at the head of its
+ *     own queue and, when it is empty, steals from the tail of the others.
+ *     When dealing with an optimization problem, the best bound found so far is propagated to all workers
+ *     on solution and is set again before each new subproblem.
+ * </p>
+ * <p>
+ *     Between two subproblems, each worker solver is {@link Solver#reset()}, so stop criteria declared directly
+ *     on worker solvers are lost; declare them with {@link #addStopCriterion(Criterion)} instead.
+ *     Learning mechanisms that rely on the decision path (like nogoods from restarts) should not be plugged
+ *     into worker models, since what they learn is only valid in the subproblem it comes from.
+ * </p>
+ * <p>
+ *     Workers are run by a pool which is created on the first resolution and reused by the following ones.
+ *     Its threads are released by {@link #close()}.
+ * </p>
+ * <p>
+ *     See "Embarrassingly Parallel Search", J.-C. Régin, M. Rezgui and A. Malapert, CP 2013.
+ * </p>
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class ParallelEPS implements AutoCloseable {
+
+    /**
+     * Constant to encode {@link DecisionOperatorFactory#makeIntEq()}
+     */
+    private static final int EQ = 0;
+    /**
+     * Constant to encode {@link DecisionOperatorFactory#makeIntNeq()}
+     */
+    private static final int NEQ = 1;
+    /**
+     * Constant to encode {@link DecisionOperatorFactory#makeIntSplit()}
+     */
+    private static final int LEQ = 2;
+    /**
+     * Constant to encode {@link DecisionOperatorFactory#makeIntReverseSplit()}
+     */
+    private static final int GEQ = 3;
+
+    /**
+     * List of models to be solved in parallel.
+     */
+    private final List<Model> models;
+
+    /**
+     * Expected number of subproblems per worker.
+     */
+    private final int subproblemsPerWorker;
+
+    /**
+     * Stop criteria declared on the whole resolution
+     */
+    private final List<Criterion> criteria;
+
+    /**
+     * Wall-clock time limit of a resolution, in milliseconds, or -1 if none
+     */
+    private long timeLimit = -1;
+
+    /**
+     * Wall-clock deadline of the current resolution, set when it starts
+     */
+    private volatile long deadline;
+
+    /**
+     * Pool running the workers, created on the first resolution
+     */
+    private ForkJoinPool executor;
+
+    /**
+     * Per worker queues of subproblems
+     */
+    private ConcurrentLinkedDeque<int[]>[] deques;
+
+    /**
+     * Set to <tt>true</tt> to stop all workers
+     */
+    private volatile boolean stop;
+
+    /**
+     * Set to <tt>true</tt> when all solutions are expected
+     */
+    private boolean all;
+
+    /**
+     * Best solution found so far
+     */
+    private Solution best;
+
+    /**
+     * Solutions found, when all of them are expected
+     */
+    private final List<Solution> solutions;
+
+    /**
+     * Number of subproblems built by the last decomposition
+     */
+    private int nbSubproblems;
+
+    /**
+     * Number of subproblems stolen by a worker to another one
+     */
+    private final AtomicLong nbSteals;
+
+    /**
+     * Number of subproblems entirely explored
+     */
+    private final AtomicLong nbSolved;
+
+    /**
+     * Creates a new EPS helper, with 30 subproblems per worker.
+     */
+    public ParallelEPS() {
+        this(30);
+    }
+
+    /**
+     * Creates a new EPS helper
+     *
+     * @param subproblemsPerWorker number of subproblems to build per worker.
+     *                             Having many more subproblems than workers balances the load.
+     */
+    public ParallelEPS(int subproblemsPerWorker) {
+        if (subproblemsPerWorker < 1) {
+            throw new SolverException("The number of subproblems per worker should be strictly positive");
+        }
+        this.subproblemsPerWorker = subproblemsPerWorker;
+        this.models = new ArrayList<>();
+        this.criteria = new ArrayList<>();
+        this.solutions = Collections.synchronizedList(new ArrayList<>());
+        this.nbSteals = new AtomicLong();
+        this.nbSolved = new AtomicLong();
+    }
+
+    /**
+     * Adds a model to the list of models to run in parallel.
+     * The model must be identical to the ones already added.
+     *
+     * @param model a model to add
+     */
+    public void addModel(Model model) {
+        if (!models.isEmpty() && models.get(0).getNbVars() != model.getNbVars()) {
+            throw new SolverException("Models declared in an EPS should be identical");
+        }
+        this.models.add(model);
+    }
+
+    /**
+     * @return the (mutable!) list of models used in this EPS helper
+     */
+    public List<Model> getModels() {
+        return models;
+    }
+
+    /**
+     * Adds a stop criterion which is checked by all workers, during each subproblem resolution.
+     *
+     * @param criterion a stop criterion, should be thread-safe
+     */
+    public void addStopCriterion(Criterion criterion) {
+        this.criteria.add(criterion);
+    }
+
+    /**
+     * Limits the wall-clock time of each resolution, measured from the start of
+     * {@link #solve()} or {@link #findAllSolutions()}.
+     * Calling this method again replaces the previous limit.
+     *
+     * @param ms time limit, in milliseconds
+     */
+    public void limitTime(long ms) {
+        this.timeLimit = ms;
+    }
+
+    /**
+     * Solves the problem in parallel.
+     * <ul>
+     *     <li>SATISFACTION : computes a feasible solution; workers are stopped as soon as one is found.</li>
+     *     <li>OPTIMISATION : explores all subproblems and returns the optimal solution, unless a limit is reached.</li>
+     * </ul>
+     * Contrary to {@link Solver#solve()}, this method is not meant to be called in a loop.
+     *
+     * @return <tt>true</tt> if a solution has been found
+     * @see #getBestSolution()
+     */
+    public boolean solve() {
+        run(false);
+        return best != null;
+    }
+
+    /**
+     * Enumerates all solutions of the problem in parallel.
+     * When dealing with an optimization problem, the solutions are the improving ones found by the workers.
+     *
+     * @return the list of solutions found
+     */
+    public List<Solution> findAllSolutions() {
+        run(true);
+        return new ArrayList<>(solutions);
+    }
+
+    /**
+     * @return the last solution found when solving a satisfaction problem,
+     * the best one when solving an optimization problem, or <i>null</i> if no solution was found.
+     * Since all models are identical, values can be read with any model's variables.
+     */
+    public Solution getBestSolution() {
+        return best;
+    }
+
+    /**
+     * @return the number of subproblems built by the last decomposition
+     */
+    public int getSubproblemCount() {
+        return nbSubproblems;
+    }
+
+    /**
+     * @return the number of subproblems entirely explored during the last resolution
+     */
+    public long getSolvedSubproblemCount() {
+        return nbSolved.get();
+    }
+
+    /**
+     * @return the number of subproblems which were stolen by a worker to another one during the last resolution
+     */
+    public long getStealCount() {
+        return nbSteals.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run(boolean all) {
+        if (models.isEmpty()) {
+            throw new SolverException("No model found in the ParallelEPS.");
+        }
+        Model master = models.get(0);
+        if (master.getObjective() == null
+            && master.getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+            throw new SolverException(
+                "No objective variable has been defined whereas policy implies optimization");
+        }
+        this.all = all;
+        this.stop = false;
+        this.best = null;
+        this.solutions.clear();
+        this.nbSteals.set(0);
+        this.nbSolved.set(0);
+        this.deadline = timeLimit < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeLimit;
+        int nbWorkers = models.size();
+        deques = new ConcurrentLinkedDeque[nbWorkers];
+        for (int w = 0; w < nbWorkers; w++) {
+            deques[w] = new ConcurrentLinkedDeque<>();
+        }
+        List<int[]> subproblems = decompose(master, nbWorkers * subproblemsPerWorker);
+        nbSubproblems = subproblems.size();
+        for (int i = 0; i < subproblems.size(); i++) {
+            deques[i % nbWorkers].addLast(subproblems.get(i));
+        }
+        ForkJoinPool pool = getExecutor(nbWorkers);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        try {
+            for (int w = 0; w < nbWorkers; w++) {
+                int worker = w;
+                tasks.add(pool.submit(() -> work(worker)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            stop = true;
+            tasks.forEach(t -> t.cancel(true));
+            throw new SolverException("EPS resolution failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Release the threads of the pool running the workers, if any.
+     * A new pool will be created on the next resolution.
+     */
+    @Override
+    public void close() {
+        stop = true;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private ForkJoinPool getExecutor(int nbWorkers) {
+        if (executor == null) {
+            executor = new ForkJoinPool(nbWorkers);
+        } else if (executor.getParallelism() < nbWorkers) {
+            // models were added since the pool was created
+            executor.shutdownNow();
+            executor = new ForkJoinPool(nbWorkers);
+        }
+        return executor;
+    }
+
+    /**
+     * Expands the top of the search tree of <i>model</i>, breadth-first, until <i>target</i> nodes are open.
+     * A node is encoded as a decision path: a sequence of (variable index, operator, value, branch) quadruples.
+     *
+     * @param model  the model to split
+     * @param target expected number of subproblems
+     * @return list of subproblems, may be empty if the problem is trivially unsatisfiable
+     */
+    private static List<int[]> decompose(Model model, int target) {
+        Solver solver = model.getSolver();
+        AbstractStrategy<?> strategy = solver.getSearch();
+        if (strategy == null) {
+            strategy = Search.minDomLBSearch(model.retrieveIntVars(true));
+        }
+        Map<Variable, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < model.getNbVars(); i++) {
+            indices.put(model.getVar(i), i);
+        }
+        List<int[]> leaves = new ArrayList<>();
+        ArrayDeque<int[]> open = new ArrayDeque<>();
+        int root = model.getEnvironment().getWorldIndex();
+        try {
+            if (replay(model, new int[0]) && strategy.init()) {
+                open.addLast(new int[0]);
+            }
+            while (!open.isEmpty() && open.size() + leaves.size() < target) {
+                int[] path = open.pollFirst();
+                model.getEnvironment().worldPush();
+                Decision<?> dec = replay(model, path) ? strategy.getDecision() : null;
+                model.getEnvironment().worldPopUntil(root);
+                if (!(dec instanceof IntDecision) || !indices.containsKey(dec.getDecisionVariable())) {
+                    // a solution or a non-integer decision: the node cannot be split
+                    leaves.add(path);
+                } else {
+                    IntDecision idec = (IntDecision) dec;
+                    int var = indices.get(idec.getDecisionVariable());
+                    int op = encode(idec.getDecOp());
+                    int val = idec.getDecisionValue();
+                    for (int branch = 1; branch >= 0; branch--) {
+                        int[] child = Arrays.copyOf(path, path.length + 4);
+                        child[path.length] = var;
+                        child[path.length + 1] = op;
+                        child[path.length + 2] = val;
+                        child[path.length + 3] = branch;
+                        model.getEnvironment().worldPush();
+                        if (replay(model, child)) {
+                            open.addLast(child);
+                        }
+                        model.getEnvironment().worldPopUntil(root);
+                    }
+                }
+                if (dec != null) {
+                    dec.free();
+                }
+            }
+        } finally {
+            model.getEnvironment().worldPopUntil(root);
+            solver.reset();
+        }
+        leaves.addAll(open);
+        return leaves;
+    }
+
+    /**
+     * Applies the decision path <i>path</i> on <i>model</i> and propagates.
+     *
+     * @return <tt>false</tt> if a failure occurred
+     */
+    private static boolean replay(Model model, int[] path) {
+        try {
+            for (int i = 0; i < path.length; i += 4) {
+                IntVar var = (IntVar) model.getVar(path[i]);
+                DecisionOperator<IntVar> op = decode(path[i + 1]);
+                if (path[i + 3] == 1) {
+                    op.apply(var, path[i + 2], Cause.Null);
+                } else {
+                    op.unapply(var, path[i + 2], Cause.Null);
+                }
+            }
+            model.getSolver().propagate();
+            return true;
+        } catch (ContradictionException cex) {
+            model.getSolver().getEngine().flush();
+            return false;
+        }
+    }
+
+    /**
+     * Turns the decision path <i>path</i> into unary constraints on <i>model</i>.
+     */
+    private static Constraint[] toConstraints(Model model, int[] path) {
+        Constraint[] cstrs = new Constraint[path.length / 4];
+        for (int i = 0; i < path.length; i += 4) {
+            IntVar var = (IntVar) model.getVar(path[i]);
+            int val = path[i + 2];
+            boolean apply = path[i + 3] == 1;
+            Constraint c;
+            switch (path[i + 1]) {
+                case EQ:
+                    c = model.arithm(var, apply ? "=" : "!=", val);
+                    break;
+                case NEQ:
+                    c = model.arithm(var, apply ? "!=" : "=", val);
+                    break;
+                case LEQ:
+                    c = model.arithm(var, apply ? "<=" : ">", val);
+                    break;
+                case GEQ:
+                    c = model.arithm(var, apply ? ">=" : "<", val);
+                    break;
+                default:
+                    throw new SolverException("Unknown decision operator");
+            }
+            cstrs[i / 4] = c;
+        }
+        return cstrs;
+    }
+
+    private static int encode(DecisionOperator<IntVar> op) {
+        if (op == DecisionOperatorFactory.makeIntEq()) {
+            return EQ;
+        } else if (op == DecisionOperatorFactory.makeIntNeq()) {
+            return NEQ;
+        } else if (op == DecisionOperatorFactory.makeIntSplit()) {
+            return LEQ;
+        } else if (op == DecisionOperatorFactory.makeIntReverseSplit()) {
+            return GEQ;
+        }
+        throw new SolverException("ParallelEPS does not support decision operator " + op);
+    }
+
+    private static DecisionOperator<IntVar> decode(int op) {
+        switch (op) {
+            case EQ:
+                return DecisionOperatorFactory.makeIntEq();
+            case NEQ:
+                return DecisionOperatorFactory.makeIntNeq();
+            case LEQ:
+                return DecisionOperatorFactory.makeIntSplit();
+            case GEQ:
+                return DecisionOperatorFactory.makeIntReverseSplit();
+            default:
+                throw new SolverException("Unknown decision operator");
+        }
+    }
+
+    /**
+     * Main loop of the worker <i>w</i>: pops subproblems from its own queue, steals when it is empty.
+     */
+    private void work(int w) {
+        Model model = models.get(w);
+        Solver solver = model.getSolver();
+        int[] path;
+        while (!stop && (path = next(w)) != null) {
+            Constraint[] cstrs = toConstraints(model, path);
+            model.post(cstrs);
+            try {
+                solver.addStopCriterion(() -> stop);
+                if (timeLimit >= 0) {
+                    solver.addStopCriterion(() -> System.currentTimeMillis() > deadline);
+                }
+                criteria.forEach(solver::addStopCriterion);
+                shareBound(solver);
+                while (!stop && solver.solve()) {
+                    onSolution(model);
+                }
+                if (!solver.isStopCriterionMet()) {
+                    nbSolved.incrementAndGet();
+                } else {
+                    stop = true;
+                }
+            } finally {
+                solver.reset();
+                model.unpost(cstrs);
+            }
+        }
+    }
+
+    /**
+     * @return the next subproblem to be solved by worker <i>w</i>, or <i>null</i> if all queues are empty.
+     */
+    private int[] next(int w) {
+        int[] path = deques[w].pollFirst();
+        for (int i = 1; path == null && i < deques.length; i++) {
+            path = deques[(w + i) % deques.length].pollLast();
+            if (path != null) {
+                nbSteals.incrementAndGet();
+            }
+        }
+        return path;
+    }
+
+    private synchronized void shareBound(Solver solver) {
+        if (best != null && solver.getModel().getResolutionPolicy() != ResolutionPolicy.SATISFACTION) {
+            int val = best.getIntVal((IntVar) solver.getModel().getObjective());
+            if (solver.getModel().getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
+                solver.getObjectiveManager().updateBestLB(val);
+            } else {
+                solver.getObjectiveManager().updateBestUB(val);
+            }
+        }
+    }
+
+    private synchronized void onSolution(Model m) {
+        Solution sol = new Solution(m).record();
+        if (all) {
+            solutions.add(sol);
+        }
+        if (m.getResolutionPolicy() == ResolutionPolicy.SATISFACTION) {
+            best = sol;
+            if (!all) {
+                stop = true;
+            }
+        } else {
+            IntVar objective = (IntVar) m.getObjective();
+            int val = objective.getValue();
+            boolean improves = best == null
+                || (m.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE && val > best.getIntVal(objective))
+                || (m.getResolutionPolicy() == ResolutionPolicy.MINIMIZE && val < best.getIntVal(objective));
+            if (improves) {
+                best = sol;
+                if (m.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
+                    models.forEach(s1 -> s1.getSolver().getObjectiveManager().updateBestLB(val));
+                } else {
+                    models.forEach(s1 -> s1.getSolver().getObjectiveManager().updateBestUB(val));
+                }
+            }
+        }
+    }
+}
@@ -17,15 +17,24 @@ import static org.chocosolver.solver.search.strategy.Search.setVarSearch;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.chocosolver.cutoffseq.LubyCutoffStrategy;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.clauses.ClauseExchange;
 import org.chocosolver.solver.constraints.nary.sat.NogoodStealer;
 import org.chocosolver.solver.constraints.real.RealConstraint;
 import org.chocosolver.solver.exception.SolverException;
@@ -74,6 +83,12 @@ import org.chocosolver.solver.variables.Variable;
  *
  * </p>
  * <p>
+ *     Models are run by an executor which is created on the first resolution and reused by the following ones,
+ *     which matters when solutions are enumerated or improved one by one.
+ *     Its threads are released by {@link #close()}. A specific executor can be set with
+ *     {@link #setExecutor(ExecutorService)}.
+ * </p>
+ * <p>
  *     Note that the similarity of the models declared is not required.
  *     However, when dealing with an optimization problem, keep in mind that the cut on the objective variable's value
  *     is propagated among all models, so different objectives may lead to wrong results.
@@ -107,7 +122,7 @@ import org.chocosolver.solver.variables.Variable;
  * @author Charles Prud'homme, Jean-Guillaume Fages
  * @since 23/12/2015.
  */
-public class ParallelPortfolio {
+public class ParallelPortfolio implements AutoCloseable {
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ///////////////////////////////////////       VARIABLES       //////////////////////////////////////////////////////
@@ -122,9 +137,33 @@ public class ParallelPortfolio {
     /** This manager is used to synchronize nogood sharing.*/
     private NogoodStealer manager = NogoodStealer.NONE;
 
+    /** This exchange is used to share learnt signed clauses, may be null.*/
+    private ClauseExchange exchange;
+
     /** Stores whether or not prepare() method has been called */
     private boolean isPrepared = false;
 
+    /** Executor running the models, created on the first resolution if not set */
+    private ExecutorService executor;
+
+    /** Whether or not the executor has been created by this portfolio */
+    private boolean ownExecutor;
+
+    /** Maximum number of solutions buffered while streaming */
+    private int streamCapacity = 64;
+
+    /** Buffer of the current solution stream, <i>null</i> if there is no such stream */
+    private volatile BlockingQueue<Solution> streamed;
+
+    /** Set to <i>true</i> when the current solution stream is closed */
+    private volatile boolean streamClosed;
+
+    /** Tasks feeding the current solution stream */
+    private final List<Future<?>> streamTasks = new ArrayList<>();
+
+    /** Solutions recorded by a model while streaming, not yet pushed into the buffer */
+    private final Map<Model, Solution> pending = new ConcurrentHashMap<>();
+
     private AtomicBoolean solverTerminated = new AtomicBoolean(false);
     private AtomicBoolean solutionFound = new AtomicBoolean(false);
 
@@ -172,6 +211,27 @@ public class ParallelPortfolio {
         this.manager = new NogoodStealer();
     }
 
+    /**
+     * Calling this method will ensure that workers learning signed clauses
+     * (see {@link Solver#setLearningSignedClauses()}) publish their short learnt clauses
+     * and import the ones learnt by other workers, at restart or when backjumping to the root node.
+     * @param exchange the object in charge of sharing clauses among workers
+     * @implSpec
+     * It is assumed that all models in this portfolio are equivalent (ie, each variable has
+     * the same ID in each worker).
+     */
+    public void shareLearntClauses(ClauseExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    /**
+     * Share learnt signed clauses among workers with a default {@link ClauseExchange}.
+     * @see #shareLearntClauses(ClauseExchange)
+     */
+    public void shareLearntClauses() {
+        shareLearntClauses(new ClauseExchange());
+    }
+
     /**
      * <p>
      * Adds a model to the list of models to run in parallel.
@@ -206,25 +266,24 @@ public class ParallelPortfolio {
      * @throws SolverException if no model or only model has been added.
      */
     public boolean solve() {
+        closeStream();
         getSolverTerminated().set(false);
         getSolutionFound().set(false);
         if (!isPrepared) {
             prepare();
         }
-        ForkJoinPool forkJoinPool = new ForkJoinPool(models.size());
-        try {
-            forkJoinPool.submit(() -> models.parallelStream().forEach(m -> {
+        List<Future<?>> tasks = new ArrayList<>();
+        for (Model m : models) {
+            tasks.add(getExecutor().submit(() -> {
                 if (!getSolverTerminated().get()) {
                     boolean so = m.getSolver().solve();
                     if (!so || finder == m) {
                         getSolverTerminated().set(true);
                     }
                 }
-            })).get();
-        } catch (InterruptedException | ExecutionException | SolverException e) {
-            e.printStackTrace();
+            }));
         }
-        forkJoinPool.shutdownNow();
+        await(tasks);
         getSolverTerminated().set(false);// otherwise, solver.isStopCriterionMet() always returns true
         if(getSolutionFound().get() && models.get(0).getResolutionPolicy()!=ResolutionPolicy.SATISFACTION) {
             int bestAll = getBestModel().getSolver().getBestSolutionValue().intValue();
@@ -239,6 +298,59 @@ public class ParallelPortfolio {
         return getSolutionFound().get();
     }
 
+    /**
+     * Set the executor in charge of running the models.
+     * It must be able to run at least as many tasks concurrently as there are models.
+     * It is not shut down by {@link #close()}, this remains the responsibility of the caller.
+     * On a recent JVM, a virtual-thread based executor can be passed.
+     * <p>
+     * By default, a {@link ForkJoinPool} with one thread per model is created on the first resolution
+     * and is reused by all subsequent ones, until {@link #close()} is called.
+     * </p>
+     * @param executor an executor service
+     */
+    public void setExecutor(ExecutorService executor) {
+        close();
+        this.executor = executor;
+        this.ownExecutor = false;
+    }
+
+    /**
+     * Stop any pending resolution and release the threads of the executor created by this portfolio, if any.
+     * A new executor will be created on the next resolution.
+     */
+    @Override
+    public void close() {
+        closeStream();
+        if (ownExecutor && executor != null) {
+            executor.shutdownNow();
+        }
+        executor = null;
+        ownExecutor = false;
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = new ForkJoinPool(models.size());
+            ownExecutor = true;
+        } else if (ownExecutor && ((ForkJoinPool) executor).getParallelism() < models.size()) {
+            // models were added since the executor was created
+            executor.shutdownNow();
+            executor = new ForkJoinPool(models.size());
+        }
+        return executor;
+    }
+
+    private static void await(List<Future<?>> tasks) {
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException | ExecutionException | SolverException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Returns the first model from the list which, either :
      * <ul>
@@ -282,19 +394,77 @@ public class ParallelPortfolio {
      * <p>
      *
      * Note that all variables will be recorded
+     * <p>
+     * When dealing with an optimization problem, models are run concurrently: each time a model finds
+     * an improving solution, the solution is pushed into a bounded buffer (see {@link #setStreamCapacity(int)})
+     * from which the stream reads.
+     * Two models may find solutions of the same value concurrently, so the stream is not guaranteed to be strictly improving.
+     * When dealing with a satisfaction problem, each model would enumerate the whole search space on its own
+     * and the same solutions would be streamed several times: only the first model is run then,
+     * so that each solution is streamed once.
+     * When the buffer is full, models wait for the consumer.
+     * The resolution ends as soon as one model ends (naturally or by hitting a limit).
+     * If the stream is not fully consumed, it should be closed (for instance, with a try-with-resources statement)
+     * to stop the models; otherwise, they are stopped on the next resolution.
+     * </p>
      *
-     * @return a list that contained the found solutions.
+     * @return a stream of the found solutions.
      */
     public Stream<Solution> streamSolutions() {
+        closeStream();
+        getSolverTerminated().set(false);
+        getSolutionFound().set(false);
+        if (!isPrepared) {
+            prepare();
+        }
+        BlockingQueue<Solution> queue = new ArrayBlockingQueue<>(streamCapacity);
+        List<Model> workers = models.get(0).getResolutionPolicy() == ResolutionPolicy.SATISFACTION ?
+                models.subList(0, 1) : models;
+        AtomicInteger alive = new AtomicInteger(workers.size());
+        streamClosed = false;
+        streamed = queue;
+        for (Model m : workers) {
+            streamTasks.add(getExecutor().submit(() -> {
+                try {
+                    while (!getSolverTerminated().get() && m.getSolver().solve()) {
+                        Solution sol = pending.remove(m);
+                        if (sol != null) {
+                            while (!queue.offer(sol, 10, TimeUnit.MILLISECONDS)) {
+                                if (streamClosed) {
+                                    return;
+                                }
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    getSolverTerminated().set(true);
+                    if (alive.decrementAndGet() == 0) {
+                        getSolverTerminated().set(false);
+                    }
+                }
+            }));
+        }
         Spliterator<Solution> it = new Spliterator<Solution>() {
 
             @Override
             public boolean tryAdvance(Consumer<? super Solution> action) {
-                if (solve()) {
-                    action.accept(new Solution(getBestModel()).record());
-                    return true;
+                try {
+                    while (true) {
+                        Solution sol = queue.poll(10, TimeUnit.MILLISECONDS);
+                        if (sol != null) {
+                            action.accept(sol);
+                            return true;
+                        }
+                        if (alive.get() == 0 && queue.isEmpty()) {
+                            return false;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
                 }
-                return false;
             }
 
             @Override
@@ -309,11 +479,38 @@ public class ParallelPortfolio {
 
             @Override
             public int characteristics() {
-                return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT;
+                return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT;
             }
 
         };
-        return StreamSupport.stream(it, false);
+        return StreamSupport.stream(it, false).onClose(this::closeStream);
+    }
+
+    /**
+     * Set the maximum number of solutions buffered by {@link #streamSolutions()}
+     * before workers wait for the consumer (default is 64).
+     * @param capacity the capacity of the buffer, strictly positive
+     */
+    public void setStreamCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new SolverException("The capacity of the solution stream should be strictly positive");
+        }
+        this.streamCapacity = capacity;
+    }
+
+    /**
+     * Stop the workers feeding the last stream of solutions, if any, and wait for them.
+     */
+    private void closeStream() {
+        if (streamed != null) {
+            streamClosed = true;
+            getSolverTerminated().set(true);
+            await(streamTasks);
+            streamTasks.clear();
+            streamed = null;
+            pending.clear();
+            getSolverTerminated().set(false);
+        }
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -331,6 +528,9 @@ public class ParallelPortfolio {
             if(searchAutoConf){
                 configureModel(i);
             }
+            if(exchange != null){
+                exchange.connect(models.get(i));
+            }
         }
     }
 
@@ -338,6 +538,9 @@ public class ParallelPortfolio {
         if (m.getResolutionPolicy() == ResolutionPolicy.SATISFACTION) {
             finder = m;
             getSolutionFound().set(true);
+            if (streamed != null) {
+                pending.put(m, new Solution(m).record());
+            }
         }else{
             int solverVal = ((IntVar)m.getObjective()).getValue();
             int bestVal = m.getSolver().getObjectiveManager().getBestSolutionValue().intValue();
@@ -349,6 +552,9 @@ public class ParallelPortfolio {
             if(solverVal == bestVal){
                 getSolutionFound().set(true);
                 finder = m;
+                if (streamed != null) {
+                    pending.put(m, new Solution(m).record());
+                }
                 if (m.getResolutionPolicy() == ResolutionPolicy.MAXIMIZE) {
                     models.forEach(s1 -> s1.getSolver().getObjectiveManager().updateBestLB(bestVal));
                 }else {
@@ -56,6 +56,8 @@ public interface Settings {
                 "views.activate", this.enableViews()).toString()));
         this.setMaxDomSizeForEnumerated(Integer.valueOf(properties.getOrDefault(
                 "enumerated.threshold", this.getMaxDomSizeForEnumerated()).toString()));
+        this.setMinDomSizeForSparseSet(Integer.valueOf(properties.getOrDefault(
+                "sparseset.threshold", this.getMinDomSizeForSparseSet()).toString()));
         this.setMinCardinalityForSumDecomposition(Integer.valueOf(properties.getOrDefault(
                 "sum.decomposition.threshold", this.getMinCardForSumDecomposition()).toString()));
         this.setEnableTableSubstitution(Boolean.valueOf(properties.getOrDefault(
@@ -66,6 +68,8 @@ public interface Settings {
                 "tuple.threshold", this.getMaxTupleSizeForSubstitution()).toString()));
         this.setSortPropagatorActivationWRTPriority(Boolean.valueOf(properties.getOrDefault(
                 "propagators.sort", this.sortPropagatorActivationWRTPriority()).toString()));
+        this.setSplitInitialPropagationIntoComponents(Boolean.valueOf(properties.getOrDefault(
+                "propagators.components", this.splitInitialPropagationIntoComponents()).toString()));
         this.setWarnUser(Boolean.valueOf(properties.getOrDefault(
                 "user.warn", this.warnUser()).toString()));
         this.setEnableDecompositionOfBooleanSum(Boolean.valueOf(properties.getOrDefault(
@@ -78,6 +82,8 @@ public interface Settings {
                 "variables.prefix", this.defaultPrefix()));
         this.setEnableSAT(Boolean.valueOf(properties.getOrDefault(
                 "satsolver.activate", this.enableSAT()).toString()));
+        this.setDelegateToSATSolver(Boolean.valueOf(properties.getOrDefault(
+                "satsolver.delegate", this.delegateToSATSolver()).toString()));
         this.setSwapOnPassivate(Boolean.valueOf(properties.getOrDefault(
                 "propagators.swap", this.swapOnPassivate()).toString()));
         this.setCheckDeclaredConstraints(Boolean.valueOf(properties.getOrDefault(
@@ -92,6 +98,12 @@ public interface Settings {
                 "learnt.maxCard", this.getMaxLearntClauseCardinality()).toString()));
         this.setLearntClausesDominancePerimeter(Integer.valueOf(properties.getOrDefault(
                 "learnt.dominance", this.getLearntClausesDominancePerimeter()).toString()));
+        this.setLearntClausesCoreLBD(Integer.valueOf(properties.getOrDefault(
+                "learnt.lbd.core", this.getLearntClausesCoreLBD()).toString()));
+        this.setLearntClausesTier2LBD(Integer.valueOf(properties.getOrDefault(
+                "learnt.lbd.tier2", this.getLearntClausesTier2LBD()).toString()));
+        this.setLearntClausesInprocessingPeriod(Integer.valueOf(properties.getOrDefault(
+                "learnt.inprocessing", this.getLearntClausesInprocessingPeriod()).toString()));
         this.explainGlobalFailureInSum(Boolean.valueOf(properties.getOrDefault(
                 "learnt.sum.global", this.explainGlobalFailureInSum()).toString()));
         return this;
@@ -140,17 +152,20 @@ public interface Settings {
         properties.setProperty("welcome.message", this.getWelcomeMessage());
         properties.setProperty("views.activate", Boolean.toString(this.enableViews()));
         properties.setProperty("enumerated.threshold", Integer.toString(this.getMaxDomSizeForEnumerated()));
+        properties.setProperty("sparseset.threshold", Integer.toString(this.getMinDomSizeForSparseSet()));
         properties.setProperty("sum.decomposition.threshold", Integer.toString(this.getMinCardForSumDecomposition()));
         properties.setProperty("table.substitution", Boolean.toString(this.enableTableSubstitution()));
         properties.setProperty("MCR.precision", Double.toString(this.getMCRDecimalPrecision()));
         properties.setProperty("tuple.threshold", Integer.toString(this.getMaxTupleSizeForSubstitution()));
         properties.setProperty("propagators.sort", Boolean.toString(this.sortPropagatorActivationWRTPriority()));
+        properties.setProperty("propagators.components", Boolean.toString(this.splitInitialPropagationIntoComponents()));
         properties.setProperty("user.warn", Boolean.toString(this.warnUser()));
         properties.setProperty("boolsum.decomposition", Boolean.toString(this.enableDecompositionOfBooleanSum()));
         properties.setProperty("propagators.clonevars", Boolean.toString(this.cloneVariableArrayInPropagator()));
         properties.setProperty("sum.AConTernary", Boolean.toString(this.enableACOnTernarySum()));
         properties.setProperty("variables.prefix", this.defaultPrefix());
         properties.setProperty("satsolver.activate", Boolean.toString(enableSAT()));
+        properties.setProperty("satsolver.delegate", Boolean.toString(delegateToSATSolver()));
         properties.setProperty("propagators.swap", Boolean.toString(swapOnPassivate()));
         properties.setProperty("constraints.check", Boolean.toString(checkDeclaredConstraints()));
         properties.setProperty("constraints.check.printall", Boolean.toString(printAllUndeclaredConstraints()));
@@ -159,6 +174,9 @@ public interface Settings {
         properties.setProperty("learnt.ratio", Float.toString(this.getRatioForClauseStoreReduction()));
         properties.setProperty("learnt.maxCard", Integer.toString(this.getMaxLearntClauseCardinality()));
         properties.setProperty("learnt.dominance", Integer.toString(this.getLearntClausesDominancePerimeter()));
+        properties.setProperty("learnt.lbd.core", Integer.toString(this.getLearntClausesCoreLBD()));
+        properties.setProperty("learnt.lbd.tier2", Integer.toString(this.getLearntClausesTier2LBD()));
+        properties.setProperty("learnt.inprocessing", Integer.toString(this.getLearntClausesInprocessingPeriod()));
         properties.setProperty("learnt.sum.global", Boolean.toString(this.explainGlobalFailureInSum()));
         return properties;
     }
@@ -247,6 +265,23 @@ public interface Settings {
      */
     Settings setMaxDomSizeForEnumerated(int maxDomSizeForEnumerated);
 
+    /**
+     * @return minimum domain size threshold from which an enumerated integer variable is based on a
+     * sparse set instead of a bitset ({@link Integer#MAX_VALUE} means never)
+     */
+    int getMinDomSizeForSparseSet();
+
+    /**
+     * Define the minimum domain size threshold from which an enumerated integer variable is based on a
+     * sparse set instead of a bitset.
+     * A sparse set only trails its size, whatever the number of values removed, but its range
+     * is scanned to find bounds and next values.
+     * It suits medium-size domains with many value removals.
+     * @param minDomSizeForSparseSet domain size threshold, {@link Integer#MAX_VALUE} to disable sparse sets
+     * @return the current instance
+     */
+    Settings setMinDomSizeForSparseSet(int minDomSizeForSparseSet);
+
     /**
      * @return minimum number of cardinality threshold to a sum constraint to be decomposed
      */
@@ -312,6 +347,24 @@ public interface Settings {
      */
     Settings setSortPropagatorActivationWRTPriority(boolean sortPropagatorActivationWRTPriority);
 
+    /**
+     * @return {@code true} if the initial propagation is run one connected component of the constraint network at a time.
+     */
+    boolean splitInitialPropagationIntoComponents();
+
+    /**
+     * Set whether the initial propagation in {@link org.chocosolver.solver.propagation.PropagationEngine}
+     * is run one connected component at a time.
+     * Two propagators are in the same component when they share a variable (or a view of it).
+     * Components are activated from the cheapest to the most expensive one and each reaches its fix-point
+     * before the next one is activated, so that a failure is detected before activating expensive propagators
+     * of unrelated components.
+     *
+     * @param splitInitialPropagationIntoComponents {@code true} to propagate components one at a time
+     * @return the current instance
+     */
+    Settings setSplitInitialPropagationIntoComponents(boolean splitInitialPropagationIntoComponents);
+
     /**
      * Creates a default search strategy for the input model
      *
@@ -436,6 +489,22 @@ public interface Settings {
      */
     Settings setEnableSAT(boolean enableSAT);
 
+    /**
+     * @return <i>true</i> if a purely clausal model is first searched by the CDCL algorithm of the underlying SAT solver.
+     */
+    boolean delegateToSATSolver();
+
+    /**
+     * Indicate if the resolution of a satisfaction problem made of boolean variables and clauses only
+     * (declared through {@link ISatFactory} with {@link #enableSAT()} set to {@code true})
+     * is delegated to the CDCL algorithm of the underlying SAT solver.
+     * Its model, if any, is then used as a value heuristic by the search, so that the first solution is found
+     * without backtracking. If the SAT solver proves there is no solution, the search stops right away.
+     * @param delegateToSATSolver {@code true} to delegate the resolution of purely clausal models to the SAT solver
+     * @return the current instance
+     */
+    Settings setDelegateToSATSolver(boolean delegateToSATSolver);
+
     /**
      * @return <i>true</i> if, on propagator passivation, the propagator is swapped from active to passive in its variables' propagators list.
      * <i>false</i> if, on propagator passivation, only the propagator's state is set to PASSIVE.
@@ -594,6 +663,57 @@ public interface Settings {
      */
     Settings setLearntClausesDominancePerimeter(int n);
 
+    /**
+     * Learnt clauses whose Literal Block Distance (LBD) is less than or equal to this value
+     * are considered as core clauses and are never removed from the store.
+     * @return maximum LBD of core learnt clauses
+     * @see #getLearntClausesTier2LBD()
+     */
+    int getLearntClausesCoreLBD();
+
+    /**
+     * Set the maximum Literal Block Distance (LBD) of core learnt clauses,
+     * that are never removed from the store.
+     * @param lbd maximum LBD of core learnt clauses
+     * @return the current instance
+     * @see #setLearntClausesTier2LBD(int)
+     */
+    Settings setLearntClausesCoreLBD(int lbd);
+
+    /**
+     * Learnt clauses whose Literal Block Distance (LBD) is less than or equal to this value,
+     * but not core, are kept in the store as long as they are used in conflict analysis
+     * between two reductions. Otherwise, they are demoted to the local tier, which is reduced on activity.
+     * @return maximum LBD of tier-2 learnt clauses
+     * @see #getLearntClausesCoreLBD()
+     */
+    int getLearntClausesTier2LBD();
+
+    /**
+     * Set the maximum Literal Block Distance (LBD) of tier-2 learnt clauses.
+     * @param lbd maximum LBD of tier-2 learnt clauses
+     * @return the current instance
+     * @see #setLearntClausesCoreLBD(int)
+     */
+    Settings setLearntClausesTier2LBD(int lbd);
+
+    /**
+     * The learnt clauses are simplified, by subsumption and self-subsuming resolution,
+     * on the first restart that follows the learning of <i>n</i> clauses since the last simplification.
+     * n = 0 means no simplification.
+     * @return number of learnt clauses between two simplifications
+     */
+    int getLearntClausesInprocessingPeriod();
+
+    /**
+     * The learnt clauses are simplified, by subsumption and self-subsuming resolution,
+     * on the first restart that follows the learning of <i>n</i> clauses since the last simplification.
+     * n = 0 means no simplification.
+     * @param n number of learnt clauses between two simplifications
+     * @return the current instance
+     */
+    Settings setLearntClausesInprocessingPeriod(int n);
+
     /**
      * @return <i>true</i> if additional clauses can be learned from sum's global failure
      */
@@ -0,0 +1,456 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * A compact, append-only, store of solutions restricted to integer variables (including boolean
+ * ones).
+ * <p>
+ * Where a {@link Solution} maps each variable ID to its value in a hash map, this store packs the
+ * values of a solution in a row of <i>int</i>, in the order of the variables given on creation.
+ * Rows are appended one after the other in fixed-size segments of <i>int</i>.
+ * <br/>
+ * Optionally (see {@link #setDeltaEncoding(boolean)}), a row only stores the values that differ
+ * from the previous solution, as (position, value) pairs. A complete row is stored at least every
+ * {@link #KEYFRAME} solutions to bound the cost of random access.
+ * <br/>
+ * Optionally (see {@link #spillTo(File, long)}), segments beyond a given number of values are not
+ * allocated on the heap but mapped in a file.
+ * <p>
+ * Solutions can be read back with {@link #get(int, int[])}, {@link #getSolution(int)} or iterated
+ * over with {@link #iterator()} and {@link #rowIterator()}.
+ * <p>
+ * Example of use:
+ * <pre> {@code
+ * SolutionStore store = new SolutionStore(model);
+ * model.getSolver().findAllSolutions(store);
+ * for (Solution s : store) {
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class SolutionStore implements Iterable<Solution>, Closeable {
+
+    /**
+     * Maximum number of solutions between two complete rows, when delta encoding is enabled
+     */
+    public static final int KEYFRAME = 64;
+    /**
+     * Header of a complete row, when delta encoding is enabled
+     */
+    private static final int FULL = -1;
+    /**
+     * Log2 of the number of ints in a segment
+     */
+    private static final int SHIFT = 20;
+    /**
+     * Number of ints in a segment
+     */
+    private static final int SEGMENT = 1 << SHIFT;
+    /**
+     * Mask to get position in a segment
+     */
+    private static final int MASK = SEGMENT - 1;
+
+    /**
+     * The model
+     */
+    private final Model model;
+    /**
+     * Variables stored, in order
+     */
+    private final IntVar[] vars;
+    /**
+     * Segments of values
+     */
+    private final List<IntBuffer> segments;
+    /**
+     * Position of each row in the segments
+     */
+    private long[] offsets;
+    /**
+     * Number of solutions stored
+     */
+    private int size;
+    /**
+     * Next position to write in the segments
+     */
+    private long tail;
+    /**
+     * Set to <i>true</i> to delta-encode rows
+     */
+    private boolean delta;
+    /**
+     * Values of the last row appended
+     */
+    private final int[] last;
+    /**
+     * Buffer to collect current values
+     */
+    private final int[] current;
+    /**
+     * File to spill segments into, may be null
+     */
+    private File file;
+    /**
+     * Channel of {@link #file}
+     */
+    private FileChannel channel;
+    /**
+     * Number of segments allocated on the heap before spilling
+     */
+    private int heapSegments = Integer.MAX_VALUE;
+
+    /**
+     * Create a store of the values of <i>vars</i>.
+     *
+     * @param model the model
+     * @param vars  variables to store, all non-constant integer variables of <i>model</i> when
+     *              empty
+     */
+    public SolutionStore(Model model, IntVar... vars) {
+        this.model = model;
+        if (vars.length == 0) {
+            vars = Arrays.stream(model.retrieveIntVars(true))
+                .filter(v -> !v.isAConstant())
+                .toArray(IntVar[]::new);
+        }
+        this.vars = vars.clone();
+        this.segments = new ArrayList<>();
+        this.offsets = new long[16];
+        this.last = new int[vars.length];
+        this.current = new int[vars.length];
+    }
+
+    /**
+     * Enable or disable delta encoding of rows.
+     * Should be called before the first solution is stored.
+     *
+     * @param delta set to <i>true</i> to store only values that changed since the previous solution
+     * @return this store
+     */
+    public SolutionStore setDeltaEncoding(boolean delta) {
+        checkEmpty();
+        this.delta = delta;
+        return this;
+    }
+
+    /**
+     * Spill values into <i>file</i>, memory-mapped, once <i>maxHeapValues</i> values are stored on
+     * the heap.
+     * Should be called before the first solution is stored.
+     * The file is deleted on {@link #close()}.
+     *
+     * @param file          the file to map
+     * @param maxHeapValues number of values to keep on the heap, rounded up to a multiple of 2^20
+     * @return this store
+     */
+    public SolutionStore spillTo(File file, long maxHeapValues) {
+        checkEmpty();
+        this.file = file;
+        this.heapSegments = (int) ((maxHeapValues + SEGMENT - 1) >>> SHIFT);
+        return this;
+    }
+
+    private void checkEmpty() {
+        if (size > 0) {
+            throw new SolverException("SolutionStore: cannot be configured once solutions are stored");
+        }
+    }
+
+    /**
+     * Store the current values of the variables.
+     * All of them must be instantiated.
+     *
+     * @return the index of the solution in this store
+     */
+    public int record() {
+        for (int i = 0; i < vars.length; i++) {
+            current[i] = vars[i].getValue();
+        }
+        return add(current);
+    }
+
+    /**
+     * Store a solution given by the values of the variables, in order.
+     *
+     * @param values values of the variables
+     * @return the index of the solution in this store
+     */
+    public int add(int[] values) {
+        if (values.length != vars.length) {
+            throw new SolverException("SolutionStore: " + vars.length + " values expected");
+        }
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 3 / 2 + 1);
+        }
+        offsets[size] = tail;
+        if (!delta) {
+            for (int i = 0; i < values.length; i++) {
+                put(values[i]);
+            }
+        } else {
+            int k = 0;
+            if (size % KEYFRAME > 0) {
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != last[i]) {
+                        k++;
+                    }
+                }
+            }
+            if (size % KEYFRAME == 0 || 2 * k >= values.length) {
+                put(FULL);
+                for (int i = 0; i < values.length; i++) {
+                    put(values[i]);
+                }
+            } else {
+                put(k);
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != last[i]) {
+                        put(i);
+                        put(values[i]);
+                    }
+                }
+            }
+            System.arraycopy(values, 0, last, 0, values.length);
+        }
+        return size++;
+    }
+
+    private void put(int value) {
+        int s = (int) (tail >>> SHIFT);
+        if (s == segments.size()) {
+            segments.add(allocate(s));
+        }
+        segments.get(s).put((int) (tail & MASK), value);
+        tail++;
+    }
+
+    private int read(long pos) {
+        return segments.get((int) (pos >>> SHIFT)).get((int) (pos & MASK));
+    }
+
+    private IntBuffer allocate(int s) {
+        if (file == null || s < heapSegments) {
+            return IntBuffer.wrap(new int[SEGMENT]);
+        }
+        try {
+            if (channel == null) {
+                //noinspection resource
+                channel = new RandomAccessFile(file, "rw").getChannel();
+            }
+            long start = (long) (s - heapSegments) * SEGMENT * Integer.BYTES;
+            return channel.map(FileChannel.MapMode.READ_WRITE, start,
+                (long) SEGMENT * Integer.BYTES).asIntBuffer();
+        } catch (IOException e) {
+            throw new SolverException("SolutionStore: unable to map " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copy the values of the <i>index</i>-th solution into <i>dest</i>.
+     *
+     * @param index index of the solution
+     * @param dest  array to fill, of size {@link #getNbVars()} at least
+     * @return <i>dest</i>
+     */
+    public int[] get(int index, int[] dest) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (!delta) {
+            long p = offsets[index];
+            for (int i = 0; i < vars.length; i++) {
+                dest[i] = read(p++);
+            }
+        } else {
+            // go back to the last complete row
+            int from = index;
+            while (read(offsets[from]) != FULL) {
+                from--;
+            }
+            for (int j = from; j <= index; j++) {
+                decode(j, dest);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Apply the row <i>j</i> on <i>dest</i>, when delta encoding is enabled.
+     */
+    private void decode(int j, int[] dest) {
+        long p = offsets[j];
+        int k = read(p++);
+        if (k == FULL) {
+            for (int i = 0; i < vars.length; i++) {
+                dest[i] = read(p++);
+            }
+        } else {
+            for (int l = 0; l < k; l++) {
+                int i = read(p++);
+                dest[i] = read(p++);
+            }
+        }
+    }
+
+    /**
+     * @param index index of the solution
+     * @param var   a stored variable
+     * @return the value of <i>var</i> in the <i>index</i>-th solution
+     */
+    public int getIntVal(int index, IntVar var) {
+        for (int i = 0; i < vars.length; i++) {
+            if (vars[i] == var) {
+                return get(index, new int[vars.length])[i];
+            }
+        }
+        throw new SolverException("Cannot access value of " + var
+            + ": This variable has not been declared to be recorded in the SolutionStore.");
+    }
+
+    /**
+     * @param index index of the solution
+     * @return a new {@link Solution} holding the <i>index</i>-th solution
+     */
+    public Solution getSolution(int index) {
+        return toSolution(get(index, new int[vars.length]));
+    }
+
+    private Solution toSolution(int[] values) {
+        Solution sol = new Solution(model, vars);
+        for (int i = 0; i < vars.length; i++) {
+            sol.setIntVal(vars[i], values[i]);
+        }
+        return sol;
+    }
+
+    /**
+     * @return an iterator over the solutions, each of them being built on demand
+     */
+    @Override
+    public Iterator<Solution> iterator() {
+        Iterator<int[]> it = rowIterator();
+        return new Iterator<Solution>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Solution next() {
+                return toSolution(it.next());
+            }
+        };
+    }
+
+    /**
+     * Iterate over the solutions as rows of values, in the order of {@link #getVars()}.
+     * Sequential reading is cheap, even when delta encoding is enabled.
+     * <p>
+     * <b>Important:</b> the same array is returned on each call to {@link Iterator#next()}, it
+     * should be copied if needed.
+     *
+     * @return an iterator over the rows
+     */
+    public Iterator<int[]> rowIterator() {
+        return new Iterator<int[]>() {
+            final int[] row = new int[vars.length];
+            int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public int[] next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                if (delta) {
+                    decode(next++, row);
+                } else {
+                    get(next++, row);
+                }
+                return row;
+            }
+        };
+    }
+
+    /**
+     * @return the number of solutions stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return <i>true</i> if no solution is stored
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of variables stored per solution
+     */
+    public int getNbVars() {
+        return vars.length;
+    }
+
+    /**
+     * @return the variables stored, in order
+     */
+    public IntVar[] getVars() {
+        return vars.clone();
+    }
+
+    /**
+     * @return the number of ints used to store the solutions
+     */
+    public long getFootprint() {
+        return tail;
+    }
+
+    /**
+     * Release the resources of this store, and delete the spill file, if any.
+     * The store is then empty and can be reused.
+     */
+    @Override
+    public void close() throws IOException {
+        segments.clear();
+        size = 0;
+        tail = 0;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+}
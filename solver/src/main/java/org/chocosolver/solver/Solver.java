@@ -11,6 +11,8 @@ package org.chocosolver.solver;
 
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.cnf.SatConstraint;
+import org.chocosolver.solver.constraints.nary.sat.PropSat;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.learn.AbstractEventObserver;
@@ -18,6 +20,8 @@ import org.chocosolver.solver.objective.IBoundsManager;
 import org.chocosolver.solver.objective.IObjectiveManager;
 import org.chocosolver.solver.objective.ObjectiveFactory;
 import org.chocosolver.solver.propagation.PropagationEngine;
+import org.chocosolver.solver.propagation.PropagationProfiler;
+import org.chocosolver.solver.propagation.ProfilingPropagationEngine;
 import org.chocosolver.solver.search.SearchState;
 import org.chocosolver.solver.search.limits.ICounter;
 import org.chocosolver.solver.search.loop.Reporting;
@@ -35,8 +39,10 @@ import org.chocosolver.solver.search.measure.MeasuresRecorder;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.solver.trace.IOutputFactory;
+import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.Task;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.ESat;
@@ -379,6 +385,10 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
             stop = true;
             ok = false;
         }
+        if (ok && M.getChildMoves().size() <= 1 && M.getStrategy() == null
+                && mModel.getSettings().delegateToSATSolver() && isClausal()) {
+            ok = delegateToSATSolver();
+        }
         // call to HeuristicVal.update(Action.initial_propagation)
         if (M.getChildMoves().size() <= 1 && M.getStrategy() == null) {
             if (mModel.getSettings().warnUser()) {
@@ -403,6 +413,57 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         return ok;
     }
 
+    /**
+     * @return <i>true</i> if the model is a satisfaction problem over boolean variables
+     * whose constraints are all managed by the SAT solver
+     */
+    private boolean isClausal() {
+        if (mModel.getResolutionPolicy() != ResolutionPolicy.SATISFACTION
+                || mModel.getHook(Model.MINISAT_HOOK_NAME) == null) {
+            return false;
+        }
+        for (Constraint c : mModel.getCstrs()) {
+            if (!(c instanceof SatConstraint)) {
+                return false;
+            }
+        }
+        for (Variable v : mModel.getVars()) {
+            if ((v.getTypeAndKind() & Variable.KIND) != Variable.BOOL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Search for a solution with the CDCL algorithm of the SAT solver.
+     * When a solution is found, it is used as a value heuristic of the search,
+     * when there is no solution, the search is stopped.
+     * @return <i>false</i> if the SAT solver proved that there is no solution
+     */
+    private boolean delegateToSATSolver() {
+        PropSat sat = mModel.getMinisat().getPropSat();
+        switch (sat.searchSolution(this::isStopCriterionMet)) {
+            case TRUE:
+                setSearch(Search.intVarSearch(new InputOrder<>(mModel),
+                        v -> {
+                            int val = sat.getSolutionValue((BoolVar) v);
+                            return v.contains(val) ? val : v.getLB();
+                        },
+                        mModel.retrieveBoolVars()));
+                return true;
+            case FALSE:
+                mModel.getEnvironment().worldPop();
+                feasible = FALSE;
+                engine.flush();
+                getMeasures().incFailCount();
+                stop = true;
+                return false;
+            default:
+                return true;
+        }
+    }
+
     /**
      * Search loop propagation phase. This needs to be distinguished from {@link #propagate()}
      * @param left true if we are branching on the left false otherwise
@@ -920,6 +981,31 @@ public class Solver implements ISolver, IMeasures, IOutputFactory {
         return engine;
     }
 
+    /**
+     * Enable profiling of the propagation: from now on, the propagation engine collects, per
+     * propagator, the number of calls, the time spent, the number of failures and the number of
+     * domain modifications caused, see {@link PropagationProfiler}.
+     * The current engine is replaced by a {@link ProfilingPropagationEngine}, which takes over its
+     * internal structures, so this should not be called during propagation.
+     * Calling this method again returns the profiler already plugged.
+     *
+     * @return the profiler plugged into the propagation engine
+     */
+    public PropagationProfiler profilePropagation() {
+        if (engine.getProfiler() == null) {
+            engine = new ProfilingPropagationEngine(engine, new PropagationProfiler());
+        }
+        return engine.getProfiler();
+    }
+
+    /**
+     * @return the propagation profiler, or <i>null</i> if profiling is not enabled
+     * @see #profilePropagation()
+     */
+    public PropagationProfiler getPropagationProfiler() {
+        return engine.getProfiler();
+    }
+
     /**
      * Returns information on the feasibility of the current problem defined by the solver.
      * <p>
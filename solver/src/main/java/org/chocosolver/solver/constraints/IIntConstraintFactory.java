@@ -18,6 +18,7 @@ import org.chocosolver.solver.ISelf;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.binary.*;
 import org.chocosolver.solver.constraints.binary.element.ElementFactory;
+import org.chocosolver.solver.constraints.extension.MappedTuples;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.constraints.extension.TuplesFactory;
 import org.chocosolver.solver.constraints.extension.binary.*;
@@ -70,6 +71,7 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Task;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.objects.graphs.MDDBuilder;
 import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.chocosolver.util.tools.ArrayUtils;
@@ -2061,18 +2063,28 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * Creates a table constraint specifying that the sequence of variables vars must belong to the list of tuples
      * (or must NOT belong in case of infeasible tuples)
      *
-     * Default configuration with GACSTR+ algorithm for feasible tuples and GAC3rm otherwise
+     * Default configuration with GACSTR+ algorithm for feasible tuples and GAC3rm otherwise.
+     * CT+ is preferred for large tables over small domains, tables with universal values
+     * and tables read from disk ({@link org.chocosolver.solver.constraints.extension.MappedTuples}).
+     * Similarly, CT- is preferred for forbidden tuples over small domains, or read from disk.
      *
      * @param vars      variables forming the tuples
      * @param tuples    the relation between the variables (list of allowed/forbidden tuples)
      */
     default Constraint table(IntVar[] vars, Tuples tuples) {
         String algo = "GAC3rm";
-        if (tuples.isFeasible()) {
+        if (!tuples.isFeasible()) {
+            if (tuples.nbTuples() > 0 && IntStream.range(0, vars.length)
+                    .map(i -> tuples.max(i) - tuples.min(i))
+                    .max().getAsInt() < 256 || tuples instanceof MappedTuples) {
+                algo = "CT-";
+            }
+        } else {
             if (tuples.nbTuples() > 512 &&
                     (IntStream.range(0, vars.length)
                             .map(i -> tuples.max(i) - tuples.min(i))
-                            .max().getAsInt()) < 256 || tuples.allowUniversalValue()) {
+                            .max().getAsInt()) < 256 || tuples.allowUniversalValue()
+                    || tuples instanceof MappedTuples) {
                 algo = "CT+";
             } else {
                 algo = "GACSTR+";
@@ -2086,6 +2098,8 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      * <p>
      * - <b>CT+</b>: Compact-Table algorithm (AC),
      * <br/>
+     * - <b>CT-</b>: Compact-Table algorithm for forbidden tuples (AC),
+     * <br/>
      * - <b>GAC2001</b>: Arc Consistency version 2001 for tuples,
      * <br/>
      * - <b>GAC2001+</b>: Arc Consistency version 2001 for allowed tuples,
@@ -2104,7 +2118,7 @@ public interface IIntConstraintFactory extends ISelf<Model> {
      *
      * @param vars      variables forming the tuples
      * @param tuples    the relation between the variables (list of allowed/forbidden tuples). Should not be modified once passed to the constraint.
-     * @param algo to choose among {"TC+", "GAC3rm", "GAC2001", "GACSTR", "GAC2001+", "GAC3rm+", "FC", "STR2+"}
+     * @param algo to choose among {"CT+", "CT-", "GAC3rm", "GAC2001", "GACSTR", "GAC2001+", "GAC3rm+", "FC", "STR2+"}
      */
     default Constraint table(IntVar[] vars, Tuples tuples, String algo) {
         if (!tuples.allowUniversalValue() && vars.length == 2) {
@@ -2122,6 +2136,9 @@ public interface IIntConstraintFactory extends ISelf<Model> {
         if (algo.contains("+") && !tuples.isFeasible()) {
             throw new SolverException(algo + " table algorithm cannot be used with forbidden tuples.");
         }
+        if (algo.contains("-") && tuples.isFeasible()) {
+            throw new SolverException(algo + " table algorithm cannot be used with allowed tuples.");
+        }
         if (tuples.allowUniversalValue() && !algo.contains("CT+")) {
             throw new SolverException(algo + " table algorithm cannot be used with short tuples.");
         }
@@ -2135,8 +2152,11 @@ public interface IIntConstraintFactory extends ISelf<Model> {
                 }
             }
             break;
+            case "CT-":
+                p = new PropCompactTableNeg(vars, tuples);
+                break;
             case "MDD+":
-                p = new PropLargeMDDC(new MultivaluedDecisionDiagram(vars, tuples), vars);
+                p = new PropLargeMDDC(MDDBuilder.build(vars, tuples), vars);
                 break;
             case "FC":
                 p = new PropLargeFC(vars, tuples);
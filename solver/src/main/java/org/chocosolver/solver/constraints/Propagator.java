@@ -776,6 +776,21 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
         return reactToFineEvt;
     }
 
+    /**
+     * Declares whether this propagator is idempotent, that is, whether a call to its filtering
+     * algorithm always reaches its own fix point.
+     * <p>
+     * The propagation engine does not schedule an idempotent propagator on the modifications it
+     * caused itself, since propagating it again would be useless.
+     * A propagator that does not reach its own fix point in one call should override this method
+     * and return <i>false</i>: it is then scheduled again on its own modifications.
+     *
+     * @return <i>true</i> by default
+     */
+    public boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public String toString() {
         StringBuilder st = new StringBuilder();
@@ -931,6 +946,14 @@ public abstract class Propagator<V extends Variable> implements ICause, Identity
         }
     }
 
+    /**
+     * @return the number of fine events pending, that is, the number of calls to
+     * {@link #propagate(int, int)} the next {@link #doFinePropagation()} will do
+     */
+    public int getNbPendingEvents() {
+        return eventsets == null ? 0 : eventsets.size();
+    }
+
     /**
      * Flush pending events
      */
@@ -0,0 +1,166 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension;
+
+import org.chocosolver.solver.exception.SolverException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tuples read from a file written by {@link TuplesWriter}.
+ * <p>
+ * The file is memory-mapped, tuples are never loaded in the heap:
+ * values are read on demand by {@link #get(int, int)}, which is what compact table propagators
+ * rely on to build their supports.
+ * Such tuples are {@link #isImmutable() immutable}, hence shareable among constraints and models.
+ * <p>
+ * Files larger than 2GB are mapped by segments.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class MappedTuples extends Tuples {
+
+    /**
+     * Number of tuples per mapped segment
+     */
+    private final int rowsPerSegment;
+    /**
+     * Mapped segments of tuples, row by row
+     */
+    private final IntBuffer[] segments;
+    private final int arity;
+    private final int size;
+    private final int[] ranges;
+
+    /**
+     * Map the tuples stored in <i>file</i>.
+     *
+     * @param file a file written by {@link TuplesWriter}
+     * @throws IOException if the file cannot be read
+     * @throws SolverException if the file is not in the expected format
+     */
+    public MappedTuples(File file) throws IOException {
+        this(file, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Map the tuples stored in <i>file</i>, with segments of at most <i>segmentSize</i> bytes.
+     *
+     * @param file        a file written by {@link TuplesWriter}
+     * @param segmentSize maximum size of a mapped segment, in bytes
+     * @throws IOException if the file cannot be read
+     * @throws SolverException if the file is not in the expected format
+     */
+    public MappedTuples(File file, int segmentSize) throws IOException {
+        this(file, segmentSize, readHeader(file));
+    }
+
+    private MappedTuples(File file, int segmentSize, int[] header) throws IOException {
+        super((header[2] & 1) != 0);
+        if ((header[2] & 2) != 0) {
+            setUniversalValue(header[3]);
+        }
+        this.arity = header[4];
+        this.size = header[5];
+        this.ranges = new int[2 * arity];
+        System.arraycopy(header, 6, ranges, 0, 2 * arity);
+        this.rowsPerSegment = Math.max(1, segmentSize / (4 * Math.max(arity, 1)));
+        int nbSegments = size == 0 ? 0 : (size - 1) / rowsPerSegment + 1;
+        this.segments = new IntBuffer[nbSegments];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long position = TuplesWriter.headerSize(arity);
+            if (channel.size() < position + 4L * arity * size) {
+                throw new SolverException(file + " is truncated");
+            }
+            for (int s = 0; s < nbSegments; s++) {
+                int rows = Math.min(rowsPerSegment, size - s * rowsPerSegment);
+                long length = 4L * arity * rows;
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                        .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                position += length;
+            }
+        }
+        makeImmutable();
+    }
+
+    private static int[] readHeader(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, buffer);
+            if (buffer.getInt(0) != TuplesWriter.MAGIC || buffer.getInt(4) != TuplesWriter.VERSION) {
+                throw new SolverException(file + " is not a table written by TuplesWriter");
+            }
+            int arity = buffer.getInt(16);
+            int[] header = new int[6 + 2 * arity];
+            for (int i = 0; i < 6; i++) {
+                header[i] = buffer.getInt(4 * i);
+            }
+            buffer = ByteBuffer.allocate(8 * arity).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, buffer);
+            for (int i = 0; i < 2 * arity; i++) {
+                header[6 + i] = buffer.getInt(4 * i);
+            }
+            return header;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new SolverException("Unexpected end of file");
+            }
+        }
+    }
+
+    @Override
+    public int nbTuples() {
+        return size;
+    }
+
+    @Override
+    public int arity() {
+        return arity;
+    }
+
+    @Override
+    public int min(int idx) {
+        return ranges[idx];
+    }
+
+    @Override
+    public int max(int idx) {
+        return ranges[idx + arity];
+    }
+
+    @Override
+    public int[] get(int idx) {
+        int[] tuple = new int[arity];
+        IntBuffer segment = segments[idx / rowsPerSegment];
+        int p = (idx % rowsPerSegment) * arity;
+        for (int i = 0; i < arity; i++) {
+            tuple[i] = segment.get(p + i);
+        }
+        return tuple;
+    }
+
+    @Override
+    public int get(int idx, int col) {
+        return segments[idx / rowsPerSegment].get((idx % rowsPerSegment) * arity + col);
+    }
+}
@@ -12,16 +12,23 @@ package org.chocosolver.solver.constraints.extension;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.sort.ArraySort;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
 
 /**
  * A unique interface to declare tuples for table constraints.
  * Handles both feasible tuples and forbidden tuples.
  * <br/>
+ * Tuples are stored column by column, one <i>int</i> array per variable,
+ * which avoids one array object per tuple and makes scanning a column cache-friendly.
+ * <br/>
+ * Once {@link #makeImmutable()} has been called, tuples cannot be modified anymore.
+ * Immutable tuples can then be shared by many table constraints, possibly posted in different models,
+ * and the supports computed by compact table propagators are reused among them.
+ * <br/>
+ * Very large tables can be written on disk with {@link TuplesWriter} and read back with {@link MappedTuples}.
+ * <br/>
  *
  * @author Charles Prud'homme
  * @since 22/04/2014
@@ -33,11 +40,19 @@ public class Tuples {
 	//***********************************************************************************
 
 	private final boolean feasible;
-	protected final List<int[]> tuples;
+	/**
+	 * Tuples, column by column: <i>columns[i][t]</i> is the value of the i^th variable in the t^th tuple
+	 */
+	private int[][] columns;
+	/**
+	 * Number of tuples stored
+	 */
+	private int size;
 	private int arity;
 	private int[] ranges;
 	private boolean allowStar;
 	private int star;
+	private boolean immutable;
 
 	//***********************************************************************************
 	// CONSTRUCTOR
@@ -54,7 +69,9 @@ public class Tuples {
      */
     public Tuples(int[][] values, boolean feasible) {
         this.feasible = feasible;
-        tuples = new ArrayList<>();
+        if (values.length > 0) {
+            init(values[0].length, values.length);
+        }
         for(int[] t : values){
             add(t);
         }
@@ -68,7 +85,6 @@ public class Tuples {
 	 */
 	public Tuples(boolean feasible) {
 		this.feasible = feasible;
-		tuples = new ArrayList<>();
 	}
 
 	/**
@@ -82,12 +98,47 @@ public class Tuples {
 	// METHODS
 	//***********************************************************************************
 
+	private void init(int arity, int capacity) {
+		this.arity = arity;
+		columns = new int[arity][Math.max(capacity, 16)];
+		ranges = new int[2 * arity];
+		Arrays.fill(ranges, 0, arity, Integer.MAX_VALUE);
+		Arrays.fill(ranges, arity, 2 * arity, Integer.MIN_VALUE);
+	}
+
+	private void checkMutable() {
+		if (immutable) {
+			throw new SolverException("Immutable tuples cannot be modified");
+		}
+	}
+
+	/**
+	 * Forbid any further modification of these tuples.
+	 * Immutable tuples can safely be shared among constraints, and models,
+	 * and the data structures that table propagators precompute from them are shared too.
+	 *
+	 * @return this
+	 */
+	public Tuples makeImmutable() {
+		this.immutable = true;
+		return this;
+	}
+
+	/**
+	 * @return <i>true</i> if these tuples cannot be modified anymore
+	 */
+	public boolean isImmutable() {
+		return immutable;
+	}
+
 	/**
 	 * One can allow the presence of universal values,
 	 * meaning that some variables can take any values from their domain.
 	 * @param star the universal value that can appear in any tuple.
+	 * @throws SolverException if these tuples are immutable
 	 */
 	public void setUniversalValue(int star){
+		checkMutable();
 		this.star = star;
 		this.allowStar = true;
 	}
@@ -117,8 +168,8 @@ public class Tuples {
 		if(nbTuples() == 0){
 			return isFeasible()? ESat.FALSE: ESat.TRUE;
 		}
-		if(vars.length != arity){
-			throw new SolverException("The given variable array does not match the arity: " + arity);
+		if(vars.length != arity()){
+			throw new SolverException("The given variable array does not match the arity: " + arity());
 		}
 		int[] values = new int[vars.length];
 		for (int i=0;i<vars.length;i++) {
@@ -129,10 +180,10 @@ public class Tuples {
 			}
 		}
 		for (int ti = 0; ti < nbTuples(); ti++) {
-			int[] tuple = tuples.get(ti);
 			boolean valid = true;
 			for (int i = 0; i < values.length && valid; i++) {
-				valid = tuple[i] == values[i] || (allowStar && tuple[i] == star);
+				int v = get(ti, i);
+				valid = v == values[i] || (allowStar && v == star);
 			}
 			if (valid) {
 				return isFeasible()? ESat.TRUE: ESat.FALSE;
@@ -145,22 +196,28 @@ public class Tuples {
 	 * Add a new tuple to the set of tuples
 	 *
 	 * @param tuple a tuple.
-	 * @throws org.chocosolver.solver.exception.SolverException if the size of the tuple added does not correspond to a the previous ones (if any).
+	 * @throws org.chocosolver.solver.exception.SolverException if the size of the tuple added does not correspond to a the previous ones (if any),
+	 * or if these tuples are immutable.
 	 */
 	public void add(int... tuple) {
-		if (tuples.size() == 0) {
-			arity = tuple.length;
-			ranges = new int[2 * arity];
-			Arrays.fill(ranges, 0, arity, Integer.MAX_VALUE);
-			Arrays.fill(ranges, arity, 2 * arity, Integer.MIN_VALUE);
+		checkMutable();
+		if (columns == null) {
+			init(tuple.length, 16);
 		} else if (arity != tuple.length) {
 			throw new SolverException("The given tuple does not match the arity: " + arity);
 		}
-		tuples.add(tuple.clone());
+		if (arity > 0 && size == columns[0].length) {
+			int capacity = size * 3 / 2 + 1;
+			for (int i = 0; i < arity; i++) {
+				columns[i] = Arrays.copyOf(columns[i], capacity);
+			}
+		}
 		for (int i = 0; i < arity; i++) {
+			columns[i][size] = tuple[i];
 			ranges[i] = Math.min(ranges[i], tuple[i]);
 			ranges[i + arity] = Math.max(ranges[i + arity], tuple[i]);
 		}
+		size++;
 	}
 
 	/**
@@ -209,21 +266,45 @@ public class Tuples {
 	 * @return number of tuples stored
 	 */
 	public int nbTuples() {
-		return tuples.size();
+		return size;
 	}
 
 	/**
-	 * Return the idx^th tuple
+	 * Return the arity of the tuples, 0 if no tuple has been added yet
+	 *
+	 * @return arity of the tuples
+	 */
+	public int arity() {
+		return arity;
+	}
+
+	/**
+	 * Return the idx^th tuple, as a new array
 	 */
 	public int[] get(int idx) {
-		return tuples.get(idx);
+		int[] tuple = new int[arity];
+		for (int i = 0; i < arity; i++) {
+			tuple[i] = columns[i][idx];
+		}
+		return tuple;
+	}
+
+	/**
+	 * Return the value of the col^th variable in the idx^th tuple
+	 *
+	 * @param idx index of the tuple
+	 * @param col index of the column
+	 * @return a value
+	 */
+	public int get(int idx, int col) {
+		return columns[col][idx];
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder st = new StringBuilder(isFeasible() ? "Allowed" : "Fordidden").append(" tuples: {");
-		for (int i = 0; i < tuples.size(); i++) {
-			st.append(Arrays.toString(tuples.get(i)));
+		for (int i = 0; i < nbTuples(); i++) {
+			st.append(Arrays.toString(get(i)));
 		}
 
 		st.append("}");
@@ -235,28 +316,36 @@ public class Tuples {
 	 * @return an array of tuples, each tuple is an int array
 	 */
 	public int[][] toMatrix() {
-		int i = 0;
-		int[][] matrix = new int[tuples.size()][];
-		for (int[] tuple : tuples) {
-			matrix[i++] = tuple.clone();
+		int[][] matrix = new int[nbTuples()][];
+		for (int i = 0; i < matrix.length; i++) {
+			matrix[i] = get(i);
 		}
 		return matrix;
 	}
 
+	/**
+	 * Sort tuples in lexicographical order.
+	 * @throws SolverException if these tuples are immutable
+	 */
 	public void sort() {
-		tuples.sort(new TupleComparator());
-	}
-
-	private static class TupleComparator implements Comparator<int[]> {
-
-		@Override
-		public int compare(int[] o1, int[] o2) {
+		checkMutable();
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		new ArraySort<>(size, false, true).sort(order, size, (t1, t2) -> {
 			int i = 0;
-			int l = o1.length;
-			while (i < l && o1[i] == o2[i]) {
+			while (i < arity && columns[i][t1] == columns[i][t2]) {
 				i++;
 			}
-			return (i == l ? 0 : o1[i] - o2[i]);
+			return (i == arity ? 0 : Integer.compare(columns[i][t1], columns[i][t2]));
+		});
+		for (int i = 0; i < arity; i++) {
+			int[] column = new int[columns[i].length];
+			for (int t = 0; t < size; t++) {
+				column[t] = columns[i][order[t]];
+			}
+			columns[i] = column;
 		}
 	}
 }
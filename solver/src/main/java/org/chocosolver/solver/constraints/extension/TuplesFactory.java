@@ -50,7 +50,7 @@ public class TuplesFactory {
             t[j] = doms[j][0];
         }
         while (true) {
-            if (filter.valid(t)) tuples.add(t.clone());
+            if (filter.valid(t)) tuples.add(t);
             int j;
             for (j = 0; j < n; j++) {
                 i[j]++;
@@ -85,7 +85,7 @@ public class TuplesFactory {
             t[j] = cvalue[j] = vars[j].getLB();
         }
         while (true) {
-            if (filter.valid(t)) tuples.add(t.clone());
+            if (filter.valid(t)) tuples.add(t);
             int j;
             for (j = 0; j < n; j++) {
                 int v = t[j] = cvalue[j] = vars[j].nextValue(cvalue[j]);
@@ -296,7 +296,7 @@ public class TuplesFactory {
             for (int i = 0; i < VARS.length; i++) {
                 t[i] = k;
             }
-            tuples.add(t.clone());
+            tuples.add(t);
         }
         return tuples;
         /*return generateTuples(new TupleValidator() {
@@ -350,7 +350,8 @@ public class TuplesFactory {
         Tuples left = generateTuples(TupleValidator.TRUE, true, VARS);
         Tuples tuples = new Tuples(true);
         int n = VARS.length;
-        for (int[] tleft : left.tuples) {
+        for (int k = 0; k < left.nbTuples(); k++) {
+            int[] tleft = left.get(k);
             int right = 0;
             for (int i = 0; i < n; i++) {
                 right += tleft[i] * COEFFS[i];
@@ -0,0 +1,198 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension;
+
+import org.chocosolver.solver.exception.SolverException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes tuples in the binary format read by {@link MappedTuples}, one tuple after the other,
+ * so that very large tables never need to be held in memory.
+ * <p>
+ * The format is made of, in little-endian order:
+ * <ul>
+ *     <li>a header of 6 <i>int</i>: {@link #MAGIC}, {@link #VERSION}, flags (1: allowed tuples,
+ *     2: universal value allowed), the universal value, the arity and the number of tuples,</li>
+ *     <li>the smallest value of each column, then the largest value of each column,</li>
+ *     <li>the tuples, row by row, each value on 4 bytes.</li>
+ * </ul>
+ * Header and bounds are written on {@link #close()}.
+ * <p>
+ * Example of use:
+ * <pre> {@code
+ * try (TuplesWriter writer = new TuplesWriter(file, 3, true)) {
+ *     writer.add(0, 1, 2);
+ *     writer.add(1, 2, 0);
+ * }
+ * model.table(vars, new MappedTuples(file)).post();
+ * }</pre>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class TuplesWriter implements Closeable {
+
+    /**
+     * Magic number of the format
+     */
+    public static final int MAGIC = 0x43485442;
+    /**
+     * Version of the format
+     */
+    public static final int VERSION = 1;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int arity;
+    private final boolean feasible;
+    private final int[] ranges;
+    private boolean allowStar;
+    private int star;
+    private int size;
+    private boolean closed;
+
+    /**
+     * Create a writer of tuples into <i>file</i>, which is overwritten.
+     *
+     * @param file     where tuples are written
+     * @param arity    arity of the tuples
+     * @param feasible indicates whether the tuples are allowed or forbidden
+     * @throws IOException if the file cannot be opened
+     */
+    public TuplesWriter(File file, int arity, boolean feasible) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.arity = arity;
+        this.feasible = feasible;
+        this.ranges = new int[2 * arity];
+        Arrays.fill(ranges, 0, arity, Integer.MAX_VALUE);
+        Arrays.fill(ranges, arity, 2 * arity, Integer.MIN_VALUE);
+        this.buffer = ByteBuffer.allocate(Math.max(1 << 16, 4 * arity)).order(ByteOrder.LITTLE_ENDIAN);
+        channel.position(headerSize(arity));
+    }
+
+    /**
+     * @param arity arity of the tuples
+     * @return number of bytes before the first tuple
+     */
+    static int headerSize(int arity) {
+        return 4 * (6 + 2 * arity);
+    }
+
+    /**
+     * Allow the presence of universal values.
+     *
+     * @param star the universal value that can appear in any tuple.
+     * @see Tuples#setUniversalValue(int)
+     */
+    public void setUniversalValue(int star) {
+        this.star = star;
+        this.allowStar = true;
+    }
+
+    /**
+     * Add a new tuple
+     *
+     * @param tuple a tuple
+     * @throws IOException if the tuple cannot be written
+     * @throws SolverException if the size of the tuple does not match the arity
+     */
+    public void add(int... tuple) throws IOException {
+        if (tuple.length != arity) {
+            throw new SolverException("The given tuple does not match the arity: " + arity);
+        }
+        if (buffer.remaining() < 4 * arity) {
+            flush();
+        }
+        for (int i = 0; i < arity; i++) {
+            buffer.putInt(tuple[i]);
+            ranges[i] = Math.min(ranges[i], tuple[i]);
+            ranges[i + arity] = Math.max(ranges[i + arity], tuple[i]);
+        }
+        size++;
+    }
+
+    /**
+     * @return number of tuples written so far
+     */
+    public int nbTuples() {
+        return size;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Write the remaining tuples and the header, and close the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(headerSize(arity)).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putInt((feasible ? 1 : 0) | (allowStar ? 2 : 0))
+                    .putInt(star).putInt(arity).putInt(size);
+            for (int r : ranges) {
+                header.putInt(r);
+            }
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Write <i>tuples</i> into <i>file</i>, in the format read by {@link MappedTuples}.
+     *
+     * @param tuples tuples to write
+     * @param file   where tuples are written
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Tuples tuples, File file) throws IOException {
+        try (TuplesWriter writer = new TuplesWriter(file, tuples.arity(), tuples.isFeasible())) {
+            if (tuples.allowUniversalValue()) {
+                writer.setUniversalValue(tuples.getStarValue());
+            }
+            int[] tuple = new int[tuples.arity()];
+            for (int t = 0; t < tuples.nbTuples(); t++) {
+                for (int i = 0; i < tuple.length; i++) {
+                    tuple[i] = tuples.get(t, i);
+                }
+                writer.add(tuple);
+            }
+        }
+    }
+}
@@ -40,9 +40,10 @@ class CouplesTable extends BinRelation {
         feasible = tuples.isFeasible();
         int nt = tuples.nbTuples();
         for (int i = 0; i < nt; i++) {
-            int[] tuple = tuples.get(i);
-            if (var1.contains(tuple[0]) && var2.contains(tuple[1]))
-                table.set((tuple[0] - offset1) * range2 + tuple[1] - offset2);
+            int x = tuples.get(i, 0);
+            int y = tuples.get(i, 1);
+            if (var1.contains(x) && var2.contains(y))
+                table.set((x - offset1) * range2 + y - offset2);
         }
     }
 
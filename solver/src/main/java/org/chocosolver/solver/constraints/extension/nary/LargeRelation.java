@@ -38,6 +38,17 @@ public abstract class LargeRelation  {
         return true;
     }
 
+    /**
+     * Copy the t^th tuple of <i>tuples</i> into <i>tuple</i>, without allocating a new array
+     * @return <i>tuple</i>
+     */
+    protected static int[] fill(Tuples tuples, int t, int[] tuple) {
+        for (int i = 0; i < tuple.length; i++) {
+            tuple[i] = tuples.get(t, i);
+        }
+        return tuple;
+    }
+
     /**
      * Convert this relation into 'Tuples'
      * @return
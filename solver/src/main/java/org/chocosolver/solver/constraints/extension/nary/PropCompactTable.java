@@ -20,6 +20,8 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
+import org.chocosolver.util.procedure.RangeProcedure;
 import org.chocosolver.util.procedure.UnaryIntProcedure;
 
 /**
@@ -38,11 +40,13 @@ public class PropCompactTable extends Propagator<IntVar> {
 
     RSparseBitSet currTable;
     protected Tuples tuples; // only for checker
-    protected long[][][] supports;
+    protected long[][][] supports; // may be shared with other propagators, read-only
     int[][] residues;
     protected int[] offset;
     protected IIntDeltaMonitor[] monitors;
     private UnaryIntProcedure<Integer> onValRem;
+    private final RangeProcedure onRangeRem;
+    private final IntIterableBitSet vrms;
 
     //***********************************************************************************
     // CONSTRUCTOR
@@ -64,6 +68,12 @@ public class PropCompactTable extends Propagator<IntVar> {
             monitors[i] = vars[i].monitorDelta(this);
         }
         onValRem = makeProcedure();
+        onRangeRem = (from, to) -> {
+            for (int v = from; v <= to; v++) {
+                onValRem.execute(v);
+            }
+        };
+        vrms = new IntIterableBitSet();
     }
 
     //***********************************************************************************
@@ -89,30 +99,37 @@ public class PropCompactTable extends Propagator<IntVar> {
     }
 
     protected void computeSupports(Tuples tuples) {
+        SupportsCache.Supports s = SupportsCache.get(tuples, SupportsCache.CT, vars, () -> buildSupports(tuples));
+        offset = s.offset;
+        supports = s.supports;
+        residues = new int[vars.length][];
+        for (int i = 0; i < vars.length; i++) {
+            residues[i] = new int[supports[i].length];
+        }
+    }
+
+    private SupportsCache.Supports buildSupports(Tuples tuples) {
         int n = vars.length;
-        offset = new int[n];
-        supports = new long[n][][];
-        residues = new int[n][];
+        int[] offset = new int[n];
+        long[][][] supports = new long[n][][];
         long[] tmp;
         for (int i = 0; i < n; i++) {
             int lb = vars[i].getLB();
             int ub = vars[i].getUB();
             offset[i] = lb;
             supports[i] = new long[ub - lb + 1][currTable.words.length];
-            residues[i] = new int[ub - lb + 1];
         }
         int wI = 0;
         byte bI = 63;
         top:
         for (int ti = 0; ti < tuples.nbTuples(); ti++) {
-            int[] tuple = tuples.get(ti);
-            for (int i = 0; i < tuple.length; i++) {
-                if (!vars[i].contains(tuple[i])) {
+            for (int i = 0; i < n; i++) {
+                if (!vars[i].contains(tuples.get(ti, i))) {
                     continue top;
                 }
             }
-            for (int i = 0; i < tuple.length; i++) {
-                tmp = supports[i][tuple[i] - offset[i]];
+            for (int i = 0; i < n; i++) {
+                tmp = supports[i][tuples.get(ti, i) - offset[i]];
                 tmp[wI] |= 1L << (bI);
             }
             if (--bI < 0) {
@@ -120,6 +137,7 @@ public class PropCompactTable extends Propagator<IntVar> {
                 wI++;
             }
         }
+        return new SupportsCache.Supports(offset, supports, null);
     }
 
     //***********************************************************************************
@@ -149,7 +167,8 @@ public class PropCompactTable extends Propagator<IntVar> {
         currTable.clearMask();
         monitors[vIdx].freeze();
         if (vars[vIdx].getDomainSize() > monitors[vIdx].sizeApproximation()) {
-            monitors[vIdx].forEachRemVal(onValRem.set(vIdx));
+            onValRem.set(vIdx);
+            monitors[vIdx].forEachRemRange(onRangeRem);
             currTable.reverseMask();
         } else {
             int ub = vars[vIdx].getUB();
@@ -215,17 +234,21 @@ public class PropCompactTable extends Propagator<IntVar> {
 
     private void enumFilter(int i) throws ContradictionException {
         int ub = vars[i].getUB();
+        vrms.clear();
+        vrms.setOffset(vars[i].getLB());
         for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
             int index = residues[i][v - offset[i]];
             if ((currTable.words[index].get() & supports[i][v - offset[i]][index]) == 0L) {
                 index = currTable.intersectIndex(supports[i][v - offset[i]]);
                 if (index == -1) {
-                    vars[i].removeValue(v, this);
+                    vrms.add(v);
                 } else {
                     residues[i][v - offset[i]] = index;
                 }
             }
         }
+        // unsupported values are removed at once: a single event is raised
+        vars[i].removeValues(vrms, this);
     }
 
     @Override
@@ -257,7 +280,7 @@ public class PropCompactTable extends Propagator<IntVar> {
             }
         }
 
-        private boolean isEmpty() {
+        protected boolean isEmpty() {
             return limit.get() == -1;
         }
 
@@ -282,7 +305,7 @@ public class PropCompactTable extends Propagator<IntVar> {
             }
         }
 
-        private void intersectWithMask() {
+        protected void intersectWithMask() {
             for (int i = limit.get(); i >= 0; i--) {
                 int offset = index[i];
                 long w = words[offset].get() & mask[offset];
@@ -297,6 +320,27 @@ public class PropCompactTable extends Propagator<IntVar> {
             }
         }
 
+        /**
+         * @param m a mask
+         * @param bound stop counting once reached
+         * @return the number of bits set both in this and in <i>m</i>, or <i>bound</i> if it is reached
+         */
+        protected long intersectCount(long[] m, long bound) {
+            long count = 0;
+            for (int i = limit.get(); i >= 0 && count < bound; i--) {
+                int offset = index[i];
+                count += Long.bitCount(words[offset].get() & m[offset]);
+            }
+            return Math.min(count, bound);
+        }
+
+        /**
+         * @return an upper bound of the number of bits set
+         */
+        protected long cardinalityUB() {
+            return 64L * (limit.get() + 1);
+        }
+
         private int intersectIndex(long[] m) {
             for (int i = limit.get(); i >= 0; i--) {
                 int offset = index[i];
@@ -0,0 +1,267 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.procedure.RangeProcedure;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.sort.ArraySort;
+
+/**
+ * Propagator for table constraint based on
+ * "Extending Compact-Table to Negative and Short Tables",
+ * H. Verhaeghe and C. Lecoutre and P. Schauss, AAAI-17.
+ * Only for forbidden tuples.
+ * <p>
+ * The reversible bit-set maintains the forbidden tuples that are still valid.
+ * A value is supported as long as the number of valid forbidden tuples that contain it
+ * is smaller than the number of valid tuples (the product of the other domain sizes) that contain it.
+ * Tuples are deduplicated when supports are built.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class PropCompactTableNeg extends PropCompactTable {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final UnaryIntProcedure<Integer> onValRem;
+    private final RangeProcedure onRangeRem;
+    /**
+     * For each variable, the product of the domain sizes of the other variables
+     */
+    private final long[] others;
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Create a propagator for table constraint
+     * Only for forbidden Tuples
+     *
+     * @param vars   scope
+     * @param tuples list of forbidden tuples
+     */
+    public PropCompactTableNeg(IntVar[] vars, Tuples tuples) {
+        super(vars, tuples);
+        assert !tuples.isFeasible();
+        onValRem = makeProcedure();
+        onRangeRem = (from, to) -> {
+            for (int v = from; v <= to; v++) {
+                onValRem.execute(v);
+            }
+        };
+        others = new long[vars.length];
+    }
+
+    //***********************************************************************************
+    // INITIALIZATION
+    //***********************************************************************************
+
+    @Override
+    protected void computeSupports(Tuples tuples) {
+        SupportsCache.Supports s = SupportsCache.get(tuples, SupportsCache.CT_NEG, vars, () -> buildSupports(tuples));
+        offset = s.offset;
+        supports = s.supports;
+    }
+
+    private SupportsCache.Supports buildSupports(Tuples tuples) {
+        int n = vars.length;
+        int[] offset = new int[n];
+        long[][][] supports = new long[n][][];
+        for (int i = 0; i < n; i++) {
+            int lb = vars[i].getLB();
+            int ub = vars[i].getUB();
+            offset[i] = lb;
+            supports[i] = new long[ub - lb + 1][currTable.words.length];
+        }
+        // only valid tuples are kept, and counting requires them to be distinct
+        int[] valid = new int[tuples.nbTuples()];
+        int size = 0;
+        top:
+        for (int ti = 0; ti < tuples.nbTuples(); ti++) {
+            for (int i = 0; i < n; i++) {
+                if (!vars[i].contains(tuples.get(ti, i))) {
+                    continue top;
+                }
+            }
+            valid[size++] = ti;
+        }
+        new ArraySort<>(size, false, true).sort(valid, size, (t1, t2) -> {
+            for (int i = 0; i < n; i++) {
+                int c = Integer.compare(tuples.get(t1, i), tuples.get(t2, i));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        });
+        int wI = 0;
+        byte bI = 63;
+        for (int k = 0; k < size; k++) {
+            int ti = valid[k];
+            if (k > 0 && same(tuples, ti, valid[k - 1], n)) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                supports[i][tuples.get(ti, i) - offset[i]][wI] |= 1L << bI;
+            }
+            if (--bI < 0) {
+                bI = 63;
+                wI++;
+            }
+        }
+        return new SupportsCache.Supports(offset, supports, null);
+    }
+
+    private static boolean same(Tuples tuples, int t1, int t2, int n) {
+        for (int i = 0; i < n; i++) {
+            if (tuples.get(t1, i) != tuples.get(t2, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //***********************************************************************************
+    // FILTERING
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < vars.length; i++) {
+                updateTable(i);
+            }
+        }
+        filterDomains();
+        for (int i = 0; i < vars.length; i++) {
+            monitors[i].unfreeze();
+        }
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        currTable.clearMask();
+        monitors[vIdx].freeze();
+        if (vars[vIdx].getDomainSize() > monitors[vIdx].sizeApproximation()) {
+            onValRem.set(vIdx);
+            monitors[vIdx].forEachRemRange(onRangeRem);
+            currTable.reverseMask();
+        } else {
+            int ub = vars[vIdx].getUB();
+            for (int v = vars[vIdx].getLB(); v <= ub; v = vars[vIdx].nextValue(v)) {
+                currTable.addToMask(supports[vIdx][v - offset[vIdx]]);
+            }
+        }
+        currTable.intersectWithMask();
+        monitors[vIdx].unfreeze();
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    /**
+     * Remove from the table the tuples that are not valid anymore wrt to the domain of the i^th variable
+     */
+    private void updateTable(int i) {
+        currTable.clearMask();
+        int ub = vars[i].getUB();
+        for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+            currTable.addToMask(supports[i][v - offset[i]]);
+        }
+        currTable.intersectWithMask();
+    }
+
+    private void filterDomains() throws ContradictionException {
+        boolean change;
+        do {
+            if (currTable.isEmpty()) {
+                // no forbidden tuple is valid anymore
+                setPassive();
+                return;
+            }
+            change = false;
+            computeOthers();
+            long card = currTable.cardinalityUB();
+            for (int i = 0; i < vars.length; i++) {
+                // a value can only be unsupported if it appears in enough forbidden tuples
+                if (others[i] <= card) {
+                    boolean modified;
+                    if (vars[i].hasEnumeratedDomain()) {
+                        modified = enumFilter(i);
+                    } else {
+                        modified = boundFilter(i);
+                    }
+                    if (modified) {
+                        // own removals are not notified, the table is updated here
+                        updateTable(i);
+                        computeOthers();
+                        change = true;
+                        if (currTable.isEmpty()) {
+                            break;
+                        }
+                    }
+                }
+            }
+        } while (change);
+    }
+
+    /**
+     * For each variable, compute the product of the domain sizes of the other variables,
+     * capped to a value larger than any number of tuples
+     */
+    private void computeOthers() {
+        long cap = 1L << 40;
+        long prod = 1;
+        for (int i = 0; i < vars.length; i++) {
+            others[i] = prod;
+            prod = Math.min(cap, prod * vars[i].getDomainSize());
+        }
+        prod = 1;
+        for (int i = vars.length - 1; i >= 0; i--) {
+            others[i] = Math.min(cap, others[i] * prod);
+            prod = Math.min(cap, prod * vars[i].getDomainSize());
+        }
+    }
+
+    private boolean unsupported(int i, int v) {
+        return currTable.intersectCount(supports[i][v - offset[i]], others[i]) == others[i];
+    }
+
+    private boolean boundFilter(int i) throws ContradictionException {
+        int lb = vars[i].getLB();
+        int ub = vars[i].getUB();
+        while (lb <= ub && unsupported(i, lb)) {
+            lb++;
+        }
+        while (ub >= lb && unsupported(i, ub)) {
+            ub--;
+        }
+        boolean modified = vars[i].updateLowerBound(lb, this);
+        modified |= vars[i].updateUpperBound(ub, this);
+        return modified;
+    }
+
+    private boolean enumFilter(int i) throws ContradictionException {
+        boolean modified = false;
+        int ub = vars[i].getUB();
+        for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+            if (unsupported(i, v)) {
+                modified |= vars[i].removeValue(v, this);
+            }
+        }
+        return modified;
+    }
+}
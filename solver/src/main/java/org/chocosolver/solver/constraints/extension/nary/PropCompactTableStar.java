@@ -71,33 +71,42 @@ public class PropCompactTableStar extends PropCompactTable {
     }
 
     protected void computeSupports(Tuples tuples) {
+        SupportsCache.Supports s = SupportsCache.get(tuples, SupportsCache.CT_STAR, vars, () -> buildSupports(tuples));
+        offset = s.offset;
+        supports = s.supports;
+        inc_supports = s.incSupports;
+        residues = new int[vars.length][];
+        for (int i = 0; i < vars.length; i++) {
+            residues[i] = new int[supports[i].length];
+        }
+    }
+
+    private SupportsCache.Supports buildSupports(Tuples tuples) {
         int n = vars.length;
-        offset = new int[n];
-        supports = new long[n][][];
-        inc_supports = new long[n][][];
-        residues = new int[n][];
+        int[] offset = new int[n];
+        long[][][] supports = new long[n][][];
+        long[][][] inc_supports = new long[n][][];
         for (int i = 0; i < n; i++) {
             int lb = vars[i].getLB();
             int ub = vars[i].getUB();
             offset[i] = lb;
             supports[i] = new long[ub - lb + 1][currTable.words.length];
             inc_supports[i] = new long[ub - lb + 1][currTable.words.length];
-            residues[i] = new int[ub - lb + 1];
         }
         int wI = 0;
         byte bI = 63;
         int star = tuples.getStarValue();
         top:
         for (int ti = 0; ti < tuples.nbTuples(); ti++) {
-            int[] tuple = tuples.get(ti);
-            for (int i = 0; i < tuple.length; i++) {
-                if (!vars[i].contains(tuple[i]) && tuple[i] != star) {
+            for (int i = 0; i < n; i++) {
+                int val = tuples.get(ti, i);
+                if (!vars[i].contains(val) && val != star) {
                     continue top;
                 }
             }
             long index = 1L << bI;
-            for (int i = 0; i < tuple.length; i++) {
-                int val = tuple[i];
+            for (int i = 0; i < n; i++) {
+                int val = tuples.get(ti, i);
                 if (val != star) {
                     supports[i][val - offset[i]][wI] |= index;
                     inc_supports[i][val - offset[i]][wI] |= index;
@@ -113,5 +122,6 @@ public class PropCompactTableStar extends PropCompactTable {
                 wI++;
             }
         }
+        return new SupportsCache.Supports(offset, supports, inc_supports);
     }
 }
\ No newline at end of file
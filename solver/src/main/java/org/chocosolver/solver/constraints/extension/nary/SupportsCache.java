@@ -0,0 +1,153 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A cache of the supports computed by compact table propagators.
+ * <p>
+ * Supports only depend on the tuples and on the initial domains of the variables.
+ * So, when {@link Tuples#isImmutable() immutable} tuples are shared by many table constraints,
+ * possibly posted in different models, supports are computed once per distinct set of initial domains
+ * and shared among propagators, which only read them.
+ * Tuples are weakly referenced: an entry is discarded once its tuples are not used anymore.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+final class SupportsCache {
+
+    /**
+     * Supports of {@link PropCompactTable}
+     */
+    static final int CT = 0;
+    /**
+     * Supports of {@link PropCompactTableStar}
+     */
+    static final int CT_STAR = 1;
+    /**
+     * Supports of {@link PropCompactTableNeg}
+     */
+    static final int CT_NEG = 2;
+
+    /**
+     * Supports of a compact table propagator, must not be modified once built.
+     */
+    static final class Supports {
+        /**
+         * Smallest value of each variable initial domain
+         */
+        final int[] offset;
+        /**
+         * For each variable and each value, the tuples supporting it
+         */
+        final long[][][] supports;
+        /**
+         * For each variable and each value, the tuples explicitly supporting it (no universal value),
+         * <i>null</i> when tuples have no universal value
+         */
+        final long[][][] incSupports;
+
+        Supports(int[] offset, long[][][] supports, long[][][] incSupports) {
+            this.offset = offset;
+            this.supports = supports;
+            this.incSupports = incSupports;
+        }
+    }
+
+    /**
+     * Initial domains of the variables, and kind of supports
+     */
+    private static final class Signature {
+        private final int[] values;
+        private final int hash;
+
+        private Signature(int kind, IntVar[] vars) {
+            int size = 2;
+            for (IntVar var : vars) {
+                size += 3;
+                if (var.getDomainSize() != var.getUB() - var.getLB() + 1) {
+                    size += var.getDomainSize();
+                }
+            }
+            values = new int[size];
+            int k = 0;
+            values[k++] = kind;
+            values[k++] = vars.length;
+            for (IntVar var : vars) {
+                int lb = var.getLB(), ub = var.getUB();
+                values[k++] = lb;
+                values[k++] = ub;
+                values[k++] = var.getDomainSize();
+                if (var.getDomainSize() != ub - lb + 1) {
+                    for (int v = lb; v <= ub; v = var.nextValue(v)) {
+                        values[k++] = v;
+                    }
+                }
+            }
+            hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature && hash == ((Signature) o).hash
+                    && Arrays.equals(values, ((Signature) o).values);
+        }
+    }
+
+    private static final Map<Tuples, Map<Signature, Supports>> CACHE = new WeakHashMap<>();
+
+    private SupportsCache() {
+    }
+
+    /**
+     * Get the supports of <i>tuples</i> over <i>vars</i>, built with <i>builder</i> if needed.
+     * Supports of mutable tuples are never cached.
+     *
+     * @param tuples  the tuples
+     * @param kind    kind of supports, among {@link #CT}, {@link #CT_STAR} and {@link #CT_NEG}
+     * @param vars    scope, in its initial state
+     * @param builder how to build supports
+     * @return supports, possibly shared
+     */
+    static Supports get(Tuples tuples, int kind, IntVar[] vars, Supplier<Supports> builder) {
+        if (!tuples.isImmutable()) {
+            return builder.get();
+        }
+        Signature signature = new Signature(kind, vars);
+        synchronized (CACHE) {
+            Supports supports = CACHE.computeIfAbsent(tuples, t -> new HashMap<>()).get(signature);
+            if (supports != null) {
+                return supports;
+            }
+        }
+        // built outside of the lock, the first one stored wins
+        Supports supports = builder.get();
+        synchronized (CACHE) {
+            Supports prev = CACHE.computeIfAbsent(tuples, t -> new HashMap<>()).putIfAbsent(signature, supports);
+            return prev != null ? prev : supports;
+        }
+    }
+}
@@ -69,9 +69,9 @@ public class TuplesTable extends LargeRelation {
         }
         table = new BitSet(totalSize);
         int nt = tuples.nbTuples();
+        int[] tuple = new int[vars.length];
         for (int i = 0; i < nt; i++) {
-            int[] tuple = tuples.get(i);
-            if (valid(tuple, vars)) {
+            if (valid(fill(tuples, i, tuple), vars)) {
                 setTuple(tuple);
             }
         }
@@ -0,0 +1,271 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.clauses;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.learn.ExplanationForSignedClause;
+import org.chocosolver.solver.search.loop.learn.LearnSignedClauses;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+
+/**
+ * This class manages learnt signed clauses sharing among models involved in a {@link
+ * org.chocosolver.solver.ParallelPortfolio}. In this, we make the following hypothesis: all models
+ * were created following the very same steps. The consequence is that a variable has the same ID in
+ * all models.
+ * <p>
+ * Each model, learning signed clauses thanks to {@link LearnSignedClauses}, is connected to this
+ * exchange through a {@link Channel}. On conflict, a learnt clause that is short enough and whose
+ * LBD is small enough is published in a fixed-size ring buffer shared by all channels. Publication
+ * and reading are lock-free: a producer reserves a slot by incrementing an atomic counter, and a
+ * consumer reads the slots written since its last visit. A clause may be overwritten before all
+ * consumers read it, or skipped when read before being written; in both cases, it is simply lost,
+ * which does not affect correctness.
+ * <p>
+ * Clauses are imported by {@link LearnSignedClauses#forget(org.chocosolver.solver.Solver)} each time
+ * the search goes back to the root node, after a restart or a backjump, that is at decision level 0,
+ * where adding a clause is safe. They are then handled by the normal learning cycle.
+ * <p>
+ * Project: choco.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class ClauseExchange {
+
+    /**
+     * A clause as shared among models: IDs of variables and, for each of them, the ranges of the
+     * signed literal ([min0, max0, min1, max1, ...])
+     */
+    private static final class SharedClause {
+        private final int producer;
+        private final long seq;
+        private final int[] ids;
+        private final int[][] ranges;
+
+        private SharedClause(int producer, long seq, int[] ids, int[][] ranges) {
+            this.producer = producer;
+            this.seq = seq;
+            this.ids = ids;
+            this.ranges = ranges;
+        }
+    }
+
+    /**
+     * The ring buffer
+     */
+    private final AtomicReferenceArray<SharedClause> ring;
+    /**
+     * Mask to compute position in {@link #ring}
+     */
+    private final int mask;
+    /**
+     * Next sequence number to write
+     */
+    private final AtomicLong tail;
+    /**
+     * Maximum cardinality of a clause to be published
+     */
+    private final int maxCard;
+    /**
+     * Maximum LBD of a clause to be published
+     */
+    private final int maxLBD;
+    /**
+     * Number of channels connected
+     */
+    private int nbChannels;
+
+    /**
+     * Create a clause exchange with a 4096-slot buffer, that shares clauses with at most 8 literals
+     * and an LBD of at most 4.
+     */
+    public ClauseExchange() {
+        this(4096, 8, 4);
+    }
+
+    /**
+     * Create a clause exchange.
+     *
+     * @param capacity       number of slots of the ring buffer, rounded up to a power of two
+     * @param maxCardinality maximum number of literals of a clause to be published, in addition to
+     *                       the limit set by {@link org.chocosolver.solver.Settings#getMaxLearntClauseCardinality()}
+     * @param maxLBD         maximum LBD of a clause to be published
+     */
+    public ClauseExchange(int capacity, int maxCardinality, int maxLBD) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+        this.maxCard = maxCardinality;
+        this.maxLBD = maxLBD;
+    }
+
+    /**
+     * Connect <i>model</i> to this exchange.
+     * Nothing is done if <i>model</i> does not learn signed clauses
+     * (see {@link org.chocosolver.solver.Solver#setLearningSignedClauses()}).
+     *
+     * @param model the model to connect
+     * @return the channel created, or <i>null</i> if the model does not learn signed clauses
+     */
+    public synchronized Channel connect(Model model) {
+        if (!(model.getSolver().getLearner() instanceof LearnSignedClauses)) {
+            return null;
+        }
+        LearnSignedClauses<?> learner = (LearnSignedClauses<?>) model.getSolver().getLearner();
+        Channel channel = new Channel(nbChannels++, model);
+        learner.setClauseExchange(channel);
+        return channel;
+    }
+
+    /**
+     * @return the number of clauses published so far
+     */
+    public long getNbPublished() {
+        return tail.get();
+    }
+
+    /**
+     * A connection between a model and the exchange.
+     */
+    public final class Channel {
+
+        /**
+         * Identifier of this channel
+         */
+        private final int id;
+        /**
+         * The connected model
+         */
+        private final Model model;
+        /**
+         * Next sequence number to read
+         */
+        private long cursor;
+        /**
+         * Variables of the model, by ID
+         */
+        private TIntObjectHashMap<IntVar> vars;
+        /**
+         * Number of clauses published by this channel
+         */
+        private long nbPublished;
+        /**
+         * Number of clauses imported by this channel
+         */
+        private long nbImported;
+
+        private Channel(int id, Model model) {
+            this.id = id;
+            this.model = model;
+            this.cursor = tail.get();
+        }
+
+        /**
+         * Publish the clause held by <i>explanation</i>, if it is short enough and its LBD is
+         * small enough.
+         *
+         * @param explanation an explanation, before being extracted as a constraint
+         */
+        public void publish(ExplanationForSignedClause explanation) {
+            int card = explanation.getCardinality();
+            if (card == 0 || card > maxCard || explanation.getLBD() > maxLBD) {
+                return;
+            }
+            HashMap<IntVar, IntIterableRangeSet> literals = explanation.getLiterals();
+            int[] ids = new int[card];
+            int[][] ranges = new int[card][];
+            int i = 0;
+            for (IntVar var : literals.keySet()) {
+                IntIterableRangeSet set = literals.get(var);
+                ids[i] = var.getId();
+                ranges[i] = new int[set.getNbRanges() * 2];
+                for (int r = 0; r < set.getNbRanges(); r++) {
+                    ranges[i][2 * r] = set.minOfRange(r);
+                    ranges[i][2 * r + 1] = set.maxOfRange(r);
+                }
+                i++;
+            }
+            long seq = tail.getAndIncrement();
+            ring.set((int) (seq & mask), new SharedClause(id, seq, ids, ranges));
+            nbPublished++;
+        }
+
+        /**
+         * Import in the connected model the clauses published by other channels since the last call.
+         * Should only be called at decision level 0.
+         *
+         * @return the number of clauses imported
+         */
+        public int importClauses() {
+            long end = tail.get();
+            long from = Math.max(cursor, end - ring.length());
+            int nb = 0;
+            for (long seq = from; seq < end; seq++) {
+                SharedClause sc = ring.get((int) (seq & mask));
+                // a slot not written yet, or already overwritten, is skipped
+                if (sc != null && sc.seq == seq && sc.producer != id && add(sc)) {
+                    nb++;
+                }
+            }
+            cursor = end;
+            nbImported += nb;
+            return nb;
+        }
+
+        private boolean add(SharedClause sc) {
+            if (vars == null) {
+                vars = new TIntObjectHashMap<>();
+                for (Variable v : model.getVars()) {
+                    if ((v.getTypeAndKind() & Variable.INT) != 0) {
+                        vars.put(v.getId(), (IntVar) v);
+                    }
+                }
+            }
+            ClauseBuilder builder = model.getClauseBuilder();
+            IntVar[] cvars = new IntVar[sc.ids.length];
+            for (int i = 0; i < sc.ids.length; i++) {
+                cvars[i] = vars.get(sc.ids[i]);
+                if (cvars[i] == null || !cvars[i].isAConstant() && builder.getInitialDomain(cvars[i]) == null) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < cvars.length; i++) {
+                IntIterableRangeSet set = new IntIterableRangeSet();
+                for (int r = 0; r < sc.ranges[i].length; r += 2) {
+                    set.addBetween(sc.ranges[i][r], sc.ranges[i][r + 1]);
+                }
+                builder.put(cvars[i], set);
+            }
+            builder.buildNogood(model);
+            return true;
+        }
+
+        /**
+         * @return the number of clauses published by this channel
+         */
+        public long getNbPublished() {
+            return nbPublished;
+        }
+
+        /**
+         * @return the number of clauses imported by this channel
+         */
+        public long getNbImported() {
+            return nbImported;
+        }
+    }
+}
@@ -9,6 +9,7 @@
  */
 package org.chocosolver.solver.constraints.nary.clauses;
 
+import gnu.trove.map.hash.TIntObjectHashMap;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
@@ -24,23 +25,31 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.ShrinkableList;
 import org.chocosolver.util.objects.ValueSortedMap;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
-import org.chocosolver.util.objects.tree.Interval;
-import org.chocosolver.util.objects.tree.IntervalTree;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSetUtils;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Stack;
 
 import static org.chocosolver.util.ESat.FALSE;
 import static org.chocosolver.util.ESat.TRUE;
 import static org.chocosolver.util.ESat.UNDEFINED;
 
 /**
- * A class to manage life of sclauses during resolution. TODO
+ * A class to manage life of sclauses during resolution.
+ * <p>
+ * Learnt clauses are classified on their Literal Block Distance (LBD), as in modern CDCL solvers:
+ * <ul>
+ * <li>core clauses (LBD &le; {@link org.chocosolver.solver.Settings#getLearntClausesCoreLBD()})
+ * are never removed,</li>
+ * <li>tier-2 clauses (LBD &le; {@link org.chocosolver.solver.Settings#getLearntClausesTier2LBD()})
+ * are kept as long as they take part in conflict analysis between two reductions,</li>
+ * <li>local clauses are reduced on activity.</li>
+ * </ul>
+ * Periodically, at root node, learnt clauses are simplified by subsumption and self-subsuming resolution,
+ * using occurrence lists.
  *
  * <p> Project: choco-solver.
  *
@@ -59,6 +68,22 @@ public class ClauseStore extends Propagator<IntVar> {
      * Signed clause unique ID -- for toString() mainly
      */
     private static int SID = 1;
+    /**
+     * Tier of original clauses
+     */
+    private static final byte ORIGINAL = -1;
+    /**
+     * Tier of learnt clauses that are never removed
+     */
+    private static final byte CORE = 0;
+    /**
+     * Tier of learnt clauses that are kept while used
+     */
+    private static final byte TIER2 = 1;
+    /**
+     * Tier of learnt clauses that are reduced on activity
+     */
+    private static final byte LOCAL = 2;
     /**
      * Solver that handles the clauses
      */
@@ -81,12 +106,35 @@ public class ClauseStore extends Propagator<IntVar> {
     private final double ratio;
 
     private final int domPerimeter;
+    /**
+     * Maximum LBD of core learnt clauses
+     */
+    private final int coreLBD;
+    /**
+     * Maximum LBD of tier-2 learnt clauses
+     */
+    private final int tier2LBD;
+    /**
+     * Number of learnt clauses between two inprocessings
+     */
+    private final int inprocessingPeriod;
+    /**
+     * Number of core learnt clauses
+     */
+    private int nbCore;
+    /**
+     * Number of clauses learnt since the last inprocessing
+     */
+    private int nbSinceInprocessing;
     /**
      * Reference to the last learnt signed clause, for checking routine
      */
     private SignedClause last;
 
-    private HashMap<IntVar, IntervalTree<Container>> watches;
+    /**
+     * Watched literals, indexed by variable ID (<i>null</i> for unwatched variables)
+     */
+    private Watches[] watches;
     /**
      * Amount to bump clause with.
      */
@@ -104,10 +152,13 @@ public class ClauseStore extends Propagator<IntVar> {
         this.nbMaxLearnts = model.getSettings().getNbMaxLearntClauses();
         this.ratio = model.getSettings().getRatioForClauseStoreReduction();
         this.domPerimeter = model.getSettings().getLearntClausesDominancePerimeter();
+        this.coreLBD = model.getSettings().getLearntClausesCoreLBD();
+        this.tier2LBD = model.getSettings().getLearntClausesTier2LBD();
+        this.inprocessingPeriod = model.getSettings().getLearntClausesInprocessingPeriod();
         this.clauses = new ArrayList<>();
         this.learnts = new ArrayList<>();
         last = null;
-        this.watches = new HashMap<>();
+        this.watches = new Watches[0];
         setActive0();
     }
 
@@ -132,6 +183,9 @@ public class ClauseStore extends Propagator<IntVar> {
                 last = cl;
                 last.activity = clauseInc;
                 last.rawActivity = 1;
+                // until told otherwise, each literal is considered to come from a distinct level
+                classify(cl, vars.length);
+                nbSinceInprocessing++;
                 if (PRINT_CLAUSE) System.out.printf("learn: %s\n", cl);
             } else {
                 if (PRINT_CLAUSE) System.out.printf("add: %s\n", cl);
@@ -145,20 +199,38 @@ public class ClauseStore extends Propagator<IntVar> {
         }
     }
 
+    /**
+     * Set the Literal Block Distance of the last learnt signed clause, if any,
+     * and move it to the right tier.
+     *
+     * @param lbd LBD of the clause, computed at learning time
+     */
+    public void setLastLBD(int lbd) {
+        if (last != null) {
+            classify(last, lbd);
+        }
+    }
+
+    private void classify(SignedClause cl, int lbd) {
+        if (cl.tier == CORE) nbCore--;
+        cl.lbd = lbd;
+        cl.tier = lbd <= coreLBD ? CORE : lbd <= tier2LBD ? TIER2 : LOCAL;
+        if (cl.tier == CORE) nbCore++;
+    }
+
     private void attach(Watcher w) {
         IntVar var = w.c.v(w.p);
-        IntervalTree<Container> wm = watches.get(var);
+        int id = var.getId();
+        if (id >= watches.length) {
+            watches = Arrays.copyOf(watches, Math.max(id + 1, watches.length * 3 / 2));
+        }
+        Watches wm = watches[id];
         if (wm == null) {
-            wm = new IntervalTree<>();
-            watches.put(var, wm);
+            wm = new Watches();
+            watches[id] = wm;
             this.addVariable(var);
         }
-        Container ct = wm.get(w.c.l(w.p), w.c.u(w.p));
-        if (ct == null) {
-            ct = new Container(w.c.l(w.p), w.c.u(w.p));
-            wm.insert(ct);
-        }
-        ct.add(w);
+        wm.get(w.c.l(w.p), w.c.u(w.p)).add(w);
     }
 
     /**
@@ -167,7 +239,14 @@ public class ClauseStore extends Propagator<IntVar> {
      * @param idx position of the nogood in {@link #learnts}.
      */
     private void remove(int idx) {
-        SignedClause ng = learnts.remove(idx);
+        delete(learnts.remove(idx));
+    }
+
+    /**
+     * Disconnect a learnt clause, which must also be removed from {@link #learnts}.
+     */
+    private void delete(SignedClause ng) {
+        if (ng.tier == CORE) nbCore--;
         mSolver.getEngine().dynamicDeletion(ng);
         ng.pos[0] = ng.pos[1] = -1; // to remove it from watchers
     }
@@ -214,6 +293,9 @@ public class ClauseStore extends Propagator<IntVar> {
         decayActivity();
         if (mSolver.getDecisionPath().size() == 1) { // at root node
             simplifyDB();
+            if (inprocessingPeriod > 0 && nbSinceInprocessing >= inprocessingPeriod) {
+                inprocess();
+            }
         } else if (last != null) {
             if (ASSERT_UNIT_PROP) {
                 check(last);
@@ -257,36 +339,157 @@ public class ClauseStore extends Propagator<IntVar> {
     }
 
     /**
-     * Remove sclauses with a lifespan greater than <i>lifespan</i> and which did not filtered in
-     * the current branch.
+     * When the store is full, ignoring core clauses, demote the tier-2 clauses that were not used
+     * since the last reduction and remove the least active part of the local clauses.
      */
     private void reduceDB() {
         int size = learnts.size();
-        if (size >= nbMaxLearnts) {
+        if (size - nbCore >= nbMaxLearnts) {
+            int nbLocal = 0;
+            for (int i = 0; i < size; i++) {
+                SignedClause ng = learnts.get(i);
+                if (ng.tier == TIER2 && !ng.used) {
+                    ng.tier = LOCAL;
+                }
+                ng.used = false;
+                if (ng.tier == LOCAL) {
+                    nbLocal++;
+                }
+            }
+            long toRemove = nbLocal - Math.round(ratio * nbLocal);
             learnts.sort(Comparator.comparingDouble(c -> -c.activity));
-            long to = Math.round(ratio * size);
-            for (int i = size - 1; i >= to; i--) {
+            for (int i = size - 1; i >= 0 && toRemove > 0; i--) {
                 SignedClause ng = learnts.get(i);
-                if (ng.isNotLocked() && ng != last) {
+                if (ng.tier == LOCAL && ng.isNotLocked() && ng != last) {
                     remove(i);
+                    toRemove--;
                 }
             }
             if (size > learnts.size() && model.getSettings().warnUser()) {
                 System.out.printf("Reduce DB: %d -> %d\n", size, learnts.size());
             }
-            for (IntervalTree<Container> t : watches.values()) {
-                Stack<Container> del = new Stack<>();
-                for (Container c : t) {
-                    c.watchers.removeIf(w -> !w.c.isConnected());
-                    if(c.watchers.isEmpty()){
-                        del.push(c);
-                    }
+            cleanWatchers();
+        }
+    }
+
+    /**
+     * Remove from the watches the disconnected clauses.
+     */
+    private void cleanWatchers() {
+        for (Watches wm : watches) {
+            if (wm != null) {
+                wm.clean();
+            }
+        }
+    }
+
+    /**
+     * Simplify the learnt clauses, at root node, with the connected clauses:
+     * a learnt clause subsumed by another one is removed, and a learnt clause that can be
+     * strengthened by self-subsuming resolution is replaced by its strengthened version.
+     * <p>
+     * A clause <i>ci</i> subsumes a clause <i>cj</i> when, for each variable <i>v</i> of <i>ci</i>,
+     * the values of <i>v</i> in <i>ci</i> are included in the ones of <i>v</i> in <i>cj</i>.
+     * When this holds for each variable but one, say <i>x</i>, resolving <i>ci</i> and <i>cj</i> on <i>x</i>
+     * restricts the values of <i>x</i> in <i>cj</i> to their intersection with the ones in <i>ci</i>.
+     * <p>
+     * Candidate clauses are found in the occurrence list of the least frequent variable of the subsuming clause.
+     * Locked clauses are left unchanged, and so are clauses that would be reduced to a single variable.
+     */
+    private void inprocess() {
+        nbSinceInprocessing = 0;
+        int size = learnts.size();
+        List<Literals> all = new ArrayList<>(clauses.size() + size);
+        for (SignedClause c : clauses) {
+            if (c.isConnected()) all.add(new Literals(c));
+        }
+        for (SignedClause c : learnts) {
+            all.add(new Literals(c));
+        }
+        TIntObjectHashMap<List<Literals>> occurrences = new TIntObjectHashMap<>();
+        for (Literals ls : all) {
+            for (IntVar v : ls.vars) {
+                List<Literals> occ = occurrences.get(v.getId());
+                if (occ == null) {
+                    occ = new ArrayList<>();
+                    occurrences.put(v.getId(), occ);
                 }
-                while(!del.isEmpty()){
-                    t.delete(del.pop());
+                occ.add(ls);
+            }
+        }
+        // shortest clauses are the most likely to subsume others
+        all.sort(Comparator.comparingInt(ls -> ls.vars.length));
+        int nbSub = 0, nbStr = 0;
+        for (Literals ci : all) {
+            if (!ci.c.isConnected()) continue;
+            List<Literals> occ = occurrences.get(ci.vars[0].getId());
+            for (int k = 1; k < ci.vars.length; k++) {
+                List<Literals> o = occurrences.get(ci.vars[k].getId());
+                if (o.size() < occ.size()) {
+                    occ = o;
                 }
             }
+            for (Literals cj : occ) {
+                if (cj == ci || cj.c.tier == ORIGINAL || cj.c == last || !cj.c.isConnected() || !cj.c.isNotLocked()
+                        || cj.vars.length < ci.vars.length) {
+                    continue;
+                }
+                int j = ci.subsumes(cj);
+                if (j == -1) {
+                    delete(cj.c);
+                    nbSub++;
+                } else if (j >= 0 && strengthen(ci, cj, j)) {
+                    nbStr++;
+                }
+            }
+        }
+        if (nbSub + nbStr > 0) {
+            learnts.removeIf(c -> !c.isConnected());
+            cleanWatchers();
+        }
+        if (nbSub + nbStr > 0 && model.getSettings().warnUser()) {
+            System.out.printf("Inprocessing DB: %d -> %d (%d subsumed, %d strengthened)\n",
+                    size, learnts.size() - nbStr, nbSub, nbStr);
+        }
+    }
+
+    /**
+     * Replace <i>cj</i> by the resolvent of <i>ci</i> and <i>cj</i> on the <i>j</i>-th variable of <i>cj</i>.
+     * @return <i>false</i> if the resolvent has less than two variables, and nothing is done
+     */
+    private boolean strengthen(Literals ci, Literals cj, int j) {
+        IntVar x = cj.vars[j];
+        int i = 0;
+        while (ci.vars[i] != x) {
+            i++;
+        }
+        IntIterableRangeSet set = IntIterableSetUtils.intersection(ci.sets[i], cj.sets[j]);
+        int n = cj.vars.length - (set.isEmpty() ? 1 : 0);
+        if (n < 2) {
+            return false;
+        }
+        IntVar[] vars = new IntVar[n];
+        IntIterableRangeSet[] ranges = new IntIterableRangeSet[n];
+        for (int k = 0, l = 0; k < cj.vars.length; k++) {
+            if (k != j) {
+                vars[l] = cj.vars[k];
+                ranges[l++] = cj.sets[k];
+            } else if (!set.isEmpty()) {
+                vars[l] = x;
+                ranges[l++] = set;
+            }
         }
+        SignedClause cl = new SignedClause(vars, ranges);
+        attach(new Watcher(cl.pos[0], cl));
+        attach(new Watcher(cl.pos[1], cl));
+        cl.activity = cj.c.activity;
+        cl.rawActivity = cj.c.rawActivity;
+        classify(cl, Math.min(cj.c.lbd, n));
+        delete(cj.c);
+        learnts.add(cl);
+        mSolver.getEngine().dynamicAddition(true, cl);
+        cj.set(cl, vars, ranges);
+        return true;
     }
 
     private void detectDominance() {
@@ -321,19 +524,51 @@ public class ClauseStore extends Propagator<IntVar> {
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         // iterate over clauses that needs to be propagator
         IntVar var = vars[idxVarInProp];
-        IntervalTree<Container> wm = watches.get(var);
+        Watches wm = watches[var.getId()];
         int lb = var.getLB();
         int ub = var.getUB();
         if (IntEventType.isInstantiate(mask) || IntEventType.isRemove(mask)) {
-            sweep(wm.iterator(), var, lb, ub);
+            for (int i = 0; i < wm.size; i++) {
+                checkCont(wm.byStart[i], var, lb, ub);
+            }
         } else {
             if (IntEventType.isInclow(mask)) {
-                wm.forAllBelow(lb, c -> checkCont(c, var, lb, ub));
+                // literals starting in ]lastLB, lb] may become true
+                for (int i = wm.firstStartAbove(wm.lastLB); i < wm.size && wm.byStart[i].s <= lb; i++) {
+                    checkCont(wm.byStart[i], var, lb, ub);
+                }
+                // literals ending in [lastLB, lb[ become false
+                for (int i = wm.firstEndBelow(lb); i < wm.size && wm.byEnd[i].e >= wm.lastLB; i++) {
+                    checkCont(wm.byEnd[i], var, lb, ub);
+                }
             }
             if (IntEventType.isDecupp(mask)) {
-                wm.forAllAbove(ub, c -> checkCont(c, var, lb, ub));
+                // literals ending in [ub, lastUB[ may become true
+                for (int i = wm.firstEndBelow(wm.lastUB); i < wm.size && wm.byEnd[i].e >= ub; i++) {
+                    checkCont(wm.byEnd[i], var, lb, ub);
+                }
+                // literals starting in ]ub, lastUB] become false
+                for (int i = wm.firstStartAbove(ub); i < wm.size && wm.byStart[i].s <= wm.lastUB; i++) {
+                    checkCont(wm.byStart[i], var, lb, ub);
+                }
+            }
+        }
+        wm.setLastBounds(lb, ub);
+    }
+
+    /**
+     * @param var a variable
+     * @return the number of watched literals of <i>var</i> whose truth value is not known yet
+     */
+    int getNbUndecidedLiterals(IntVar var) {
+        Watches wm = var.getId() < watches.length ? watches[var.getId()] : null;
+        int count = 0;
+        for (int i = 0; wm != null && i < wm.size; i++) {
+            if (wm.byStart[i].isActive()) {
+                count++;
             }
         }
+        return count;
     }
 
     @Override
@@ -349,12 +584,6 @@ public class ClauseStore extends Propagator<IntVar> {
     }
 
 
-    private void sweep(Iterator<Container> it, IntVar v, int lb, int ub) {
-        while (it.hasNext()) {
-            checkCont(it.next(), v, lb, ub);
-        }
-    }
-
     private void checkCont(Container ct, IntVar v, int lb, int ub) {
         if (!ct.isActive()) return;
         ESat check = check(lb, ub, ct.s, ct.e, v);
@@ -369,7 +598,172 @@ public class ClauseStore extends Propagator<IntVar> {
         }
     }
 
-    private final class Container implements Interval {
+    /**
+     * The watched literals of a variable, that is, the containers of its watchers.
+     * Containers are kept sorted twice: by increasing lower bound, to find the literals impacted
+     * by a lower bound modification, and by decreasing upper bound, for upper bound modifications.
+     * Both arrays are maintained by binary search and shift on insertion, and compacted on cleaning.
+     * <p>
+     * The bounds of the variable when its last event was handled are kept (and restored on backtrack),
+     * so that a bound event only checks the literals between the previous and the current bound.
+     * Literals outside that range were either checked by a previous event, or watched while not false.
+     */
+    private final class Watches {
+        /**
+         * Containers sorted by increasing lower bound, then increasing upper bound
+         */
+        Container[] byStart = new Container[4];
+        /**
+         * Containers sorted by decreasing upper bound, then decreasing lower bound
+         */
+        Container[] byEnd = new Container[4];
+        /**
+         * Number of containers
+         */
+        int size;
+        /**
+         * Bounds of the variable when its last event was handled
+         */
+        int lastLB = Integer.MIN_VALUE, lastUB = Integer.MAX_VALUE;
+        /**
+         * World in which the last bounds were saved
+         */
+        int stamp = -1;
+
+        /**
+         * Set the last bounds seen, the previous ones being restored on backtrack
+         */
+        void setLastBounds(int lb, int ub) {
+            int wi = model.getEnvironment().getWorldIndex();
+            if (stamp < wi) {
+                int l = lastLB, u = lastUB, t = stamp;
+                model.getEnvironment().save(() -> {
+                    lastLB = l;
+                    lastUB = u;
+                    stamp = t;
+                });
+                stamp = wi;
+            }
+            lastLB = lb;
+            lastUB = ub;
+        }
+
+        /**
+         * @return index in {@link #byStart} of the first container starting after <i>v</i>
+         */
+        int firstStartAbove(int v) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (byStart[mid].s <= v) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * @return index in {@link #byEnd} of the first container ending before <i>v</i>
+         */
+        int firstEndBelow(int v) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (byEnd[mid].e >= v) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * @return the container of the literal [<i>s</i>,<i>e</i>], created if needed
+         */
+        Container get(int s, int e) {
+            int i = searchByStart(s, e);
+            if (i >= 0) {
+                return byStart[i];
+            }
+            Container ct = new Container(s, e);
+            if (size == byStart.length) {
+                byStart = Arrays.copyOf(byStart, size * 2);
+                byEnd = Arrays.copyOf(byEnd, size * 2);
+            }
+            i = -i - 1;
+            System.arraycopy(byStart, i, byStart, i + 1, size - i);
+            byStart[i] = ct;
+            i = -searchByEnd(s, e) - 1;
+            System.arraycopy(byEnd, i, byEnd, i + 1, size - i);
+            byEnd[i] = ct;
+            size++;
+            return ct;
+        }
+
+        private int searchByStart(int s, int e) {
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                Container c = byStart[mid];
+                int cmp = c.s != s ? Integer.compare(c.s, s) : Integer.compare(c.e, e);
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        private int searchByEnd(int s, int e) {
+            int lo = 0, hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                Container c = byEnd[mid];
+                int cmp = c.e != e ? Integer.compare(e, c.e) : Integer.compare(s, c.s);
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        /**
+         * Remove the watchers of disconnected clauses, and the containers left empty.
+         */
+        void clean() {
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                Container c = byStart[i];
+                c.watchers.removeIf(w -> !w.c.isConnected());
+                if (!c.watchers.isEmpty()) {
+                    byStart[j++] = c;
+                }
+            }
+            if (j < size) {
+                Arrays.fill(byStart, j, size, null);
+                int k = 0;
+                for (int i = 0; i < size; i++) {
+                    if (!byEnd[i].watchers.isEmpty()) {
+                        byEnd[k++] = byEnd[i];
+                    }
+                }
+                Arrays.fill(byEnd, k, size, null);
+                size = j;
+            }
+        }
+    }
+
+    private final class Container {
 
         int s, e;
         ShrinkableList<Watcher> watchers;
@@ -381,16 +775,6 @@ public class ClauseStore extends Propagator<IntVar> {
             this.watchers = new ShrinkableList<>();
         }
 
-        @Override
-        public int start() {
-            return s;
-        }
-
-        @Override
-        public int end() {
-            return e;
-        }
-
         public void add(Watcher w) {
             this.watchers.add(w);
         }
@@ -458,7 +842,7 @@ public class ClauseStore extends Propagator<IntVar> {
 
         @Override
         public String toString() {
-            return String.format("[%d,%d]", start(), end());
+            return String.format("[%d,%d]", s, e);
         }
     }
 
@@ -478,6 +862,71 @@ public class ClauseStore extends Propagator<IntVar> {
         }
     }
 
+    /**
+     * The literals of a signed clause, grouped by variable, for inprocessing.
+     */
+    private final class Literals {
+        SignedClause c;
+        /**
+         * Distinct variables, sorted wrt their ID
+         */
+        IntVar[] vars;
+        /**
+         * Values of each variable in the clause
+         */
+        IntIterableRangeSet[] sets;
+
+        Literals(SignedClause c) {
+            int n = 1;
+            for (int i = 1; i < c.mvars.length; i++) {
+                if (c.mvars[i] != c.mvars[i - 1]) n++;
+            }
+            IntVar[] vars = new IntVar[n];
+            IntIterableRangeSet[] sets = new IntIterableRangeSet[n];
+            for (int i = 0, k = -1; i < c.mvars.length; i++) {
+                if (i == 0 || c.mvars[i] != c.mvars[i - 1]) {
+                    vars[++k] = c.mvars[i];
+                    sets[k] = new IntIterableRangeSet();
+                }
+                sets[k].addBetween(c.l(i), c.u(i));
+            }
+            set(c, vars, sets);
+        }
+
+        void set(SignedClause c, IntVar[] vars, IntIterableRangeSet[] sets) {
+            this.c = c;
+            this.vars = vars;
+            this.sets = sets;
+        }
+
+        /**
+         * @param cj other literals
+         * @return -1 if this subsumes <i>cj</i>, the position in <i>cj</i> of the only variable
+         * that prevents this from subsuming <i>cj</i>, or -2 otherwise
+         */
+        int subsumes(Literals cj) {
+            int s = -1;
+            int j = 0;
+            for (int i = 0; i < vars.length; i++) {
+                int id = vars[i].getId();
+                while (j < cj.vars.length && cj.vars[j].getId() < id) {
+                    j++;
+                }
+                if (j == cj.vars.length || cj.vars[j].getId() != id) {
+                    return -2;
+                }
+                if (!IntIterableSetUtils.includedIn(sets[i], cj.sets[j])) {
+                    if (s >= 0) {
+                        return -2;
+                    }
+                    s = j;
+                }
+                j++;
+            }
+            return s;
+        }
+    }
+
     private static PropagatorPriority computePriority(int nbvars) {
         if (nbvars == 2) {
             return PropagatorPriority.BINARY;
@@ -530,6 +979,18 @@ public class ClauseStore extends Propagator<IntVar> {
         private double activity = 0d;
 
         private int rawActivity = 0;
+        /**
+         * Literal Block Distance, for learnt clauses only
+         */
+        private int lbd;
+        /**
+         * Tier of the clause, see {@link ClauseStore#CORE}, {@link ClauseStore#TIER2} and {@link ClauseStore#LOCAL}
+         */
+        private byte tier = ORIGINAL;
+        /**
+         * Set to <i>true</i> when the clause takes part in conflict analysis
+         */
+        private boolean used;
 
         private int id;
 
@@ -888,6 +1349,7 @@ public class ClauseStore extends Propagator<IntVar> {
             IntIterableRangeSet set;
             activity += clauseInc;
             rawActivity += 1;
+            used = true;
             int i = 0;
             while (i < mvars.length) {
                 IntVar v = mvars[i];
@@ -56,4 +56,12 @@ public abstract class CumulFilter {
 	 * @throws ContradictionException
 	 */
 	public abstract void filter(IntVar[] s, IntVar[] d, IntVar[] e, IntVar[] h, IntVar capa, ISet tasks, Propagator<IntVar> aCause) throws ContradictionException;
+
+	/**
+	 * @return true if a call to {@link #filter} reaches its own fix point
+	 * (on the given subset of tasks), false by default
+	 */
+	public boolean isIdempotent(){
+		return false;
+	}
 }
@@ -45,6 +45,10 @@ public class PropCumulative extends Propagator<IntVar> {
     protected CumulFilter[] filters;
     protected ISet allTasks;
     protected final IStateInt lastCapaMax;
+    /**
+     * Set to true when each filter reaches its own fix point
+     */
+    private final boolean idempotent;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -66,6 +70,7 @@ public class PropCumulative extends Propagator<IntVar> {
         this.h = Arrays.copyOfRange(vars, n * 3, n * 4);
         this.capa = this.vars[4 * n];
         this.filters = filters;
+        this.idempotent = Arrays.stream(filters).allMatch(CumulFilter::isIdempotent);
         lastCapaMax = model.getEnvironment().makeInt(capa.getUB() + 1);
         allTasks = SetFactory.makeStoredSet(SetType.BIPARTITESET,0,getModel());
         for(int t=0;t<n;t++){
@@ -147,6 +152,14 @@ public class PropCumulative extends Propagator<IntVar> {
         }
     }
 
+    /**
+     * @return true if each filter reaches its own fix point
+     */
+    @Override
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
     @Override
     public ESat isEntailed() {
         int min = s[0].getUB();
@@ -71,6 +71,14 @@ public class PropGraphCumulative extends PropCumulative {
     // METHODS
     //***********************************************************************************
 
+    /**
+     * @return false, since only the tasks overlapping the modified ones are filtered
+     */
+    @Override
+    public boolean isIdempotent() {
+        return false;
+    }
+
     @Override
     public void propagate(int evtmask) throws ContradictionException {
         if (PropagatorEventType.isFullPropagation(evtmask)) {
@@ -81,6 +81,11 @@ public class SweepCumulFilter extends CumulFilter {
 	// GENERAL METHODS
 	//***********************************************************************************
 
+	@Override
+	public boolean isIdempotent() {
+		return FIXPOINT;
+	}
+
 	@Override
 	public void filter(IntVar[] s, IntVar[] d, IntVar[] e, IntVar[] h, IntVar capa, ISet tasks, Propagator<IntVar> aCause) throws ContradictionException {
 		// removing tasks with a duration lower bound equal to 0
@@ -16,7 +16,6 @@ import static org.chocosolver.sat.SatSolver.var;
 
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.map.hash.TLongIntHashMap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -25,7 +24,6 @@ import java.util.BitSet;
 import java.util.Deque;
 import org.chocosolver.memory.IStateInt;
 import org.chocosolver.sat.SatSolver;
-import org.chocosolver.sat.SatSolver.Clause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
@@ -109,10 +107,6 @@ public class PropNogoods extends Propagator<Variable> {
      */
     private Deque<Variable> fp;
 
-    /**
-     * Local-like parameter, for #why() method only, lazily initialized.
-     */
-    private TIntObjectHashMap<ArrayList<Clause>> inClauses;
 
     /**
      * Store new added variables when {@link #initialized} is <i>false</i>
@@ -299,15 +293,16 @@ public class PropNogoods extends Propagator<Variable> {
         return true;
     }
 
-    private boolean clauseEntailed(ArrayList<Clause> clauses) {
+    private boolean clauseEntailed(TIntList clauses) {
         int lit, var;
         long value;
         boolean sign;
         Variable avar;
-        for (Clause c : clauses) {
+        for (int k = 0; k < clauses.size(); k++) {
+            int c = clauses.get(k);
             int cnt = 0;
-            for (int i = 0; i < c.size(); i++) {
-                lit = c._g(i);
+            for (int i = 0; i < sat_.clauseSize(c); i++) {
+                lit = sat_.clauseLiteral(c, i);
                 sign = sign(lit);
                 var = var(lit);
                 avar = vars[lit2pos[var]];
@@ -338,7 +333,7 @@ public class PropNogoods extends Propagator<Variable> {
                     throw new UnsupportedOperationException("Unknown case");
                 }
             }
-            if (cnt == c.size()) return false;
+            if (cnt == sat_.clauseSize(c)) return false;
         }
         return true;
     }
@@ -714,17 +709,19 @@ public class PropNogoods extends Propagator<Variable> {
         // compare the current clauses with the previous stored one,
         // just in case the current one dominates the previous none
         if (sat_.nLearnt() > 1) {
-            Clause last = sat_.learnts.get(sat_.learnts.size() - 1);
+            int last = sat_.learnts.get(sat_.learnts.size() - 1);
+            int lsize = sat_.clauseSize(last);
             test_eq.clear();
-            for (int i = last.size() - 1; i >= 0; i--) {
-                test_eq.set(last._g(i));
+            for (int i = lsize - 1; i >= 0; i--) {
+                test_eq.set(sat_.clauseLiteral(last, i));
             }
             for (int c = sat_.learnts.size() - 2; c >= 0; c--) {
                 int s = test_eq.cardinality();
-                Clause prev = sat_.learnts.get(c);
-                if (last.size() > 1 && last.size() < prev.size()) {
-                    for (int i = prev.size() - 1; i >= 0; i--) {
-                        s -= test_eq.get(prev._g(i)) ? 1 : 0;
+                int prev = sat_.learnts.get(c);
+                int psize = sat_.clauseSize(prev);
+                if (lsize > 1 && lsize < psize) {
+                    for (int i = psize - 1; i >= 0; i--) {
+                        s -= test_eq.get(sat_.clauseLiteral(prev, i)) ? 1 : 0;
                     }
                     if (s == 0) { // then last dominates prev
                         sat_.detachLearnt(c);
@@ -11,11 +11,9 @@ package org.chocosolver.solver.constraints.nary.sat;
 
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.map.hash.TIntObjectHashMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import org.chocosolver.memory.IStateInt;
 import org.chocosolver.sat.SatSolver;
-import org.chocosolver.sat.SatSolver.*;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
@@ -25,6 +23,7 @@ import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 
 import java.util.ArrayList;
+import java.util.function.BooleanSupplier;
 
 import static org.chocosolver.sat.SatSolver.*;
 
@@ -57,10 +56,6 @@ public class PropSat extends Propagator<BoolVar> {
      */
     private TIntList early_deductions_;
 
-    /**
-     * Local-like parameter, for #why() method only, lazily initialized.
-     */
-    private TIntObjectHashMap<ArrayList<Clause>> inClauses;
 
     /**
      * Store new added variables when {@link #initialized} is <i>false</i>
@@ -72,6 +67,11 @@ public class PropSat extends Propagator<BoolVar> {
      */
     private boolean initialized = false;
 
+    /**
+     * The last solution found by {@link #searchSolution(BooleanSupplier)}, indexed like {@link #vars}
+     */
+    private int[] solution_ = new int[0];
+
     /**
      * Create a (unique) propagator for clauses recording and propagation.
      *
@@ -147,20 +147,21 @@ public class PropSat extends Propagator<BoolVar> {
      * @param clauses list of clause
      * @return <tt>true</tt> if all clauses are satisfied, <tt>false</tt> otherwise
      */
-    private boolean clauseEntailed(ArrayList<Clause> clauses) {
+    private boolean clauseEntailed(TIntList clauses) {
         int lit, var, val;
         boolean sign;
-        for (Clause c : clauses) {
+        for (int k = 0; k < clauses.size(); k++) {
+            int c = clauses.get(k);
             int cnt = 0;
-            for (int i = 0; i < c.size(); i++) {
-                lit = c._g(i);
+            for (int i = 0; i < sat_.clauseSize(c); i++) {
+                lit = sat_.clauseLiteral(c, i);
                 sign = sign(lit);
                 var = var(lit);
                 val = vars[var].getValue();
                 if (val == (sign ? 0 : 1)) cnt++; // if the lit is ok
                 else break;
             }
-            if (cnt == c.size()) return false;
+            if (cnt == sat_.clauseSize(c)) return false;
         }
         return true;
     }
@@ -172,6 +173,53 @@ public class PropSat extends Propagator<BoolVar> {
         return sat_;
     }
 
+    /**
+     * Search for a solution of the clauses with the CDCL algorithm of the SAT solver.
+     * The search is run on a copy of the underlying SAT solver, the instantiated variables being facts,
+     * so neither this propagator nor the variables are modified.
+     *
+     * @param stop tells if the search has to be interrupted
+     * @return {@link ESat#TRUE} if a solution has been found (see {@link #getSolutionValue(BoolVar)}),
+     * {@link ESat#FALSE} if there is no solution, {@link ESat#UNDEFINED} if the search has been interrupted
+     */
+    public ESat searchSolution(BooleanSupplier stop) {
+        initialize();
+        SatSolver cdcl = new SatSolver();
+        cdcl.copyFrom(sat_);
+        cdcl.cancelUntil(0);
+        boolean ok = cdcl.ok_;
+        for (int i = 0; i < vars.length && ok; i++) {
+            if (vars[i].isInstantiated()) {
+                ok = cdcl.addClause(SatSolver.makeLiteral(i, vars[i].getValue() != 0));
+            }
+        }
+        if (!ok) {
+            return ESat.FALSE;
+        }
+        switch (cdcl.solve(stop)) {
+            case kTrue:
+                solution_ = new int[vars.length];
+                for (int i = 0; i < vars.length; i++) {
+                    solution_[i] = cdcl.modelValue(i) ? 1 : 0;
+                }
+                return ESat.TRUE;
+            case kFalse:
+                return ESat.FALSE;
+            default:
+                return ESat.UNDEFINED;
+        }
+    }
+
+    /**
+     * @param var a boolean variable
+     * @return the value of <i>var</i> in the last solution found by {@link #searchSolution(BooleanSupplier)},
+     * or its lower bound if it does not appear in the clauses
+     */
+    public int getSolutionValue(BoolVar var) {
+        int i = indices_.get(var);
+        return i > -1 && i < solution_.length ? solution_[i] : var.getLB();
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
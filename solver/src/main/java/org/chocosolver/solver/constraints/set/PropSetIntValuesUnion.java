@@ -84,6 +84,11 @@ public class PropSetIntValuesUnion extends Propagator<Variable> {
 		}
 	}
 
+	@Override
+	public boolean isIdempotent() {
+		return false;
+	}
+
 	@Override
 	public ESat isEntailed() {
 		ISetIterator iter = values.getLB().iterator();
@@ -28,6 +28,7 @@ import org.chocosolver.util.objects.ValueSortedMap;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSetUtils;
 
+import java.util.BitSet;
 import java.util.HashMap;
 
 /**
@@ -83,11 +84,16 @@ public class ExplanationForSignedClause extends IExplanation {
     private final Implications mIG;
 
     private PoolManager<IntIterableRangeSet> manager;
+    /**
+     * Decision levels met while computing the LBD
+     */
+    private final BitSet levels;
 
     public ExplanationForSignedClause(Implications ig) {
         front = new ValueSortedMap<>();
         literals = new HashMap<>();
         manager = new PoolManager<>();
+        levels = new BitSet();
         mIG = ig;
     }
 
@@ -407,6 +413,21 @@ public class ExplanationForSignedClause extends IExplanation {
         return literals.size();
     }
 
+    /**
+     * Compute the Literal Block Distance of this explanation, that is the number of distinct
+     * decision levels among its literals.
+     * A literal whose variable is not in the front anymore is considered to be fixed at root level.
+     * @return the LBD of this explanation
+     */
+    public int getLBD() {
+        levels.clear();
+        for (IntVar var : literals.keySet()) {
+            int p = front.getValueOrDefault(var, -1);
+            levels.set(p > -1 ? mIG.getDecisionLevelAt(p) : 0);
+        }
+        return levels.cardinality();
+    }
+
     /**
      * @return the decision to refute (ie, point to jump to wrt the current decision path).
      */
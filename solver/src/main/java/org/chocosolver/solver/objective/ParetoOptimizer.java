@@ -12,10 +12,15 @@ package org.chocosolver.solver.objective;
 import org.chocosolver.solver.constraints.nary.sat.PropSat;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.SolutionStore;
 import org.chocosolver.solver.constraints.Operator;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.variables.IntVar;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -39,6 +44,11 @@ public class ParetoOptimizer implements IMonitorSolution {
     // Allow to recycle (dominated) Solution objects
     private LinkedList<Solution> pool = new LinkedList<>();
 
+    // When not null, the front is kept as packed rows: values of the store's variables then objectives values
+    private SolutionStore store;
+    private LinkedList<int[]> rows;
+    private IntVar[] storedVars;
+
     // objective function
     private boolean maximize;
     private IntVar[] objectives;
@@ -79,6 +89,23 @@ public class ParetoOptimizer implements IMonitorSolution {
         lits = new int[n];
     }
 
+    /**
+     * Create an object to compute the Pareto front of a multi-objective problem,
+     * where solutions of the front are kept as packed rows of values, instead of {@link Solution} objects.
+     * Only the variables of <i>store</i> are recorded.
+     * Once the search is over, the front can be appended to <i>store</i> with {@link #flushParetoFront()}.
+     *
+     * @param maximize whether to maximize or minimize the objectives
+     * @param objectives objective variables (must all be optimized in the same direction)
+     * @param store where to store the front
+     */
+    public ParetoOptimizer(final boolean maximize, final IntVar[] objectives, SolutionStore store) {
+        this(maximize, objectives);
+        this.store = store;
+        this.rows = new LinkedList<>();
+        this.storedVars = store.getVars();
+    }
+
     //***********************************************************************************
     // METHODS
     //***********************************************************************************
@@ -89,6 +116,44 @@ public class ParetoOptimizer implements IMonitorSolution {
         for (int i = 0; i < n; i++) {
             vals[i] = objectives[i].getValue();
         }
+        if (store != null) {
+            onPackedSolution();
+        } else {
+            onObjectSolution();
+        }
+        // post dynamical constraints to prevent search from computing dominated solutions
+        Operator symbol = Operator.GT;
+        if (!maximize) {
+            symbol = Operator.LT;
+        }
+        for (int i = 0; i < n; i++) {
+            lits[i] = psat.makeLiteral(model.arithm(objectives[i], symbol.toString(), vals[i]).reify(), true);
+        }
+        psat.addLearnt(lits);
+    }
+
+    private void onPackedSolution() {
+        int m = storedVars.length;
+        // remove dominated solutions, the first one is recycled
+        int[] row = null;
+        for (Iterator<int[]> it = rows.iterator(); it.hasNext(); ) {
+            int[] r = it.next();
+            if (isDominated(r, m, vals)) {
+                it.remove();
+                row = r;
+            }
+        }
+        if (row == null) {
+            row = new int[m + n];
+        }
+        for (int i = 0; i < m; i++) {
+            row[i] = storedVars[i].getValue();
+        }
+        System.arraycopy(vals, 0, row, m, n);
+        rows.add(row);
+    }
+
+    private void onObjectSolution() {
         // remove dominated solutions
         for (int i = paretoFront.size() - 1; i >= 0; i--) {
             if (isDominated(paretoFront.get(i), vals)) {
@@ -104,24 +169,53 @@ public class ParetoOptimizer implements IMonitorSolution {
             solution.record();
             paretoFront.add(solution);
         }
-        // post dynamical constraints to prevent search from computing dominated solutions
-        Operator symbol = Operator.GT;
-        if (!maximize) {
-            symbol = Operator.LT;
-        }
-        for (int i = 0; i < n; i++) {
-            lits[i] = psat.makeLiteral(model.arithm(objectives[i], symbol.toString(), vals[i]).reify(), true);
-        }
-        psat.addLearnt(lits);
     }
 
 	/**
      * @return the set of Pareto-best (possibly optimal) solutions found so far
      */
     public List<Solution> getParetoFront() {
+        if (store != null) {
+            List<Solution> front = new ArrayList<>(rows.size());
+            for (int[] row : rows) {
+                Solution solution = new Solution(model, storedVars);
+                for (int i = 0; i < storedVars.length; i++) {
+                    solution.setIntVal(storedVars[i], row[i]);
+                }
+                front.add(solution);
+            }
+            return front;
+        }
    		return paretoFront;
    	}
 
+    /**
+     * Append the solutions of the Pareto front found so far to the store given on construction.
+     * Should be called once, when the search is over.
+     * @return the number of solutions appended
+     * @throws SolverException if no store was given on construction
+     */
+    public int flushParetoFront() {
+        if (store == null) {
+            throw new SolverException("No SolutionStore was given on construction");
+        }
+        int m = storedVars.length;
+        for (int[] row : rows) {
+            store.add(Arrays.copyOf(row, m));
+        }
+        return rows.size();
+    }
+
+    private boolean isDominated(int[] row, int m, int[] vals) {
+        for (int i = 0; i < n; i++) {
+            int delta = row[m + i] - vals[i];
+            if ((delta > 0 && maximize) || (delta < 0 && !maximize)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private boolean isDominated(Solution solution, int[] vals) {
         for (int i = 0; i < n; i++) {
             int delta = solution.getIntVal(objectives[i]) - vals[i];
@@ -0,0 +1,126 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+
+/**
+ * A propagation engine that collects statistics on propagation in a {@link PropagationProfiler}.
+ * <p>
+ * Profiling is kept out of {@link PropagationEngine}, so that a model which is not profiled does not pay for it.
+ * {@link org.chocosolver.solver.Solver#profilePropagation()} replaces the engine of a solver by this one,
+ * which takes over the internal structures of the previous engine.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class ProfilingPropagationEngine extends PropagationEngine {
+
+    /**
+     * Collects statistics on propagation
+     */
+    private final PropagationProfiler profiler;
+    /**
+     * Number of variable modifications notified so far
+     */
+    private long modifications;
+
+    /**
+     * A seven-queue propagation engine that profiles propagation.
+     *
+     * @param model    the declaring model
+     * @param profiler collects statistics on propagation
+     */
+    public ProfilingPropagationEngine(Model model, PropagationProfiler profiler) {
+        super(model);
+        this.profiler = profiler;
+    }
+
+    /**
+     * A propagation engine that profiles propagation and takes over the internal structures of <i>engine</i>,
+     * which should not be used anymore.
+     *
+     * @param engine   the engine to replace
+     * @param profiler collects statistics on propagation
+     */
+    public ProfilingPropagationEngine(PropagationEngine engine, PropagationProfiler profiler) {
+        super(engine);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public PropagationProfiler getProfiler() {
+        return profiler;
+    }
+
+    @Override
+    public void propagate() throws ContradictionException {
+        long start = System.nanoTime();
+        profiler.fixpoints++;
+        boolean failed = true;
+        try {
+            super.propagate();
+            failed = false;
+        } finally {
+            if (failed) {
+                profiler.fixpointFailures++;
+            }
+            profiler.fixpointTime += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    void revise(Propagator propagator) throws ContradictionException {
+        boolean fine = propagator.reactToFineEvent();
+        boolean active = propagator.isActive();
+        int pending = fine ? propagator.getNbPendingEvents() : 0;
+        long m = modifications;
+        long t = System.nanoTime();
+        boolean failed = true;
+        try {
+            super.revise(propagator);
+            failed = false;
+        } finally {
+            profiler.record(propagator,
+                    fine ? getDelayedPropagationType() > 0 : active,
+                    fine ? pending - propagator.getNbPendingEvents() : 0,
+                    System.nanoTime() - t, failed, modifications - m);
+        }
+    }
+
+    @Override
+    public void execute(Propagator propagator) throws ContradictionException {
+        if (propagator.isStateLess() || propagator.isActive()) {
+            long m = modifications;
+            long t = System.nanoTime();
+            boolean failed = true;
+            try {
+                super.execute(propagator);
+                failed = false;
+            } finally {
+                profiler.record(propagator, true, 0, System.nanoTime() - t, failed, modifications - m);
+            }
+        } else {
+            super.execute(propagator);
+        }
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) {
+        // each event counts, even when merged into the event mask of an already queued variable
+        modifications++;
+        super.onVariableUpdate(variable, type, cause);
+    }
+}
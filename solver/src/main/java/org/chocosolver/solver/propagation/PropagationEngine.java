@@ -9,6 +9,7 @@
  */
 package org.chocosolver.solver.propagation;
 
+import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
@@ -18,6 +19,7 @@ import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.view.IView;
 import org.chocosolver.util.iterators.EvtScheduler;
 import org.chocosolver.util.objects.queues.CircularQueue;
 
@@ -89,6 +91,15 @@ public class PropagationEngine {
      * when set to '0b10', this workds as a variable- oriented propagation engine.
      */
     private final byte hybrid;
+    /**
+     * Number of propagators of each connected component, in activation order,
+     * when the initial propagation is split into components.
+     */
+    private int[] components = new int[0];
+    /**
+     * Index of the next component to activate.
+     */
+    private int nextComponent;
 
     /**
      * A seven-queue propagation engine.
@@ -112,6 +123,28 @@ public class PropagationEngine {
         this.hybrid = model.getSettings().enableHybridizationOfPropagationEngine();
     }
 
+    /**
+     * A propagation engine that takes over the internal structures of <i>engine</i>,
+     * which should not be used anymore.
+     *
+     * @param engine the engine to replace
+     */
+    PropagationEngine(PropagationEngine engine) {
+        this.model = engine.model;
+        this.pro_queue = engine.pro_queue;
+        this.var_queue = engine.var_queue;
+        this.awake_queue = engine.awake_queue;
+        this.dynPropagators = engine.dynPropagators;
+        this.propagators = engine.propagators;
+        this.hybrid = engine.hybrid;
+        this.lastProp = engine.lastProp;
+        this.notEmpty = engine.notEmpty;
+        this.delayedPropagationType = engine.delayedPropagationType;
+        this.init = engine.init;
+        this.components = engine.components;
+        this.nextComponent = engine.nextComponent;
+    }
+
     /**
      * Build up internal structure, if not yet done, in order to allow propagation.
      * If new constraints are added after having initializing the engine, dynamic addition is used.
@@ -137,6 +170,10 @@ public class PropagationEngine {
                             } else return p;
                         });
             }
+            if (model.getSettings().splitInitialPropagationIntoComponents()) {
+                components = splitIntoComponents();
+                nextComponent = 0;
+            }
             for (int i = 0; i < propagators.size(); i++) {
                 propagators.get(i).setPosition(i);
                 awake_queue.addLast(propagators.get(i));
@@ -144,6 +181,85 @@ public class PropagationEngine {
         }
     }
 
+    /**
+     * Group {@link #propagators} by connected component of the constraint network,
+     * two propagators being connected when they share a variable, or a view of it.
+     * Components are ordered by the priority of their most expensive propagator, then by size.
+     * The relative order of propagators within a component is kept.
+     *
+     * @return the number of propagators of each component, in the new order
+     */
+    private int[] splitIntoComponents() {
+        int n = propagators.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        // maps a variable to the first propagator it appears in
+        TIntIntHashMap first = new TIntIntHashMap(16, .5f, -1, -1);
+        for (int i = 0; i < n; i++) {
+            Propagator<?> p = propagators.get(i);
+            for (int j = 0; j < p.getNbVars(); j++) {
+                Variable v = p.getVar(j);
+                while (v != null && (v.getTypeAndKind() & Variable.CSTE) == 0) {
+                    int o = first.putIfAbsent(v.getId(), i);
+                    if (o > -1) {
+                        union(parent, o, i);
+                    }
+                    v = v instanceof IView ? ((IView) v).getVariable() : null;
+                }
+            }
+        }
+        int[] root = new int[n];
+        int[] size = new int[n];
+        int[] cost = new int[n];
+        for (int i = 0; i < n; i++) {
+            root[i] = find(parent, i);
+            size[root[i]]++;
+            cost[root[i]] = Math.max(cost[root[i]], propagators.get(i).getPriority().priority);
+        }
+        List<Integer> roots = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (root[i] == i) {
+                roots.add(i);
+            }
+        }
+        roots.sort((r1, r2) -> cost[r1] == cost[r2] ? size[r1] - size[r2] : cost[r1] - cost[r2]);
+        int[] rank = new int[n];
+        int[] sizes = new int[roots.size()];
+        int[] next = new int[roots.size()];
+        for (int k = 0; k < roots.size(); k++) {
+            rank[roots.get(k)] = k;
+            sizes[k] = size[roots.get(k)];
+            if (k > 0) {
+                next[k] = next[k - 1] + sizes[k - 1];
+            }
+        }
+        Propagator[] grouped = new Propagator[n];
+        for (int i = 0; i < n; i++) {
+            grouped[next[rank[root[i]]]++] = propagators.get(i);
+        }
+        propagators.clear();
+        Collections.addAll(propagators, grouped);
+        return sizes;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int i, int j) {
+        int ri = find(parent, i);
+        int rj = find(parent, j);
+        if (ri != rj) {
+            parent[Math.max(ri, rj)] = Math.min(ri, rj);
+        }
+    }
+
     /**
      * Is the engine initialized?
      * Important for dynamic addition of constraints
@@ -162,6 +278,15 @@ public class PropagationEngine {
     @SuppressWarnings({"NullableProblems"})
     public void propagate() throws ContradictionException {
         activatePropagators();
+        fixpoint();
+    }
+
+    /**
+     * Reach a fix point, once propagators have been activated
+     *
+     * @throws ContradictionException if a contradiction occurs
+     */
+    private void fixpoint() throws ContradictionException {
         do {
             manageModifications();
             for (int i = nextNotEmpty(); i > -1; i = nextNotEmpty()) {
@@ -173,15 +298,7 @@ public class PropagationEngine {
                 // revision of the variable
                 lastProp.unschedule();
                 delayedPropagationType = 0;
-                if (lastProp.reactToFineEvent()) {
-                    lastProp.doFinePropagation();
-                    // now we can check whether a delayed propagation has been scheduled
-                    if (delayedPropagationType > 0) {
-                        lastProp.propagate(delayedPropagationType);
-                    }
-                } else if (lastProp.isActive()) { // need to be checked due to views
-                    lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
-                }
+                revise(lastProp);
                 if (hybrid < 0b01) {
                     manageModifications();
                 }
@@ -189,6 +306,31 @@ public class PropagationEngine {
         } while (!var_queue.isEmpty());
     }
 
+    /**
+     * Execute a propagator popped from the queues
+     *
+     * @param propagator the propagator to execute
+     * @throws ContradictionException if a contradiction occurs
+     */
+    void revise(Propagator propagator) throws ContradictionException {
+        if (propagator.reactToFineEvent()) {
+            propagator.doFinePropagation();
+            // now we can check whether a delayed propagation has been scheduled
+            if (delayedPropagationType > 0) {
+                propagator.propagate(delayedPropagationType);
+            }
+        } else if (propagator.isActive()) { // need to be checked due to views
+            propagator.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
+
+    /**
+     * @return the type of the delayed propagation scheduled by the propagator under revision, 0 if none
+     */
+    int getDelayedPropagationType() {
+        return delayedPropagationType;
+    }
+
     /**
      * Checks if some propagators were added or have to be propagated on backtrack
      * @throws ContradictionException if a propagation fails
@@ -196,11 +338,31 @@ public class PropagationEngine {
     private void activatePropagators() throws ContradictionException {
         int cw = model.getEnvironment().getWorldIndex(); // get current index
         dynPropagators.descending(cw, awake_queue::addLast);
+        if (nextComponent < components.length) {
+            activateComponents();
+        }
         while (!awake_queue.isEmpty()) {
             execute(awake_queue.pollFirst());
         }
     }
 
+    /**
+     * Activate the connected components of the initial propagation one after the other,
+     * each of them reaching its fix point before the next one is activated.
+     * The last component is left to the caller.
+     *
+     * @throws ContradictionException if a propagation fails
+     */
+    private void activateComponents() throws ContradictionException {
+        while (nextComponent < components.length - 1) {
+            for (int n = components[nextComponent++]; n > 0 && !awake_queue.isEmpty(); n--) {
+                execute(awake_queue.pollFirst());
+            }
+            fixpoint();
+        }
+        nextComponent = components.length;
+    }
+
     /**
      * Execute 'coarse' propagation on a newly added propagator
      * or one that should be propagated on backtrack
@@ -233,6 +395,14 @@ public class PropagationEngine {
         return Integer.numberOfTrailingZeros(notEmpty);
     }
 
+    /**
+     * @return the profiler collecting statistics on propagation, or <i>null</i> if propagation is not profiled
+     * @see ProfilingPropagationEngine
+     */
+    public PropagationProfiler getProfiler() {
+        return null;
+    }
+
     /**
      * Flush <code>this</code>, ie. remove every pending events
      */
@@ -251,6 +421,9 @@ public class PropagationEngine {
             notEmpty = notEmpty & ~(1 << i);
         }
         lastProp = null;
+        // components not activated yet, after a failure, are activated all at once
+        components = new int[0];
+        nextComponent = 0;
     }
 
     /**
@@ -270,7 +443,11 @@ public class PropagationEngine {
             }
             assert found : variable + " not in scope of " + cause;
         }
-        var_queue.addLast(variable);
+        // a variable is queued once until its events are processed: repeated modifications are
+        // merged into its event mask
+        if (variable.getMask() == 0) {
+            var_queue.addLast(variable);
+        }
         variable.storeEvents(type.getMask(), cause);
     }
 
@@ -289,7 +466,7 @@ public class PropagationEngine {
                 int t = variable.getDindex(si.next());
                 for (; p < t; p++) {
                     prop = vpropagators[p];
-                    if (prop.isActive() && cause != prop) {
+                    if (prop.isActive() && (cause != prop || !prop.isIdempotent())) {
                         schedule(prop, vindices[p], mask);
                     }
                 }
@@ -350,6 +527,7 @@ public class PropagationEngine {
         dynPropagators.clear();
         awake_queue.clear();
         propagators.clear();
+        components = new int[0];
         notEmpty = 0;
         init = false;
         lastProp = null;
@@ -0,0 +1,339 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.propagation;
+
+import org.chocosolver.solver.constraints.Propagator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects statistics on propagation, per propagator and per class of propagator:
+ * <ul>
+ *     <li>the number of coarse propagations (calls to {@link Propagator#propagate(int)}),</li>
+ *     <li>the number of fine propagations (calls to {@link Propagator#propagate(int, int)}),</li>
+ *     <li>the cumulative time spent propagating, in nanoseconds,</li>
+ *     <li>the number of failures,</li>
+ *     <li>the number of domain modifications caused, each event fired on a variable counting once.</li>
+ * </ul>
+ * Fix-point statistics are collected too (number of fix points, failures and cumulative time).
+ * <p>
+ * A profiler is plugged with {@link org.chocosolver.solver.Solver#profilePropagation()},
+ * which replaces the {@link PropagationEngine} by a {@link ProfilingPropagationEngine}.
+ * When no profiler is plugged, the regular engine does not collect anything.
+ * <p>
+ * Example of use:
+ * <pre> {@code
+ * PropagationProfiler profiler = model.getSolver().profilePropagation();
+ * model.getSolver().solve();
+ * profiler.getPropagatorReport(Entry.BY_TIME).stream().limit(10).forEach(System.out::println);
+ * profiler.toCSV(System.out);
+ * }</pre>
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class PropagationProfiler {
+
+    /**
+     * Statistics of a propagator, or of a class of propagators.
+     */
+    public static final class Entry {
+
+        /**
+         * Sort entries by decreasing time
+         */
+        public static final Comparator<Entry> BY_TIME = Comparator.comparingLong((Entry e) -> e.time).reversed();
+        /**
+         * Sort entries by decreasing number of calls (coarse and fine)
+         */
+        public static final Comparator<Entry> BY_CALLS = Comparator.comparingLong((Entry e) -> e.coarse + e.fine).reversed();
+        /**
+         * Sort entries by decreasing number of failures
+         */
+        public static final Comparator<Entry> BY_FAILURES = Comparator.comparingLong((Entry e) -> e.failures).reversed();
+        /**
+         * Sort entries by decreasing number of domain modifications
+         */
+        public static final Comparator<Entry> BY_MODIFICATIONS = Comparator.comparingLong((Entry e) -> e.modifications).reversed();
+
+        private final String name;
+        private final Propagator<?> propagator;
+        long coarse;
+        long fine;
+        long time;
+        long failures;
+        long modifications;
+
+        private Entry(String name, Propagator<?> propagator) {
+            this.name = name;
+            this.propagator = propagator;
+        }
+
+        /**
+         * @return name of the propagator, or of the class
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the propagator, or <i>null</i> for a class of propagators
+         */
+        public Propagator<?> getPropagator() {
+            return propagator;
+        }
+
+        /**
+         * @return number of coarse propagations
+         */
+        public long getCoarseCalls() {
+            return coarse;
+        }
+
+        /**
+         * @return number of fine propagations
+         */
+        public long getFineCalls() {
+            return fine;
+        }
+
+        /**
+         * @return cumulative time spent propagating, in nanoseconds
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * @return number of failures
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return number of domain modifications caused
+         */
+        public long getModifications() {
+            return modifications;
+        }
+
+        private void add(Entry e) {
+            coarse += e.coarse;
+            fine += e.fine;
+            time += e.time;
+            failures += e.failures;
+            modifications += e.modifications;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d coarse, %d fine, %.3f ms, %d failures, %d modifications",
+                    name, coarse, fine, time / 1e6, failures, modifications);
+        }
+    }
+
+    /**
+     * Statistics per propagator
+     */
+    private final Map<Propagator<?>, Entry> entries = new HashMap<>();
+    /**
+     * Number of fix points
+     */
+    long fixpoints;
+    /**
+     * Number of fix points that failed
+     */
+    long fixpointFailures;
+    /**
+     * Cumulative time spent in fix points, in nanoseconds
+     */
+    long fixpointTime;
+
+    /**
+     * Create an empty profiler.
+     * It is given to a {@link ProfilingPropagationEngine}
+     * or, more simply, plugged with {@link org.chocosolver.solver.Solver#profilePropagation()}.
+     */
+    public PropagationProfiler() {
+    }
+
+    Entry get(Propagator<?> propagator) {
+        Entry e = entries.get(propagator);
+        if (e == null) {
+            e = new Entry(propagator.toString(), propagator);
+            entries.put(propagator, e);
+        }
+        return e;
+    }
+
+    /**
+     * Record an execution of <i>propagator</i>.
+     */
+    void record(Propagator<?> propagator, boolean coarse, int fine, long time, boolean failed, long modifications) {
+        Entry e = get(propagator);
+        if (coarse) {
+            e.coarse++;
+        }
+        e.fine += fine;
+        e.time += time;
+        if (failed) {
+            e.failures++;
+        }
+        e.modifications += modifications;
+    }
+
+    /**
+     * Forget all statistics collected so far.
+     */
+    public void reset() {
+        entries.clear();
+        fixpoints = fixpointFailures = fixpointTime = 0;
+    }
+
+    /**
+     * @return number of fix points computed
+     */
+    public long getFixpointCount() {
+        return fixpoints;
+    }
+
+    /**
+     * @return number of fix points that ended with a failure
+     */
+    public long getFixpointFailures() {
+        return fixpointFailures;
+    }
+
+    /**
+     * @return cumulative time spent computing fix points, in nanoseconds
+     */
+    public long getFixpointTime() {
+        return fixpointTime;
+    }
+
+    /**
+     * @param order how to sort entries, for instance {@link Entry#BY_TIME}
+     * @return statistics per propagator, sorted wrt <i>order</i>
+     */
+    public List<Entry> getPropagatorReport(Comparator<Entry> order) {
+        List<Entry> report = new ArrayList<>(entries.values());
+        report.sort(order);
+        return report;
+    }
+
+    /**
+     * @param order how to sort entries, for instance {@link Entry#BY_TIME}
+     * @return statistics per class of propagators, sorted wrt <i>order</i>
+     */
+    public List<Entry> getClassReport(Comparator<Entry> order) {
+        Map<Class<?>, Entry> classes = new LinkedHashMap<>();
+        for (Entry e : entries.values()) {
+            classes.computeIfAbsent(e.propagator.getClass(),
+                    c -> new Entry(c.getSimpleName(), null)).add(e);
+        }
+        List<Entry> report = new ArrayList<>(classes.values());
+        report.sort(order);
+        return report;
+    }
+
+    /**
+     * Write statistics per propagator, sorted by decreasing time, in CSV format
+     * (header: name;class;coarse;fine;time_ns;failures;modifications).
+     *
+     * @param out where to write
+     */
+    public void toCSV(Appendable out) {
+        try {
+            out.append("name;class;coarse;fine;time_ns;failures;modifications\n");
+            for (Entry e : getPropagatorReport(Entry.BY_TIME)) {
+                out.append('"').append(e.name.replace("\"", "\"\"")).append("\";")
+                        .append(e.propagator.getClass().getSimpleName()).append(';')
+                        .append(Long.toString(e.coarse)).append(';')
+                        .append(Long.toString(e.fine)).append(';')
+                        .append(Long.toString(e.time)).append(';')
+                        .append(Long.toString(e.failures)).append(';')
+                        .append(Long.toString(e.modifications)).append('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Write fix-point statistics, and statistics per class and per propagator, sorted by decreasing
+     * time, in JSON format.
+     *
+     * @param out where to write
+     */
+    public void toJSON(Appendable out) {
+        try {
+            out.append("{\"fixpoints\":").append(Long.toString(fixpoints))
+                    .append(",\"fixpointFailures\":").append(Long.toString(fixpointFailures))
+                    .append(",\"fixpointTime\":").append(Long.toString(fixpointTime))
+                    .append(",\"classes\":[");
+            appendJSON(out, getClassReport(Entry.BY_TIME));
+            out.append("],\"propagators\":[");
+            appendJSON(out, getPropagatorReport(Entry.BY_TIME));
+            out.append("]}");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void appendJSON(Appendable out, List<Entry> report) throws IOException {
+        for (int i = 0; i < report.size(); i++) {
+            Entry e = report.get(i);
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append("{\"name\":\"");
+            for (char c : e.name.toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    out.append('\\').append(c);
+                } else if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+            }
+            out.append('"');
+            if (e.propagator != null) {
+                out.append(",\"class\":\"").append(e.propagator.getClass().getSimpleName()).append('"');
+            }
+            out.append(",\"coarse\":").append(Long.toString(e.coarse))
+                    .append(",\"fine\":").append(Long.toString(e.fine))
+                    .append(",\"time\":").append(Long.toString(e.time))
+                    .append(",\"failures\":").append(Long.toString(e.failures))
+                    .append(",\"modifications\":").append(Long.toString(e.modifications))
+                    .append('}');
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder();
+        st.append(String.format("- Propagation profile: %d fix points, %d failures, %.3f ms.%n",
+                fixpoints, fixpointFailures, fixpointTime / 1e6));
+        for (Entry e : getClassReport(Entry.BY_TIME)) {
+            st.append("\t").append(e).append(System.lineSeparator());
+        }
+        return st.toString();
+    }
+}
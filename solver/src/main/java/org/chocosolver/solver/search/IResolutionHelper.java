@@ -11,6 +11,7 @@ package org.chocosolver.solver.search;
 
 import org.chocosolver.solver.ISelf;
 import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.SolutionStore;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.nary.lex.PropLexInt;
@@ -146,6 +147,38 @@ public interface IResolutionHelper extends ISelf<Solver> {
         return solutions;
     }
 
+    /**
+     * Attempts to find all solutions of the declared satisfaction problem, and appends them to <i>store</i>.
+     * Contrary to {@link #findAllSolutions(Criterion...)}, solutions are packed in <i>store</i>,
+     * which makes it suitable to enumerate a large number of solutions.
+     * Only the variables declared in <i>store</i> are recorded.
+     * <p>
+     * This method run the following instructions:
+     * <pre>
+     *     {@code
+     *     while (model.getSolver().solve()){
+     *          store.record();
+     *     }
+     *     return store;
+     *     }
+     * </pre>
+     *
+     * Note that it clears the current objective function, if any
+     *
+     * @param store where to store the solutions
+     * @param stop optional criterion to stop the search before finding all solutions
+     * @return <i>store</i>
+     */
+    default SolutionStore findAllSolutions(SolutionStore store, Criterion... stop) {
+        ref().getModel().clearObjective();
+        ref().addStopCriterion(stop);
+        while (ref().solve()) {
+            store.record();
+        }
+        ref().removeStopCriterion(stop);
+        return store;
+    }
+
     /**
      * Attempts to find all solutions of the declared problem.
      * <ul>
@@ -447,6 +480,42 @@ public interface IResolutionHelper extends ISelf<Solver> {
         return pareto.getParetoFront();
     }
 
+    /**
+     * Attempts optimize the value of the <i>objectives</i> variable w.r.t. to an optimization criteria. Finds
+     * all optimal solutions and appends them to <i>store</i>, once the search is over.
+     * Contrary to {@link #findParetoFront(IntVar[], boolean, Criterion...)}, solutions of the front are kept packed,
+     * and only the variables declared in <i>store</i> are recorded.
+     * Basically, this method runs the following instructions:
+     * <p>
+     * <pre>
+     * {@code
+     * ParetoOptimizer pareto = new ParetoOptimizer(maximize, objectives, store);
+     * 	while (ref().solve()) {
+     * 		pareto.onSolution();
+     * 	}
+     * 	pareto.flushParetoFront();
+     * 	return store;
+     * }
+     * </pre>
+     *
+     * @param objectives the array of variables to optimize
+     * @param maximize   set to <tt>true</tt> to solve a maximization problem, set to <tt>false</tt> to solve a minimization
+     *                   problem.
+     * @param store      where to store the Pareto front
+     * @param stop       optional criterions to stop the search before finding all/best solution
+     * @return <i>store</i>
+     */
+    default SolutionStore findParetoFront(IntVar[] objectives, boolean maximize, SolutionStore store, Criterion... stop) {
+        ref().addStopCriterion(stop);
+        ParetoOptimizer pareto = new ParetoOptimizer(maximize, objectives, store);
+        while (ref().solve()) {
+            pareto.onSolution();
+        }
+        ref().removeStopCriterion(stop);
+        pareto.flushParetoFront();
+        return store;
+    }
+
     /**
      * Attempts optimize the value of the <i>objectives</i> variable w.r.t. to an optimization criteria.
      * Finds and stores the optimal solution, if any.
@@ -10,6 +10,7 @@
 package org.chocosolver.solver.search.loop.learn;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.nary.clauses.ClauseExchange;
 import org.chocosolver.solver.constraints.nary.clauses.ClauseStore;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.learn.ExplanationForSignedClause;
@@ -53,6 +54,18 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
      * Maximum cardinality to add nogoods to the store
      */
     private final int max_card;
+    /**
+     * Channel to share learnt clauses with other models, may be null
+     */
+    private ClauseExchange.Channel channel;
+    /**
+     * Set to <i>true</i> when the last explanation comes from a solution, and not a conflict
+     */
+    private boolean fromSolution;
+    /**
+     * Literal Block Distance of the last explanation, computed at learning time
+     */
+    private int lbd;
 
     /**
      * Build a learned able to learn signed clauses on conflicts and solutions.
@@ -74,6 +87,14 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
         return (E) lastExplanation;
     }
 
+    /**
+     * Share learnt clauses through <i>channel</i>
+     * @param channel a channel connected to a {@link ClauseExchange}
+     */
+    public void setClauseExchange(ClauseExchange.Channel channel) {
+        this.channel = channel;
+    }
+
     @Override
     public boolean record(Solver solver) {
         if (nbsol == solver.getSolutionCount()) {
@@ -88,16 +109,21 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
     @Override
     public void forget(Solver solver) {
         addLearntConstraint();
+        if (channel != null && mSolver.getDecisionPath().size() == 1) { // at root node
+            channel.importClauses();
+        }
         ngstore.forget();
         lastExplanation.recycle();
     }
 
     private void onFailure() {
+        fromSolution = false;
         ContradictionException cex = mSolver.getContradictionException();
         assert
             (cex.v != null) || (cex.c != null) :
             this.getClass().getName() + ".onContradiction incoherent state";
         lastExplanation.learnSignedClause(cex);
+        lbd = lastExplanation.getLBD();
 
         int upto = mSolver.getDecisionPath().size() - lastExplanation.getAssertingLevel();
 
@@ -136,6 +162,9 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
         } else {
             // extract the decision path to build the nogood
             lastExplanation.learnSolution(mSolver.getDecisionPath());
+            // each literal comes from a distinct decision
+            lbd = lastExplanation.getCardinality();
+            fromSolution = true;
             mSolver.setJumpTo(-1);
         }
     }
@@ -143,7 +172,12 @@ public class LearnSignedClauses<E extends ExplanationForSignedClause> implements
     private void addLearntConstraint() {
         if (lastExplanation != null && lastExplanation.getCardinality() > 0
             && lastExplanation.getCardinality() <= max_card) {
+            if (channel != null && !fromSolution) {
+                // a clause that excludes a solution only makes sense in this model
+                channel.publish(lastExplanation);
+            }
             lastExplanation.extractConstraint(mSolver.getModel(), ngstore);
+            ngstore.setLastLBD(lbd);
         }
     }
 }
@@ -217,6 +217,10 @@ public interface IVariableFactory extends ISelf<Model> {
      * @param boundedDomain specifies whether to use a bounded domain or an enumerated domain.
      *                      When 'boundedDomain' only bounds modifications are handled
      *                      (any value removals in the middle of the domain will be ignored).
+     *                      An enumerated domain is based on a list of ranges when its size reaches
+     *                      {@link org.chocosolver.solver.Settings#getMaxDomSizeForEnumerated()},
+     *                      on a sparse set when its size reaches
+     *                      {@link org.chocosolver.solver.Settings#getMinDomSizeForSparseSet()}, on a bitset otherwise.
      * @return an IntVar of domain [<i>lb</i>, <i>ub</i>]
      */
     default IntVar intVar(String name, int lb, int ub, boolean boundedDomain) {
@@ -227,6 +231,10 @@ public interface IVariableFactory extends ISelf<Model> {
             return boolVar(name);
         } else if (boundedDomain) {
             return new IntervalIntVarImpl(name, lb, ub, ref());
+        } else if (ub - lb + 1 >= ref().getSettings().getMaxDomSizeForEnumerated()) {
+            return new RangeSetIntVarImpl(name, lb, ub, ref());
+        } else if (ub - lb + 1 >= ref().getSettings().getMinDomSizeForSparseSet()) {
+            return new SparseSetIntVarImpl(name, lb, ub, ref());
         } else {
             return new BitsetIntVarImpl(name, lb, ub, ref());
         }
@@ -249,7 +257,9 @@ public interface IVariableFactory extends ISelf<Model> {
 
     /**
      * Create an integer variable of initial domain <i>values</i>
-     * Uses an enumerated domain that supports holes
+     * Uses an enumerated domain that supports holes.
+     * When the span of <i>values</i> reaches {@link org.chocosolver.solver.Settings#getMaxDomSizeForEnumerated()}
+     * and <i>values</i> form long ranges, the domain is based on a list of ranges.
      * @param name name of the variable
      * @param values initial domain
      * @return an IntVar of domain <i>values</i>
@@ -263,8 +273,13 @@ public interface IVariableFactory extends ISelf<Model> {
             return boolVar(name);
         } else {
             int gap = values[values.length - 1] - values[0];
-            if (gap > 30 && gap / values.length > 5) {
+            if (gap + 1 >= ref().getSettings().getMaxDomSizeForEnumerated()
+                    && ArrayUtils.nbRanges(values) * 32 <= values.length) {
+                return new RangeSetIntVarImpl(name, values, ref());
+            } else if (gap > 30 && gap / values.length > 5) {
                 return new BitsetArrayIntVarImpl(name, values, ref());
+            } else if (values.length >= ref().getSettings().getMinDomSizeForSparseSet()) {
+                return new SparseSetIntVarImpl(name, values, ref());
             } else {
                 return new BitsetIntVarImpl(name, values, ref());
             }
@@ -11,6 +11,7 @@ package org.chocosolver.solver.variables.delta;
 
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.procedure.RangeProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
 /**
@@ -35,6 +36,17 @@ public interface IIntDeltaMonitor extends IDeltaMonitor {
 
     void forEachRemVal(IntProcedure proc) throws ContradictionException;
 
+    /**
+     * Apply 'proc' on each range of values removed. Filtering allowed.
+     * By default, each removed value is given as a singleton range;
+     * monitors of range-encoded deltas give the ranges as they were recorded.
+     * @param proc a procedure
+     * @throws ContradictionException if contradiction occurs
+     */
+    default void forEachRemRange(RangeProcedure proc) throws ContradictionException {
+        forEachRemVal((IntProcedure) v -> proc.execute(v, v));
+    }
+
 	/**
      * @return a rough estimation of the number of removed values 
      */
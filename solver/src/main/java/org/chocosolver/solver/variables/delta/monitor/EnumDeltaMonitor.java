@@ -13,24 +13,28 @@ import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.TimeStampedObject;
-import org.chocosolver.solver.variables.delta.IEnumDelta;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.IIntervalDelta;
 import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.procedure.RangeProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
 /**
- * <br/>
+ * A monitor for the delta of an enumerated integer variable.
+ * <p>
+ * Removed values are recorded as ranges, so that large removals (like bound modifications)
+ * are published in constant time and can be consumed range by range with {@link #forEachRemRange(RangeProcedure)}.
  *
  * @author Charles Prud'homme
  * @since 07/12/11
  */
 public class EnumDeltaMonitor extends TimeStampedObject implements IIntDeltaMonitor {
 
-    private final IEnumDelta delta;
+    private final IIntervalDelta delta;
     private int first, frozenFirst, frozenLast;
     private final ICause propagator;
 
-    public EnumDeltaMonitor(IEnumDelta delta, ICause propagator) {
+    public EnumDeltaMonitor(IIntervalDelta delta, ICause propagator) {
 		super(delta.getEnvironment());
         this.delta = delta;
         this.first = 0;
@@ -62,7 +66,10 @@ public class EnumDeltaMonitor extends TimeStampedObject implements IIntDeltaMoni
     public void forEachRemVal(SafeIntProcedure proc) {
 		for (int i = frozenFirst; i < frozenLast; i++) {
 			if (propagator == Cause.Null || propagator != delta.getCause(i)) {
-				proc.execute(delta.get(i));
+				int ub = delta.getUB(i);
+				for (int v = delta.getLB(i); v <= ub; v++) {
+					proc.execute(v);
+				}
 			}
 		}
     }
@@ -71,7 +78,19 @@ public class EnumDeltaMonitor extends TimeStampedObject implements IIntDeltaMoni
     public void forEachRemVal(IntProcedure proc) throws ContradictionException {
 		for (int i = frozenFirst; i < frozenLast; i++) {
 			if (propagator == Cause.Null || propagator != delta.getCause(i)) {
-				proc.execute(delta.get(i));
+				int ub = delta.getUB(i);
+				for (int v = delta.getLB(i); v <= ub; v++) {
+					proc.execute(v);
+				}
+			}
+		}
+    }
+
+    @Override
+    public void forEachRemRange(RangeProcedure proc) throws ContradictionException {
+		for (int i = frozenFirst; i < frozenLast; i++) {
+			if (propagator == Cause.Null || propagator != delta.getCause(i)) {
+				proc.execute(delta.getLB(i), delta.getUB(i));
 			}
 		}
     }
@@ -83,6 +102,11 @@ public class EnumDeltaMonitor extends TimeStampedObject implements IIntDeltaMoni
 
 	@Override
 	public int sizeApproximation(){
-		return frozenLast-frozenFirst;
+		// exact number of removed values, computed range by range
+		int size = 0;
+		for (int i = frozenFirst; i < frozenLast; i++) {
+			size += delta.getUB(i) - delta.getLB(i) + 1;
+		}
+		return size;
 	}
 }
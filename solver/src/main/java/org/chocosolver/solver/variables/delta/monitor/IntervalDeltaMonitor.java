@@ -16,6 +16,7 @@ import org.chocosolver.solver.search.loop.TimeStampedObject;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.delta.IIntervalDelta;
 import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.procedure.RangeProcedure;
 import org.chocosolver.util.procedure.SafeIntProcedure;
 
 /**
@@ -87,6 +88,15 @@ public class IntervalDeltaMonitor extends TimeStampedObject implements IIntDelta
 		}
     }
 
+    @Override
+    public void forEachRemRange(RangeProcedure proc) throws ContradictionException {
+		for (int i = frozenFirst; i < frozenLast; i++) {
+			if (propagator == Cause.Null || propagator != delta.getCause(i)) {
+				proc.execute(delta.getLB(i), delta.getUB(i));
+			}
+		}
+    }
+
     @Override
     public String toString() {
         return String.format("(%d,last) => (%d,%d) :: %d", first, frozenFirst, frozenLast, delta.size());
@@ -94,6 +104,11 @@ public class IntervalDeltaMonitor extends TimeStampedObject implements IIntDelta
 
 	@Override
 	public int sizeApproximation(){
-		return frozenLast-frozenFirst;
+		// exact number of removed values, computed interval by interval
+		int size = 0;
+		for (int i = frozenFirst; i < frozenLast; i++) {
+			size += delta.getUB(i) - delta.getLB(i) + 1;
+		}
+		return size;
 	}
 }
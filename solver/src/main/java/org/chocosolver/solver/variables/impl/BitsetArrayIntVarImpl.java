@@ -18,9 +18,9 @@ import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.solver.variables.delta.EnumDelta;
-import org.chocosolver.solver.variables.delta.IEnumDelta;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.IIntervalDelta;
+import org.chocosolver.solver.variables.delta.IntervalDelta;
 import org.chocosolver.solver.variables.delta.NoDelta;
 import org.chocosolver.solver.variables.delta.monitor.EnumDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
@@ -81,7 +81,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
     /**
      * Delta object to store removed values
      */
-    private IEnumDelta delta = NoDelta.singleton;
+    private IIntervalDelta delta = NoDelta.singleton;
 
     /**
      * Disposable values iterator
@@ -160,7 +160,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
             this.INDICES.clear(index);
             this.SIZE.add(-1);
             if (reactOnRemoval) {
-                delta.add(value, cause);
+                delta.add(value, value, cause);
             }
             if (value == getLB()) {
                 LB.set(INDICES.nextSetBit(LB.get()));
@@ -224,7 +224,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
                 hasRemoved = true;
                 INDICES.clear(index);
                 if (reactOnRemoval) {
-                    delta.add(value, cause);
+                    delta.add(value, value, cause);
                 }
             }
             value = values.nextValue(value);
@@ -275,7 +275,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
                 hasRemoved = true;
                 INDICES.clear(index);
                 if (reactOnRemoval) {
-                    delta.add(value, cause);
+                    delta.add(value, value, cause);
                 }
             }
         }
@@ -314,7 +314,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
                 count--;
                 this.INDICES.clear(i);
                 if (reactOnRemoval) {
-                    delta.add(value, cause);
+                    delta.add(value, value, cause);
                 }
                 model.getSolver().getEventObserver().removeValue(this, value, cause);
             }
@@ -356,7 +356,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
             if (reactOnRemoval) {
                 for (int i = INDICES.nextSetBit(LB.get()); i >= 0; i = INDICES.nextSetBit(i + 1)) {
                     if (i != index) {
-                        delta.add(VALUES[i], cause);
+                        delta.add(VALUES[i], VALUES[i], cause);
                     }
                 }
             }
@@ -407,7 +407,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
                 if (reactOnRemoval) {
                     //BEWARE: this loop significantly decreases performances
                     for (int i = lb; i >= 0 && i < index; i = INDICES.nextSetBit(i + 1)) {
-                        delta.add(VALUES[i], cause);
+                        delta.add(VALUES[i], VALUES[i], cause);
                     }
                 }
                 INDICES.clear(lb, index);
@@ -459,7 +459,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
                 if (reactOnRemoval) {
                     //BEWARE: this loop significantly decreases performances
                     for (int i = ub; i >= 0 && i > index; i = INDICES.prevSetBit(i - 1)) {
-                        delta.add(VALUES[i], cause);
+                        delta.add(VALUES[i], VALUES[i], cause);
                     }
                 }
                 INDICES.clear(index + 1, ub + 1);
@@ -499,7 +499,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
                 if (reactOnRemoval) {
                     //BEWARE: this loop significantly decreases performances
                     for (int i = b; i >= 0 && i < index; i = INDICES.nextSetBit(i + 1)) {
-                        delta.add(VALUES[i], cause);
+                        delta.add(VALUES[i], VALUES[i], cause);
                     }
                 }
                 INDICES.clear(b, index);
@@ -519,7 +519,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
                 if (reactOnRemoval) {
                     //BEWARE: this loop significantly decreases performances
                     for (int i = b; i >= 0 && i > index; i = INDICES.prevSetBit(i - 1)) {
-                        delta.add(VALUES[i], cause);
+                        delta.add(VALUES[i], VALUES[i], cause);
                     }
                 }
                 INDICES.clear(index + 1, b + 1);
@@ -707,7 +707,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
     }
 
     @Override
-    public IEnumDelta getDelta() {
+    public IIntervalDelta getDelta() {
         return delta;
     }
 
@@ -740,7 +740,7 @@ public final class BitsetArrayIntVarImpl extends AbstractVariable implements Int
     @Override
     public void createDelta() {
         if (!reactOnRemoval) {
-            delta = new EnumDelta(model.getEnvironment());
+            delta = new IntervalDelta(model.getEnvironment());
             reactOnRemoval = true;
         }
     }
@@ -16,9 +16,9 @@ import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.solver.variables.delta.EnumDelta;
-import org.chocosolver.solver.variables.delta.IEnumDelta;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.IIntervalDelta;
+import org.chocosolver.solver.variables.delta.IntervalDelta;
 import org.chocosolver.solver.variables.delta.NoDelta;
 import org.chocosolver.solver.variables.delta.monitor.EnumDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
@@ -71,7 +71,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
     /**
      * To iterate over removed values
      */
-    private IEnumDelta delta = NoDelta.singleton;
+    private IIntervalDelta delta = NoDelta.singleton;
     /**
      * To iterate over values in the domain
      */
@@ -160,7 +160,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
             this.VALUES.clear(aValue);
             this.SIZE.add(-1);
             if (reactOnRemoval) {
-                delta.add(value, cause);
+                delta.add(value, value, cause);
             }
 
             if (value == getLB()) {
@@ -204,42 +204,86 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                 nub = values.previousValue(oub + 1);
             }
         }
-        // the new bounds are now known, delegate to the right method
-        boolean hasChanged = updateBounds(olb, oub, cause);
-        // now deal with holes
-        int value = nlb;
-        int to = nub;
-        boolean hasRemoved = false;
-        int count = SIZE.get();
-        while (value <= to) {
-            int aValue = value - OFFSET;
-            if (aValue >= 0 && aValue <= LENGTH && VALUES.get(aValue)) {
-                model.getSolver().getEventObserver().removeValue(this, value, cause);
-                if (count == 1) {
-                    this.contradiction(cause, MSG_REMOVE);
-                }
-                count--;
-                hasRemoved = true;
-                VALUES.clear(aValue);
-                if (reactOnRemoval) {
-                    delta.add(value, cause);
-                }
+        // the new bounds are now known, update them without notifying
+        IntEventType e = shrinkBounds(olb, oub, cause);
+        // now deal with holes, range by range
+        int size = SIZE.get();
+        int count = size;
+        int ub = UB.get() + OFFSET;
+        int value = values.nextValue(LB.get() + OFFSET);
+        while (value < ub) {
+            int last = Math.min(values.nextValueOut(value), ub) - 1;
+            count = removeHoles(value - OFFSET, last - OFFSET, count, cause);
+            value = values.nextValue(last);
+        }
+        return notifyRemovals(e, size, count, cause);
+    }
+
+    /**
+     * Removes the values of the domain between <i>from</i> and <i>to</i> (offset values, inclusive),
+     * which must be strictly between the current bounds.
+     * Observers are informed value by value, but the delta is filled range by range
+     * and the removal is not notified to propagators.
+     * @param from first offset value to remove
+     * @param to last offset value to remove
+     * @param count current size of the domain
+     * @param cause removal releaser
+     * @return the new size of the domain
+     */
+    private int removeHoles(int from, int to, int count, ICause cause) {
+        assert LB.get() < from && to < UB.get();
+        for (int f = VALUES.nextSetBit(from); f > -1 && f <= to; ) {
+            int t = Math.min(VALUES.nextClearBit(f), to + 1);
+            for (int k = f; k < t; k++) {
+                model.getSolver().getEventObserver().removeValue(this, k + OFFSET, cause);
+            }
+            if (reactOnRemoval) {
+                delta.add(f + OFFSET, t - 1 + OFFSET, cause);
             }
-            value = values.nextValue(value);
+            VALUES.clear(f, t);
+            count -= t - f;
+            f = VALUES.nextSetBit(t);
         }
-        if (hasRemoved) {
-            notifyRemovals(count, cause);
+        return count;
+    }
+
+    /**
+     * Records in the delta the values of the domain between <i>from</i> and <i>to</i> (offset values, inclusive),
+     * range by range.
+     */
+    private void recordRemovals(int from, int to, ICause cause) {
+        for (int f = VALUES.nextSetBit(from); f > -1 && f <= to; ) {
+            int t = Math.min(VALUES.nextClearBit(f), to + 1);
+            delta.add(f + OFFSET, t - 1 + OFFSET, cause);
+            f = VALUES.nextSetBit(t);
         }
-        return hasRemoved || hasChanged;
     }
 
-    private void notifyRemovals(int count, ICause cause) throws ContradictionException {
-        SIZE.set(count);
-        IntEventType e = IntEventType.REMOVE;
-        if (count == 1) {
-            e = IntEventType.INSTANTIATE;
+    /**
+     * Commits the new size of the domain and notifies propagators of a single event
+     * covering both bound modifications (if any) and value removals.
+     * @param e event raised by the bound modifications, <i>null</i> if none
+     * @param size size of the domain before removing holes
+     * @param count size of the domain after removing holes
+     * @param cause removal releaser
+     * @return <i>true</i> if the domain has been modified
+     * @throws ContradictionException should not happen since the domain is not empty
+     */
+    private boolean notifyRemovals(IntEventType e, int size, int count, ICause cause) throws ContradictionException {
+        if (count < size) {
+            SIZE.set(count);
+            if (e == null) {
+                e = IntEventType.REMOVE;
+            }
+            if (count == 1) {
+                e = IntEventType.INSTANTIATE;
+            }
+        }
+        if (e != null) {
+            this.notifyPropagators(e, cause);
+            return true;
         }
-        this.notifyPropagators(e, cause);
+        return false;
     }
 
     @Override
@@ -264,80 +308,34 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                 nub = values.previousValue(oub + 1);
             }
         }
-        // the new bounds are now known, delegate to the right method
-        boolean hasChanged = updateBounds(nlb, nub, cause);
-        // now deal with holes
-        boolean hasRemoved = false;
-        int count = SIZE.get();
-        int value;
-        int m0 = values.nextValueOut(nlb);
-        while (m0 < nub) {
-            int m1 = values.nextValue(m0) - OFFSET;
-            // iterate over the values in the domain, remove the ones that are not in values
-            int f = VALUES.nextSetBit(m0 - OFFSET);
-            int t = VALUES.nextClearBit(f);
-            int k = f;
-            while (k < m1) {
-                if (k < t) {
-                    value = k + OFFSET;
-                    assert !values.contains(value);
-                    model.getSolver().getEventObserver().removeValue(this, value, cause);
-                    if (count == 1) {
-                        this.contradiction(cause, MSG_REMOVE);
-                    }
-                    count--;
-                    hasRemoved = true;
-                    if (reactOnRemoval) {
-                        delta.add(value, cause);
-                    }
-                    k++;
-                } else {
-                    VALUES.clear(f, t);
-                    k = f = VALUES.nextSetBit(t);
-                    t = VALUES.nextClearBit(f);
-                }
-            }
-            if(f < m1)VALUES.clear(f, m1);
-            m0 = values.nextValueOut(m1 + OFFSET);
-        }
-
-        if (hasRemoved) {
-            notifyRemovals(count, cause);
-        }
-        return hasRemoved || hasChanged;
+        // the new bounds are now known, update them without notifying
+        IntEventType e = shrinkBounds(nlb, nub, cause);
+        // now deal with holes, range by range
+        int size = SIZE.get();
+        int count = size;
+        int ub = UB.get() + OFFSET;
+        int m0 = values.nextValueOut(LB.get() + OFFSET);
+        while (m0 < ub) {
+            int m1 = values.nextValue(m0);
+            count = removeHoles(m0 - OFFSET, m1 - 1 - OFFSET, count, cause);
+            m0 = values.nextValueOut(m1);
+        }
+        return notifyRemovals(e, size, count, cause);
     }
 
-        @Override
-        public boolean removeInterval ( int from, int to, ICause cause) throws
-        ContradictionException {
-            assert cause != null;
-            if (from <= getLB())
-                return updateLowerBound(to + 1, cause);
-            else if (getUB() <= to)
-                return updateUpperBound(from - 1, cause);
-            else {
-                boolean anyChange = false;
-                int i = VALUES.nextSetBit(from - OFFSET);
-                to -= OFFSET;
-                int count = SIZE.get();
-                // the iteration is mandatory for delta and observers
-                for (; i > -1 && i <= to; i = VALUES.nextSetBit(i + 1)) {
-                    int aValue = i + OFFSET;
-                    anyChange = true;
-                    count--;
-                    this.VALUES.clear(i);
-                    if (reactOnRemoval) {
-                        delta.add(aValue, cause);
-                    }
-                    model.getSolver().getEventObserver().removeValue(this, aValue, cause);
-                }
-                if (anyChange) {
-                    SIZE.set(count);
-                    this.notifyPropagators(IntEventType.REMOVE, cause);
-                }
-                return anyChange;
-            }
+    @Override
+    public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (from <= getLB())
+            return updateLowerBound(to + 1, cause);
+        else if (getUB() <= to)
+            return updateUpperBound(from - 1, cause);
+        else {
+            int size = SIZE.get();
+            int count = removeHoles(from - OFFSET, to - OFFSET, size, cause);
+            return notifyRemovals(null, size, count, cause);
         }
+    }
 
         /**
          * Instantiates the domain of {@code this} to {@code value}. The instruction comes from {@code propagator}.
@@ -366,14 +364,8 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                 model.getSolver().getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
                 int aValue = value - OFFSET;
                 if (reactOnRemoval) {
-                    int i = VALUES.nextSetBit(this.LB.get());
-                    for (; i < aValue; i = VALUES.nextSetBit(i + 1)) {
-                        delta.add(i + OFFSET, cause);
-                    }
-                    i = VALUES.nextSetBit(aValue + 1);
-                    for (; i >= 0; i = VALUES.nextSetBit(i + 1)) {
-                        delta.add(i + OFFSET, cause);
-                    }
+                    recordRemovals(this.LB.get(), aValue - 1, cause);
+                    recordRemovals(aValue + 1, this.UB.get(), cause);
                 }
                 this.VALUES.clear();
                 this.VALUES.set(aValue);
@@ -417,10 +409,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                     IntEventType e = IntEventType.INCLOW;
                     int aValue = value - OFFSET;
                     if (reactOnRemoval) {
-                        //BEWARE: this loop significantly decreases performances
-                        for (int i = old - OFFSET; i < aValue; i = VALUES.nextSetBit(i + 1)) {
-                            delta.add(i + OFFSET, cause);
-                        }
+                        recordRemovals(old - OFFSET, aValue - 1, cause);
                     }
                     VALUES.clear(old - OFFSET, aValue);
                     LB.set(VALUES.nextSetBit(aValue));
@@ -467,10 +456,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                     IntEventType e = IntEventType.DECUPP;
                     int aValue = value - OFFSET;
                     if (reactOnRemoval) {
-                        //BEWARE: this loop significantly decreases performances
-                        for (int i = oub - OFFSET; i > aValue; i = VALUES.prevSetBit(i - 1)) {
-                            delta.add(i + OFFSET, cause);
-                        }
+                        recordRemovals(aValue + 1, oub - OFFSET, cause);
                     }
                     VALUES.clear(aValue + 1, oub - OFFSET + 1);
                     UB.set(VALUES.prevSetBit(aValue));
@@ -489,11 +475,27 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         @Override
         public boolean updateBounds ( int lb, int ub, ICause cause) throws ContradictionException {
             assert cause != null;
+            IntEventType e = shrinkBounds(lb, ub, cause);
+            if (e != null) {
+                this.notifyPropagators(e, cause);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Updates the bounds of the domain of {@code this} to {@code lb} and {@code ub}, without notifying propagators.
+         * @param lb new lower bound (included)
+         * @param ub new upper bound (included)
+         * @param cause update releaser
+         * @return the event to notify, {@code null} if the bounds are unchanged
+         * @throws ContradictionException if the domain become empty due to this action
+         */
+        private IntEventType shrinkBounds ( int lb, int ub, ICause cause) throws ContradictionException {
             int olb = this.getLB();
             int oub = this.getUB();
-            boolean update = false;
+            IntEventType e = null;
             if (olb < lb || oub > ub) {
-                IntEventType e = null;
                 if (oub < lb) {
                     model.getSolver().getEventObserver().updateLowerBound(this, lb, olb, cause);
                     this.contradiction(cause, MSG_LOW);
@@ -502,10 +504,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                     e = IntEventType.INCLOW;
                     int aLB = lb - OFFSET;
                     if (reactOnRemoval) {
-                        //BEWARE: this loop significantly decreases performances
-                        for (int i = olb - OFFSET; i < aLB; i = VALUES.nextSetBit(i + 1)) {
-                            delta.add(i + OFFSET, cause);
-                        }
+                        recordRemovals(olb - OFFSET, aLB - 1, cause);
                     }
                     VALUES.clear(olb - OFFSET, aLB);
                     olb = VALUES.nextSetBit(aLB); // olb is used as a temporary variable
@@ -521,10 +520,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                     e = e == null ? IntEventType.DECUPP : IntEventType.BOUND;
                     int aUB = ub - OFFSET;
                     if (reactOnRemoval) {
-                        //BEWARE: this loop significantly decreases performances
-                        for (int i = oub - OFFSET; i > aUB; i = VALUES.prevSetBit(i - 1)) {
-                            delta.add(i + OFFSET, cause);
-                        }
+                        recordRemovals(aUB + 1, oub - OFFSET, cause);
                     }
                     VALUES.clear(aUB + 1, oub - OFFSET + 1);
                     UB.set(VALUES.prevSetBit(aUB));
@@ -533,10 +529,8 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
                 if (isInstantiated()) {
                     e = IntEventType.INSTANTIATE;
                 }
-                this.notifyPropagators(e, cause);
-                update = true;
             }
-            return update;
+            return e;
         }
 
         @Override
@@ -642,7 +636,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         }
 
         @Override
-        public IEnumDelta getDelta () {
+        public IIntervalDelta getDelta () {
             return delta;
         }
 
@@ -677,7 +671,7 @@ public final class BitsetIntVarImpl extends AbstractVariable implements IntVar {
         @Override
         public void createDelta () {
             if (!reactOnRemoval) {
-                delta = new EnumDelta(model.getEnvironment());
+                delta = new IntervalDelta(model.getEnvironment());
                 reactOnRemoval = true;
             }
         }
@@ -0,0 +1,732 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.learn.AbstractEventObserver;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.IIntervalDelta;
+import org.chocosolver.solver.variables.delta.IntervalDelta;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.delta.monitor.IntervalDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.impl.scheduler.IntEvtScheduler;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.iterators.EvtScheduler;
+import org.chocosolver.util.iterators.IntVarValueIterator;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSet;
+
+import java.util.Iterator;
+
+/**
+ * An enumerated IntVar based on a reversible list of ranges.
+ * <p>
+ * The domain is stored in an {@link IntIterableRangeSet}, so its memory footprint is proportional
+ * to the number of ranges and not to the span of the domain.
+ * The first time the domain is modified in a world, its ranges are copied and the copy is restored on backtrack:
+ * the trail is also proportional to the number of ranges.
+ * Removed values are stored as ranges in an {@link IntervalDelta}.
+ * <p>
+ * Membership test, bounds and next value are computed in O(log(r)), where r is the number of ranges.
+ * It suits very large domains with few holes.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public final class RangeSetIntVarImpl extends AbstractVariable implements IntVar {
+
+    /**
+     * Set to <tt>true</tt> if this variable reacts is associated with at least one propagator which reacts
+     * on value removal
+     */
+    private boolean reactOnRemoval = false;
+    /**
+     * Current domain
+     */
+    private final IntIterableRangeSet DOMAIN;
+    /**
+     * Time stamp of the last copy of the domain pushed on the trail
+     */
+    private int stamp = -1;
+    /**
+     * To iterate over removed values
+     */
+    private IIntervalDelta delta = NoDelta.singleton;
+    /**
+     * To iterate over values in the domain
+     */
+    private DisposableValueIterator _viterator;
+    /**
+     * To iterate over ranges
+     */
+    private DisposableRangeIterator _riterator;
+    /**
+     * Value iterator allowing for(int i:this) loops
+     */
+    private IntVarValueIterator _javaIterator;
+
+    /**
+     * Create an enumerated IntVar based on a list of ranges
+     * @param name name of the variable
+     * @param sortedValues original domain values
+     * @param model declaring model
+     */
+    public RangeSetIntVarImpl(String name, int[] sortedValues, Model model) {
+        this(name, new IntIterableRangeSet(sortedValues), model);
+    }
+
+    /**
+     * Create an enumerated IntVar based on a list of ranges
+     * @param name name of the variable
+     * @param min lower bound
+     * @param max upper bound
+     * @param model declaring model
+     */
+    public RangeSetIntVarImpl(String name, int min, int max, Model model) {
+        this(name, new IntIterableRangeSet(min, max), model);
+    }
+
+    /**
+     * Create an enumerated IntVar based on a list of ranges
+     * @param name name of the variable
+     * @param values original domain values, copied
+     * @param model declaring model
+     */
+    public RangeSetIntVarImpl(String name, IntIterableRangeSet values, Model model) {
+        super(name, model);
+        this.DOMAIN = values.duplicate();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Save the current ranges, at most once per world, before they are modified.
+     */
+    private void trail() {
+        IEnvironment env = model.getEnvironment();
+        if (stamp != env.getTimeStamp()) {
+            stamp = env.getTimeStamp();
+            IntIterableRangeSet copy = DOMAIN.duplicate();
+            env.save(() -> DOMAIN.copyFrom(copy));
+        }
+    }
+
+    /**
+     * Remove all values in [<i>from</i>, <i>to</i>], the delta is informed range by range.
+     */
+    private void removeBetween(int from, int to, ICause cause) {
+        trail();
+        if (reactOnRemoval) {
+            for (int v = DOMAIN.nextValue(from - 1); v <= to; ) {
+                int w = Math.min(DOMAIN.nextValueOut(v) - 1, to);
+                delta.add(v, w, cause);
+                v = DOMAIN.nextValue(w);
+            }
+        }
+        DOMAIN.removeBetween(from, to);
+    }
+
+    /**
+     * Inform observers of the removal of each value of the domain in [<i>from</i>, <i>to</i>].
+     * The domain is walked range by range, and not at all when no observer is plugged in.
+     */
+    private void observeRemovals(int from, int to, ICause cause) {
+        AbstractEventObserver observer = model.getSolver().getEventObserver();
+        if (observer == AbstractEventObserver.SILENT_OBSERVER) {
+            return;
+        }
+        for (int v = DOMAIN.nextValue(from - 1); v <= to; ) {
+            int w = Math.min(DOMAIN.nextValueOut(v) - 1, to);
+            for (; v <= w; v++) {
+                observer.removeValue(this, v, cause);
+            }
+            v = DOMAIN.nextValue(w);
+        }
+    }
+
+    /**
+     * Notify propagators of the removals made since the domain was [<i>lb</i>, <i>ub</i>] and of size <i>size</i>.
+     * @return <i>true</i> if the domain has changed
+     */
+    private boolean notifyRemovals(int size, int lb, int ub, ICause cause) throws ContradictionException {
+        if (DOMAIN.size() == size) {
+            return false;
+        }
+        IntEventType e = IntEventType.REMOVE;
+        if (DOMAIN.min() != lb) {
+            e = IntEventType.INCLOW;
+        }
+        if (DOMAIN.max() != ub) {
+            e = e == IntEventType.INCLOW ? IntEventType.BOUND : IntEventType.DECUPP;
+        }
+        if (isInstantiated()) {
+            e = IntEventType.INSTANTIATE;
+        }
+        this.notifyPropagators(e, cause);
+        return true;
+    }
+
+    /**
+     * Removes {@code value}from the domain of {@code this}. The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is out of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if removing {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if removing {@code value} from the domain can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value value to remove from the domain (int)
+     * @param cause removal releaser
+     * @return true if the value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean removeValue(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        boolean change = DOMAIN.contains(value);
+        if (change) {
+            model.getSolver().getEventObserver().removeValue(this, value, cause);
+            int size = DOMAIN.size();
+            if (size == 1) {
+                this.contradiction(cause, MSG_REMOVE);
+            }
+            int lb = DOMAIN.min(), ub = DOMAIN.max();
+            trail();
+            DOMAIN.remove(value);
+            if (reactOnRemoval) {
+                delta.add(value, value, cause);
+            }
+            notifyRemovals(size, lb, ub, cause);
+        }
+        return change;
+    }
+
+    @Override
+    public boolean removeValues(IntIterableSet values, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int size = DOMAIN.size();
+        int lb = DOMAIN.min(), ub = DOMAIN.max();
+        // pending range of removed values, reported to the delta once complete
+        int from = Integer.MAX_VALUE, to = Integer.MIN_VALUE;
+        if (values.size() <= size) {
+            for (int value = values.nextValue(lb - 1); value <= ub; value = values.nextValue(value)) {
+                if (DOMAIN.contains(value)) {
+                    model.getSolver().getEventObserver().removeValue(this, value, cause);
+                    if (DOMAIN.size() == 1) {
+                        this.contradiction(cause, MSG_REMOVE);
+                    }
+                    trail();
+                    DOMAIN.remove(value);
+                    if (reactOnRemoval) {
+                        if (value != to + 1) {
+                            if (from <= to) {
+                                delta.add(from, to, cause);
+                            }
+                            from = value;
+                        }
+                        to = value;
+                    }
+                }
+            }
+        } else {
+            for (int value = lb; value <= ub; value = DOMAIN.nextValue(value)) {
+                if (values.contains(value)) {
+                    model.getSolver().getEventObserver().removeValue(this, value, cause);
+                    if (DOMAIN.size() == 1) {
+                        this.contradiction(cause, MSG_REMOVE);
+                    }
+                    trail();
+                    DOMAIN.remove(value);
+                    if (reactOnRemoval) {
+                        if (value != to + 1) {
+                            if (from <= to) {
+                                delta.add(from, to, cause);
+                            }
+                            from = value;
+                        }
+                        to = value;
+                    }
+                }
+            }
+        }
+        if (from <= to) {
+            delta.add(from, to, cause);
+        }
+        return notifyRemovals(size, lb, ub, cause);
+    }
+
+    @Override
+    public boolean removeAllValuesBut(IntIterableSet values, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int size = DOMAIN.size();
+        int lb = DOMAIN.min(), ub = DOMAIN.max();
+        int v = lb;
+        while (v <= ub) {
+            if (values.contains(v)) {
+                // skip the values to keep
+                v = DOMAIN.nextValue(values.nextValueOut(v) - 1);
+            } else {
+                int w = Math.min(values.nextValue(v) - 1, ub);
+                observeRemovals(v, w, cause);
+                if (DOMAIN.nextValue(w) > ub && DOMAIN.previousValue(v) < lb) {
+                    // nothing would remain
+                    this.contradiction(cause, MSG_EMPTY);
+                }
+                removeBetween(v, w, cause);
+                v = DOMAIN.nextValue(w);
+            }
+        }
+        return notifyRemovals(size, lb, ub, cause);
+    }
+
+    @Override
+    public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (from <= getLB()) {
+            return updateLowerBound(to + 1, cause);
+        } else if (getUB() <= to) {
+            return updateUpperBound(from - 1, cause);
+        } else if (DOMAIN.nextValue(from - 1) <= to) {
+            observeRemovals(from, to, cause);
+            removeBetween(from, to, cause);
+            this.notifyPropagators(IntEventType.REMOVE, cause);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Instantiates the domain of {@code this} to {@code value}. The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If the domain of {@code this} is already instantiated to {@code value},
+     * nothing is done and the return value is {@code false},</li>
+     * <li>If the domain of {@code this} is already instantiated to another value,
+     * then a {@code ContradictionException} is thrown,</li>
+     * <li>Otherwise, the domain of {@code this} is restricted to {@code value} and the observers are notified
+     * and the return value is {@code true}.</li>
+     * </ul>
+     *
+     * @param value instantiation value (int)
+     * @param cause instantiation releaser
+     * @return true if the instantiation is done, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (!contains(value)) {
+            model.getSolver().getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
+            this.contradiction(cause, MSG_INST);
+        } else if (!isInstantiated()) {
+            model.getSolver().getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
+            int lb = DOMAIN.min(), ub = DOMAIN.max();
+            if (lb < value) {
+                removeBetween(lb, value - 1, cause);
+            }
+            if (value < ub) {
+                removeBetween(value + 1, ub, cause);
+            }
+            this.notifyPropagators(IntEventType.INSTANTIATE, cause);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the lower bound of the domain of {@code this} to {@code value}.
+     * The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is smaller than the lower bound of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if updating the lower bound to {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if updating the lower bound to {@code value} can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value new lower bound (included)
+     * @param cause updating releaser
+     * @return true if the lower bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getLB();
+        if (old < value) {
+            int oub = this.getUB();
+            model.getSolver().getEventObserver().updateLowerBound(this, value, old, cause);
+            if (oub < value) {
+                this.contradiction(cause, MSG_LOW);
+            } else {
+                IntEventType e = IntEventType.INCLOW;
+                removeBetween(old, value - 1, cause);
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates the upper bound of the domain of {@code this} to {@code value}.
+     * The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is greater than the upper bound of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if updating the upper bound to {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if updating the upper bound to {@code value} can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value new upper bound (included)
+     * @param cause update releaser
+     * @return true if the upper bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int oub = this.getUB();
+        if (oub > value) {
+            int olb = this.getLB();
+            model.getSolver().getEventObserver().updateUpperBound(this, value, oub, cause);
+            if (olb > value) {
+                this.contradiction(cause, MSG_UPP);
+            } else {
+                IntEventType e = IntEventType.DECUPP;
+                removeBetween(value + 1, oub, cause);
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateBounds(int lb, int ub, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int olb = this.getLB();
+        int oub = this.getUB();
+        boolean update = false;
+        if (olb < lb || oub > ub) {
+            IntEventType e = null;
+            if (oub < lb) {
+                model.getSolver().getEventObserver().updateLowerBound(this, lb, olb, cause);
+                this.contradiction(cause, MSG_LOW);
+            } else if (olb < lb) {
+                model.getSolver().getEventObserver().updateLowerBound(this, lb, olb, cause);
+                e = IntEventType.INCLOW;
+                removeBetween(olb, lb - 1, cause);
+                olb = getLB();
+            }
+            if (olb > ub) {
+                model.getSolver().getEventObserver().updateUpperBound(this, ub, oub, cause);
+                this.contradiction(cause, MSG_UPP);
+            } else if (oub > ub) {
+                model.getSolver().getEventObserver().updateUpperBound(this, ub, oub, cause);
+                e = e == null ? IntEventType.DECUPP : IntEventType.BOUND;
+                removeBetween(ub + 1, oub, cause);
+            }
+            if (isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            this.notifyPropagators(e, cause);
+            update = true;
+        }
+        return update;
+    }
+
+    @Override
+    public boolean isInstantiated() {
+        return DOMAIN.size() == 1;
+    }
+
+    @Override
+    public boolean isInstantiatedTo(int value) {
+        return isInstantiated() && getLB() == value;
+    }
+
+    @Override
+    public boolean contains(int aValue) {
+        return DOMAIN.contains(aValue);
+    }
+
+    /**
+     * Retrieves the current value of the variable if instantiated, otherwier the lower bound.
+     *
+     * @return the current value (or lower bound if not yet instantiated).
+     */
+    @Override
+    public int getValue() {
+        assert isInstantiated() : name + " not instantiated";
+        return getLB();
+    }
+
+    /**
+     * Retrieves the lower bound of the variable
+     *
+     * @return the lower bound
+     */
+    @Override
+    public int getLB() {
+        return DOMAIN.min();
+    }
+
+    /**
+     * Retrieves the upper bound of the variable
+     *
+     * @return the upper bound
+     */
+    @Override
+    public int getUB() {
+        return DOMAIN.max();
+    }
+
+    @Override
+    public int getDomainSize() {
+        return DOMAIN.size();
+    }
+
+    @Override
+    public int getRange() {
+        return getUB() - getLB() + 1;
+    }
+
+    /**
+     * @return number of ranges of the current domain
+     */
+    public int getNbRanges() {
+        return DOMAIN.getNbRanges();
+    }
+
+    @Override
+    public int nextValue(int aValue) {
+        return DOMAIN.nextValue(aValue);
+    }
+
+    @Override
+    public int nextValueOut(int aValue) {
+        return DOMAIN.nextValueOut(aValue);
+    }
+
+    @Override
+    public int previousValue(int aValue) {
+        return DOMAIN.previousValue(aValue);
+    }
+
+    @Override
+    public int previousValueOut(int aValue) {
+        return DOMAIN.previousValueOut(aValue);
+    }
+
+    @Override
+    public boolean hasEnumeratedDomain() {
+        return true;
+    }
+
+    @Override
+    public IIntervalDelta getDelta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(20);
+        s.append(name).append(" = ");
+        if (DOMAIN.size() == 1) {
+            s.append(this.getLB());
+        } else {
+            s.append('{');
+            for (int r = 0; r < DOMAIN.getNbRanges(); r++) {
+                if (r > 0) s.append(",");
+                int v = DOMAIN.minOfRange(r), w = DOMAIN.maxOfRange(r);
+                s.append(v);
+                if (v < w) s.append("..").append(w);
+            }
+            s.append('}');
+        }
+        return s.toString();
+    }
+
+    ////////////////////////////////////////////////////////////////
+    ///// methode liees au fait qu'une variable est observable /////
+    ////////////////////////////////////////////////////////////////
+
+    @Override
+    public void createDelta() {
+        if (!reactOnRemoval) {
+            delta = new IntervalDelta(model.getEnvironment());
+            reactOnRemoval = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public IIntDeltaMonitor monitorDelta(ICause propagator) {
+        createDelta();
+        return new IntervalDeltaMonitor(delta, propagator);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int getTypeAndKind() {
+        return VAR | INT;
+    }
+
+    @Override
+    protected EvtScheduler createScheduler() {
+        return new IntEvtScheduler();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public DisposableValueIterator getValueIterator(boolean bottomUp) {
+        if (_viterator == null || _viterator.isNotReusable()) {
+            _viterator = new DisposableValueIterator() {
+
+                /**
+                 * Current value
+                 */
+                int value;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    this.value = getLB();
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    this.value = getUB();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.value != Integer.MAX_VALUE;
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return this.value != Integer.MIN_VALUE;
+                }
+
+                @Override
+                public int next() {
+                    int old = this.value;
+                    this.value = nextValue(this.value);
+                    return old;
+                }
+
+                @Override
+                public int previous() {
+                    int old = this.value;
+                    this.value = previousValue(this.value);
+                    return old;
+                }
+            };
+        }
+        if (bottomUp) {
+            _viterator.bottomUpInit();
+        } else {
+            _viterator.topDownInit();
+        }
+        return _viterator;
+    }
+
+    @Override
+    public DisposableRangeIterator getRangeIterator(boolean bottomUp) {
+        if (_riterator == null || _riterator.isNotReusable()) {
+            _riterator = new DisposableRangeIterator() {
+
+                /**
+                 * Index of the current range
+                 */
+                int r;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    this.r = 0;
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    this.r = DOMAIN.getNbRanges() - 1;
+                }
+
+                public boolean hasNext() {
+                    return this.r < DOMAIN.getNbRanges();
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return this.r >= 0;
+                }
+
+                public void next() {
+                    this.r++;
+                }
+
+                @Override
+                public void previous() {
+                    this.r--;
+                }
+
+                @Override
+                public int min() {
+                    return DOMAIN.minOfRange(r);
+                }
+
+                @Override
+                public int max() {
+                    return DOMAIN.maxOfRange(r);
+                }
+            };
+        }
+        if (bottomUp) {
+            _riterator.bottomUpInit();
+        } else {
+            _riterator.topDownInit();
+        }
+        return _riterator;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        if (_javaIterator == null) {
+            _javaIterator = new IntVarValueIterator(this);
+        }
+        _javaIterator.reset();
+        return _javaIterator;
+    }
+}
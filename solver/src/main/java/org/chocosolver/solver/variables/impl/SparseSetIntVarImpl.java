@@ -0,0 +1,857 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.variables.impl;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.IIntervalDelta;
+import org.chocosolver.solver.variables.delta.IntervalDelta;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.delta.monitor.EnumDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.impl.scheduler.IntEvtScheduler;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.iterators.EvtScheduler;
+import org.chocosolver.util.iterators.IntVarValueIterator;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSet;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * An enumerated IntVar based on a reversible sparse set.
+ * <p>
+ * Values of the domain are stored in the first <i>size</i> cells of a dense array,
+ * a second array gives the position of each value in the dense one.
+ * Removing a value swaps it with the last value of the domain and decrements the size.
+ * Since removed values are never overwritten, restoring a domain only requires to restore its size:
+ * apart from the bounds, the size is the only trailed data, whatever the number of removed values.
+ * <p>
+ * Removal and membership test are in O(1), iterating over the domain in no particular order is in
+ * O(size). Iterating in increasing order, as done with {@link #nextValue(int)}, scans the range of the domain.
+ * It suits medium-size domains with many value removals.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public final class SparseSetIntVarImpl extends AbstractVariable implements IntVar {
+
+    /**
+     * Set to <tt>true</tt> if this variable reacts is associated with at least one propagator which reacts
+     * on value removal
+     */
+    private boolean reactOnRemoval = false;
+    /**
+     * Values of the initial domain -- includes offset. The first SIZE ones are in the current domain.
+     */
+    private final int[] DENSE;
+    /**
+     * Position of each value in {@link #DENSE} -- includes offset,
+     * {@link Integer#MAX_VALUE} for values not in the initial domain
+     */
+    private final int[] POS;
+    /**
+     * Lower bound of the current domain -- includes offset
+     */
+    private final IStateInt LB;
+    /**
+     * Upper bound of the current domain -- includes offset
+     */
+    private final IStateInt UB;
+    /**
+     * Current size of domain
+     */
+    private final IStateInt SIZE;
+    /**
+     * offset of the lower bound and the first value in the domain
+     */
+    private final int OFFSET;
+    /**
+     * To iterate over removed values
+     */
+    private IIntervalDelta delta = NoDelta.singleton;
+    /**
+     * To iterate over values in the domain
+     */
+    private DisposableValueIterator _viterator;
+    /**
+     * To iterate over ranges
+     */
+    private DisposableRangeIterator _riterator;
+    /**
+     * Value iterator allowing for(int i:this) loops
+     */
+    private IntVarValueIterator _javaIterator;
+
+    /**
+     * Create an enumerated IntVar based on a sparse set
+     * @param name name of the variable
+     * @param sortedValues original domain values
+     * @param model declaring model
+     */
+    public SparseSetIntVarImpl(String name, int[] sortedValues, Model model) {
+        super(name, model);
+        IEnvironment env = model.getEnvironment();
+        OFFSET = sortedValues[0];
+        int capacity = sortedValues[sortedValues.length - 1] - OFFSET + 1;
+        DENSE = new int[sortedValues.length];
+        POS = new int[capacity];
+        Arrays.fill(POS, Integer.MAX_VALUE);
+        for (int i = 0; i < sortedValues.length; i++) {
+            DENSE[i] = sortedValues[i] - OFFSET;
+            POS[DENSE[i]] = i;
+        }
+        this.LB = env.makeInt(0);
+        this.UB = env.makeInt(capacity - 1);
+        this.SIZE = env.makeInt(sortedValues.length);
+    }
+
+    /**
+     * Create an enumerated IntVar based on a sparse set
+     * @param name name of the variable
+     * @param min lower bound
+     * @param max upper bound
+     * @param model declaring model
+     */
+    public SparseSetIntVarImpl(String name, int min, int max, Model model) {
+        super(name, model);
+        IEnvironment env = this.model.getEnvironment();
+        this.OFFSET = min;
+        int capacity = max - min + 1;
+        DENSE = new int[capacity];
+        POS = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            DENSE[i] = POS[i] = i;
+        }
+        this.LB = env.makeInt(0);
+        this.UB = env.makeInt(max - min);
+        this.SIZE = env.makeInt(capacity);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param a a value -- includes offset
+     * @param size current size
+     * @return <i>true</i> if <i>a</i> is in the domain
+     */
+    private boolean in(int a, int size) {
+        return a >= 0 && a < POS.length && POS[a] < size;
+    }
+
+    /**
+     * Move <i>a</i> right after the domain, which is then of size <i>size</i> - 1.
+     * SIZE is not updated.
+     */
+    private void swapOut(int a, int size) {
+        int p = POS[a];
+        int last = DENSE[size - 1];
+        DENSE[p] = last;
+        POS[last] = p;
+        DENSE[size - 1] = a;
+        POS[a] = size - 1;
+    }
+
+    /**
+     * @return the smallest value of the domain greater or equal to <i>a</i> -- includes offset
+     */
+    private int nextIn(int a, int size) {
+        while (!in(a, size)) {
+            a++;
+        }
+        return a;
+    }
+
+    /**
+     * @return the greatest value of the domain smaller or equal to <i>a</i> -- includes offset
+     */
+    private int prevIn(int a, int size) {
+        while (!in(a, size)) {
+            a--;
+        }
+        return a;
+    }
+
+    /**
+     * Remove all values in [<i>from</i>, <i>to</i>] (includes offset), at least one value remains.
+     * Only the delta is informed.
+     * @return the new size
+     */
+    private int removeRange(int from, int to, int size, ICause cause) {
+        if (to - from + 1 <= size) {
+            for (int a = from; a <= to; a++) {
+                if (in(a, size)) {
+                    swapOut(a, size--);
+                    if (reactOnRemoval) {
+                        delta.add(a + OFFSET, a + OFFSET, cause);
+                    }
+                }
+            }
+        } else {
+            // the domain is smaller than the range
+            for (int i = size - 1; i >= 0; i--) {
+                int a = DENSE[i];
+                if (from <= a && a <= to) {
+                    swapOut(a, size--);
+                    if (reactOnRemoval) {
+                        delta.add(a + OFFSET, a + OFFSET, cause);
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes {@code value}from the domain of {@code this}. The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is out of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if removing {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if removing {@code value} from the domain can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value value to remove from the domain (int)
+     * @param cause removal releaser
+     * @return true if the value has been removed, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean removeValue(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int aValue = value - OFFSET;
+        int size = SIZE.get();
+        boolean change = in(aValue, size);
+        if (change) {
+            model.getSolver().getEventObserver().removeValue(this, value, cause);
+            if (size == 1) {
+                this.contradiction(cause, MSG_REMOVE);
+            }
+            IntEventType e = IntEventType.REMOVE;
+            swapOut(aValue, size--);
+            this.SIZE.set(size);
+            if (reactOnRemoval) {
+                delta.add(value, value, cause);
+            }
+            if (aValue == LB.get()) {
+                LB.set(nextIn(aValue + 1, size));
+                e = IntEventType.INCLOW;
+            } else if (aValue == UB.get()) {
+                UB.set(prevIn(aValue - 1, size));
+                e = IntEventType.DECUPP;
+            }
+            if (this.isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            this.notifyPropagators(e, cause);
+        }
+        return change;
+    }
+
+    @Override
+    public boolean removeValues(IntIterableSet values, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int size = SIZE.get();
+        int count = size;
+        int lb = LB.get(), ub = UB.get();
+        if (values.size() <= size) {
+            int to = ub + OFFSET;
+            for (int value = values.nextValue(lb + OFFSET - 1); value <= to; value = values.nextValue(value)) {
+                int aValue = value - OFFSET;
+                if (in(aValue, count)) {
+                    model.getSolver().getEventObserver().removeValue(this, value, cause);
+                    if (count == 1) {
+                        this.contradiction(cause, MSG_REMOVE);
+                    }
+                    swapOut(aValue, count--);
+                    if (reactOnRemoval) {
+                        delta.add(value, value, cause);
+                    }
+                }
+            }
+        } else {
+            for (int i = size - 1; i >= 0; i--) {
+                int value = DENSE[i] + OFFSET;
+                if (values.contains(value)) {
+                    model.getSolver().getEventObserver().removeValue(this, value, cause);
+                    if (count == 1) {
+                        this.contradiction(cause, MSG_REMOVE);
+                    }
+                    swapOut(DENSE[i], count--);
+                    if (reactOnRemoval) {
+                        delta.add(value, value, cause);
+                    }
+                }
+            }
+        }
+        return notifyRemovals(size, count, lb, ub, cause);
+    }
+
+    /**
+     * Update size and bounds after removals, and notify propagators
+     * @return <i>true</i> if the domain has changed
+     */
+    private boolean notifyRemovals(int size, int count, int lb, int ub, ICause cause) throws ContradictionException {
+        if (count == size) {
+            return false;
+        }
+        SIZE.set(count);
+        IntEventType e = IntEventType.REMOVE;
+        if (!in(lb, count)) {
+            LB.set(nextIn(lb + 1, count));
+            e = IntEventType.INCLOW;
+        }
+        if (!in(ub, count)) {
+            UB.set(prevIn(ub - 1, count));
+            e = e == IntEventType.INCLOW ? IntEventType.BOUND : IntEventType.DECUPP;
+        }
+        if (count == 1) {
+            e = IntEventType.INSTANTIATE;
+        }
+        this.notifyPropagators(e, cause);
+        return true;
+    }
+
+    @Override
+    public boolean removeAllValuesBut(IntIterableSet values, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int size = SIZE.get();
+        int count = size;
+        for (int i = size - 1; i >= 0; i--) {
+            int value = DENSE[i] + OFFSET;
+            if (!values.contains(value)) {
+                model.getSolver().getEventObserver().removeValue(this, value, cause);
+                if (count == 1) {
+                    this.contradiction(cause, MSG_REMOVE);
+                }
+                swapOut(DENSE[i], count--);
+                if (reactOnRemoval) {
+                    delta.add(value, value, cause);
+                }
+            }
+        }
+        return notifyRemovals(size, count, LB.get(), UB.get(), cause);
+    }
+
+    @Override
+    public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (from <= getLB()) {
+            return updateLowerBound(to + 1, cause);
+        } else if (getUB() <= to) {
+            return updateUpperBound(from - 1, cause);
+        } else {
+            int size = SIZE.get();
+            int count = removeRange(from - OFFSET, to - OFFSET, size, cause);
+            if (count < size) {
+                // the iteration is mandatory for observers
+                for (int i = count; i < size; i++) {
+                    model.getSolver().getEventObserver().removeValue(this, DENSE[i] + OFFSET, cause);
+                }
+                SIZE.set(count);
+                this.notifyPropagators(IntEventType.REMOVE, cause);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Instantiates the domain of {@code this} to {@code value}. The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If the domain of {@code this} is already instantiated to {@code value},
+     * nothing is done and the return value is {@code false},</li>
+     * <li>If the domain of {@code this} is already instantiated to another value,
+     * then a {@code ContradictionException} is thrown,</li>
+     * <li>Otherwise, the domain of {@code this} is restricted to {@code value} and the observers are notified
+     * and the return value is {@code true}.</li>
+     * </ul>
+     *
+     * @param value instantiation value (int)
+     * @param cause instantiation releaser
+     * @return true if the instantiation is done, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        if (!contains(value)) {
+            model.getSolver().getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
+            this.contradiction(cause, MSG_INST);
+        } else if (!isInstantiated()) {
+            model.getSolver().getEventObserver().instantiateTo(this, value, cause, getLB(), getUB());
+            int aValue = value - OFFSET;
+            int size = SIZE.get();
+            if (reactOnRemoval) {
+                for (int i = 0; i < size; i++) {
+                    if (DENSE[i] != aValue) {
+                        delta.add(DENSE[i] + OFFSET, DENSE[i] + OFFSET, cause);
+                    }
+                }
+            }
+            // move the value in first position
+            int p = POS[aValue];
+            int first = DENSE[0];
+            DENSE[p] = first;
+            POS[first] = p;
+            DENSE[0] = aValue;
+            POS[aValue] = 0;
+            this.LB.set(aValue);
+            this.UB.set(aValue);
+            this.SIZE.set(1);
+            this.notifyPropagators(IntEventType.INSTANTIATE, cause);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates the lower bound of the domain of {@code this} to {@code value}.
+     * The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is smaller than the lower bound of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if updating the lower bound to {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if updating the lower bound to {@code value} can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value new lower bound (included)
+     * @param cause updating releaser
+     * @return true if the lower bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int old = this.getLB();
+        if (old < value) {
+            int oub = this.getUB();
+            model.getSolver().getEventObserver().updateLowerBound(this, value, old, cause);
+            if (oub < value) {
+                this.contradiction(cause, MSG_LOW);
+            } else {
+                IntEventType e = IntEventType.INCLOW;
+                int aValue = value - OFFSET;
+                int size = removeRange(old - OFFSET, aValue - 1, SIZE.get(), cause);
+                SIZE.set(size);
+                LB.set(nextIn(aValue, size));
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates the upper bound of the domain of {@code this} to {@code value}.
+     * The instruction comes from {@code propagator}.
+     * <ul>
+     * <li>If {@code value} is greater than the upper bound of the domain, nothing is done and the return value is {@code false},</li>
+     * <li>if updating the upper bound to {@code value} leads to a dead-end (domain wipe-out),
+     * a {@code ContradictionException} is thrown,</li>
+     * <li>otherwise, if updating the upper bound to {@code value} can be done safely,
+     * the event type is created (the original event can be promoted) and observers are notified
+     * and the return value is {@code true}</li>
+     * </ul>
+     *
+     * @param value new upper bound (included)
+     * @param cause update releaser
+     * @return true if the upper bound has been updated, false otherwise
+     * @throws ContradictionException if the domain become empty due to this action
+     */
+    @Override
+    public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int oub = this.getUB();
+        if (oub > value) {
+            int olb = this.getLB();
+            model.getSolver().getEventObserver().updateUpperBound(this, value, oub, cause);
+            if (olb > value) {
+                this.contradiction(cause, MSG_UPP);
+            } else {
+                IntEventType e = IntEventType.DECUPP;
+                int aValue = value - OFFSET;
+                int size = removeRange(aValue + 1, oub - OFFSET, SIZE.get(), cause);
+                SIZE.set(size);
+                UB.set(prevIn(aValue, size));
+                if (isInstantiated()) {
+                    e = IntEventType.INSTANTIATE;
+                }
+                this.notifyPropagators(e, cause);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean updateBounds(int lb, int ub, ICause cause) throws ContradictionException {
+        assert cause != null;
+        int olb = this.getLB();
+        int oub = this.getUB();
+        boolean update = false;
+        if (olb < lb || oub > ub) {
+            IntEventType e = null;
+            if (oub < lb) {
+                model.getSolver().getEventObserver().updateLowerBound(this, lb, olb, cause);
+                this.contradiction(cause, MSG_LOW);
+            } else if (olb < lb) {
+                model.getSolver().getEventObserver().updateLowerBound(this, lb, olb, cause);
+                e = IntEventType.INCLOW;
+                int aLB = lb - OFFSET;
+                int size = removeRange(olb - OFFSET, aLB - 1, SIZE.get(), cause);
+                SIZE.set(size);
+                olb = nextIn(aLB, size); // olb is used as a temporary variable
+                LB.set(olb);
+                olb += OFFSET; // required because we will treat upper bound just after
+            }
+            if (olb > ub) {
+                model.getSolver().getEventObserver().updateUpperBound(this, ub, oub, cause);
+                this.contradiction(cause, MSG_UPP);
+            } else if (oub > ub) {
+                model.getSolver().getEventObserver().updateUpperBound(this, ub, oub, cause);
+                e = e == null ? IntEventType.DECUPP : IntEventType.BOUND;
+                int aUB = ub - OFFSET;
+                int size = removeRange(aUB + 1, oub - OFFSET, SIZE.get(), cause);
+                SIZE.set(size);
+                UB.set(prevIn(aUB, size));
+            }
+            if (isInstantiated()) {
+                e = IntEventType.INSTANTIATE;
+            }
+            this.notifyPropagators(e, cause);
+            update = true;
+        }
+        return update;
+    }
+
+    @Override
+    public boolean isInstantiated() {
+        return SIZE.get() == 1;
+    }
+
+    @Override
+    public boolean isInstantiatedTo(int value) {
+        return isInstantiated() && getLB() == value;
+    }
+
+    @Override
+    public boolean contains(int aValue) {
+        return in(aValue - OFFSET, SIZE.get());
+    }
+
+    /**
+     * Retrieves the current value of the variable if instantiated, otherwier the lower bound.
+     *
+     * @return the current value (or lower bound if not yet instantiated).
+     */
+    @Override
+    public int getValue() {
+        assert isInstantiated() : name + " not instantiated";
+        return getLB();
+    }
+
+    /**
+     * Retrieves the lower bound of the variable
+     *
+     * @return the lower bound
+     */
+    @Override
+    public int getLB() {
+        return this.LB.get() + OFFSET;
+    }
+
+    /**
+     * Retrieves the upper bound of the variable
+     *
+     * @return the upper bound
+     */
+    @Override
+    public int getUB() {
+        return this.UB.get() + OFFSET;
+    }
+
+    @Override
+    public int getDomainSize() {
+        return SIZE.get();
+    }
+
+    @Override
+    public int getRange() {
+        return getUB() - getLB() + 1;
+    }
+
+    @Override
+    public int nextValue(int aValue) {
+        aValue -= OFFSET;
+        int lb = LB.get();
+        if (aValue < lb) return lb + OFFSET;
+        int ub = UB.get();
+        if (aValue >= ub) return Integer.MAX_VALUE;
+        return nextIn(aValue + 1, SIZE.get()) + OFFSET;
+    }
+
+    @Override
+    public int nextValueOut(int aValue) {
+        int lb = getLB();
+        int ub = getUB();
+        if (lb - 1 <= aValue && aValue <= ub) {
+            int size = SIZE.get();
+            int a = aValue - OFFSET + 1;
+            while (in(a, size)) {
+                a++;
+            }
+            return a + OFFSET;
+        }
+        return aValue + 1;
+    }
+
+    @Override
+    public int previousValue(int aValue) {
+        aValue -= OFFSET;
+        int ub = UB.get();
+        if (aValue > ub) return ub + OFFSET;
+        int lb = LB.get();
+        if (aValue <= lb) return Integer.MIN_VALUE;
+        return prevIn(aValue - 1, SIZE.get()) + OFFSET;
+    }
+
+    @Override
+    public int previousValueOut(int aValue) {
+        int lb = getLB();
+        int ub = getUB();
+        if (lb <= aValue && aValue <= ub + 1) {
+            int size = SIZE.get();
+            int a = aValue - OFFSET - 1;
+            while (in(a, size)) {
+                a--;
+            }
+            return a + OFFSET;
+        }
+        return aValue - 1;
+    }
+
+    @Override
+    public boolean hasEnumeratedDomain() {
+        return true;
+    }
+
+    @Override
+    public IIntervalDelta getDelta() {
+        return delta;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder(20);
+        s.append(name).append(" = ");
+        if (SIZE.get() == 1) {
+            s.append(this.getLB());
+        } else {
+            int v = getLB(), w;
+            s.append('{').append(v);
+            w = nextValueOut(v);
+            if (v < w - 1) s.append("..").append(w - 1);
+            v = nextValue(w);
+            while (v < Integer.MAX_VALUE) {
+                s.append(",").append(v);
+                w = nextValueOut(v);
+                if (v < w - 1) s.append("..").append(w - 1);
+                v = nextValue(w);
+            }
+            s.append('}');
+        }
+        return s.toString();
+    }
+
+    ////////////////////////////////////////////////////////////////
+    ///// methode liees au fait qu'une variable est observable /////
+    ////////////////////////////////////////////////////////////////
+
+    @Override
+    public void createDelta() {
+        if (!reactOnRemoval) {
+            delta = new IntervalDelta(model.getEnvironment());
+            reactOnRemoval = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public IIntDeltaMonitor monitorDelta(ICause propagator) {
+        createDelta();
+        return new EnumDeltaMonitor(delta, propagator);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public int getTypeAndKind() {
+        return VAR | INT;
+    }
+
+    @Override
+    protected EvtScheduler createScheduler() {
+        return new IntEvtScheduler();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public DisposableValueIterator getValueIterator(boolean bottomUp) {
+        if (_viterator == null || _viterator.isNotReusable()) {
+            _viterator = new DisposableValueIterator() {
+
+                /**
+                 * Current value
+                 */
+                int value;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    this.value = getLB();
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    this.value = getUB();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.value != Integer.MAX_VALUE;
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return this.value != Integer.MIN_VALUE;
+                }
+
+                @Override
+                public int next() {
+                    int old = this.value;
+                    this.value = nextValue(this.value);
+                    return old;
+                }
+
+                @Override
+                public int previous() {
+                    int old = this.value;
+                    this.value = previousValue(this.value);
+                    return old;
+                }
+            };
+        }
+        if (bottomUp) {
+            _viterator.bottomUpInit();
+        } else {
+            _viterator.topDownInit();
+        }
+        return _viterator;
+    }
+
+    @Override
+    public DisposableRangeIterator getRangeIterator(boolean bottomUp) {
+        if (_riterator == null || _riterator.isNotReusable()) {
+            _riterator = new DisposableRangeIterator() {
+
+                /**
+                 * Lower bound of the current range
+                 */
+                int from;
+                /**
+                 * Upper bound of the current range
+                 */
+                int to;
+
+                @Override
+                public void bottomUpInit() {
+                    super.bottomUpInit();
+                    this.from = getLB();
+                    this.to = nextValueOut(from) - 1;
+                }
+
+                @Override
+                public void topDownInit() {
+                    super.topDownInit();
+                    this.to = getUB();
+                    this.from = previousValueOut(to) + 1;
+                }
+
+                public boolean hasNext() {
+                    return this.from != Integer.MAX_VALUE;
+                }
+
+                @Override
+                public boolean hasPrevious() {
+                    return this.to != Integer.MIN_VALUE;
+                }
+
+                public void next() {
+                    this.from = nextValue(this.to);
+                    if (this.from != Integer.MAX_VALUE) {
+                        this.to = nextValueOut(this.from) - 1;
+                    }
+                }
+
+                @Override
+                public void previous() {
+                    this.to = previousValue(this.from);
+                    if (this.to != Integer.MIN_VALUE) {
+                        this.from = previousValueOut(this.to) + 1;
+                    }
+                }
+
+                @Override
+                public int min() {
+                    return from;
+                }
+
+                @Override
+                public int max() {
+                    return to;
+                }
+            };
+        }
+        if (bottomUp) {
+            _riterator.bottomUpInit();
+        } else {
+            _riterator.topDownInit();
+        }
+        return _riterator;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        if (_javaIterator == null) {
+            _javaIterator = new IntVarValueIterator(this);
+        }
+        _javaIterator.reset();
+        return _javaIterator;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.graphs;
+
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.sort.ArraySort;
+
+import java.util.Arrays;
+
+import static org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram.EMPTY;
+import static org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram.TERMINAL;
+
+/**
+ * A streaming builder of {@link MultivaluedDecisionDiagram}.
+ * <p>
+ * Tuples are expected in increasing lexicographic order.
+ * Only the path of the last added tuple is kept open, one pending node per layer.
+ * When a tuple leaves this path, the nodes below the common prefix are complete:
+ * they are reduced right away, by looking them up in a unique-node table (one per layer)
+ * keyed on their children.
+ * So, the diagram is reduced while inserting and no node is ever duplicated,
+ * the memory footprint is the reduced MDD plus one pending node per layer.
+ * <p>
+ * Nodes are stored in a flat <i>int</i> array, with the same layout as {@link MultivaluedDecisionDiagram}:
+ * the root starts at cell 0 and a node of the <i>i</i>-th layer occupies as many cells as the
+ * initial domain size of the <i>i</i>-th variable.
+ * <p>
+ * Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public final class MDDBuilder {
+
+    /**
+     * Store the number of variables
+     */
+    private final int nbLayers;
+    /**
+     * Initial domain size
+     */
+    private final int[] sizes;
+    /**
+     * Initial domain offset
+     */
+    private final int[] offsets;
+    /**
+     * The reduced nodes, flatten
+     */
+    private int[] diagram;
+    /**
+     * Point to the first clear cell in 'diagram'
+     */
+    private int nextFreeCell;
+    /**
+     * For each layer, the children of the node under construction
+     */
+    private final int[][] pending;
+    /**
+     * Position of the values of the last added tuple
+     */
+    private final int[] last;
+    /**
+     * Position of the values of the tuple being added
+     */
+    private final int[] pos;
+    /**
+     * For each layer, an open-addressing table of reduced nodes (their cell plus one, 0 if free)
+     */
+    private final int[][] uniques;
+    /**
+     * For each layer, number of reduced nodes
+     */
+    private final int[] nbNodes;
+    /**
+     * Set to true once a tuple has been added
+     */
+    private boolean started;
+    /**
+     * Set to true once the MDD has been built
+     */
+    private boolean built;
+
+    /**
+     * Create a builder for an MDD over variables whose initial domains are <i>[offsets[i], offsets[i] + sizes[i] - 1]</i>.
+     *
+     * @param offsets initial lower bound of each variable
+     * @param sizes   initial domain size of each variable
+     */
+    public MDDBuilder(int[] offsets, int[] sizes) {
+        if (offsets.length != sizes.length || offsets.length == 0) {
+            throw new IllegalArgumentException("offsets and sizes must be non-empty and of the same length");
+        }
+        this.nbLayers = offsets.length;
+        this.offsets = offsets.clone();
+        this.sizes = sizes.clone();
+        this.pending = new int[nbLayers][];
+        this.uniques = new int[nbLayers][];
+        this.nbNodes = new int[nbLayers];
+        long cells = 0;
+        for (int i = 0; i < nbLayers; i++) {
+            pending[i] = new int[sizes[i]];
+            uniques[i] = new int[16];
+            cells += sizes[i];
+        }
+        this.last = new int[nbLayers];
+        this.pos = new int[nbLayers];
+        this.diagram = new int[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(cells, 16))];
+        // the root occupies the first cells
+        this.nextFreeCell = sizes[0];
+    }
+
+    /**
+     * Create a builder for an MDD over <i>vars</i>, based on their current bounds.
+     *
+     * @param vars variables, in the order of the layers
+     */
+    public MDDBuilder(IntVar[] vars) {
+        this(Arrays.stream(vars).mapToInt(IntVar::getLB).toArray(),
+                Arrays.stream(vars).mapToInt(v -> v.getUB() - v.getLB() + 1).toArray());
+    }
+
+    /**
+     * Add a tuple to the MDD.
+     * Tuples must be added in increasing lexicographic order.
+     * A tuple with a value out of the declared domains, or equal to the previous one, is ignored.
+     *
+     * @param tuple tuple to add
+     * @return <i>true</i> if the tuple has been added
+     * @throws IllegalArgumentException if <i>tuple</i> is smaller than the previous one
+     */
+    public boolean add(int... tuple) {
+        for (int i = 0; i < nbLayers; i++) {
+            if (tuple[i] < offsets[i] || tuple[i] >= offsets[i] + sizes[i]) {
+                return false;
+            }
+            pos[i] = tuple[i] - offsets[i];
+        }
+        return addPositions();
+    }
+
+    private boolean addPositions() {
+        if (built) {
+            throw new IllegalStateException("The MDD has already been built");
+        }
+        if (started) {
+            int c = 0;
+            while (c < nbLayers && pos[c] == last[c]) {
+                c++;
+            }
+            if (c == nbLayers) {
+                return false;
+            }
+            if (pos[c] < last[c]) {
+                throw new IllegalArgumentException("Tuples must be added in increasing lexicographic order");
+            }
+            close(c + 1);
+        }
+        started = true;
+        System.arraycopy(pos, 0, last, 0, nbLayers);
+        pending[nbLayers - 1][last[nbLayers - 1]] = TERMINAL;
+        return true;
+    }
+
+    /**
+     * Reduce the pending nodes from the last layer up to <i>layer</i> (included).
+     */
+    private void close(int layer) {
+        for (int l = nbLayers - 1; l >= layer; l--) {
+            pending[l - 1][last[l - 1]] = register(l);
+            Arrays.fill(pending[l], EMPTY);
+        }
+    }
+
+    /**
+     * Return the cell of the reduced node equal to the pending node of <i>layer</i>,
+     * adding it to the diagram if it is unknown.
+     */
+    private int register(int layer) {
+        int[] children = pending[layer];
+        int size = sizes[layer];
+        int[] table = uniques[layer];
+        int mask = table.length - 1;
+        int h = hash(children) & mask;
+        while (table[h] != 0) {
+            int node = table[h] - 1;
+            if (equals(node, children, size)) {
+                return node;
+            }
+            h = (h + 1) & mask;
+        }
+        int node = nextFreeCell;
+        ensureCapacity(node + size);
+        System.arraycopy(children, 0, diagram, node, size);
+        nextFreeCell += size;
+        table[h] = node + 1;
+        if (++nbNodes[layer] * 2 > table.length) {
+            rehash(layer);
+        }
+        return node;
+    }
+
+    private boolean equals(int node, int[] children, int size) {
+        for (int i = 0; i < size; i++) {
+            if (diagram[node + i] != children[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(int[] children) {
+        int h = 1;
+        for (int c : children) {
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private void rehash(int layer) {
+        int size = sizes[layer];
+        int[] old = uniques[layer];
+        int[] table = new int[old.length * 2];
+        int mask = table.length - 1;
+        int[] children = new int[size];
+        for (int o : old) {
+            if (o != 0) {
+                System.arraycopy(diagram, o - 1, children, 0, size);
+                int h = hash(children) & mask;
+                while (table[h] != 0) {
+                    h = (h + 1) & mask;
+                }
+                table[h] = o;
+            }
+        }
+        uniques[layer] = table;
+    }
+
+    private void ensureCapacity(int nsize) {
+        if (nsize > diagram.length) {
+            diagram = Arrays.copyOf(diagram, (int) Math.min(Integer.MAX_VALUE - 8, nsize * 3L / 2 + 1));
+        }
+    }
+
+    /**
+     * Reduce the remaining pending nodes and return the MDD.
+     * The builder cannot be used anymore after this call.
+     *
+     * @return a reduced MDD storing the added tuples
+     */
+    public MultivaluedDecisionDiagram build() {
+        if (built) {
+            throw new IllegalStateException("The MDD has already been built");
+        }
+        built = true;
+        if (started) {
+            close(1);
+            System.arraycopy(pending[0], 0, diagram, 0, sizes[0]);
+        }
+        int[] mdd = Arrays.copyOf(diagram, nextFreeCell);
+        diagram = null;
+        return new MultivaluedDecisionDiagram(offsets, sizes, mdd);
+    }
+
+    /**
+     * Build a reduced MDD from the allowed tuples, over the current bounds of <i>vars</i>.
+     * Tuples are read one value at a time with {@link Tuples#get(int, int)}, so memory-mapped tuples
+     * are never materialized. If they are not sorted, only an array of tuple indices is sorted.
+     *
+     * @param vars   variables, in the order of the layers
+     * @param tuples allowed tuples
+     * @return a reduced MDD storing the tuples
+     */
+    public static MultivaluedDecisionDiagram build(IntVar[] vars, Tuples tuples) {
+        MDDBuilder builder = new MDDBuilder(vars);
+        int n = tuples.nbTuples();
+        int arity = tuples.arity();
+        boolean sorted = true;
+        for (int t = 1; t < n && sorted; t++) {
+            sorted = compare(tuples, t - 1, t, arity) <= 0;
+        }
+        int[] order = null;
+        if (!sorted) {
+            order = new int[n];
+            for (int t = 0; t < n; t++) {
+                order[t] = t;
+            }
+            new ArraySort<>(n, false, true).sort(order, n, (t1, t2) -> compare(tuples, t1, t2, arity));
+        }
+        for (int t = 0; t < n; t++) {
+            builder.addRow(tuples, sorted ? t : order[t]);
+        }
+        return builder.build();
+    }
+
+    private void addRow(Tuples tuples, int t) {
+        for (int i = 0; i < nbLayers; i++) {
+            int v = tuples.get(t, i);
+            if (v < offsets[i] || v >= offsets[i] + sizes[i]) {
+                return;
+            }
+            pos[i] = v - offsets[i];
+        }
+        addPositions();
+    }
+
+    private static int compare(Tuples tuples, int t1, int t2, int arity) {
+        for (int i = 0; i < arity; i++) {
+            int c = Integer.compare(tuples.get(t1, i), tuples.get(t2, i));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+}
@@ -13,6 +13,7 @@ import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.sort.ArraySort;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -167,6 +168,23 @@ public class MultivaluedDecisionDiagram  {
         init(TRANSITIONS);
     }
 
+    /**
+     * Create an MDD from an already reduced diagram, see {@link MDDBuilder}.
+     *
+     * @param offsets initial domain offsets
+     * @param sizes   initial domain sizes
+     * @param diagram the flatten diagram
+     */
+    MultivaluedDecisionDiagram(int[] offsets, int[] sizes, int[] diagram) {
+        this.nbLayers = offsets.length;
+        this.offsets = offsets;
+        this.sizes = sizes;
+        this.compactOnce = true;
+        this.sortTuples = true;
+        this.mdd = diagram;
+        this.nextFreeCell = diagram.length;
+    }
+
     @SuppressWarnings("unchecked")
     private void init(Tuples TUPLES) {
         nextFreeCell = sizes[0];
@@ -190,14 +208,48 @@ public class MultivaluedDecisionDiagram  {
      * @param TUPLES tuples to add
      */
     public boolean addTuples(Tuples TUPLES) {
-        if (sortTuples) TUPLES.sort();
+        int n = TUPLES.nbTuples();
+        int[] order = null;
+        if (sortTuples) {
+            if (TUPLES.isImmutable()) {
+                // shared tuples are left untouched, they are read in lexicographical order instead
+                Tuples tuples = TUPLES;
+                order = new int[n];
+                for (int t = 0; t < n; t++) {
+                    order[t] = t;
+                }
+                new ArraySort<>(n, false, true).sort(order, n, (t1, t2) -> {
+                    int i = 0;
+                    while (i < nbLayers && tuples.get(t1, i) == tuples.get(t2, i)) {
+                        i++;
+                    }
+                    return i == nbLayers ? 0 : Integer.compare(tuples.get(t1, i), tuples.get(t2, i));
+                });
+            } else {
+                TUPLES.sort();
+            }
+        }
         boolean atLeastOne = false;
-        for (int t = 0; t < TUPLES.nbTuples(); t++) {
-            atLeastOne |= addTuple(TUPLES.get(t));
+        for (int t = 0; t < n; t++) {
+            atLeastOne |= addTuple(TUPLES, order == null ? t : order[t]);
         }
         return atLeastOne;
     }
 
+    private boolean addTuple(Tuples TUPLES, int t) {
+        for (int i = 0; i < nbLayers; i++) {
+            int v = TUPLES.get(t, i);
+            // if the tuple is out of declared domain
+            if (v < offsets[i] || v >= offsets[i] + sizes[i]) {
+                return false;
+            }
+            // get the position of the value relatively to the offset of each variable
+            _pos[i] = v - offsets[i];
+        }
+        insert();
+        return true;
+    }
+
     /**
      * Add a tuple to the MDD
      *
@@ -212,6 +264,14 @@ public class MultivaluedDecisionDiagram  {
             // get the position of the value relatively to the offset of each variable
             _pos[i] = TUPLE[i] - offsets[i];
         }
+        insert();
+        return true;
+    }
+
+    /**
+     * Insert the tuple stored in {@code _pos} into the MDD
+     */
+    private void insert() {
         int p = 0;
         for (int i = 0; i < nbLayers; i++) {
             p += _pos[i];
@@ -230,7 +290,6 @@ public class MultivaluedDecisionDiagram  {
         if (!compactOnce) { // compact during the addition or not
             compact();
         }
-        return true;
     }
 
     @SuppressWarnings("unchecked")
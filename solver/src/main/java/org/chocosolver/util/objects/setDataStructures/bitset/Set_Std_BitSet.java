@@ -10,8 +10,8 @@
 package org.chocosolver.util.objects.setDataStructures.bitset;
 
 import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
 import org.chocosolver.memory.IStateInt;
-import org.chocosolver.memory.structure.S64BitSet;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
@@ -30,7 +30,7 @@ public class Set_Std_BitSet implements ISet {
 
 	private IStateInt card;	// enables to get the cardinality in O(1)
 	private int offset;		// allow using negative numbers
-	private S64BitSet values;
+	private IStateBitSet values;
 	private ISetIterator iter = newIterator();
 
 	//***********************************************************************************
@@ -44,7 +44,7 @@ public class Set_Std_BitSet implements ISet {
 	 * @param offSet smallest allowed value in the set
 	 */
 	public Set_Std_BitSet(IEnvironment environment, int offSet) {
-		values = new S64BitSet(environment);
+		values = environment.makeBitSet(64);
 		card = environment.makeInt(0);
 		offset = offSet;
 	}
@@ -106,7 +106,7 @@ public class Set_Std_BitSet implements ISet {
 	@Override
 	public int max() {
 		if(isEmpty()) throw new IllegalStateException("cannot find maximum of an empty set");
-		return offset+ values.prevSetBit(values.length());
+		return offset+ values.prevSetBit(values.size() - 1);
 	}
 
 	@Override
@@ -0,0 +1,32 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.procedure;
+
+import org.chocosolver.solver.exception.ContradictionException;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public interface RangeProcedure {
+
+    /**
+     * Action to execute in a <code>Delta</code> object, within the <code>forEachRemRange</code> method.
+     * Used to iterate on ranges of removed values.
+     *
+     * @param from first value of the range
+     * @param to   last value of the range (included)
+     * @throws org.chocosolver.solver.exception.ContradictionException
+     *          when a incoherence is encountered
+     */
+    void execute(int from, int to) throws ContradictionException;
+}
@@ -737,6 +737,22 @@ public enum ArrayUtils {
         }
     }
 
+    /**
+     * Count the number of ranges of consecutive values in a sorted array of distinct values
+     *
+     * @param values sorted array of distinct values
+     * @return the number of ranges in values
+     */
+    public static int nbRanges(int[] values) {
+        int nb = values.length > 0 ? 1 : 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] + 1 != values[i]) {
+                nb++;
+            }
+        }
+        return nb;
+    }
+
     /**
      * Sorts the input array if it is not already sorted,
      * and removes multiple occurrences of the same value
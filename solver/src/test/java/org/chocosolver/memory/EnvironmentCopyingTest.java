@@ -0,0 +1,222 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.copying.EnvironmentCopying;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <p> Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class EnvironmentCopyingTest {
+
+    @DataProvider(name = "ratio")
+    public Object[][] ratios() {
+        return new Object[][]{{Double.POSITIVE_INFINITY}, {0d}, {.5d}, {2d}};
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "ratio")
+    public void testPrimitives(double ratio) {
+        IEnvironment environment = new EnvironmentBuilder().buildCopying(ratio);
+        IStateInt i = environment.makeInt(0);
+        IStateLong l = environment.makeLong(0L);
+        IStateBool b = environment.makeBool(false);
+        IStateDouble d = environment.makeFloat(.5d);
+        i.set(10);
+        environment.worldPush();
+        i.set(20);
+        l.set(20L);
+        b.set(true);
+        d.set(1.5d);
+        environment.worldPush();
+        i.set(30);
+        Assert.assertEquals(i.get(), 30);
+        environment.worldPop();
+        Assert.assertEquals(i.get(), 20);
+        Assert.assertEquals(l.get(), 20L);
+        Assert.assertTrue(b.get());
+        Assert.assertEquals(d.get(), 1.5d);
+        environment.worldPop();
+        Assert.assertEquals(i.get(), 10);
+        Assert.assertEquals(l.get(), 0L);
+        Assert.assertFalse(b.get());
+        Assert.assertEquals(d.get(), .5d);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "ratio")
+    public void testVectorAndOperation(double ratio) {
+        IEnvironment environment = new EnvironmentBuilder().buildCopying(ratio);
+        IStateIntVector v = environment.makeIntVector(3, 1);
+        int[] op = {0};
+        environment.worldPush();
+        v.add(4);
+        v.set(0, 2);
+        environment.save(() -> op[0]--);
+        op[0]++;
+        Assert.assertEquals(v.quickGet(0), 2);
+        Assert.assertEquals(v.quickGet(3), 4);
+        environment.worldPop();
+        Assert.assertEquals(v.quickGet(0), 1);
+        Assert.assertEquals(op[0], 0);
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> v.set(3, 0));
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "ratio")
+    public void testFakeHistory(double ratio) {
+        IEnvironment environment = new EnvironmentBuilder().buildCopying(ratio);
+        environment.buildFakeHistoryOn(new Except_0());
+        IStateInt a = environment.makeInt(10);
+        a.set(11);
+        environment.worldPush();
+        IStateInt b = environment.makeInt(21);
+        a.set(12);
+        b.set(22);
+        environment.worldPush();
+        IStateInt c = environment.makeInt(32);
+        a.set(13);
+        b.set(23);
+        c.set(33);
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 12);
+        Assert.assertEquals(b.get(), 22);
+        Assert.assertEquals(c.get(), 32);
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 11);
+        Assert.assertEquals(b.get(), 21);
+        Assert.assertEquals(c.get(), 32);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "ratio")
+    public void testCommit(double ratio) {
+        EnvironmentCopying environment = new EnvironmentBuilder().buildCopying(ratio);
+        IStateInt a = environment.makeInt(0);
+        IStateInt b = environment.makeInt(0);
+        IStateInt c = environment.makeInt(0);
+        environment.worldPush();
+        a.set(1);
+        environment.worldPush();
+        a.set(2);
+        b.set(2);
+        environment.worldPush();
+        c.set(3);
+        environment.worldCommit();
+        environment.worldCommit();
+        Assert.assertEquals(environment.getWorldIndex(), 1);
+        Assert.assertEquals(a.get(), 2);
+        Assert.assertEquals(b.get(), 2);
+        Assert.assertEquals(c.get(), 3);
+        a.set(4);
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 0);
+        Assert.assertEquals(b.get(), 0);
+        Assert.assertEquals(c.get(), 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "ratio")
+    public void testRandom(double ratio) {
+        EnvironmentCopying copying = new EnvironmentBuilder().buildCopying(ratio);
+        IEnvironment trailing = new EnvironmentBuilder().fromFlat().build();
+        int n = 20;
+        IStateInt[] ci = new IStateInt[n], ti = new IStateInt[n];
+        IStateLong[] cl = new IStateLong[n], tl = new IStateLong[n];
+        IStateBool[] cb = new IStateBool[n], tb = new IStateBool[n];
+        IStateDouble[] cd = new IStateDouble[n], td = new IStateDouble[n];
+        for (int i = 0; i < n; i++) {
+            ci[i] = copying.makeInt(i);
+            ti[i] = trailing.makeInt(i);
+            cl[i] = copying.makeLong(i);
+            tl[i] = trailing.makeLong(i);
+            cb[i] = copying.makeBool(false);
+            tb[i] = trailing.makeBool(false);
+            cd[i] = copying.makeFloat(i);
+            td[i] = trailing.makeFloat(i);
+        }
+        Random rnd = new Random(ratio == Double.POSITIVE_INFINITY ? 0 : (long) (ratio * 10));
+        boolean mixed = false;
+        for (int k = 0; k < 20000; k++) {
+            int o = rnd.nextInt(10);
+            int w = copying.getWorldIndex();
+            if (o == 0 && w < 40) {
+                copying.worldPush();
+                trailing.worldPush();
+            } else if (o == 1 && w > 0) {
+                copying.worldPop();
+                trailing.worldPop();
+            } else {
+                int i = rnd.nextInt(n);
+                // favour a few data to make copying less attractive over time
+                int m = rnd.nextInt(4) == 0 ? 1 + rnd.nextInt(n) : 2;
+                for (int j = 0; j < m; j++) {
+                    int v = rnd.nextInt(100);
+                    int p = (i + j) % n;
+                    ci[p].set(v);
+                    ti[p].set(v);
+                    cl[p].set(v * 3L);
+                    tl[p].set(v * 3L);
+                    cb[p].set(v % 2 == 0);
+                    tb[p].set(v % 2 == 0);
+                    cd[p].set(v / 3d);
+                    td[p].set(v / 3d);
+                }
+            }
+            Assert.assertEquals(copying.getWorldIndex(), trailing.getWorldIndex());
+            mixed |= copying.getWorldIndex() > 0 && copying.isCopied();
+            for (int i = 0; i < n; i++) {
+                Assert.assertEquals(ci[i].get(), ti[i].get());
+                Assert.assertEquals(cl[i].get(), tl[i].get());
+                Assert.assertEquals(cb[i].get(), tb[i].get());
+                Assert.assertEquals(cd[i].get(), td[i].get());
+            }
+        }
+        Assert.assertEquals(mixed, ratio > 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000, dataProvider = "ratio")
+    public void testSolve(double ratio) {
+        Model model = new Model(new EnvironmentBuilder().buildCopying(ratio), "nqueens");
+        IntVar[] vars = model.intVarArray("q", 8, 1, 8);
+        model.allDifferent(vars, "BC").post();
+        IntVar[] d1 = new IntVar[8], d2 = new IntVar[8];
+        for (int i = 0; i < 8; i++) {
+            d1[i] = model.intOffsetView(vars[i], i);
+            d2[i] = model.intOffsetView(vars[i], -i);
+        }
+        model.allDifferent(d1, "BC").post();
+        model.allDifferent(d2, "BC").post();
+        Assert.assertEquals(model.getSolver().findAllSolutions().size(), 92);
+
+        int m = 6;
+        Model golomb = new Model(new EnvironmentBuilder().buildCopying(ratio), "golomb");
+        IntVar[] ticks = golomb.intVarArray("a", m, 0, 30);
+        IntVar[] diffs = golomb.intVarArray("d", (m * m - m) / 2, 1, 30);
+        golomb.arithm(ticks[0], "=", 0).post();
+        for (int i = 0; i < m - 1; i++) {
+            golomb.arithm(ticks[i + 1], ">", ticks[i]).post();
+        }
+        for (int k = 0, i = 0; i < m - 1; i++) {
+            for (int j = i + 1; j < m; j++, k++) {
+                golomb.arithm(ticks[j], "-", ticks[i], "=", diffs[k]).post();
+            }
+        }
+        golomb.allDifferent(diffs, "BC").post();
+        golomb.arithm(diffs[0], "<", diffs[diffs.length - 1]).post();
+        Assert.assertNotNull(golomb.getSolver().findOptimalSolution(ticks[m - 1], false));
+        Assert.assertEquals(golomb.getSolver().getBestSolutionValue().intValue(), 17);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.memory.trailing.StoredBitSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class StoredBitSetTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFactory() {
+        EnvironmentTrailing env = new EnvironmentTrailing();
+        Assert.assertTrue(env.makeBitSet(200) instanceof StoredBitSet);
+        Assert.assertFalse(env.makeBitSet(20) instanceof StoredBitSet);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBulk() {
+        EnvironmentTrailing env = new EnvironmentTrailing();
+        StoredBitSet bs = new StoredBitSet(env, 256);
+        bs.set(0, 256);
+        env.worldPush();
+        bs.clear(10, 200);
+        Assert.assertEquals(bs.cardinality(), 66);
+        bs.and(new long[]{-1L, 0L, 0L, 0xF00L});
+        Assert.assertEquals(bs.cardinality(), 14);
+        env.worldPush();
+        bs.andNot(new long[]{0x3L});
+        Assert.assertEquals(bs.nextSetBit(0), 2);
+        Assert.assertEquals(bs.prevSetBit(255), 203);
+        env.worldPop();
+        Assert.assertEquals(bs.nextSetBit(0), 0);
+        env.worldPop();
+        Assert.assertEquals(bs.cardinality(), 256);
+        Assert.assertEquals(bs.length(), 256);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        EnvironmentTrailing env = new EnvironmentTrailing();
+        StoredBitSet bs = new StoredBitSet(env, 300);
+        BitSet ref = new BitSet();
+        Deque<BitSet> saved = new ArrayDeque<>();
+        for (int k = 0; k < 50000; k++) {
+            int a = rnd.nextInt(300), b = a + rnd.nextInt(150);
+            switch (rnd.nextInt(10)) {
+                case 0:
+                    if (saved.size() < 50) {
+                        env.worldPush();
+                        saved.push((BitSet) ref.clone());
+                    }
+                    break;
+                case 1:
+                    if (!saved.isEmpty()) {
+                        env.worldPop();
+                        ref = saved.pop();
+                    }
+                    break;
+                case 2:
+                    bs.set(a);
+                    ref.set(a);
+                    break;
+                case 3:
+                    bs.clear(a);
+                    ref.clear(a);
+                    break;
+                case 4:
+                    bs.set(a, b);
+                    ref.set(a, b);
+                    break;
+                case 5:
+                    bs.clear(a, b);
+                    ref.clear(a, b);
+                    break;
+                case 6: {
+                    long[] mask = new long[]{rnd.nextLong(), rnd.nextLong(), rnd.nextLong(), rnd.nextLong(), rnd.nextLong()};
+                    bs.and(mask);
+                    ref.and(BitSet.valueOf(mask));
+                    break;
+                }
+                case 7: {
+                    long[] mask = new long[]{rnd.nextLong(), rnd.nextLong()};
+                    bs.andNot(mask);
+                    ref.andNot(BitSet.valueOf(mask));
+                    break;
+                }
+                default:
+                    bs.set(a, rnd.nextBoolean());
+                    ref.set(a, bs.get(a));
+            }
+            Assert.assertEquals(bs.cardinality(), ref.cardinality());
+            Assert.assertEquals(bs.isEmpty(), ref.isEmpty());
+            Assert.assertEquals(bs.length(), ref.length());
+            Assert.assertEquals(bs.nextSetBit(a), ref.nextSetBit(a));
+            Assert.assertEquals(bs.nextClearBit(a), ref.nextClearBit(a));
+            Assert.assertEquals(bs.prevSetBit(b), ref.previousSetBit(b));
+            Assert.assertEquals(bs.prevClearBit(b), ref.previousClearBit(b));
+            Assert.assertEquals(bs.get(a), ref.get(a));
+        }
+    }
+}
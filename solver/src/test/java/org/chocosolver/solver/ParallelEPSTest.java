@@ -0,0 +1,127 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import static org.chocosolver.solver.ModelTest.knapsack;
+
+import java.util.List;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class ParallelEPSTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSatisfaction() {
+        ParallelEPS eps = new ParallelEPS();
+        for (int i = 0; i < 4; i++) {
+            eps.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(8));
+        }
+        Assert.assertTrue(eps.solve());
+        Solution sol = eps.getBestSolution();
+        Model ref = eps.getModels().get(0);
+        IntVar[] q = (IntVar[]) ref.getHook("vars");
+        for (int i = 0; i < q.length; i++) {
+            for (int j = i + 1; j < q.length; j++) {
+                int qi = sol.getIntVal(q[i]);
+                int qj = sol.getIntVal(q[j]);
+                Assert.assertNotEquals(qi, qj);
+                Assert.assertNotEquals(Math.abs(qi - qj), j - i);
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAllSolutions() {
+        ParallelEPS eps = new ParallelEPS(10);
+        for (int i = 0; i < 3; i++) {
+            eps.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(8));
+        }
+        List<Solution> solutions = eps.findAllSolutions();
+        Assert.assertEquals(solutions.size(), 92);
+        Assert.assertTrue(eps.getSubproblemCount() >= 30);
+        Assert.assertEquals(eps.getSolvedSubproblemCount(), eps.getSubproblemCount());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testOptimization() {
+        ParallelEPS eps = new ParallelEPS();
+        for (int i = 0; i < 4; i++) {
+            eps.addModel(knapsack());
+        }
+        Assert.assertTrue(eps.solve());
+        Model ref = eps.getModels().get(0);
+        Assert.assertEquals(eps.getBestSolution().getIntVal((IntVar) ref.getObjective()), 51);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testMinimization() {
+        ParallelEPS eps = new ParallelEPS(8);
+        for (int i = 0; i < 2; i++) {
+            eps.addModel(ProblemMaker.makeGolombRuler(7));
+        }
+        Assert.assertTrue(eps.solve());
+        Model ref = eps.getModels().get(0);
+        Assert.assertEquals(eps.getBestSolution().getIntVal((IntVar) ref.getObjective()), 25);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUnsat() {
+        ParallelEPS eps = new ParallelEPS();
+        for (int i = 0; i < 2; i++) {
+            eps.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(3));
+        }
+        Assert.assertFalse(eps.solve());
+        Assert.assertNull(eps.getBestSolution());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testReuse() {
+        try (ParallelEPS eps = new ParallelEPS(10)) {
+            for (int i = 0; i < 3; i++) {
+                eps.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(8));
+            }
+            Assert.assertEquals(eps.findAllSolutions().size(), 92);
+            // the pool of the first resolution is reused
+            Assert.assertEquals(eps.findAllSolutions().size(), 92);
+            eps.close();
+            // and a new one is created after closing
+            Assert.assertEquals(eps.findAllSolutions().size(), 92);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testTimeLimitReset() throws InterruptedException {
+        try (ParallelEPS eps = new ParallelEPS(10)) {
+            for (int i = 0; i < 2; i++) {
+                eps.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(8));
+            }
+            eps.limitTime(1000);
+            Assert.assertEquals(eps.findAllSolutions().size(), 92);
+            Thread.sleep(1000);
+            // the limit applies to each resolution, not since the first one
+            Assert.assertEquals(eps.findAllSolutions().size(), 92);
+            Assert.assertEquals(eps.getSolvedSubproblemCount(), eps.getSubproblemCount());
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testNoModel() {
+        new ParallelEPS().solve();
+    }
+}
@@ -14,8 +14,15 @@ import static org.chocosolver.solver.search.strategy.Search.activityBasedSearch;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.chocosolver.solver.constraints.nary.clauses.ClauseExchange;
+import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.restart.MonotonicRestartStrategy;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ProblemMaker;
@@ -228,4 +235,139 @@ public class PortFolioTest {
             System.gc();
         }
     }
+
+    private static Model pigeons(int p, int h) {
+        Model model = new Model("pigeons");
+        IntVar[] vars = model.intVarArray("p", p, 1, h, false);
+        model.addHook("vars", vars);
+        for (int i = 0; i < p - 1; i++) {
+            for (int j = i + 1; j < p; j++) {
+                model.arithm(vars[i], "!=", vars[j]).post();
+            }
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(vars));
+        solver.setLearningSignedClauses();
+        solver.setLubyRestart(10, new FailCounter(model, 10), 5000);
+        return model;
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testClauseExchange() {
+        ClauseExchange exchange = new ClauseExchange();
+        Model m1 = pigeons(7, 6);
+        Model m2 = pigeons(7, 6);
+        ClauseExchange.Channel c1 = exchange.connect(m1);
+        ClauseExchange.Channel c2 = exchange.connect(m2);
+        Assert.assertNotNull(c1);
+        Assert.assertNotNull(c2);
+        Assert.assertFalse(m1.getSolver().solve());
+        Assert.assertTrue(c1.getNbPublished() > 0);
+        Assert.assertEquals(exchange.getNbPublished(), c1.getNbPublished());
+        Assert.assertFalse(m2.getSolver().solve());
+        Assert.assertTrue(c2.getNbImported() > 0);
+        Assert.assertEquals(c1.getNbImported(), 0);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testClauseExchangeNoLearning() {
+        Model model = ProblemMaker.makeNQueenWithBinaryConstraints(4);
+        Assert.assertNull(new ClauseExchange().connect(model));
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testShareLearntClauses() {
+        ParallelPortfolio pares = new ParallelPortfolio(false);
+        for (int i = 0; i < 4; i++) {
+            pares.addModel(pigeons(7, 6));
+        }
+        pares.shareLearntClauses();
+        Assert.assertFalse(pares.solve());
+        pares = new ParallelPortfolio(false);
+        for (int i = 0; i < 4; i++) {
+            pares.addModel(pigeons(6, 6));
+        }
+        pares.shareLearntClauses();
+        Assert.assertTrue(pares.solve());
+        Model finder = pares.getBestModel();
+        IntVar[] vars = (IntVar[]) finder.getHook("vars");
+        Assert.assertEquals(Arrays.stream(vars).mapToInt(IntVar::getValue).distinct().count(), vars.length);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testStreamImproving() {
+        ParallelPortfolio pares = new ParallelPortfolio();
+        for (int i = 0; i < 4; i++) {
+            pares.addModel(knapsack());
+        }
+        IntVar power = (IntVar) pares.getModels().get(0).getObjective();
+        List<Solution> solutions;
+        try (Stream<Solution> stream = pares.streamSolutions()) {
+            solutions = stream.collect(Collectors.toList());
+        }
+        Assert.assertFalse(solutions.isEmpty());
+        Assert.assertEquals(solutions.stream().mapToInt(s -> s.getIntVal(power)).max().getAsInt(), 51);
+        pares.close();
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testStreamAllSolutions() {
+        int expected = ProblemMaker.makeNQueenWithBinaryConstraints(8).getSolver().findAllSolutions().size();
+        for (boolean conf : new boolean[]{true, false}) {
+            ParallelPortfolio pares = new ParallelPortfolio(conf);
+            for (int i = 0; i < 4; i++) {
+                pares.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(8));
+            }
+            IntVar[] vars = pares.getModels().get(0).retrieveIntVars(true);
+            List<String> solutions;
+            try (Stream<Solution> stream = pares.streamSolutions()) {
+                solutions = stream.map(s -> Arrays.toString(Arrays.stream(vars).mapToInt(s::getIntVal).toArray()))
+                        .collect(Collectors.toList());
+            }
+            Assert.assertEquals(solutions.size(), expected);
+            Assert.assertEquals(solutions.stream().distinct().count(), expected);
+            pares.close();
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testStreamEarlyClose() {
+        ParallelPortfolio pares = new ParallelPortfolio();
+        for (int i = 0; i < 2; i++) {
+            pares.addModel(ProblemMaker.makeNQueenWithBinaryConstraints(10));
+        }
+        pares.setStreamCapacity(1);
+        try (Stream<Solution> stream = pares.streamSolutions()) {
+            Assert.assertEquals(stream.limit(3).count(), 3);
+        }
+        // the portfolio is still usable
+        Assert.assertTrue(pares.solve());
+        pares.close();
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testReuseExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4, r -> {
+            threads.incrementAndGet();
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        });
+        ParallelPortfolio pares = new ParallelPortfolio();
+        pares.setExecutor(executor);
+        for (int i = 0; i < 4; i++) {
+            pares.addModel(knapsack());
+        }
+        int nbSols = 0;
+        while (pares.solve()) {
+            nbSols++;
+        }
+        Assert.assertTrue(nbSols > 0);
+        Assert.assertEquals(threads.get(), 4);
+        Assert.assertEquals(pares.getBestModel().getSolver().getObjectiveManager().getBestSolutionValue(), 51);
+        pares.close();
+        Assert.assertFalse(executor.isShutdown());
+        executor.shutdownNow();
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.ProblemMaker;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class SolutionStoreTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testFindAll() {
+        Model ref = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+        List<Solution> expected = ref.getSolver().findAllSolutions();
+        IntVar[] rvars = (IntVar[]) ref.getHook("vars");
+        for (boolean delta : new boolean[]{false, true}) {
+            Model model = ProblemMaker.makeNQueenWithBinaryConstraints(8);
+            IntVar[] vars = (IntVar[]) model.getHook("vars");
+            SolutionStore store = new SolutionStore(model, vars).setDeltaEncoding(delta);
+            Assert.assertSame(model.getSolver().findAllSolutions(store), store);
+            Assert.assertEquals(store.size(), 92);
+            int k = 0;
+            for (Solution s : store) {
+                for (int i = 0; i < vars.length; i++) {
+                    Assert.assertEquals(s.getIntVal(vars[i]), expected.get(k).getIntVal(rvars[i]));
+                }
+                k++;
+            }
+            // random access
+            int[] row = new int[vars.length];
+            for (int j = store.size() - 1; j >= 0; j -= 7) {
+                store.get(j, row);
+                for (int i = 0; i < vars.length; i++) {
+                    Assert.assertEquals(row[i], expected.get(j).getIntVal(rvars[i]));
+                    Assert.assertEquals(store.getIntVal(j, vars[i]), row[i]);
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testDeltaFootprint() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("x", 20, 0, 1);
+        SolutionStore full = new SolutionStore(model, vars);
+        SolutionStore delta = new SolutionStore(model, vars).setDeltaEncoding(true);
+        int[] row = new int[vars.length];
+        for (int k = 0; k < 1000; k++) {
+            row[k % vars.length] ^= 1;
+            full.add(row);
+            delta.add(row);
+        }
+        Assert.assertTrue(delta.getFootprint() < full.getFootprint() / 3);
+        Iterator<int[]> it1 = full.rowIterator();
+        Iterator<int[]> it2 = delta.rowIterator();
+        while (it1.hasNext()) {
+            Assert.assertEquals(it2.next(), it1.next());
+        }
+        Assert.assertFalse(it2.hasNext());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSpill() throws IOException {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("x", 50, -100, 100);
+        File file = File.createTempFile("solutions", ".bin");
+        file.deleteOnExit();
+        SolutionStore store = new SolutionStore(model, vars).spillTo(file, 1);
+        Random rnd = new Random(0);
+        int[] row = new int[vars.length];
+        int n = 50_000; // 2.5M values, hence 2 mapped segments
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rnd.nextInt(201) - 100;
+            }
+            store.add(row);
+        }
+        Assert.assertTrue(file.length() > 0);
+        rnd = new Random(0);
+        Iterator<int[]> it = store.rowIterator();
+        for (int k = 0; k < n; k++) {
+            int[] r = it.next();
+            for (int i = 0; i < row.length; i++) {
+                Assert.assertEquals(r[i], rnd.nextInt(201) - 100);
+            }
+        }
+        store.close();
+        Assert.assertFalse(file.exists());
+        Assert.assertEquals(store.size(), 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testParetoFront() {
+        Model ref = ProblemMaker.makeGolombRuler(6);
+        ref.clearObjective();
+        List<Solution> expected = ref.getSolver().findParetoFront((IntVar[]) ref.getHook("ticks"), false);
+
+        Model model = ProblemMaker.makeGolombRuler(6);
+        IntVar[] ticks = (IntVar[]) model.getHook("ticks");
+        model.clearObjective();
+        SolutionStore store = new SolutionStore(model, ticks);
+        model.getSolver().findParetoFront(ticks, false, store);
+        Assert.assertEquals(store.size(), expected.size());
+        Set<String> fronts = new HashSet<>();
+        IntVar[] rticks = (IntVar[]) ref.getHook("ticks");
+        for (Solution s : expected) {
+            StringBuilder st = new StringBuilder();
+            for (IntVar t : rticks) {
+                st.append(s.getIntVal(t)).append(',');
+            }
+            fronts.add(st.toString());
+        }
+        Iterator<int[]> it = store.rowIterator();
+        while (it.hasNext()) {
+            StringBuilder st = new StringBuilder();
+            for (int v : it.next()) {
+                st.append(v).append(',');
+            }
+            Assert.assertTrue(fronts.contains(st.toString()), st.toString());
+        }
+    }
+}
@@ -10,6 +10,7 @@
 package org.chocosolver.solver.constraints.nary;
 
 
+import org.chocosolver.solver.DefaultSettings;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -17,10 +18,15 @@ import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
 import static org.chocosolver.util.ESat.FALSE;
 import static org.chocosolver.util.ESat.TRUE;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * <br/>
@@ -201,4 +207,64 @@ public class SatTest {
         assertEquals(solution.getIntVal(var), 2);
 
     }
+
+    private static Model random3SAT(boolean delegate, int n, int m, long seed) {
+        Model model = new Model(new DefaultSettings().setEnableSAT(true).setDelegateToSATSolver(delegate));
+        BoolVar[] x = model.boolVarArray("x", n);
+        Random rnd = new Random(seed);
+        for (int c = 0; c < m; c++) {
+            BoolVar[] pos = new BoolVar[3];
+            BoolVar[] neg = new BoolVar[3];
+            int p = 0, q = 0;
+            for (int j = 0; j < 3; j++) {
+                if (rnd.nextBoolean()) {
+                    pos[p++] = x[rnd.nextInt(n)];
+                } else {
+                    neg[q++] = x[rnd.nextInt(n)];
+                }
+            }
+            model.addClauses(Arrays.copyOf(pos, p), Arrays.copyOf(neg, q));
+        }
+        return model;
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testDelegate1() {
+        Model model = new Model(new DefaultSettings().setEnableSAT(true).setDelegateToSATSolver(true));
+        // 7 pigeons, 6 holes
+        BoolVar[][] x = model.boolVarMatrix("x", 7, 6);
+        for (int i = 0; i < 7; i++) {
+            model.addClauses(x[i], new BoolVar[0]);
+        }
+        for (int j = 0; j < 6; j++) {
+            for (int i1 = 0; i1 < 7; i1++) {
+                for (int i2 = i1 + 1; i2 < 7; i2++) {
+                    model.addClauses(new BoolVar[0], new BoolVar[]{x[i1][j], x[i2][j]});
+                }
+            }
+        }
+        assertFalse(model.getSolver().solve());
+        assertEquals(model.getSolver().isFeasible(), FALSE);
+        assertEquals(model.getSolver().getNodeCount(), 0);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testDelegate2() {
+        Model model = random3SAT(true, 150, 450, 0);
+        assertTrue(model.getSolver().solve());
+        assertEquals(model.getSolver().isSatisfied(), TRUE);
+        // the first solution is reached without backtracking
+        assertEquals(model.getSolver().getFailCount(), 0);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testDelegate3() {
+        for (int seed = 0; seed < 20; seed++) {
+            Model model = random3SAT(false, 12, 50, seed);
+            Model delegated = random3SAT(true, 12, 50, seed);
+            while (model.getSolver().solve()) ;
+            while (delegated.getSolver().solve()) ;
+            assertEquals(delegated.getSolver().getSolutionCount(), model.getSolver().getSolutionCount());
+        }
+    }
 }
@@ -19,12 +19,17 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.extension.MappedTuples;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.constraints.extension.TuplesFactory;
+import org.chocosolver.solver.constraints.extension.TuplesWriter;
+import org.chocosolver.solver.constraints.extension.nary.PropCompactTable;
+import org.chocosolver.solver.constraints.extension.nary.PropCompactTableNeg;
 import org.chocosolver.solver.constraints.extension.nary.TuplesLargeTable;
 import org.chocosolver.solver.constraints.extension.nary.TuplesTable;
 import org.chocosolver.solver.constraints.extension.nary.TuplesVeryLargeTable;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
@@ -32,6 +37,8 @@ import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Random;
 
 import static java.lang.System.out;
@@ -620,4 +627,163 @@ public class TableTest {
 		cp.post(cp.table(new IntVar[]{x0}, t, "STR2+"));
 		cp.getSolver().propagate(); // should trigger an inconsistency
 	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testColumnarTuples() {
+		Tuples tuples = new Tuples(true);
+		for (int i = 0; i < 100; i++) {
+			tuples.add(i % 3, -i, i % 7);
+		}
+		assertEquals(tuples.nbTuples(), 100);
+		assertEquals(tuples.arity(), 3);
+		assertEquals(tuples.get(41), new int[]{2, -41, 6});
+		assertEquals(tuples.get(41, 1), -41);
+		assertEquals(tuples.min(1), -99);
+		assertEquals(tuples.max(2), 6);
+		tuples.sort();
+		int[] prev = tuples.get(0);
+		for (int i = 1; i < 100; i++) {
+			int[] t = tuples.get(i);
+			Assert.assertTrue(prev[0] < t[0] || prev[0] == t[0] && prev[1] < t[1]);
+			prev = t;
+		}
+		Assert.assertSame(tuples.makeImmutable(), tuples);
+		Assert.assertTrue(tuples.isImmutable());
+		Assert.assertThrows(SolverException.class, () -> tuples.add(0, 0, 0));
+		Assert.assertThrows(SolverException.class, tuples::sort);
+		Assert.assertThrows(SolverException.class, () -> tuples.setUniversalValue(-1));
+		// an MDD sorts a copy of immutable tuples
+		Model model = new Model();
+		IntVar[] vars = model.intVarArray("X", 3, -100, 100);
+		model.table(vars, tuples, "MDD+").post();
+		assertEquals(model.getSolver().findAllSolutions().size(), 100);
+	}
+
+	private static class SharingCT extends PropCompactTable {
+		SharingCT(IntVar[] vars, Tuples tuples) {
+			super(vars, tuples);
+		}
+
+		long[][][] supports() {
+			return supports;
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testSharedSupports() {
+		Tuples tuples = TuplesFactory.allDifferent(new Model().intVarArray("X", 4, 0, 4));
+		tuples.makeImmutable();
+		long[][][] supports = null;
+		for (int k = 0; k < 3; k++) {
+			Model model = new Model();
+			IntVar[] vars = model.intVarArray("X", 4, 0, 4);
+			SharingCT p1 = new SharingCT(vars, tuples);
+			SharingCT p2 = new SharingCT(new IntVar[]{vars[1], vars[2], vars[3], vars[0]}, tuples);
+			new Constraint("CT", p1).post();
+			new Constraint("CT", p2).post();
+			if (supports == null) {
+				supports = p1.supports();
+			}
+			Assert.assertSame(p1.supports(), supports);
+			Assert.assertSame(p2.supports(), supports);
+			// different initial domains, different supports
+			IntVar[] others = new Model().intVarArray("Y", 4, 0, 3);
+			Assert.assertNotSame(new SharingCT(others, tuples).supports(), supports);
+			assertEquals(model.getSolver().findAllSolutions().size(), 120);
+		}
+		// mutable tuples are not shared
+		Tuples mutable = new Tuples(tuples.toMatrix(), true);
+		Model model = new Model();
+		IntVar[] vars = model.intVarArray("X", 4, 0, 4);
+		Assert.assertNotSame(new SharingCT(vars, mutable).supports(), new SharingCT(vars, mutable).supports());
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testMappedTuples() throws IOException {
+		Tuples tuples = TuplesFactory.allDifferent(new Model().intVarArray("X", 4, 0, 5));
+		File file = File.createTempFile("table", ".bin");
+		file.deleteOnExit();
+		TuplesWriter.write(tuples, file);
+		// small segments, to check tuples spanning several of them
+		MappedTuples mapped = new MappedTuples(file, 4 * 4 * 7);
+		Assert.assertTrue(mapped.isImmutable());
+		Assert.assertTrue(mapped.isFeasible());
+		assertEquals(mapped.nbTuples(), tuples.nbTuples());
+		assertEquals(mapped.arity(), 4);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(mapped.min(i), tuples.min(i));
+			assertEquals(mapped.max(i), tuples.max(i));
+		}
+		assertEquals(mapped.toMatrix(), tuples.toMatrix());
+		for (String a : new String[]{"CT+", "GAC3rm", "GACSTR+", "MDD+"}) {
+			Model model = new Model();
+			IntVar[] vars = model.intVarArray("X", 4, 0, 5);
+			model.table(vars, mapped, a).post();
+			assertEquals(model.getSolver().findAllSolutions().size(), 360, a);
+		}
+		Assert.assertThrows(SolverException.class, () -> mapped.add(0, 1, 2, 3));
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testMappedShortTuples() throws IOException {
+		File file = File.createTempFile("table", ".bin");
+		file.deleteOnExit();
+		try (TuplesWriter writer = new TuplesWriter(file, 3, true)) {
+			writer.setUniversalValue(-1);
+			writer.add(0, -1, 1);
+			writer.add(1, 1, -1);
+			writer.add(2, 2, 2);
+			assertEquals(writer.nbTuples(), 3);
+		}
+		Tuples mapped = new MappedTuples(file);
+		Assert.assertTrue(mapped.allowUniversalValue());
+		assertEquals(mapped.getStarValue(), -1);
+		Model model = new Model();
+		IntVar[] vars = model.intVarArray("X", 3, 0, 2);
+		model.table(vars, mapped).post();
+		assertEquals(model.getSolver().findAllSolutions().size(), 7);
+		Assert.assertThrows(SolverException.class, () -> new MappedTuples(File.createTempFile("table", ".bin")));
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testCompactTableNeg() {
+		int[][] params = {{3, 1, 3}, {4, 2, 5}, {5, -1, 2}};
+		Random rnd = new Random();
+		for (int[] param : params) {
+			for (long seed = 0; seed < 10; seed++) {
+				rnd.setSeed(seed);
+				int ratio = 1 + rnd.nextInt(9);
+				Tuples tuples = generateTuples(values -> rnd.nextInt(10) < ratio, false,
+						new Model().intVarArray("v", param[0], param[1], param[2]));
+				// duplicates and invalid tuples
+				if (tuples.nbTuples() > 0) {
+					tuples.add(tuples.get(0));
+				}
+				int[] out = new int[param[0]];
+				out[0] = param[2] + 1;
+				tuples.add(out);
+				long[][] counts = new long[2][];
+				String[] algos = {"GAC3rm", "CT-"};
+				for (int a = 0; a < algos.length; a++) {
+					Model model = new Model();
+					IntVar[] vars = model.intVarArray("v", param[0], param[1], param[2], false);
+					model.table(vars, tuples, algos[a]).post();
+					model.getSolver().setSearch(randomSearch(vars, seed));
+					long nbs = model.getSolver().streamSolutions().count();
+					counts[a] = new long[]{nbs, model.getSolver().getNodeCount()};
+				}
+				assertEquals(counts[1], counts[0], "seed " + seed);
+				// bounded domains
+				Model model = new Model();
+				IntVar[] vars = model.intVarArray("v", param[0], param[1], param[2], true);
+				model.table(vars, tuples, "CT-").post();
+				assertEquals(model.getSolver().streamSolutions().count(), counts[0][0]);
+			}
+		}
+		Model model = new Model();
+		IntVar[] vars = model.intVarArray("v", 3, 0, 3);
+		Assert.assertTrue(model.table(vars, new Tuples(new int[][]{{0, 0, 0}}, false))
+				.getPropagator(0) instanceof PropCompactTableNeg);
+		Assert.assertThrows(SolverException.class, () -> model.table(vars, new Tuples(new int[][]{{0, 0, 0}}, true), "CT-"));
+	}
 }
\ No newline at end of file
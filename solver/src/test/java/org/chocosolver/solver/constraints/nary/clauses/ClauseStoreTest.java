@@ -0,0 +1,180 @@
+/*
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2019, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ *
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.clauses;
+
+import org.chocosolver.cutoffseq.LubyCutoffStrategy;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static org.chocosolver.solver.Cause.Null;
+import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+
+/**
+ * <p> Project: choco-solver.
+ *
+ * @author Charles Prud'homme
+ * @since 4.10.3
+ */
+public class ClauseStoreTest {
+
+    private static IntIterableRangeSet r(int a, int b) {
+        return new IntIterableRangeSet(a, b);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testInprocessing() throws ContradictionException {
+        Model model = new Model();
+        model.getSettings().setLearntClausesInprocessingPeriod(1);
+        IntVar x = model.intVar("x", 0, 5);
+        IntVar y = model.intVar("y", 0, 5);
+        IntVar z = model.intVar("z", 0, 5);
+        ClauseConstraint cc = model.getClauseConstraint();
+        ClauseStore store = cc.getClauseStore();
+        model.getSolver().propagate();
+        // added after initial propagation, hence as learnt clauses
+        cc.addClause(new IntVar[]{x, y}, new IntIterableRangeSet[]{r(0, 1), r(0, 1)});
+        // subsumed by the first one
+        cc.addClause(new IntVar[]{x, y, z}, new IntIterableRangeSet[]{r(0, 2), r(0, 3), r(0, 0)});
+        // strengthened into (y in [0,1]) or (z in [2,3]) by resolution on x with the first one
+        cc.addClause(new IntVar[]{x, y, z}, new IntIterableRangeSet[]{r(3, 5), r(0, 1), r(2, 3)});
+        // unrelated
+        cc.addClause(new IntVar[]{x, z}, new IntIterableRangeSet[]{r(5, 5), r(5, 5)});
+        Assert.assertEquals(store.getNbLearntClauses(), 4);
+        store.forget();
+        Assert.assertEquals(store.getNbLearntClauses(), 3);
+        int expected = 0;
+        for (int a = 0; a < 6; a++) {
+            for (int b = 0; b < 6; b++) {
+                for (int c = 0; c < 6; c++) {
+                    if ((a <= 1 || b <= 1) && (b <= 1 || (c >= 2 && c <= 3)) && (a == 5 || c == 5)) {
+                        expected++;
+                    }
+                }
+            }
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(x, y, z));
+        while (solver.solve()) {
+            Assert.assertTrue(x.getValue() <= 1 || y.getValue() <= 1);
+            Assert.assertTrue(y.getValue() <= 1 || (z.getValue() >= 2 && z.getValue() <= 3));
+            Assert.assertTrue(x.getValue() == 5 || z.getValue() == 5);
+        }
+        Assert.assertEquals(solver.getSolutionCount(), expected);
+    }
+
+    private static long latinSquares(int m, boolean learn) {
+        Model model = new Model();
+        model.getSettings().setNbMaxLearntClauses(16);
+        model.getSettings().setLearntClausesInprocessingPeriod(4);
+        IntVar[] vars = model.intVarArray("c", m * m, 0, m - 1, false);
+        for (int i = 0; i < m; i++) {
+            IntVar[] row = new IntVar[m];
+            IntVar[] col = new IntVar[m];
+            for (int x = 0; x < m; x++) {
+                row[x] = vars[i * m + x];
+                col[x] = vars[x * m + i];
+            }
+            model.allDifferent(col, "FC").post();
+            model.allDifferent(row, "FC").post();
+        }
+        // the first row is fixed to break symmetries
+        for (int x = 0; x < m; x++) {
+            model.arithm(vars[x], "=", x).post();
+        }
+        Solver solver = model.getSolver();
+        solver.setSearch(inputOrderLBSearch(vars));
+        if (learn) {
+            solver.setLearningSignedClauses();
+            solver.setRestarts(count -> solver.getFailCount() >= count, new LubyCutoffStrategy(4), 1000);
+        }
+        return solver.streamSolutions().count();
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testTiersAndInprocessing() {
+        for (int m = 3; m < 5; m++) {
+            Assert.assertEquals(latinSquares(m, true), latinSquares(m, false), "m = " + m);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testUpperBoundScan() throws ContradictionException {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 10);
+        IntVar y = model.intVar("y", 0, 1);
+        ClauseConstraint cc = model.getClauseConstraint();
+        ClauseStore store = cc.getClauseStore();
+        cc.addClause(new IntVar[]{x, y}, new IntIterableRangeSet[]{r(0, 9), r(0, 0)});
+        cc.addClause(new IntVar[]{x, y}, new IntIterableRangeSet[]{r(5, 6), r(1, 1)});
+        Solver solver = model.getSolver();
+        solver.propagate();
+        Assert.assertEquals(store.getNbUndecidedLiterals(x), 2);
+        model.getEnvironment().worldPush();
+        x.updateUpperBound(8, Null);
+        solver.propagate();
+        // x in [0,9] is true, even though it starts before x in [5,6], which is not decided
+        Assert.assertEquals(store.getNbUndecidedLiterals(x), 1);
+        model.getEnvironment().worldPop();
+        Assert.assertEquals(store.getNbUndecidedLiterals(x), 2);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testBoundScans() throws ContradictionException {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 10);
+        IntVar y = model.intVar("y", 0, 1);
+        IntVar z = model.intVar("z", 0, 1);
+        ClauseConstraint cc = model.getClauseConstraint();
+        cc.addClause(new IntVar[]{x, y}, new IntIterableRangeSet[]{r(0, 4), r(0, 0)});
+        cc.addClause(new IntVar[]{x, z}, new IntIterableRangeSet[]{r(7, 10), r(0, 0)});
+        Solver solver = model.getSolver();
+        IEnvironment env = model.getEnvironment();
+        solver.propagate();
+        env.worldPush();
+        x.updateBounds(2, 8, Null);
+        solver.propagate();
+        Assert.assertFalse(y.isInstantiated());
+        Assert.assertFalse(z.isInstantiated());
+        // x in [0,4] starts below the previous lower bound, but ends below the new one
+        env.worldPush();
+        x.updateLowerBound(6, Null);
+        solver.propagate();
+        Assert.assertTrue(y.isInstantiatedTo(0));
+        Assert.assertFalse(z.isInstantiated());
+        env.worldPop();
+        // the previous lower bound is restored on backtrack
+        env.worldPush();
+        x.updateLowerBound(5, Null);
+        solver.propagate();
+        Assert.assertTrue(y.isInstantiatedTo(0));
+        Assert.assertFalse(z.isInstantiated());
+        env.worldPop();
+        // x in [7,10] ends above the previous upper bound, but starts above the new one
+        env.worldPush();
+        x.updateUpperBound(5, Null);
+        solver.propagate();
+        Assert.assertTrue(z.isInstantiatedTo(0));
+        Assert.assertFalse(y.isInstantiated());
+        env.worldPop();
+        // the previous upper bound is restored on backtrack
+        env.worldPush();
+        x.updateUpperBound(6, Null);
+        solver.propagate();
+        Assert.assertTrue(z.isInstantiatedTo(0));
+        Assert.assertFalse(y.isInstantiated());
+        env.worldPop();
+    }
+}
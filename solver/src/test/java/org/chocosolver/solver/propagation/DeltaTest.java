@@ -9,6 +9,7 @@
  */
 package org.chocosolver.solver.propagation;
 
+import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
@@ -20,6 +21,8 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.delta.EnumDelta;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.impl.BitsetIntVarImpl;
+import org.chocosolver.solver.variables.impl.SparseSetIntVarImpl;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.testng.Assert;
@@ -48,6 +51,60 @@ public class DeltaTest {
         }
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testRemRange() throws ContradictionException {
+        Model model = new Model();
+        IntVar[] vars = new IntVar[]{
+                model.intVar("X", 0, 100_000, false),
+                new BitsetIntVarImpl("Y", 0, 100_000, model),
+                new SparseSetIntVarImpl("Z", 0, 100_000, model)};
+        for (IntVar x : vars) {
+            IIntDeltaMonitor d = x.monitorDelta(Cause.Null);
+            x.updateLowerBound(50_000, Null);
+            x.removeInterval(60_000, 60_009, Null);
+            x.updateUpperBound(99_999, Null);
+            d.freeze();
+            Assert.assertEquals(d.sizeApproximation(), 50_011);
+            TIntArrayList ranges = new TIntArrayList();
+            d.forEachRemRange((from, to) -> {
+                for (int v = from; v <= to; v++) {
+                    ranges.add(v);
+                }
+            });
+            ranges.sort();
+            Assert.assertEquals(ranges.size(), 50_011);
+            Assert.assertEquals(ranges.get(50_000), 60_000);
+            Assert.assertEquals(ranges.get(50_010), 100_000);
+            int[] count = new int[1];
+            d.forEachRemVal((IntProcedure) v -> count[0]++);
+            Assert.assertEquals(count[0], 50_011);
+            d.unfreeze();
+            x.removeValue(70_000, Null);
+            d.freeze();
+            Assert.assertEquals(d.sizeApproximation(), 1);
+            d.unfreeze();
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRemRangeBitset() throws ContradictionException {
+        Model model = new Model();
+        IntVar x = new BitsetIntVarImpl("X", 0, 100_000, model);
+        IIntDeltaMonitor d = x.monitorDelta(Cause.Null);
+        x.updateLowerBound(50_000, Null);
+        x.removeInterval(60_000, 60_009, Null);
+        x.updateUpperBound(99_999, Null);
+        d.freeze();
+        TIntArrayList ranges = new TIntArrayList();
+        d.forEachRemRange((from, to) -> {
+            ranges.add(from);
+            ranges.add(to);
+        });
+        // each modification is published as a single range
+        Assert.assertEquals(ranges.toArray(), new int[]{0, 49_999, 60_000, 60_009, 100_000, 100_000});
+        d.unfreeze();
+    }
+
     @Test(groups="1s", timeOut=60000)
     public void testEq() throws ContradictionException {
         Model model = new Model();
@@ -22,6 +22,8 @@ import org.chocosolver.util.ProblemMaker;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
 import static java.util.Arrays.sort;
 import static org.chocosolver.solver.Cause.Null;
 import static org.chocosolver.solver.constraints.PropagatorPriority.UNARY;
@@ -210,4 +212,151 @@ public class PropEngineTest {
         solver.getEngine().clear();
         solver.reset(); // error (null)
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testProfiler() {
+        Model model = makeNQueenWithBinaryConstraints(8);
+        Solver solver = model.getSolver();
+        Assert.assertNull(solver.getPropagationProfiler());
+        Assert.assertFalse(solver.getEngine() instanceof ProfilingPropagationEngine);
+        PropagationProfiler profiler = solver.profilePropagation();
+        Assert.assertTrue(solver.getEngine() instanceof ProfilingPropagationEngine);
+        Assert.assertSame(solver.profilePropagation(), profiler);
+        assertEquals(solver.findAllSolutions().size(), 92);
+        Assert.assertTrue(profiler.getFixpointCount() > 0);
+        Assert.assertTrue(profiler.getFixpointFailures() > 0);
+        Assert.assertTrue(profiler.getFixpointFailures() <= solver.getFailCount());
+        List<PropagationProfiler.Entry> props = profiler.getPropagatorReport(PropagationProfiler.Entry.BY_TIME);
+        assertEquals(props.size(), model.getNbCstrs());
+        for (int i = 1; i < props.size(); i++) {
+            Assert.assertTrue(props.get(i - 1).getTime() >= props.get(i).getTime());
+        }
+        long failures = props.stream().mapToLong(PropagationProfiler.Entry::getFailures).sum();
+        assertEquals(failures, profiler.getFixpointFailures());
+        Assert.assertTrue(props.stream().mapToLong(PropagationProfiler.Entry::getModifications).sum() > 0);
+        List<PropagationProfiler.Entry> classes = profiler.getClassReport(PropagationProfiler.Entry.BY_CALLS);
+        long calls = props.stream().mapToLong(e -> e.getCoarseCalls() + e.getFineCalls()).sum();
+        assertEquals(classes.stream().mapToLong(e -> e.getCoarseCalls() + e.getFineCalls()).sum(), calls);
+        StringBuilder csv = new StringBuilder();
+        profiler.toCSV(csv);
+        assertEquals(csv.toString().split("\n").length, props.size() + 1);
+        StringBuilder json = new StringBuilder();
+        profiler.toJSON(json);
+        Assert.assertTrue(json.toString().startsWith("{\"fixpoints\":" + profiler.getFixpointCount()));
+        profiler.reset();
+        assertEquals(profiler.getFixpointCount(), 0);
+        Assert.assertTrue(profiler.getPropagatorReport(PropagationProfiler.Entry.BY_TIME).isEmpty());
+    }
+
+    private static IntVar stepper(boolean idempotent) throws ContradictionException {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 10);
+        new Constraint("step", new Propagator<IntVar>(new IntVar[]{x}) {
+            @Override
+            public void propagate(int evtmask) throws ContradictionException {
+                // one step at a time, up to 5
+                if (vars[0].getLB() < 5) {
+                    vars[0].updateLowerBound(vars[0].getLB() + 1, this);
+                }
+            }
+
+            @Override
+            public boolean isIdempotent() {
+                return idempotent;
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return ESat.UNDEFINED;
+            }
+        }).post();
+        model.getSolver().propagate();
+        return x;
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testIdempotence() throws ContradictionException {
+        assertEquals(stepper(true).getLB(), 1);
+        assertEquals(stepper(false).getLB(), 5);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testCoalescing() throws ContradictionException {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 10);
+        IntVar y = model.intVar("y", 0, 10);
+        model.arithm(x, "<=", y).post();
+        Solver solver = model.getSolver();
+        solver.propagate();
+        PropagationProfiler profiler = solver.profilePropagation();
+        model.getEnvironment().worldPush();
+        // three modifications of y, one single event
+        y.updateUpperBound(9, Null);
+        y.updateUpperBound(8, Null);
+        y.removeValue(3, Null);
+        solver.propagate();
+        assertEquals(x.getUB(), 8);
+        PropagationProfiler.Entry e = profiler.getPropagatorReport(PropagationProfiler.Entry.BY_TIME).get(0);
+        assertEquals(e.getCoarseCalls() + e.getFineCalls(), 1);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testProfiledModifications() throws ContradictionException {
+        Model model = new Model();
+        IntVar x = model.intVar("x", 0, 10);
+        new Constraint("twice", new Propagator<IntVar>(new IntVar[]{x}) {
+            @Override
+            public void propagate(int evtmask) throws ContradictionException {
+                // two modifications of x, merged into one queued event
+                vars[0].updateLowerBound(2, this);
+                vars[0].updateUpperBound(8, this);
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return ESat.UNDEFINED;
+            }
+        }).post();
+        Solver solver = model.getSolver();
+        PropagationProfiler profiler = solver.profilePropagation();
+        solver.propagate();
+        PropagationProfiler.Entry e = profiler.getPropagatorReport(PropagationProfiler.Entry.BY_TIME).get(0);
+        assertEquals(e.getModifications(), 2);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testComponents1() {
+        for (boolean split : new boolean[]{false, true}) {
+            Model model = makeNQueenWithBinaryConstraints(6);
+            model.getSettings().setSplitInitialPropagationIntoComponents(split);
+            IntVar[] xs = model.intVarArray("x", 3, 0, 3);
+            model.allDifferent(xs).post();
+            IntVar b = model.intVar("b", 0, 4);
+            model.sum(new IntVar[]{xs[0], model.intOffsetView(b, 1)}, "=", 4).post();
+            assertEquals(model.getSolver().findAllSolutions().size(), 4 * 24);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testComponents2() {
+        Model model = new Model();
+        model.getSettings().setSplitInitialPropagationIntoComponents(true);
+        IntVar x = model.intVar("x", 0, 10);
+        IntVar y = model.intVar("y", 0, 10);
+        IntVar u = model.intVar("u", 0, 10);
+        model.arithm(x, "<", y).post();
+        model.sum(new IntVar[]{x, y, u}, "=", 12).post();
+        IntVar z = model.intVar("z", 0, 5);
+        IntVar w = model.intVar("w", 0, 5);
+        model.arithm(z, "<", w).post();
+        model.arithm(w, "<", z).post();
+        try {
+            model.getSolver().propagate();
+            fail();
+        } catch (ContradictionException ignored) {
+        }
+        // the failing component is propagated first, the other one is left untouched
+        assertEquals(x.getUB(), 10);
+        assertEquals(y.getLB(), 0);
+    }
 }
@@ -9,17 +9,20 @@
  */
 package org.chocosolver.solver.variables.fast;
 
+import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.impl.BitsetIntVarImpl;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
 import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSetUtils;
+import org.chocosolver.util.procedure.IntProcedure;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -748,6 +751,57 @@ public class BitsetIntVarImplTest {
         Assert.assertEquals(IntIterableSetUtils.extract(x), check);
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testDeltaRemoveValues() throws ContradictionException {
+        Model model = new Model();
+        IntVar x = new BitsetIntVarImpl("X", 0, 99, model);
+        IIntDeltaMonitor d = x.monitorDelta(Cause.Null);
+        IntIterableRangeSet values = new IntIterableRangeSet(0, 9);
+        values.addBetween(20, 29);
+        values.add(40);
+        values.addBetween(95, 120);
+        Assert.assertTrue(x.removeValues(values, Cause.Null));
+        Assert.assertEquals(x.getLB(), 10);
+        Assert.assertEquals(x.getUB(), 94);
+        Assert.assertEquals(x.getDomainSize(), 74);
+        d.freeze();
+        TIntArrayList remvals = new TIntArrayList();
+        d.forEachRemVal((IntProcedure) remvals::add);
+        d.unfreeze();
+        remvals.sort();
+        IntIterableRangeSet removed = new IntIterableRangeSet();
+        remvals.forEach(v -> { removed.add(v); return true;});
+        Assert.assertEquals(remvals.size(), 26);
+        values.retainBetween(0, 99);
+        Assert.assertEquals(removed, values);
+        Assert.assertFalse(x.removeValues(values, Cause.Null));
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testDeltaRemoveAllValuesBut() throws ContradictionException {
+        Model model = new Model();
+        IntVar x = new BitsetIntVarImpl("X", 0, 99, model);
+        IIntDeltaMonitor d = x.monitorDelta(Cause.Null);
+        IntIterableRangeSet values = new IntIterableRangeSet(10, 19);
+        values.addBetween(30, 39);
+        values.add(50);
+        Assert.assertTrue(x.removeAllValuesBut(values, Cause.Null));
+        Assert.assertEquals(IntIterableSetUtils.extract(x), values);
+        d.freeze();
+        TIntArrayList remvals = new TIntArrayList();
+        d.forEachRemVal((IntProcedure) remvals::add);
+        d.unfreeze();
+        Assert.assertEquals(remvals.size(), 79);
+        for (int i = 0; i < remvals.size(); i++) {
+            Assert.assertFalse(values.contains(remvals.get(i)));
+        }
+        Assert.assertFalse(x.removeAllValuesBut(values, Cause.Null));
+        values.remove(50);
+        values.removeBetween(12, 35);
+        Assert.assertTrue(x.removeAllValuesBut(values, Cause.Null));
+        Assert.assertEquals(IntIterableSetUtils.extract(x), values);
+    }
+
     @Test(groups = "10s", timeOut = 120000)
     public void testRAL1() throws ContradictionException {
         int ub = 115200;
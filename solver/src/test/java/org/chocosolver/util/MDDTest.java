@@ -13,11 +13,13 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.extension.Tuples;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.MDDBuilder;
 import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 /**
  * Created by cprudhom on 04/11/14.
@@ -198,4 +200,74 @@ public class MDDTest {
         Assert.assertEquals(mdd.getDiagram(), new int[]{3, 3, 11, 0, 0, 6, 0, 0, -1, 0, 0, 6, 0, 0});
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testBuilder1() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("X", 4, 0, 2, false);
+        MDDBuilder builder = new MDDBuilder(vars);
+        Assert.assertTrue(builder.add(0, 0, 0, 0));
+        Assert.assertTrue(builder.add(0, 0, 0, 1));
+        Assert.assertFalse(builder.add(0, 0, 0, 1));
+        Assert.assertTrue(builder.add(0, 0, 1, 0));
+        Assert.assertTrue(builder.add(0, 0, 1, 1));
+        Assert.assertFalse(builder.add(0, 0, 1, 3));
+        Assert.assertTrue(builder.add(0, 1, 0, 0));
+        Assert.assertTrue(builder.add(0, 1, 0, 1));
+        Assert.assertTrue(builder.add(0, 1, 1, 0));
+        Assert.assertTrue(builder.add(0, 1, 1, 1));
+        Assert.assertTrue(builder.add(2, 2, 2, 2));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.add(1, 2, 2, 2));
+        MultivaluedDecisionDiagram mdd = builder.build();
+        Assert.assertEquals(mdd.getDiagram(), new int[]{9, 0, 18, -1, -1, 0, 3, 3, 0, 6, 6, 0, 0, 0, -1, 0, 0, 12, 0, 0, 15});
+        Assert.assertTrue(mdd.exists(0, 1, 1, 0));
+        Assert.assertFalse(mdd.exists(1, 1, 1, 0));
+        Assert.assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testBuilder2() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("X", 4, 0, 2, false);
+        Assert.assertEquals(MDDBuilder.build(vars, new Tuples()).getDiagram(), new int[]{0, 0, 0});
+        Tuples tuples = new Tuples();
+        tuples.add(0, 1, 0, 1);
+        tuples.add(0, 0, 0, 0);
+        MultivaluedDecisionDiagram mdd = MDDBuilder.build(vars, tuples);
+        Assert.assertTrue(mdd.exists(0, 1, 0, 1));
+        Assert.assertTrue(mdd.exists(0, 0, 0, 0));
+        Assert.assertFalse(mdd.exists(0, 0, 0, 1));
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testBuilderRandom() {
+        Random rnd = new Random(0);
+        for (int k = 0; k < 20; k++) {
+            Model model = new Model();
+            IntVar[] vars = model.intVarArray("X", 4, -1, 3, false);
+            Tuples tuples = new Tuples();
+            for (int t = 0; t < 300; t++) {
+                tuples.add(rnd.nextInt(5) - 1, rnd.nextInt(5) - 1, rnd.nextInt(3), rnd.nextInt(2));
+            }
+            MultivaluedDecisionDiagram expected = new MultivaluedDecisionDiagram(vars, tuples);
+            MultivaluedDecisionDiagram mdd = MDDBuilder.build(vars, tuples);
+            Assert.assertTrue(mdd.getDiagram().length <= expected.getDiagram().length);
+            for (int[] tuple : tuples.toMatrix()) {
+                Assert.assertTrue(mdd.exists(tuple));
+            }
+            int[] path = new int[4];
+            for (int i = 0; i < 625; i++) {
+                for (int j = 0, r = i; j < 4; j++, r /= 5) {
+                    path[j] = r % 5 - 1;
+                }
+                Assert.assertEquals(mdd.exists(path), expected.exists(path));
+            }
+            model.mddc(vars, mdd).post();
+            Model model2 = new Model();
+            IntVar[] vars2 = model2.intVarArray("X", 4, -1, 3, false);
+            model2.table(vars2, tuples, "CT+").post();
+            Assert.assertEquals(model.getSolver().findAllSolutions().size(),
+                    model2.getSolver().findAllSolutions().size());
+        }
+    }
+
 }